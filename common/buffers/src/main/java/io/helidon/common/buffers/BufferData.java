@@ -427,6 +427,19 @@ public interface BufferData {
      */
     int writeTo(ByteBuffer writeBuffer, int length);
 
+    /**
+     * Read all available bytes of this buffer as a byte buffer, for example to be used in a gathering write.
+     * Buffers backed by a single array wrap it without copying, other buffers copy the available bytes.
+     * All available bytes are consumed by this method.
+     *
+     * @return byte buffer with available bytes of this buffer
+     */
+    default ByteBuffer readByteBuffer() {
+        byte[] bytes = new byte[available()];
+        read(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
     /**
      * Write the byte array to this buffer.
      *
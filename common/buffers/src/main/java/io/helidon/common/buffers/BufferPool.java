@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.buffers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of byte arrays that can be borrowed and returned, to limit allocation of short-lived buffers.
+ * <p>
+ * Arrays are kept in size classes (powers of two between {@link Builder#minBufferSize(int)} and
+ * {@link Builder#maxBufferSize(int)}). Each size class is striped by thread, and each stripe is a fixed array of slots,
+ * so borrowing and releasing is lock-free and does not allocate. When a stripe is empty, a new array is allocated; when
+ * a stripe is full, the released array is left for garbage collection.
+ * <p>
+ * Arrays must be released exactly once, and must not be used after release. With {@link Builder#leakDetection(boolean)}
+ * enabled (intended for tests), the pool tracks all borrowed arrays and fails on invalid release, and
+ * {@link #checkLeaks()} reports arrays that were not released.
+ */
+public final class BufferPool {
+    private static final int SLOTS_PER_STRIPE = 16;
+
+    private final SizeClass[] sizeClasses;
+    private final int minBufferSize;
+    private final int maxBufferSize;
+    private final Map<byte[], Throwable> outstanding;
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Stats stats = new StatsImpl();
+
+    private BufferPool(Builder builder) {
+        this.minBufferSize = builder.minBufferSize;
+        this.maxBufferSize = builder.maxBufferSize;
+        this.outstanding = builder.leakDetection ? new ConcurrentHashMap<>() : null;
+
+        int stripes = builder.stripes <= 1 ? 1 : Integer.highestOneBit(builder.stripes - 1) << 1;
+        int count = Integer.numberOfTrailingZeros(maxBufferSize) - Integer.numberOfTrailingZeros(minBufferSize) + 1;
+        this.sizeClasses = new SizeClass[count];
+        for (int i = 0; i < count; i++) {
+            sizeClasses[i] = new SizeClass(minBufferSize << i, stripes);
+        }
+    }
+
+    /**
+     * A new builder.
+     *
+     * @return builder to configure a buffer pool
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a buffer pool with default configuration.
+     *
+     * @return a new buffer pool
+     */
+    public static BufferPool create() {
+        return builder().build();
+    }
+
+    /**
+     * Borrow an array of at least the requested size.
+     * The array content is undefined (may contain data of previous borrower).
+     *
+     * @param minSize minimal size of the array
+     * @return array that must be returned using {@link #release(byte[])}
+     */
+    public byte[] borrow(int minSize) {
+        borrowed.increment();
+        byte[] result;
+        if (minSize <= maxBufferSize) {
+            SizeClass sizeClass = sizeClasses[sizeClassIndex(minSize)];
+            result = sizeClass.borrow();
+            if (result == null) {
+                result = allocate(sizeClass.size);
+            }
+        } else {
+            result = allocate(minSize);
+        }
+        if (outstanding != null) {
+            outstanding.put(result, new Throwable("Buffer of " + result.length + " bytes borrowed"));
+        }
+        return result;
+    }
+
+    /**
+     * Return an array to this pool.
+     *
+     * @param buffer array previously obtained from {@link #borrow(int)}
+     */
+    public void release(byte[] buffer) {
+        if (outstanding != null && outstanding.remove(buffer) == null) {
+            throw new IllegalStateException("Released a buffer that is not borrowed from this pool (double release?)");
+        }
+        released.increment();
+        int length = buffer.length;
+        if (length < minBufferSize || length > maxBufferSize || Integer.bitCount(length) != 1) {
+            dropped.increment();
+            return;
+        }
+        if (!sizeClasses[sizeClassIndex(length)].release(buffer)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Statistics of this pool.
+     *
+     * @return pool statistics
+     */
+    public Stats stats() {
+        return stats;
+    }
+
+    /**
+     * Check that all borrowed buffers were released. Only works with leak detection enabled.
+     *
+     * @throws java.lang.IllegalStateException in case there are buffers that were not released, the cause is the location
+     *                                         where one of the buffers was borrowed
+     */
+    public void checkLeaks() {
+        if (outstanding == null) {
+            throw new IllegalStateException("Leak detection is not enabled for this pool");
+        }
+        if (outstanding.isEmpty()) {
+            return;
+        }
+        IllegalStateException e = new IllegalStateException(outstanding.size() + " buffer(s) were not released");
+        for (Throwable borrowSite : outstanding.values()) {
+            e.addSuppressed(borrowSite);
+        }
+        throw e;
+    }
+
+    private byte[] allocate(int size) {
+        allocated.increment();
+        allocatedBytes.add(size);
+        return new byte[size];
+    }
+
+    private int sizeClassIndex(int size) {
+        if (size <= minBufferSize) {
+            return 0;
+        }
+        // round up to the next power of two
+        int rounded = Integer.highestOneBit(size - 1) << 1;
+        return Integer.numberOfTrailingZeros(rounded) - Integer.numberOfTrailingZeros(minBufferSize);
+    }
+
+    /**
+     * Statistics of a buffer pool.
+     */
+    public interface Stats {
+        /**
+         * Number of arrays borrowed from the pool.
+         *
+         * @return borrow count
+         */
+        long borrowed();
+
+        /**
+         * Number of arrays returned to the pool.
+         *
+         * @return release count
+         */
+        long released();
+
+        /**
+         * Number of arrays allocated because the pool could not provide one.
+         *
+         * @return allocation count
+         */
+        long allocated();
+
+        /**
+         * Number of bytes allocated because the pool could not provide an array.
+         *
+         * @return allocated bytes
+         */
+        long allocatedBytes();
+
+        /**
+         * Number of arrays returned to the pool that were not retained (pool was full, or size is not pooled).
+         *
+         * @return dropped count
+         */
+        long dropped();
+
+        /**
+         * Number of arrays currently borrowed and not yet released.
+         *
+         * @return outstanding count
+         */
+        default long outstanding() {
+            return borrowed() - released();
+        }
+    }
+
+    /**
+     * Fluent API builder for {@link io.helidon.common.buffers.BufferPool}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<Builder, BufferPool> {
+        private int minBufferSize = 1024;
+        private int maxBufferSize = 64 * 1024;
+        private int stripes = Runtime.getRuntime().availableProcessors();
+        private boolean leakDetection;
+
+        private Builder() {
+        }
+
+        @Override
+        public BufferPool build() {
+            if (Integer.bitCount(minBufferSize) != 1 || Integer.bitCount(maxBufferSize) != 1) {
+                throw new IllegalArgumentException("Buffer sizes must be a power of two, but min is " + minBufferSize
+                                                           + ", and max is " + maxBufferSize);
+            }
+            if (minBufferSize > maxBufferSize) {
+                throw new IllegalArgumentException("Minimal buffer size " + minBufferSize + " is bigger than maximal "
+                                                           + "buffer size " + maxBufferSize);
+            }
+            return new BufferPool(this);
+        }
+
+        /**
+         * Size of the smallest size class, must be a power of two.
+         * Smaller requests are served from this size class. Defaults to {@code 1024}.
+         *
+         * @param minBufferSize minimal pooled buffer size
+         * @return updated builder
+         */
+        public Builder minBufferSize(int minBufferSize) {
+            this.minBufferSize = minBufferSize;
+            return this;
+        }
+
+        /**
+         * Size of the biggest size class, must be a power of two.
+         * Bigger requests are allocated and not pooled. Defaults to {@code 65536}.
+         *
+         * @param maxBufferSize maximal pooled buffer size
+         * @return updated builder
+         */
+        public Builder maxBufferSize(int maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+            return this;
+        }
+
+        /**
+         * Number of stripes of each size class, rounded up to a power of two.
+         * Each stripe retains up to 16 arrays. Defaults to number of available processors.
+         *
+         * @param stripes number of stripes
+         * @return updated builder
+         */
+        public Builder stripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Track borrowed buffers to discover buffers that are not released, or released more than once.
+         * This has a significant performance impact and should only be used in tests.
+         *
+         * @param leakDetection whether to enable leak detection
+         * @return updated builder
+         */
+        public Builder leakDetection(boolean leakDetection) {
+            this.leakDetection = leakDetection;
+            return this;
+        }
+    }
+
+    private static final class SizeClass {
+        private final int size;
+        private final int stripeMask;
+        private final AtomicReferenceArray<byte[]> slots;
+
+        private SizeClass(int size, int stripes) {
+            this.size = size;
+            this.stripeMask = stripes - 1;
+            this.slots = new AtomicReferenceArray<>(stripes * SLOTS_PER_STRIPE);
+        }
+
+        byte[] borrow() {
+            int base = stripeBase();
+            for (int i = base; i < base + SLOTS_PER_STRIPE; i++) {
+                byte[] candidate = slots.get(i);
+                if (candidate != null && slots.compareAndSet(i, candidate, null)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        boolean release(byte[] buffer) {
+            int base = stripeBase();
+            for (int i = base; i < base + SLOTS_PER_STRIPE; i++) {
+                if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int stripeBase() {
+            return ((int) Thread.currentThread().threadId() & stripeMask) * SLOTS_PER_STRIPE;
+        }
+    }
+
+    private final class StatsImpl implements Stats {
+        @Override
+        public long borrowed() {
+            return borrowed.sum();
+        }
+
+        @Override
+        public long released() {
+            return released.sum();
+        }
+
+        @Override
+        public long allocated() {
+            return allocated.sum();
+        }
+
+        @Override
+        public long allocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        @Override
+        public long dropped() {
+            return dropped.sum();
+        }
+    }
+}
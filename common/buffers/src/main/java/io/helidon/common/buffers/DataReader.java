@@ -16,6 +16,9 @@
 
 package io.helidon.common.buffers;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -25,14 +28,28 @@ import java.util.function.Supplier;
 
 /**
  * Data reader that can pull additional data.
+ * <p>
+ * When created with a {@link io.helidon.common.buffers.BufferPool}, the reader reads data into arrays borrowed from the
+ * pool, and returns them to the pool once consumed. In such a case all buffers and strings obtained from this reader
+ * are copies, as the underlying array is re-used.
  */
 public class DataReader {
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long CR_WORD = ONES * Bytes.CR_BYTE;
+    private static final long LF_WORD = ONES * Bytes.LF_BYTE;
+
     private final Supplier<byte[]> bytesSupplier;
+    private final Source source;
+    private final BufferPool pool;
+    private final int bufferSize;
     private final boolean ignoreLoneEol;
     private Node head;
     private Node tail;
     private DataListener listener;
     private Object context;
+    private boolean wordScan;
 
     /**
      * Data reader from a supplier of bytes.
@@ -42,6 +59,9 @@ public class DataReader {
     public DataReader(Supplier<byte[]> bytesSupplier) {
         this.ignoreLoneEol = false;
         this.bytesSupplier = bytesSupplier;
+        this.source = null;
+        this.pool = null;
+        this.bufferSize = 0;
         // we cannot block until data is actually ready to be consumed
         this.head = new Node(BufferData.EMPTY_BYTES);
         this.tail = this.head;
@@ -56,6 +76,27 @@ public class DataReader {
     public DataReader(Supplier<byte[]> bytesSupplier, boolean ignoreLoneEol) {
         this.ignoreLoneEol = ignoreLoneEol;
         this.bytesSupplier = bytesSupplier;
+        this.source = null;
+        this.pool = null;
+        this.bufferSize = 0;
+        // we cannot block until data is actually ready to be consumed
+        this.head = new Node(BufferData.EMPTY_BYTES);
+        this.tail = this.head;
+    }
+
+    /**
+     * Data reader from a source that reads into arrays borrowed from a buffer pool.
+     *
+     * @param source     source to read data from
+     * @param pool       pool to borrow arrays from
+     * @param bufferSize size of arrays to borrow
+     */
+    public DataReader(Source source, BufferPool pool, int bufferSize) {
+        this.ignoreLoneEol = false;
+        this.bytesSupplier = null;
+        this.source = source;
+        this.pool = pool;
+        this.bufferSize = bufferSize;
         // we cannot block until data is actually ready to be consumed
         this.head = new Node(BufferData.EMPTY_BYTES);
         this.tail = this.head;
@@ -78,15 +119,45 @@ public class DataReader {
      * Pull next data.
      */
     public void pullData() {
-        byte[] bytes = bytesSupplier.get();
-        if (bytes == null) {
-            throw new InsufficientDataAvailableException();
+        Node n;
+        if (pool == null) {
+            byte[] bytes = bytesSupplier.get();
+            if (bytes == null) {
+                throw new InsufficientDataAvailableException();
+            }
+            n = new Node(bytes);
+        } else {
+            byte[] bytes = pool.borrow(bufferSize);
+            int read;
+            try {
+                read = source.read(bytes);
+            } catch (RuntimeException e) {
+                pool.release(bytes);
+                throw e;
+            }
+            if (read == -1) {
+                pool.release(bytes);
+                throw new InsufficientDataAvailableException();
+            }
+            n = new Node(bytes, read, true);
         }
-        Node n = new Node(bytes);
         tail.next = n;
         tail = n;
     }
 
+    /**
+     * Return all pooled arrays held by this reader to the pool.
+     * The reader must not be used after this method is called.
+     * This method does nothing if this reader does not use a buffer pool.
+     */
+    public void release() {
+        for (Node n = head; n != null; n = n.next) {
+            n.release();
+        }
+        head = new Node(BufferData.EMPTY_BYTES);
+        tail = head;
+    }
+
     /**
      * Skip n bytes.
      *
@@ -110,7 +181,9 @@ public class DataReader {
             if (head.next == null) {
                 pullData();
             }
+            Node consumed = head;
             head = head.next;
+            consumed.release();
         }
     }
 
@@ -143,7 +216,7 @@ public class DataReader {
         ensureAvailable();
         byte[] bytes = head.bytes;
         int pos = head.position;
-        if (bytes[pos] == Bytes.CR_BYTE && ((pos + 1 < bytes.length) ? bytes[pos + 1] : head.next().peek()) == Bytes.LF_BYTE) {
+        if (bytes[pos] == Bytes.CR_BYTE && ((pos + 1 < head.end) ? bytes[pos + 1] : head.next().peek()) == Bytes.LF_BYTE) {
             return true;
         }
         return false;
@@ -186,7 +259,9 @@ public class DataReader {
     public BufferData readBuffer() {
         ensureAvailable();
         int size = head.available();
-        BufferData result = BufferData.create(head.bytes, head.position, size);
+        BufferData result = pool == null
+                ? BufferData.create(head.bytes, head.position, size)
+                : BufferData.create(Arrays.copyOfRange(head.bytes, head.position, head.position + size));
         skip(size);
         return result;
     }
@@ -213,13 +288,13 @@ public class DataReader {
     public BufferData getBuffer(int length) {
         ensureAvailable(); // we have at least 1 byte
         if (length <= head.available()) { // fast case
-            return new ReadOnlyArrayData(head.bytes, head.position, length);
+            return head.view(length);
         } else {
             List<BufferData> data = new ArrayList<>();
             int remaining = length;
             for (Node n = head; remaining > 0; n = n.next) {
                 int toAdd = Math.min(remaining, n.available());
-                data.add(new ReadOnlyArrayData(n.bytes, n.position, toAdd));
+                data.add(n.view(toAdd));
                 remaining -= toAdd;
                 if (remaining > 0 && n.next == null) {
                     pullData();
@@ -240,7 +315,9 @@ public class DataReader {
     public LazyString readLazyString(Charset charset, int len) {
         ensureAvailable(); // we have at least 1 byte
         if (len <= head.available()) { // fast case
-            LazyString s = new LazyString(head.bytes, head.position, len, charset);
+            LazyString s = pool == null
+                    ? new LazyString(head.bytes, head.position, len, charset)
+                    : new LazyString(Arrays.copyOfRange(head.bytes, head.position, head.position + len), charset);
             head.position += len;
             return s;
         } else {
@@ -314,16 +391,26 @@ public class DataReader {
      */
     public int findOrNewLine(byte b, int max) throws IncorrectNewLineException {
         ensureAvailable();
+        long pattern = ONES * (b & 0xFF);
         int idx = 0;
         Node n = head;
         while (true) {
             byte[] barr = n.bytes;
-            for (int i = n.position; i < barr.length && idx < max; i++, idx++) {
+            int end = n.end;
+            for (int i = n.position; i < end && idx < max; i++, idx++) {
+                if (wordScan) {
+                    int skipped = skipWords(barr, i, Math.min(end - i, max - idx), pattern);
+                    i += skipped;
+                    idx += skipped;
+                    if (i == end || idx == max) {
+                        break;
+                    }
+                }
                 if (barr[i] == Bytes.LF_BYTE && !ignoreLoneEol) {
                     throw new IncorrectNewLineException("Found LF (" + idx + ") without preceding CR. :\n" + this.debugDataHex());
                 } else if (barr[i] == Bytes.CR_BYTE) {
                     byte nextByte;
-                    if (i + 1 < barr.length) {
+                    if (i + 1 < end) {
                         nextByte = barr[i + 1];
                     } else {
                         nextByte = n.next().peek();
@@ -368,12 +455,21 @@ public class DataReader {
         Node n = head;
         while (true) {
             byte[] barr = n.bytes;
-            for (int i = n.position; i < barr.length && idx < max; i++, idx++) {
+            int end = n.end;
+            for (int i = n.position; i < end && idx < max; i++, idx++) {
+                if (wordScan) {
+                    int skipped = skipWords(barr, i, Math.min(end - i, max - idx), CR_WORD);
+                    i += skipped;
+                    idx += skipped;
+                    if (i == end || idx == max) {
+                        break;
+                    }
+                }
                 if (barr[i] == Bytes.LF_BYTE && !ignoreLoneEol) {
                     throw new IncorrectNewLineException("Found LF (" + idx + ") without preceding CR. :\n" + this.debugDataHex());
                 } else if (barr[i] == Bytes.CR_BYTE) {
                     byte nextByte;
-                    if (i + 1 < barr.length) {
+                    if (i + 1 < end) {
                         nextByte = barr[i + 1];
                     } else {
                         nextByte = n.next().peek();
@@ -394,6 +490,19 @@ public class DataReader {
         }
     }
 
+    /**
+     * Whether to scan for new lines and delimiters a word (8 bytes) at a time, instead of byte by byte.
+     * Uses SWAR (SIMD within a register) bit manipulation to test all bytes of a word at once, which is
+     * faster for longer lines (such as long paths or header values). Results are the same in both modes.
+     *
+     * @param wordScan whether to scan by words
+     * @see #findNewLine(int)
+     * @see #findOrNewLine(byte, int)
+     */
+    public void wordScan(boolean wordScan) {
+        this.wordScan = wordScan;
+    }
+
     /**
      * Configure data listener.
      *
@@ -406,6 +515,41 @@ public class DataReader {
         this.context = context;
     }
 
+    // number of bytes from offset that are neither CR, LF, nor the byte of the pattern,
+    // only full words are tested, so the remainder (less than 8 bytes) must be checked byte by byte
+    private static int skipWords(byte[] bytes, int offset, int length, long pattern) {
+        int skipped = 0;
+        while (skipped + Long.BYTES <= length) {
+            long word = (long) LONG_VIEW.get(bytes, offset + skipped);
+            long found = zeroBytes(word ^ CR_WORD) | zeroBytes(word ^ LF_WORD) | zeroBytes(word ^ pattern);
+            if (found != 0) {
+                // lowest flagged byte is always exact, false positives may only follow a real match
+                return skipped + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+            skipped += Long.BYTES;
+        }
+        return skipped;
+    }
+
+    // high bit set for each zero byte of the word
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    /**
+     * Source of data for a data reader using a buffer pool.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Read data into the provided array. This method blocks until at least 1 byte is available.
+         *
+         * @param buffer array to read data into
+         * @return number of bytes read, or {@code -1} when there is no more data
+         */
+        int read(byte[] buffer);
+    }
+
     /**
      * New line not valid.
      */
@@ -428,24 +572,48 @@ public class DataReader {
 
     private class Node {
         private final byte[] bytes;
+        private final int end;
+        private final boolean pooled;
         private int position;
         private Node next;
+        private boolean released;
 
         Node(byte[] bytes) {
+            this(bytes, bytes.length, false);
+        }
+
+        Node(byte[] bytes, int end, boolean pooled) {
             this.bytes = bytes;
+            this.end = end;
+            this.pooled = pooled;
         }
 
         @Override
         public String toString() {
-            return position + " of " + Arrays.toString(bytes);
+            return position + " of " + Arrays.toString(Arrays.copyOf(bytes, end));
         }
 
         int available() {
-            return bytes.length - position;
+            return end - position;
         }
 
         boolean hasAvailable() {
-            return position < bytes.length;
+            return position < end;
+        }
+
+        // pooled arrays are re-used, so we must not expose them
+        BufferData view(int length) {
+            if (pooled) {
+                return BufferData.create(Arrays.copyOfRange(bytes, position, position + length));
+            }
+            return new ReadOnlyArrayData(bytes, position, length);
+        }
+
+        void release() {
+            if (pooled && !released) {
+                released = true;
+                pool.release(bytes);
+            }
         }
 
         /*
@@ -453,12 +621,12 @@ public class DataReader {
          */
         int skip(int lenToSkip) {
             int newPos = position + lenToSkip;
-            if (newPos <= bytes.length) {
+            if (newPos <= end) {
                 position = newPos;
                 return 0;
             } else {
-                lenToSkip -= (bytes.length - position);
-                position = bytes.length;
+                lenToSkip -= (end - position);
+                position = end;
                 return lenToSkip;
             }
         }
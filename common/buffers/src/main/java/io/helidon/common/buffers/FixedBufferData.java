@@ -139,6 +139,13 @@ class FixedBufferData implements BufferData {
         return toWrite;
     }
 
+    @Override
+    public ByteBuffer readByteBuffer() {
+        ByteBuffer result = ByteBuffer.wrap(bytes, readPosition, writePosition - readPosition);
+        readPosition = writePosition;
+        return result;
+    }
+
     public void write(byte[] bytes, int offset, int length) {
         System.arraycopy(bytes, offset, this.bytes, writePosition, length);
         writePosition += length;
@@ -102,6 +102,13 @@ class ReadOnlyArrayData extends ReadOnlyBufferData {
 
     }
 
+    @Override
+    public ByteBuffer readByteBuffer() {
+        ByteBuffer result = ByteBuffer.wrap(bytes, offset + position, length - position);
+        position = length;
+        return result;
+    }
+
     @Override
     public String debugDataBinary() {
         return BufferUtil.debugDataBinary(bytes, offset + position, length - position);
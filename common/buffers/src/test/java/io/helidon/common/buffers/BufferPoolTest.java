@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.buffers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BufferPoolTest {
+    @Test
+    void testReuse() {
+        BufferPool pool = BufferPool.builder()
+                .stripes(1)
+                .leakDetection(true)
+                .build();
+
+        byte[] first = pool.borrow(1000);
+        assertThat(first.length, is(1024));
+        pool.release(first);
+
+        byte[] second = pool.borrow(500);
+        assertThat(second, sameInstance(first));
+        pool.release(second);
+
+        assertThat(pool.stats().borrowed(), is(2L));
+        assertThat(pool.stats().allocated(), is(1L));
+        assertThat(pool.stats().outstanding(), is(0L));
+        pool.checkLeaks();
+    }
+
+    @Test
+    void testSizeClasses() {
+        BufferPool pool = BufferPool.builder()
+                .maxBufferSize(8192)
+                .build();
+
+        assertThat(pool.borrow(1025).length, is(2048));
+        assertThat(pool.borrow(8192).length, is(8192));
+        // not pooled
+        byte[] big = pool.borrow(10000);
+        assertThat(big.length, is(10000));
+        pool.release(big);
+        assertThat(pool.stats().dropped(), is(1L));
+    }
+
+    @Test
+    void testLeakDetection() {
+        BufferPool pool = BufferPool.builder()
+                .leakDetection(true)
+                .build();
+
+        byte[] buffer = pool.borrow(1024);
+        assertThrows(IllegalStateException.class, pool::checkLeaks);
+        pool.release(buffer);
+        assertThrows(IllegalStateException.class, () -> pool.release(buffer));
+        pool.checkLeaks();
+    }
+
+    @Test
+    void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.builder().minBufferSize(1000).build());
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.builder()
+                .minBufferSize(4096)
+                .maxBufferSize(1024)
+                .build());
+    }
+
+    @Test
+    void testPooledDataReader() {
+        BufferPool pool = BufferPool.builder()
+                .minBufferSize(16)
+                .leakDetection(true)
+                .build();
+        String request = "GET /greet HTTP/1.1\r\nHost: localhost:8080\r\nAccept: text/plain\r\n\r\nentity";
+        InputStream in = new ByteArrayInputStream(request.getBytes(US_ASCII));
+        DataReader reader = new DataReader(buffer -> read(in, buffer), pool, 16);
+
+        assertThat(reader.readLine(), is("GET /greet HTTP/1.1"));
+        LazyString host = reader.readLazyString(US_ASCII, reader.findNewLine(Integer.MAX_VALUE));
+        reader.skip(2);
+        BufferData accept = reader.readBuffer(reader.findNewLine(Integer.MAX_VALUE));
+        reader.skip(4);
+        // consumed buffers are already returned and may be re-used, data we obtained must not be affected
+        assertThat(pool.stats().released() > 0, is(true));
+        assertThat(reader.readAsciiString(6), is("entity"));
+        assertThat(host.toString(), is("Host: localhost:8080"));
+        assertThat(accept.readString(accept.available(), US_ASCII), is("Accept: text/plain"));
+
+        assertThrows(DataReader.InsufficientDataAvailableException.class, reader::ensureAvailable);
+        reader.release();
+        pool.checkLeaks();
+    }
+
+    private static int read(InputStream in, byte[] buffer) {
+        try {
+            return in.read(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.buffers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DataReaderWordScanTest {
+    private static final String LINE = "GET /some/rather/long/path/to/scan?query=value&another=value HTTP/1.1\r\n";
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 8, 9, 16, 1024})
+    void testSameResultsAsByteScan(int chunkSize) {
+        for (int offset = 0; offset < 12; offset++) {
+            // shift the content so delimiters are found at all positions within a word
+            String data = "x".repeat(offset) + LINE;
+            for (byte delimiter : new byte[] {' ', '?', '&', '#'}) {
+                assertThat(reader(data, chunkSize, true).findOrNewLine(delimiter, 1024),
+                           is(reader(data, chunkSize, false).findOrNewLine(delimiter, 1024)));
+            }
+            assertThat(reader(data, chunkSize, true).findNewLine(1024), is(data.length() - 2));
+        }
+    }
+
+    @Test
+    void testMaxLength() {
+        DataReader reader = reader(LINE, 1024, true);
+        assertThat(reader.findNewLine(20), is(20));
+        assertThat(reader.findOrNewLine((byte) '#', 30), is(30));
+        assertThat(reader.findOrNewLine((byte) ' ', 30), is(3));
+    }
+
+    @Test
+    void testLoneLineFeed() {
+        DataReader reader = reader("a long header value\nwith lone line feed\r\n", 1024, true);
+        assertThrows(DataReader.IncorrectNewLineException.class, () -> reader.findNewLine(1024));
+    }
+
+    @Test
+    void testNonAsciiDelimiter() {
+        byte[] bytes = "abcdefghijklmnopq\r\n".getBytes(US_ASCII);
+        bytes[5] = (byte) 0x8D;
+        bytes[12] = (byte) 0xE9;
+        DataReader binary = new DataReader(() -> bytes);
+        binary.wordScan(true);
+        assertThat(binary.findOrNewLine((byte) 0xE9, 1024), is(12));
+    }
+
+    private static DataReader reader(String data, int chunkSize, boolean wordScan) {
+        byte[] bytes = data.getBytes(US_ASCII);
+        List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            byte[] chunk = new byte[Math.min(chunkSize, bytes.length - i)];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            chunks.add(chunk);
+        }
+        Iterator<byte[]> iterator = chunks.iterator();
+        DataReader reader = new DataReader(() -> iterator.hasNext() ? iterator.next() : null);
+        reader.wordScan(wordScan);
+        return reader;
+    }
+}
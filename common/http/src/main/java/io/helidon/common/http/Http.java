@@ -1670,6 +1670,7 @@ public final class Http {
 
         private static volatile String rfc1123String;
         private static volatile byte[] http1valueBytes;
+        private static volatile HeaderValue header;
 
         static {
             Map<Long, String> map = new HashMap<>();
@@ -1810,9 +1811,20 @@ public final class Http {
             return http1valueBytes;
         }
 
+        /**
+         * Current time as a {@link Header#DATE} header, updated once per second and shared by all responses.
+         * The header is pre-encoded, so it is written to HTTP/1 responses with a single array copy.
+         *
+         * @return date header
+         */
+        public static HeaderValue header() {
+            return header;
+        }
+
         static void update() {
             rfc1123String = ZonedDateTime.now().format(RFC_1123_DATE_TIME);
             http1valueBytes = (rfc1123String + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            header = Header.createCached(Header.DATE, true, false, rfc1123String);
         }
     }
 }
@@ -21,6 +21,17 @@ package io.helidon.common.http;
  * Token is defined by the HTTP specification and must not contain a set of characters.
  */
 public final class HttpToken {
+    // valid token characters, indexed by character value
+    private static final boolean[] VALID = new boolean[255];
+
+    static {
+        for (char c = 0; c < VALID.length; c++) {
+            VALID[c] = !Character.isISOControl(c)
+                    && !Character.isWhitespace(c)
+                    && "()<>@,;:\\\"/[]?={}".indexOf(c) == -1;
+        }
+    }
+
     private HttpToken() {
     }
 
@@ -31,6 +42,10 @@ public final class HttpToken {
      * @throws IllegalArgumentException in case the token is not valid
      */
     public static void validate(String token) throws IllegalArgumentException {
+        if (isValid(token)) {
+            return;
+        }
+        // find the offending character to provide a meaningful message
         char[] chars = token.toCharArray();
         for (char aChar : chars) {
             if (aChar > 254) {
@@ -53,4 +68,15 @@ public final class HttpToken {
             }
         }
     }
+
+    // single table lookup per character, no allocation
+    private static boolean isValid(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c >= VALID.length || !VALID[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -16,6 +16,8 @@
 
 package io.helidon.common.http;
 
+import java.util.Optional;
+
 import io.helidon.common.uri.UriPath;
 
 /**
@@ -40,4 +42,28 @@ public interface PathMatcher {
      * @return match result
      */
     PathMatchers.PrefixMatchResult prefixMatch(UriPath uriPath);
+
+    /**
+     * Segment template of this matcher, if the matched paths can be described as a sequence of literal and
+     * single-segment parameter segments.
+     * Routing uses the template to compile routes into a prefix tree, so it does not need to test every route
+     * for each request.
+     * The template must accept (at least) all paths accepted by {@link #match(io.helidon.common.uri.UriPath)}.
+     *
+     * @return segment template, or empty optional if this matcher cannot be described by one (such as regular expressions)
+     */
+    default Optional<PathMatchers.Template> template() {
+        return Optional.empty();
+    }
+
+    /**
+     * Path pattern of this matcher as configured, such as {@code /greet/{name}}.
+     * The pattern identifies a route (for example in metrics or tracing, where the actual path would create
+     * too many distinct values); it is not used for matching.
+     *
+     * @return path pattern, defaults to {@link #toString()}
+     */
+    default String pattern() {
+        return toString();
+    }
 }
@@ -16,9 +16,12 @@
 
 package io.helidon.common.http;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -133,7 +136,7 @@ public final class PathMatchers {
                                                     + ", index: " + (iter.index() - 1));
         }
 
-        return new PatternPathMatcher(regexp.toString(), paramToGroupName);
+        return new PatternPathMatcher(pattern, regexp.toString(), paramToGroupName, patternTemplate(pattern));
     }
 
     /**
@@ -181,6 +184,44 @@ public final class PathMatchers {
         return new AnyMatcher();
     }
 
+    // template of a pattern that only consists of literal segments, {name} segments and optional trailing /*
+    private static Template patternTemplate(String pattern) {
+        boolean prefix = false;
+        String segmentPart = pattern;
+        if (segmentPart.endsWith("/*")) {
+            prefix = true;
+            segmentPart = segmentPart.substring(0, segmentPart.length() - 2);
+        }
+        if (!pattern.startsWith("/")) {
+            return null;
+        }
+        for (int i = 0; i < segmentPart.length(); i++) {
+            if ("[]*\\".indexOf(segmentPart.charAt(i)) != -1) {
+                // optional sequences, globs and escapes cannot be expressed as segments
+                return null;
+            }
+        }
+        if (segmentPart.isEmpty()) {
+            return new Template(List.of(), prefix);
+        }
+        String[] parts = segmentPart.substring(1).split("/", -1);
+        List<Segment> segments = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            int open = part.lastIndexOf('{');
+            int close = part.indexOf('}');
+            if (open == -1 && close == -1) {
+                segments.add(Segment.literal(part));
+                continue;
+            }
+            // only a parameter spanning the whole segment, without custom regexp or greedy modifier
+            if (open != 0 || close != part.length() - 1 || part.indexOf(':') != -1 || part.startsWith("{+")) {
+                return null;
+            }
+            segments.add(Segment.pathParameter());
+        }
+        return new Template(List.copyOf(segments), prefix);
+    }
+
     private static void escapeIfNeeded(char ch, StringBuilder builder) {
         if (Arrays.binarySearch(REGEXP_META_CHARACTERS, ch) < 0) {
             builder.append(ch);
@@ -275,9 +316,12 @@ public final class PathMatchers {
 
     static final class ExactPathMatcher implements PathMatcher {
         private final String path;
+        private final Template template;
 
         ExactPathMatcher(String path) {
             this.path = path;
+            // raw path is matched as well, so encoded paths cannot be compiled to decoded segments
+            this.template = path.indexOf('%') == -1 ? Template.create(path, false) : null;
         }
 
         @Override
@@ -321,6 +365,16 @@ public final class PathMatchers {
             return PrefixMatchResult.notAccepted();
         }
 
+        @Override
+        public Optional<Template> template() {
+            return Optional.ofNullable(template);
+        }
+
+        @Override
+        public String pattern() {
+            return path;
+        }
+
         @Override
         public String toString() {
             return "exact: " + path;
@@ -329,9 +383,14 @@ public final class PathMatchers {
 
     static final class PrefixPathMatcher implements PathMatcher {
         private final String prefix;
+        private final Template template;
 
         PrefixPathMatcher(String prefix) {
             this.prefix = prefix;
+            // only prefixes ending with a slash are aligned with segments
+            this.template = prefix.endsWith("/")
+                    ? Template.create(prefix.substring(0, prefix.length() - 1), true)
+                    : null;
         }
 
         @Override
@@ -380,6 +439,16 @@ public final class PathMatchers {
             return PrefixMatchResult.notAccepted();
         }
 
+        @Override
+        public Optional<Template> template() {
+            return Optional.ofNullable(template);
+        }
+
+        @Override
+        public String pattern() {
+            return prefix + "*";
+        }
+
         @Override
         public String toString() {
             return "prefix: " + prefix;
@@ -392,13 +461,17 @@ public final class PathMatchers {
         private final Map<String, String> paramToGroupName;
         private final Pattern pattern;
         private final Pattern leftPattern;
+        private final String pathPattern;
         private final String patternString;
+        private final Template template;
 
-        PatternPathMatcher(String pattern, Map<String, String> paramToGroupName) {
+        PatternPathMatcher(String pathPattern, String pattern, Map<String, String> paramToGroupName, Template template) {
+            this.pathPattern = pathPattern;
             this.patternString = pattern;
             this.pattern = Pattern.compile(pattern);
             this.leftPattern = Pattern.compile(pattern + "(?<" + RIGHT_PART_PARAM_NAME + ">/.+)?");
             this.paramToGroupName = paramToGroupName;
+            this.template = template;
         }
 
         @Override
@@ -434,6 +507,16 @@ public final class PathMatchers {
             return PrefixMatchResult.notAccepted();
         }
 
+        @Override
+        public Optional<Template> template() {
+            return Optional.ofNullable(template);
+        }
+
+        @Override
+        public String pattern() {
+            return pathPattern;
+        }
+
         @Override
         public String toString() {
             return "pattern: " + patternString;
@@ -465,6 +548,11 @@ public final class PathMatchers {
                                          uriPath);
         }
 
+        @Override
+        public String pattern() {
+            return "/*";
+        }
+
         @Override
         public String toString() {
             return "any path";
@@ -644,4 +732,57 @@ public final class PathMatchers {
             return NOT_ACCEPTED;
         }
     }
+
+    /**
+     * Segment template of a path matcher.
+     * Segments are the parts of the decoded path between slashes, without the leading slash, so {@code /} is a single
+     * empty segment and {@code /a/b} are two segments {@code a} and {@code b}.
+     *
+     * @param segments segments that must match the path
+     * @param prefix   if {@code true}, at least one more segment must follow the segments of this template, if
+     *                 {@code false}, the path must have exactly the segments of this template
+     * @see io.helidon.common.http.PathMatcher#template()
+     */
+    public record Template(List<Segment> segments, boolean prefix) {
+        static Template create(String path, boolean prefix) {
+            if (path.isEmpty()) {
+                return new Template(List.of(), prefix);
+            }
+            String[] parts = path.substring(1).split("/", -1);
+            List<Segment> segments = new ArrayList<>(parts.length);
+            for (String part : parts) {
+                segments.add(Segment.literal(part));
+            }
+            return new Template(List.copyOf(segments), prefix);
+        }
+    }
+
+    /**
+     * A single segment of a {@link io.helidon.common.http.PathMatchers.Template}.
+     *
+     * @param value     literal value of the segment, {@code null} for parameters
+     * @param parameter whether this segment is a parameter matching any non-empty segment
+     */
+    public record Segment(String value, boolean parameter) {
+        private static final Segment PARAMETER = new Segment(null, true);
+
+        /**
+         * Segment that must match the provided value exactly.
+         *
+         * @param value value of the segment
+         * @return literal segment
+         */
+        public static Segment literal(String value) {
+            return new Segment(value, false);
+        }
+
+        /**
+         * Segment that matches any non-empty value.
+         *
+         * @return parameter segment
+         */
+        public static Segment pathParameter() {
+            return PARAMETER;
+        }
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.Http.HeaderValue;
+
+/**
+ * A set of headers that is serialized once, so it can be written to an HTTP/1 response with a single array copy.
+ * Intended for headers that are the same for each response of a route (such as {@code Content-Type} and
+ * {@code Cache-Control}).
+ * <p>
+ * The headers are set on the response headers using {@link ServerResponseHeaders#set(PreEncodedHeaders)}, so they
+ * can be inspected and modified as any other header. If any of the headers is modified or removed, the pre-encoded
+ * block is not used and all headers are serialized one by one.
+ */
+public final class PreEncodedHeaders {
+    private final HeaderValue[] headers;
+    private final byte[] http1Bytes;
+
+    private PreEncodedHeaders(HeaderValue[] headers, byte[] http1Bytes) {
+        this.headers = headers;
+        this.http1Bytes = http1Bytes;
+    }
+
+    /**
+     * Create pre-encoded headers.
+     *
+     * @param headers headers to pre-encode, each header name must be used at most once
+     * @return pre-encoded headers
+     * @throws java.lang.IllegalArgumentException in case a header name is used more than once
+     */
+    public static PreEncodedHeaders create(HeaderValue... headers) {
+        HeaderValue[] cached = new HeaderValue[headers.length];
+        BufferData buffer = BufferData.growing(256);
+        for (int i = 0; i < headers.length; i++) {
+            HeaderValue header = headers[i];
+            for (int j = 0; j < i; j++) {
+                if (cached[j].headerName().equals(header.headerName())) {
+                    throw new IllegalArgumentException("Header " + header.name() + " is defined more than once");
+                }
+            }
+            if (!(header instanceof HeaderValueCached) && header.valueCount() == 1) {
+                String value = header.value();
+                header = new HeaderValueCached(header.headerName(),
+                                               header.changing(),
+                                               header.sensitive(),
+                                               value.getBytes(StandardCharsets.US_ASCII),
+                                               value);
+            }
+            cached[i] = header;
+            header.writeHttp1Header(buffer);
+        }
+        byte[] http1Bytes = new byte[buffer.available()];
+        buffer.read(http1Bytes);
+        return new PreEncodedHeaders(cached, http1Bytes);
+    }
+
+    /**
+     * Headers of this block. These instances are set on response headers.
+     *
+     * @return headers
+     */
+    public List<HeaderValue> headers() {
+        return List.of(headers);
+    }
+
+    /**
+     * Write HTTP/1 serialization of the provided headers. If the headers of this block are present unmodified,
+     * they are written as a single pre-encoded block, other headers are serialized one by one.
+     *
+     * @param responseHeaders all headers to write
+     * @param buffer          buffer to write to
+     */
+    public void writeHttp1(Headers responseHeaders, BufferData buffer) {
+        if (!intact(responseHeaders)) {
+            for (HeaderValue header : responseHeaders) {
+                header.writeHttp1Header(buffer);
+            }
+            return;
+        }
+        buffer.write(http1Bytes);
+        for (HeaderValue header : responseHeaders) {
+            if (!member(header)) {
+                header.writeHttp1Header(buffer);
+            }
+        }
+    }
+
+    void applyTo(WritableHeaders<?> responseHeaders) {
+        for (HeaderValue header : headers) {
+            responseHeaders.set(header);
+        }
+    }
+
+    private boolean intact(Headers responseHeaders) {
+        for (HeaderValue header : headers) {
+            if (!responseHeaders.contains(header.headerName())
+                    || responseHeaders.get(header.headerName()) != header) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // headers in a block are few, identity scan is cheaper than a lookup
+    private boolean member(HeaderValue header) {
+        for (HeaderValue blockHeader : headers) {
+            if (blockHeader == header) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -21,6 +21,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Optional;
 
 import io.helidon.common.http.Http.Header;
 import io.helidon.common.media.type.MediaType;
@@ -54,6 +55,28 @@ public interface ServerResponseHeaders extends ClientResponseHeaders,
         return new ServerResponseHeadersImpl(existing);
     }
 
+    /**
+     * Set all headers of a pre-encoded header block, replacing existing headers with the same names.
+     * HTTP/1 responses write the block with a single copy, unless any of its headers is modified afterwards.
+     *
+     * @param headers pre-encoded headers
+     * @return this instance
+     */
+    default ServerResponseHeaders set(PreEncodedHeaders headers) {
+        headers.headers().forEach(this::set);
+        return this;
+    }
+
+    /**
+     * Pre-encoded header block last set on these headers.
+     *
+     * @return pre-encoded headers, or empty if none were set
+     * @see #set(PreEncodedHeaders)
+     */
+    default Optional<PreEncodedHeaders> preEncoded() {
+        return Optional.empty();
+    }
+
     /**
      * Adds one or more acceptedTypes path document formats
      * (header {@link Header#ACCEPT_PATCH}).
@@ -19,6 +19,7 @@ package io.helidon.common.http;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import io.helidon.common.LazyValue;
 
@@ -26,6 +27,8 @@ class ServerResponseHeadersImpl extends HeadersImpl<ServerResponseHeaders> imple
     private static final LazyValue<ZonedDateTime> START_OF_YEAR_1970 = LazyValue.create(
             () -> ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneId.of("GMT+0")));
 
+    private PreEncodedHeaders preEncoded;
+
     ServerResponseHeadersImpl() {
     }
 
@@ -33,6 +36,18 @@ class ServerResponseHeadersImpl extends HeadersImpl<ServerResponseHeaders> imple
         super(existing);
     }
 
+    @Override
+    public ServerResponseHeaders set(PreEncodedHeaders headers) {
+        headers.applyTo(this);
+        this.preEncoded = headers;
+        return this;
+    }
+
+    @Override
+    public Optional<PreEncodedHeaders> preEncoded() {
+        return Optional.ofNullable(preEncoded);
+    }
+
     @Override
     public ServerResponseHeaders addCookie(SetCookie cookie) {
         add(Http.Header.create(Http.Header.SET_COOKIE, cookie.toString()));
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, 2021 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.http;
+
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.common.buffers.BufferData;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PreEncodedHeadersTest {
+    private static final PreEncodedHeaders BLOCK = PreEncodedHeaders.create(
+            Http.Header.create(Http.Header.CONTENT_TYPE, "text/plain"),
+            Http.Header.create(Http.Header.SERVER, "Nima"));
+
+    @Test
+    void testBlockWrittenFirst() {
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        headers.set(Http.Header.CONTENT_LENGTH, "5");
+        headers.set(BLOCK);
+
+        // block is written as a whole, followed by other headers
+        assertThat(write(headers), is("Content-Type: text/plain\r\n"
+                                              + "Server: Nima\r\n"
+                                              + "Content-Length: 5\r\n"));
+    }
+
+    @Test
+    void testModifiedHeaderWrittenOneByOne() {
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        headers.set(BLOCK);
+        headers.set(Http.Header.CONTENT_TYPE, "application/json");
+
+        String written = write(headers);
+        assertThat(written, containsString("Content-Type: application/json\r\n"));
+        assertThat(written, containsString("Server: Nima\r\n"));
+        assertThat(written, not(containsString("text/plain")));
+    }
+
+    @Test
+    void testRemovedHeaderWrittenOneByOne() {
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        headers.set(BLOCK);
+        headers.remove(Http.Header.SERVER);
+
+        assertThat(write(headers), is("Content-Type: text/plain\r\n"));
+    }
+
+    @Test
+    void testDuplicateNameRejected() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> PreEncodedHeaders.create(Http.Header.create(Http.Header.SERVER, "a"),
+                                                    Http.Header.create(Http.Header.SERVER, "b")));
+    }
+
+    @Test
+    void testDateHeader() {
+        Http.HeaderValue date = Http.DateTime.header();
+        assertThat(date.name(), is("Date"));
+        assertThat(date.value(), is(Http.DateTime.rfc1123String()));
+    }
+
+    private static String write(ServerResponseHeaders headers) {
+        BufferData buffer = BufferData.growing(128);
+        headers.preEncoded().orElseThrow().writeHttp1(headers, buffer);
+        byte[] bytes = new byte[buffer.available()];
+        buffer.read(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
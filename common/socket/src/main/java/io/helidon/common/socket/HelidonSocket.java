@@ -16,6 +16,8 @@
 
 package io.helidon.common.socket;
 
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.function.Supplier;
 
@@ -38,6 +40,27 @@ public interface HelidonSocket extends SocketContext, Supplier<byte[]> {
      */
     int read(BufferData buffer);
 
+    /**
+     * Read bytes from the socket into an array. This method blocks until at least 1 byte is available.
+     * This method is used with pooled buffers (see {@link io.helidon.common.buffers.BufferPool}), the default
+     * implementation copies data obtained by {@link #get()}, and may fail if the data does not fit into the array.
+     *
+     * @param buffer array to read to
+     * @return number of bytes read, or {@code -1} if the socket is closed
+     */
+    default int read(byte[] buffer) {
+        byte[] data = get();
+        if (data == null) {
+            return -1;
+        }
+        if (data.length > buffer.length) {
+            throw new IllegalStateException("Read " + data.length + " bytes, which does not fit into buffer of "
+                                                    + buffer.length + " bytes");
+        }
+        System.arraycopy(data, 0, buffer, 0, data.length);
+        return data.length;
+    }
+
     /**
      * Write teh buffer to the underlying socket. This method blocks until all bytes are written.
      *
@@ -45,6 +68,42 @@ public interface HelidonSocket extends SocketContext, Supplier<byte[]> {
      */
     void write(BufferData buffer);
 
+    /**
+     * Write the first {@code length} buffers from the array to the underlying socket.
+     * This method blocks until all bytes are written.
+     * Sockets backed by a {@link java.nio.channels.SocketChannel} use a single gathering write, the default implementation
+     * writes a composite buffer.
+     *
+     * @param buffers buffers to write
+     * @param length  number of buffers from the array to write
+     */
+    default void write(BufferData[] buffers, int length) {
+        write(BufferData.create(Arrays.copyOf(buffers, length)));
+    }
+
+    /**
+     * Whether this socket can transfer bytes from a file without copying them through heap buffers.
+     *
+     * @return whether {@link #transferFrom(java.nio.channels.FileChannel, long, long)} is supported
+     */
+    default boolean supportsTransfer() {
+        return false;
+    }
+
+    /**
+     * Transfer bytes from a file directly to the underlying socket, without copying them through heap buffers
+     * (for example using {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}).
+     * This method blocks until all bytes are written.
+     *
+     * @param file     file channel to read from
+     * @param position position in the file to start from
+     * @param length   number of bytes to transfer
+     * @throws java.lang.UnsupportedOperationException in case {@link #supportsTransfer()} is {@code false}
+     */
+    default void transferFrom(FileChannel file, long position, long length) {
+        throw new UnsupportedOperationException("Socket does not support direct transfer from a file");
+    }
+
     /**
      * Whether a protocol was negotiated by the socket (such as ALPN when using TLS).
      * @return whether a protocol was negotiated
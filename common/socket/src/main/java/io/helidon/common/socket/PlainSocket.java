@@ -23,8 +23,13 @@ import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.util.Arrays;
 
+import javax.net.ssl.SSLSocket;
+
 import io.helidon.common.buffers.BufferData;
 
 /**
@@ -33,13 +38,16 @@ import io.helidon.common.buffers.BufferData;
 public sealed class PlainSocket implements HelidonSocket permits TlsSocket {
     private static final int BUFFER_LENGTH = 8 * 1024;
 
-    private final byte[] readBuffer = new byte[BUFFER_LENGTH];
-
     private final Socket delegate;
     private final String childSocketId;
     private final String socketId;
     private final InputStream inputStream;
     private final OutputStream outputStream;
+    // channel used for gathering writes, null if the socket does not have a channel, or if it is a TLS socket
+    private final SocketChannel channel;
+
+    // only allocated when data is read using get(), pooled readers use read(byte[])
+    private byte[] readBuffer;
 
     /**
      * Plain socket.
@@ -50,6 +58,8 @@ public sealed class PlainSocket implements HelidonSocket permits TlsSocket {
      */
     protected PlainSocket(Socket delegate, String childSocketId, String socketId) {
         this.delegate = delegate;
+        // TLS socket may return the channel of the underlying plain socket, which would bypass encryption
+        this.channel = (delegate instanceof SSLSocket) ? null : delegate.getChannel();
         this.childSocketId = childSocketId;
         this.socketId = socketId;
         try {
@@ -122,13 +132,75 @@ public sealed class PlainSocket implements HelidonSocket permits TlsSocket {
         return buffer.readFrom(inputStream);
     }
 
+    @Override
+    public int read(byte[] buffer) {
+        try {
+            int r = inputStream.read(buffer);
+            if (r == 0) {
+                throw new IllegalStateException("Read 0 bytes, this should never happen with blocking socket");
+            }
+            return r;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public void write(BufferData buffer) {
         buffer.writeTo(outputStream);
     }
 
+    @Override
+    public void write(BufferData[] buffers, int length) {
+        if (channel == null) {
+            HelidonSocket.super.write(buffers, length);
+            return;
+        }
+        ByteBuffer[] byteBuffers = new ByteBuffer[length];
+        long remaining = 0;
+        for (int i = 0; i < length; i++) {
+            byteBuffers[i] = buffers[i].readByteBuffer();
+            remaining += byteBuffers[i].remaining();
+        }
+        try {
+            while (remaining > 0) {
+                remaining -= channel.write(byteBuffers);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean supportsTransfer() {
+        return channel != null;
+    }
+
+    @Override
+    public void transferFrom(FileChannel file, long position, long length) {
+        if (channel == null) {
+            throw new UnsupportedOperationException("Socket was not created from a channel, cannot transfer from a file");
+        }
+        try {
+            long transferred = 0;
+            while (transferred < length) {
+                long count = file.transferTo(position + transferred, length - transferred, channel);
+                if (count <= 0 && position + transferred >= file.size()) {
+                    throw new IOException("File is shorter than requested, transferred " + transferred
+                                                  + " bytes out of " + length);
+                }
+                transferred += count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public byte[] get() {
+        if (readBuffer == null) {
+            readBuffer = new byte[BUFFER_LENGTH];
+        }
         try {
             int r = inputStream.read(readBuffer);
             if (r == -1) {
@@ -16,6 +16,8 @@
 
 package io.helidon.common.socket;
 
+import java.nio.channels.FileChannel;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 
 import io.helidon.common.buffers.BufferData;
@@ -26,6 +28,8 @@ import io.helidon.common.buffers.DataWriter;
  * socket.
  */
 public abstract class SocketWriter implements DataWriter {
+    private static final Duration DEFAULT_QUEUE_TIMEOUT = Duration.ofSeconds(10);
+
     private final HelidonSocket socket;
 
     /**
@@ -49,17 +53,38 @@ public abstract class SocketWriter implements DataWriter {
     public static SocketWriter create(ExecutorService executor,
                                       HelidonSocket socket,
                                       int writeQueueLength) {
+        return create(executor, socket, writeQueueLength, false, DEFAULT_QUEUE_TIMEOUT);
+    }
+
+    /**
+     * Create a new socket writer.
+     *
+     * @param executor          executor used to create a thread for asynchronous writes
+     * @param socket            socket to write to
+     * @param writeQueueLength  maximal number of queued writes, write operation will block if the queue is full; if set to
+     *                          {code 1} or lower, write queue is disabled and writes are direct to socket (blocking)
+     * @param lockFreeQueue     whether to use a lock-free write queue, that writes all queued buffers using a single
+     *                          gathering write (see {@link HelidonSocket#write(BufferData[], int)})
+     * @param writeQueueTimeout how long a write operation waits for space in a full queue before failing
+     * @return a new socket writer
+     */
+    public static SocketWriter create(ExecutorService executor,
+                                      HelidonSocket socket,
+                                      int writeQueueLength,
+                                      boolean lockFreeQueue,
+                                      Duration writeQueueTimeout) {
         if (writeQueueLength <= 1) {
             return new SocketWriterDirect(socket);
+        } else if (lockFreeQueue) {
+            return new SocketWriterLockFree(executor, socket, writeQueueLength, writeQueueTimeout);
         } else {
-            return new SocketWriterAsync(executor, socket, writeQueueLength);
+            return new SocketWriterAsync(executor, socket, writeQueueLength, writeQueueTimeout);
         }
     }
 
     @Override
     public void writeNow(BufferData... buffers) {
-        BufferData composite = BufferData.create(buffers);
-        writeNow(composite);
+        socket.write(buffers, buffers.length);
     }
 
     @Override
@@ -67,6 +92,29 @@ public abstract class SocketWriter implements DataWriter {
         socket.write(buffer);
     }
 
+    /**
+     * Whether this writer can transfer bytes from a file directly to the socket.
+     * Only supported by writers that write directly to the socket (no write queue), and only if the socket supports
+     * it (see {@link HelidonSocket#supportsTransfer()}).
+     *
+     * @return whether {@link #transferFrom(java.nio.channels.FileChannel, long, long)} is supported
+     */
+    public boolean supportsTransfer() {
+        return false;
+    }
+
+    /**
+     * Transfer bytes from a file directly to the socket, without copying them through heap buffers.
+     *
+     * @param file     file channel to read from
+     * @param position position in the file to start from
+     * @param length   number of bytes to transfer
+     * @throws java.lang.UnsupportedOperationException in case {@link #supportsTransfer()} is {@code false}
+     */
+    public void transferFrom(FileChannel file, long position, long length) {
+        throw new UnsupportedOperationException("Writer does not support direct transfer from a file");
+    }
+
     /**
      * Close this writer. Will attempt to write all enqueued buffers and will stop the thread if created.
      * Does not close the socket.
@@ -16,6 +16,7 @@
 
 package io.helidon.common.socket;
 
+import java.time.Duration;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -35,6 +36,7 @@ class SocketWriterAsync extends SocketWriter implements DataWriter {
     private static final BufferData CLOSING_TOKEN = BufferData.empty();
     private final ExecutorService executor;
     private final ArrayBlockingQueue<BufferData> writeQueue;
+    private final long timeoutMillis;
     private final CountDownLatch cdl = new CountDownLatch(1);
     private final AtomicBoolean started = new AtomicBoolean(false);
     private volatile Throwable caught;
@@ -48,11 +50,13 @@ class SocketWriterAsync extends SocketWriter implements DataWriter {
      * @param socket           socket to write to
      * @param writeQueueLength maximal number of queued writes, write operation will block if the queue is full; if set to
      *                         {code 1} or lower, write queue is disabled and writes are direct to socket (blocking)
+     * @param timeout          how long to wait for space in the queue before failing the write
      */
-    SocketWriterAsync(ExecutorService executor, HelidonSocket socket, int writeQueueLength) {
+    SocketWriterAsync(ExecutorService executor, HelidonSocket socket, int writeQueueLength, Duration timeout) {
         super(socket);
         this.executor = executor;
         this.writeQueue = new ArrayBlockingQueue<>(writeQueueLength);
+        this.timeoutMillis = timeout.toMillis();
     }
 
     @Override
@@ -66,7 +70,7 @@ class SocketWriterAsync extends SocketWriter implements DataWriter {
     public void write(BufferData buffer) {
         checkRunning();
         try {
-            if (!writeQueue.offer(buffer, 10, TimeUnit.SECONDS)) {
+            if (!writeQueue.offer(buffer, timeoutMillis, TimeUnit.MILLISECONDS)) {
                 checkRunning();
                 throw new IllegalStateException("Failed to write data to queue, timed out");
             }
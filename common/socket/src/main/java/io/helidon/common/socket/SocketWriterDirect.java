@@ -16,6 +16,8 @@
 
 package io.helidon.common.socket;
 
+import java.nio.channels.FileChannel;
+
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.buffers.DataWriter;
 
@@ -42,4 +44,15 @@ class SocketWriterDirect extends SocketWriter implements DataWriter {
     public void write(BufferData buffer) {
         writeNow(buffer);
     }
+
+    @Override
+    public boolean supportsTransfer() {
+        return socket().supportsTransfer();
+    }
+
+    @Override
+    public void transferFrom(FileChannel file, long position, long length) {
+        // we write directly to the socket, so there is no queued data to be written before the file
+        socket().transferFrom(file, position, length);
+    }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.socket;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.DataWriter;
+
+/**
+ * Socket writer (possibly) used from multiple threads, takes care of writing to a single
+ * socket.
+ * <p>
+ * Writers enqueue buffers into a bounded lock-free ring (multiple producers, single consumer), a single writer thread
+ * drains the ring and writes all drained buffers using {@link HelidonSocket#write(BufferData[], int)}.
+ * When the ring is full, writers back off until there is space, or until the write queue timeout is reached.
+ */
+class SocketWriterLockFree extends SocketWriter implements DataWriter {
+    private static final System.Logger LOGGER = System.getLogger(SocketWriterLockFree.class.getName());
+    // we only want to write a certain amount of data at once, if somebody writes huge amounts
+    // we could spin here forever and run out of memory
+    private static final int MAX_BATCH = 1000;
+    private static final int SPINS = 64;
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final int mask;
+    private final AtomicReferenceArray<BufferData> slots;
+    // Vyukov sequence numbers: slot is free for producer at position p when sequence == p,
+    // and ready for consumer when sequence == p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final BufferData[] batch;
+    private final CountDownLatch cdl = new CountDownLatch(1);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private long consumerPosition;
+    private volatile boolean consumerParked;
+    private volatile Throwable caught;
+    private volatile boolean run = true;
+    private volatile Thread thread;
+
+    /**
+     * A new socket writer.
+     *
+     * @param executor         executor used to create a thread for asynchronous writes
+     * @param socket           socket to write to
+     * @param writeQueueLength maximal number of queued writes, rounded up to a power of two
+     * @param timeout          how long to wait for space in the queue before failing the write
+     */
+    SocketWriterLockFree(ExecutorService executor, HelidonSocket socket, int writeQueueLength, Duration timeout) {
+        super(socket);
+        this.executor = executor;
+        this.timeoutNanos = timeout.toNanos();
+
+        int capacity = Integer.highestOneBit(writeQueueLength - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.batch = new BufferData[Math.min(capacity, MAX_BATCH)];
+    }
+
+    @Override
+    public void write(BufferData... buffers) {
+        for (BufferData buffer : buffers) {
+            write(buffer);
+        }
+    }
+
+    @Override
+    public void write(BufferData buffer) {
+        checkRunning();
+        if (offer(buffer)) {
+            return;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = 0;
+        long backoff = 1000;
+        while (!offer(buffer)) {
+            checkRunning();
+            if (spins < SPINS) {
+                spins++;
+                Thread.onSpinWait();
+                continue;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Failed to write data to queue, timed out");
+            }
+            LockSupport.parkNanos(this, backoff);
+            if (Thread.interrupted()) {
+                throw new IllegalStateException("Interrupted while trying to write to a queue");
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * Close this writer. Will attempt to write all enqueued buffers and will stop the thread if created.
+     */
+    public void close() {
+        run = false;
+        if (!started.get()) {
+            // thread never started
+            return;
+        }
+        try {
+            wakeUpConsumer();
+            if (cdl.await(1000, TimeUnit.MILLISECONDS)) {
+                // writer thread finished because we set run to false
+                BufferData available;
+                while ((available = poll()) != null) {
+                    try {
+                        writeNow(available);
+                    } catch (Exception e) {
+                        LOGGER.log(System.Logger.Level.TRACE, "Failed to write last buffers during writer shutdown", e);
+                        // in case we fail to write to socket when closing, it is probably because it is already closed
+                        // we still need to release all buffers
+                    }
+                }
+            }
+            Thread current = thread;
+            if (current != null) {
+                // fail blocked writers
+                current.interrupt();
+            }
+        } catch (InterruptedException e) {            // failed to get
+        }
+    }
+
+    private boolean offer(BufferData buffer) {
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, buffer);
+                    // volatile write, so the consumer cannot miss the data when checking parked flag
+                    sequences.set(index, position + 1);
+                    if (consumerParked) {
+                        wakeUpConsumer();
+                    }
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (diff < 0) {
+                // full
+                return false;
+            } else {
+                // another producer took this slot
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    // only called by the consumer (writer thread, or close after writer thread finished)
+    private BufferData poll() {
+        long position = consumerPosition;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        BufferData result = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        consumerPosition = position + 1;
+        return result;
+    }
+
+    private void wakeUpConsumer() {
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    private void run() {
+        this.thread = Thread.currentThread();
+        this.thread.setName("[" + socket().socketId() + " " + socket().childSocketId() + "]");
+        try {
+            while (run) {
+                BufferData first = poll();
+                if (first == null) {
+                    consumerParked = true;
+                    // check again, a producer may have written data before seeing the parked flag
+                    first = poll();
+                    if (first == null) {
+                        LockSupport.park(this);
+                        consumerParked = false;
+                        continue;
+                    }
+                    consumerParked = false;
+                }
+                batch[0] = first;
+                int length = 1;
+                while (length < batch.length) {
+                    BufferData next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch[length++] = next;
+                }
+                try {
+                    socket().write(batch, length);
+                } finally {
+                    for (int i = 0; i < length; i++) {
+                        batch[i] = null;
+                    }
+                }
+            }
+            cdl.countDown();
+        } catch (Throwable e) {
+            this.caught = e;
+            this.run = false;
+        }
+    }
+
+    private void checkRunning() {
+        if (started.compareAndSet(false, true)) {
+            // start writer on first asynchronous write
+            executor.submit(this::run);
+        }
+        if (!run) {
+            throw new SocketWriterException(caught);
+        }
+    }
+}
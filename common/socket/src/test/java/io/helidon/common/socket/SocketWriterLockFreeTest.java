@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.socket;
+
+import java.io.DataInputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.buffers.BufferData;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class SocketWriterLockFreeTest {
+    private static final int PRODUCERS = 8;
+    private static final int MESSAGES = 2000;
+
+    @Test
+    void testConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (Socket client = new Socket(InetAddress.getLoopbackAddress(), server.socket().getLocalPort())) {
+                Socket accepted = server.accept().socket();
+                PlainSocket socket = PlainSocket.server(accepted, "child", "server");
+                // small queue, so producers must wait for space
+                SocketWriter writer = SocketWriter.create(executor, socket, 16, true, Duration.ofSeconds(10));
+                assertThat(writer instanceof SocketWriterLockFree, is(true));
+
+                List<Future<?>> producers = new ArrayList<>();
+                for (int producer = 0; producer < PRODUCERS; producer++) {
+                    int producerId = producer;
+                    producers.add(executor.submit(() -> {
+                        for (int message = 0; message < MESSAGES; message++) {
+                            writer.write(BufferData.create(8)
+                                                 .writeInt32(producerId)
+                                                 .writeInt32(message));
+                        }
+                    }));
+                }
+
+                // each buffer is written as a whole, and buffers of a single producer are written in order
+                int[] expected = new int[PRODUCERS];
+                DataInputStream in = new DataInputStream(client.getInputStream());
+                for (int i = 0; i < PRODUCERS * MESSAGES; i++) {
+                    int producerId = in.readInt();
+                    int message = in.readInt();
+                    assertThat(message, is(expected[producerId]));
+                    expected[producerId]++;
+                }
+                for (Future<?> producer : producers) {
+                    producer.get(10, TimeUnit.SECONDS);
+                }
+                writer.close();
+                socket.close();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGatheringWriteWithoutChannel() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+                Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+            PlainSocket socket = PlainSocket.server(server.accept(), "child", "server");
+            socket.write(new BufferData[] {BufferData.create("Hello "), BufferData.create("World"), null}, 2);
+
+            byte[] received = new DataInputStream(client.getInputStream()).readNBytes(11);
+            assertThat(new String(received), is("Hello World"));
+            socket.close();
+        }
+    }
+}
@@ -122,6 +122,20 @@ public abstract class AbstractRegistry implements Registry {
         return Optional.ofNullable(metricStore.metadataWithIDs(name));
     }
 
+    @Override
+    public <T extends Metric> MetricHandle<T> handle(Class<T> type, String name, Tag... tags) {
+        checkHandleType(type);
+        Tag[] boundTags = tags.clone();
+        return MetricHandle.create(() -> metricStore.getOrRegisterMetric(name, type, boundTags));
+    }
+
+    @Override
+    public <T extends Metric> MetricHandle<T> handle(Class<T> type, Metadata metadata, Tag... tags) {
+        checkHandleType(type);
+        Tag[] boundTags = tags.clone();
+        return MetricHandle.create(() -> metricStore.getOrRegisterMetric(metadata, type, boundTags));
+    }
+
     @Override
     public Counter counter(String name) {
         return counter(name, NO_TAGS);
@@ -588,6 +602,13 @@ public abstract class AbstractRegistry implements Registry {
 
     // -- Private methods -----------------------------------------------------
 
+    private static void checkHandleType(Class<? extends Metric> type) {
+        // a gauge cannot be registered without its value function
+        if (Gauge.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Gauges cannot be bound to a handle, use the gauge methods of the registry");
+        }
+    }
+
     private static boolean enforceConsistentMetadataType(Metadata existingMetadata, MetricType newType, Tag... tags) {
         if (!existingMetadata.getTypeRaw().equals(newType)) {
             throw new IllegalArgumentException("Attempting to register a new metric "
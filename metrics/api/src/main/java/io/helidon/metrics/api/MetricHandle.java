@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics.api;
+
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.metrics.Metric;
+
+/**
+ * Metric bound once (for example in a constructor), so code on a hot path does not look the metric up in the registry.
+ * <p>
+ * Unlike a plain reference to the metric, the handle is still valid when the metric is removed from the registry:
+ * the next call to {@link #get()} registers the metric again, as a call to the registry would.
+ * <pre>{@code
+ * MetricHandle<Counter> requests = registry.handle(Counter.class, "requests", new Tag("method", "GET"));
+ * ...
+ * requests.get().inc();
+ * }</pre>
+ *
+ * @param <T> type of the metric
+ */
+public final class MetricHandle<T extends Metric> implements Supplier<T> {
+    private final Supplier<T> registration;
+    private volatile T metric;
+
+    private MetricHandle(Supplier<T> registration) {
+        this.registration = registration;
+    }
+
+    /**
+     * Create a new handle.
+     *
+     * @param registration gets or registers the metric in a registry
+     * @param <T> type of the metric
+     * @return a new handle with the metric registered
+     */
+    public static <T extends Metric> MetricHandle<T> create(Supplier<T> registration) {
+        MetricHandle<T> handle = new MetricHandle<>(registration);
+        handle.metric = registration.get();
+        return handle;
+    }
+
+    /**
+     * The bound metric, registered again if it was removed from the registry.
+     *
+     * @return metric
+     */
+    @Override
+    public T get() {
+        T current = metric;
+        if (AbstractRegistry.isMarkedAsDeleted(current)) {
+            current = registration.get();
+            metric = current;
+        }
+        return current;
+    }
+}
@@ -28,6 +28,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -54,14 +55,30 @@ import org.eclipse.microprofile.metrics.Tag;
  *     metrics, and metric IDs, there is a bewildering set of method signatures that can update or query the data structures
  *     holding all this information. That, plus the type generality, makes for quite the class here.
  * </p>
+ * <p>
+ *     Updates are done under a write lock. Lookups of metrics which are already registered do not lock and do not create
+ *     a {@link MetricID}; registered metrics are also indexed by name and tags (in any order), and the lock is taken only
+ *     when the metric has to be registered or when the lookup does not find a metric of the expected type.
+ * </p>
  */
 class MetricStore {
 
+    private static final ClassValue<MetricType> METRIC_TYPES = new ClassValue<>() {
+        @Override
+        protected MetricType computeValue(Class<?> type) {
+            return MetricType.from(type);
+        }
+    };
+
     private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
 
     private final Map<MetricID, HelidonMetric> allMetrics = new ConcurrentHashMap<>();
+    // lists are modified under the write lock only, and may be read without locking
     private final Map<String, List<MetricID>> allMetricIDsByName = new ConcurrentHashMap<>();
     private final Map<String, Metadata> allMetadata = new ConcurrentHashMap<>(); // metric name -> metadata
+    // registered metrics (with the registered metric ID) for lookups without locking
+    private final Map<String, MetricInstance> untaggedMetrics = new ConcurrentHashMap<>();
+    private final Map<TaggedName, MetricInstance> taggedMetrics = new ConcurrentHashMap<>();
 
     private volatile RegistrySettings registrySettings;
     private final Map<MetricType, BiFunction<String, Metadata, HelidonMetric>> metricFactories;
@@ -104,6 +121,10 @@ class MetricStore {
     }
 
     <U extends Metric> U getOrRegisterMetric(MetricID metricID, Class<U> clazz) {
+        U registered = registered(allMetrics.get(metricID), clazz);
+        if (registered != null) {
+            return registered;
+        }
         return getOrRegisterMetric(metricID.getName(),
                                    clazz,
                                    () -> allMetrics.get(metricID),
@@ -112,6 +133,10 @@ class MetricStore {
     }
 
     <U extends Metric> U getOrRegisterMetric(String metricName, Class<U> clazz, Tag... tags) {
+        U registered = registered(lookup(metricName, tags), clazz);
+        if (registered != null) {
+            return registered;
+        }
         return getOrRegisterMetric(metricName,
                                    clazz,
                                    () -> getMetricLocked(metricName, tags),
@@ -120,6 +145,11 @@ class MetricStore {
     }
 
     <U extends Metric> U getOrRegisterMetric(Metadata newMetadata, Class<U> clazz, Tag... tags) {
+        HelidonMetric existing = lookup(newMetadata.getName(), tags);
+        U registered = registered(existing, clazz);
+        if (registered != null && metadataMatches(existing.metadata(), newMetadata)) {
+            return registered;
+        }
         return writeAccess(() -> {
             HelidonMetric metric = getMetricLocked(newMetadata.getName(), tags);
             if (metric == null) {
@@ -137,7 +167,8 @@ class MetricStore {
     }
 
     <T, R extends Number> Gauge<R> getOrRegisterGauge(String name, T object, Function<T, R> func, Tag... tags) {
-        return getOrRegisterGauge(() -> getMetricLocked(name, tags),
+        return getOrRegisterGauge(lookup(name, tags),
+                                  () -> getMetricLocked(name, tags),
                                   () -> getConsistentMetadataLocked(name, MetricType.GAUGE),
                                   () -> new MetricID(name, tags),
                                   (Metadata metadata) -> functionBasedGaugeFactory.createGauge(metadata,
@@ -146,7 +177,8 @@ class MetricStore {
     }
 
     <R extends Number> Gauge<R> getOrRegisterGauge(String name, Supplier<R> valueSupplier, Tag... tags) {
-        return getOrRegisterGauge(() -> getMetricLocked(name, tags),
+        return getOrRegisterGauge(lookup(name, tags),
+                                  () -> getMetricLocked(name, tags),
                                   () -> getConsistentMetadataLocked(name, MetricType.GAUGE),
                                   () -> new MetricID(name, tags),
                                   (Metadata metadata) -> supplierBasedGaugeFactory.createGauge(metadata,
@@ -157,7 +189,8 @@ class MetricStore {
                                                       T object,
                                                       Function<T, R> valueFunction,
                                                       Tag... tags) {
-        return getOrRegisterGauge(() -> getMetricLocked(newMetadata.getName(), tags),
+        return getOrRegisterGauge(lookup(newMetadata.getName(), tags),
+                                  () -> getMetricLocked(newMetadata.getName(), tags),
                                   () -> getConsistentMetadataLocked(newMetadata),
                                   () -> new MetricID(newMetadata.getName(), tags),
                                   (Metadata metadata) -> functionBasedGaugeFactory.createGauge(metadata,
@@ -169,7 +202,8 @@ class MetricStore {
                                                    Supplier<R> valueSupplier,
                                                    Tag... tags) {
         String metricName = newMetadata.getName();
-        return getOrRegisterGauge(() -> getMetricLocked(metricName, tags),
+        return getOrRegisterGauge(lookup(metricName, tags),
+                                  () -> getMetricLocked(metricName, tags),
                                   () -> getConsistentMetadataLocked(newMetadata),
                                   () -> new MetricID(metricName, tags),
                                   (Metadata metadata) -> supplierBasedGaugeFactory.createGauge(metadata,
@@ -177,7 +211,8 @@ class MetricStore {
     }
 
     <T, R extends Number> Gauge<R> getOrRegisterGauge(MetricID metricID, T object, Function<T, R> valueFunction) {
-        return getOrRegisterGauge(() -> allMetrics.get(metricID),
+        return getOrRegisterGauge(allMetrics.get(metricID),
+                                  () -> allMetrics.get(metricID),
                                   () -> allMetadata.get(metricID.getName()),
                                   () -> metricID,
                                   (Metadata metadata) -> functionBasedGaugeFactory.createGauge(metadata,
@@ -186,17 +221,22 @@ class MetricStore {
     }
 
     <R extends Number> Gauge<R> getOrRegisterGauge(MetricID metricID, Supplier<R> valueSupplier) {
-        return getOrRegisterGauge(() -> allMetrics.get(metricID),
+        return getOrRegisterGauge(allMetrics.get(metricID),
+                                  () -> allMetrics.get(metricID),
                                   () -> allMetadata.get(metricID.getName()),
                                   () -> metricID,
                                   (Metadata metadata) -> supplierBasedGaugeFactory.createGauge(metadata,
                                                                                                valueSupplier));
     }
 
-    private <R extends Number> Gauge<R> getOrRegisterGauge(Supplier<HelidonMetric> metricFinder,
+    private <R extends Number> Gauge<R> getOrRegisterGauge(HelidonMetric registered,
+                                                           Supplier<HelidonMetric> metricFinder,
                                                            Supplier<Metadata> metadataFinder,
                                                            Supplier<MetricID> metricIDSupplier,
                                                            Function<Metadata, Gauge<R>> gaugeFactory) {
+        if (registered instanceof Gauge) {
+            return (Gauge<R>) registered;
+        }
         return writeAccess(() -> {
             HelidonMetric metric = metricFinder.get();
             if (metric == null) {
@@ -236,6 +276,7 @@ class MetricStore {
                     allMetricIDsByName.remove(metricID.getName());
                     allMetadata.remove(metricID.getName());
                 }
+                unindexLocked(metricID);
                 HelidonMetric doomedMetric = allMetrics.remove(metricID);
                 if (doomedMetric != null) {
                     doomedMetric.markAsDeleted();
@@ -253,6 +294,7 @@ class MetricStore {
             }
             boolean result = false;
             for (MetricID metricID : doomedMetricsIDs) {
+                unindexLocked(metricID);
                 HelidonMetric metric = allMetrics.get(metricID);
                 if (metric != null) {
                     metric.markAsDeleted();
@@ -334,6 +376,10 @@ class MetricStore {
      * @return matching metric; null if no metric is registered with the specified name
      */
     MetricInstance untaggedOrFirstMetricInstance(String metricName) {
+        MetricInstance untagged = untaggedMetrics.get(metricName);
+        if (untagged != null) {
+            return untagged;
+        }
         return readAccess(() -> {
             List<MetricID> metricIDs = allMetricIDsByName.get(metricName);
             if (metricIDs == null || metricIDs.isEmpty()) {
@@ -418,11 +464,41 @@ class MetricStore {
     private HelidonMetric registerMetricLocked(MetricID metricID, HelidonMetric metric) {
         allMetrics.put(metricID, metric);
         allMetricIDsByName
-                .computeIfAbsent(metricID.getName(), k -> new ArrayList<>())
+                .computeIfAbsent(metricID.getName(), k -> new CopyOnWriteArrayList<>())
                 .add(metricID);
+        MetricInstance instance = new MetricInstance(metricID, metric);
+        if (metricID.getTags().isEmpty()) {
+            untaggedMetrics.put(metricID.getName(), instance);
+        } else {
+            taggedMetrics.put(new TaggedName(metricID.getName(), metricID.getTagsAsArray()), instance);
+        }
         return metric;
     }
 
+    private void unindexLocked(MetricID metricID) {
+        if (metricID.getTags().isEmpty()) {
+            untaggedMetrics.remove(metricID.getName());
+        } else {
+            taggedMetrics.remove(new TaggedName(metricID.getName(), metricID.getTagsAsArray()));
+        }
+    }
+
+    // lock-free lookup of a registered metric, null if not registered (or if the tags contain duplicate names)
+    private HelidonMetric lookup(String metricName, Tag... tags) {
+        MetricInstance instance = (tags == null || tags.length == 0)
+                ? untaggedMetrics.get(metricName)
+                : taggedMetrics.get(new TaggedName(metricName, tags));
+        return instance == null ? null : instance.metric();
+    }
+
+    // the registered metric, if it is of the requested type; a mismatch is reported by the locked path
+    private static <U extends Metric> U registered(HelidonMetric metric, Class<U> clazz) {
+        if (clazz.isInstance(metric) && metric.metadata().getTypeRaw() == METRIC_TYPES.get(clazz)) {
+            return clazz.cast(metric);
+        }
+        return null;
+    }
+
     private Metadata getConsistentMetadataLocked(String metricName, MetricType metricType) {
         Metadata result = allMetadata.get(metricName);
         if (result != null) {
@@ -539,6 +615,22 @@ class MetricStore {
         return newTags.equals(tagMap);
     }
 
+    private static boolean containsAll(Tag[] tags, Tag[] expected) {
+        for (Tag tag : expected) {
+            boolean found = false;
+            for (Tag candidate : tags) {
+                if (candidate.getTagName().equals(tag.getTagName()) && candidate.getTagValue().equals(tag.getTagValue())) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static void enforceConsistentMetadata(Metadata existingMetadata, Metadata newMetadata) {
         if (!metadataMatches(existingMetadata, newMetadata)) {
             throw new IllegalArgumentException("New metadata conflicts with existing metadata with the same name; existing: "
@@ -560,4 +652,44 @@ class MetricStore {
                 && Objects.equals(a.getDescription(), b.getDescription())
                 && Objects.equals(a.getUnit(), b.getUnit());
     }
+
+    /**
+     * Metric name with tags, equal regardless of the order of the tags.
+     */
+    private static final class TaggedName {
+        private final String name;
+        private final Tag[] tags;
+        private final int hash;
+
+        private TaggedName(String name, Tag[] tags) {
+            this.name = name;
+            this.tags = tags;
+            int hash = name.hashCode();
+            for (Tag tag : tags) {
+                hash += tag.getTagName().hashCode() * 31 + tag.getTagValue().hashCode();
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TaggedName other)) {
+                return false;
+            }
+            // tags of a registered metric have unique names, so this is false if the other tags contain duplicates
+            return hash == other.hash
+                    && name.equals(other.name)
+                    && tags.length == other.tags.length
+                    && containsAll(tags, other.tags)
+                    && containsAll(other.tags, tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -20,8 +20,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.Metric;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
 
 /**
  * Helidon Metric registry.
@@ -99,4 +102,32 @@ public interface Registry extends MetricRegistry {
      * @return metric instance
      */
     HelidonMetric getMetric(MetricID metricID);
+
+    /**
+     * Get or register a metric and bind it to a handle, so code on a hot path does not need to look it up
+     * for each use.
+     *
+     * @param type type of the metric (such as {@link org.eclipse.microprofile.metrics.Counter}), gauges are not supported
+     * @param name metric name
+     * @param tags metric tags
+     * @param <T> type of the metric
+     * @return handle of the metric
+     * @throws IllegalArgumentException in case a metric with the same name and a different type exists,
+     *                                  or the type is a gauge
+     */
+    <T extends Metric> MetricHandle<T> handle(Class<T> type, String name, Tag... tags);
+
+    /**
+     * Get or register a metric and bind it to a handle, so code on a hot path does not need to look it up
+     * for each use.
+     *
+     * @param type     type of the metric (such as {@link org.eclipse.microprofile.metrics.Counter}), gauges are not supported
+     * @param metadata metric metadata
+     * @param tags     metric tags
+     * @param <T> type of the metric
+     * @return handle of the metric
+     * @throws IllegalArgumentException in case a metric with the same name and different metadata exists,
+     *                                  or the type is a gauge
+     */
+    <T extends Metric> MetricHandle<T> handle(Class<T> type, Metadata metadata, Tag... tags);
 }
@@ -76,6 +76,33 @@ public interface RegistrySettings {
      */
     boolean isMetricEnabled(String dottedName);
 
+    /**
+     * Returns the reservoir histograms and timers in the registry use to compute snapshots of recorded values.
+     * Settings that do not select a reservoir use {@link Reservoir#EXPONENTIALLY_DECAYING}.
+     *
+     * @return reservoir type
+     */
+    default Reservoir reservoir() {
+        return Reservoir.EXPONENTIALLY_DECAYING;
+    }
+
+    /**
+     * Reservoir of values recorded by histograms and timers, from which snapshots (quantiles, mean, min, max) are computed.
+     */
+    enum Reservoir {
+        /**
+         * Random sample of recorded values, exponentially biased towards recent values.
+         * Exact for the values it keeps, but updating it takes a lock and allocates.
+         */
+        EXPONENTIALLY_DECAYING,
+
+        /**
+         * Counts of recorded values in logarithmic buckets, with a bounded relative error of quantiles.
+         * Updating it does not lock or allocate, and scales with concurrent updates.
+         */
+        SKETCH
+    }
+
     /**
      * Builder for {@code RegistrySettings}.
      */
@@ -97,6 +124,11 @@ public interface RegistrySettings {
          */
         String TYPE_CONFIG_KEY = "type";
 
+        /**
+         * Config key within the registry's config section selecting the reservoir of histograms and timers.
+         */
+        String RESERVOIR_CONFIG_KEY = "reservoir";
+
         /**
          * Sets whether the metric type should be enabled.
          *
@@ -120,6 +152,21 @@ public interface RegistrySettings {
                 description = "Name filtering, featuring optional exclude and include settings")
         Builder filterSettings(RegistryFilterSettings.Builder registryFilterSettingsBuilder);
 
+        /**
+         * Sets the reservoir used by histograms and timers created in the registry.
+         * Builders that do not support selecting a reservoir ignore it, and build settings using
+         * {@link Reservoir#EXPONENTIALLY_DECAYING}.
+         *
+         * @param reservoir reservoir type
+         * @return updated builder
+         */
+        @ConfiguredOption(
+                key = RESERVOIR_CONFIG_KEY,
+                value = "EXPONENTIALLY_DECAYING")
+        default Builder reservoir(Reservoir reservoir) {
+            return this;
+        }
+
         /**
          * Sets values in the builder based on the provided {@code Config} node.
          *
@@ -16,7 +16,9 @@
 package io.helidon.metrics.api;
 
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
 import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.SimpleTimer;
@@ -26,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -126,4 +129,63 @@ class MetricStoreTests {
         Counter counter2 = store.getOrRegisterMetric(metadata, Counter.class, tags2);
         assertThat("Counters with overlapping but different tags", counter1, not(is(counter2)));
     }
+
+    @Test
+    void testSameNameTagsInDifferentOrder() {
+        NoOpMetricRegistry registry = NoOpMetricRegistry.create(MetricRegistry.Type.APPLICATION);
+
+        MetricStore store = MetricStore.create(REGISTRY_SETTINGS,
+                                               NoOpMetricRegistry.NO_OP_METRIC_FACTORIES,
+                                               null,
+                                               null,
+                                               MetricRegistry.Type.APPLICATION,
+                                               registry::toImpl);
+
+        Counter counter1 = store.getOrRegisterMetric("a", Counter.class, new Tag("foo", "1"), new Tag("bar", "1"));
+        Counter counter2 = store.getOrRegisterMetric("a", Counter.class, new Tag("bar", "1"), new Tag("foo", "1"));
+        Counter counter3 = store.getOrRegisterMetric(new MetricID("a", new Tag("foo", "1"), new Tag("bar", "1")),
+                                                     Counter.class);
+        assertThat("Counters with tags in different order", counter1, sameInstance(counter2));
+        assertThat("Counter found by metric ID", counter1, sameInstance(counter3));
+        assertThrows(IllegalArgumentException.class, () ->
+                store.getOrRegisterMetric("a", SimpleTimer.class, new Tag("foo", "1"), new Tag("bar", "1")));
+    }
+
+    @Test
+    void testRemovedMetricNotFound() {
+        NoOpMetricRegistry registry = NoOpMetricRegistry.create(MetricRegistry.Type.APPLICATION);
+
+        MetricStore store = MetricStore.create(REGISTRY_SETTINGS,
+                                               NoOpMetricRegistry.NO_OP_METRIC_FACTORIES,
+                                               null,
+                                               null,
+                                               MetricRegistry.Type.APPLICATION,
+                                               registry::toImpl);
+
+        Counter untagged = store.getOrRegisterMetric("a", Counter.class, NO_TAGS);
+        Counter tagged = store.getOrRegisterMetric("a", Counter.class, new Tag("foo", "1"));
+        store.remove("a");
+
+        assertThat("Untagged counter after removal", store.getOrRegisterMetric("a", Counter.class, NO_TAGS),
+                   not(sameInstance(untagged)));
+        assertThat("Tagged counter after removal", store.getOrRegisterMetric("a", Counter.class, new Tag("foo", "1")),
+                   not(sameInstance(tagged)));
+    }
+
+    @Test
+    void testHandle() {
+        NoOpMetricRegistry registry = NoOpMetricRegistry.create(MetricRegistry.Type.APPLICATION);
+
+        MetricHandle<Counter> handle = registry.handle(Counter.class, "a", new Tag("foo", "1"));
+        Counter counter = handle.get();
+        assertThat("Bound counter", counter, sameInstance(registry.counter("a", new Tag("foo", "1"))));
+        assertThat("Bound counter on second use", handle.get(), sameInstance(counter));
+
+        registry.remove(new MetricID("a", new Tag("foo", "1")));
+        Counter registeredAgain = handle.get();
+        assertThat("Counter registered again", registeredAgain, not(sameInstance(counter)));
+        assertThat("Counter registered again", registeredAgain, sameInstance(registry.counter("a", new Tag("foo", "1"))));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.handle(Gauge.class, "b"));
+    }
 }
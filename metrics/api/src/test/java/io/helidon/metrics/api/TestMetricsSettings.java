@@ -45,6 +45,7 @@ public class TestMetricsSettings {
     private static Config withTwoRegistrySettings;
     private static Config registrySettingsWithBadFilterSyntax;
     private static Config withSimpleFilter;
+    private static Config withReservoir;
 
     @BeforeAll
     static void loadConfig() throws IOException {
@@ -58,6 +59,7 @@ public class TestMetricsSettings {
         withTwoRegistrySettings = all.get("withTwoRegistrySettings").get("metrics");
         registrySettingsWithBadFilterSyntax = all.get("registrySettingsWithBadFilterSyntax").get("metrics");
         withSimpleFilter = all.get("withSimpleFilter").get("metrics");
+        withReservoir = all.get("withReservoir").get("metrics");
     }
 
     @Test
@@ -106,6 +108,18 @@ public class TestMetricsSettings {
         }
     }
 
+    @Test
+    void testRegistryReservoir() {
+        MetricsSettings metricsSettings = MetricsSettings.builder().config(withReservoir).build();
+
+        assertThat("Reservoir of application registry",
+                   metricsSettings.registrySettings(MetricRegistry.Type.APPLICATION).reservoir(),
+                   is(RegistrySettings.Reservoir.SKETCH));
+        assertThat("Reservoir of vendor registry",
+                   metricsSettings.registrySettings(MetricRegistry.Type.VENDOR).reservoir(),
+                   is(RegistrySettings.Reservoir.EXPONENTIALLY_DECAYING));
+    }
+
     @Test
     void testOneRegistrySettings() {
         MetricsSettingsImpl metricsSettings = (MetricsSettingsImpl) MetricsSettings.builder().config(withOneRegistrySettings)
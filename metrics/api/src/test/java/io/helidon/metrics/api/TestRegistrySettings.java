@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 Oracle and/or its affiliates.
+ * Copyright (c) 2021, 2022 Oracle and/or its affiliates.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -101,6 +101,20 @@ class TestRegistrySettings {
                    is(true));
     }
 
+    @Test
+    void testReservoirConfig() {
+        assertThat("Default reservoir",
+                   RegistrySettings.create().reservoir(),
+                   is(RegistrySettings.Reservoir.EXPONENTIALLY_DECAYING));
+
+        Config config = Config.just(ConfigSources.create(Map.of("reservoir", "sketch")));
+        RegistrySettings mts = RegistrySettings.builder()
+                .config(config)
+                .build();
+
+        assertThat("Configured reservoir", mts.reservoir(), is(RegistrySettings.Reservoir.SKETCH));
+    }
+
     @Test
     void testInvalidConfig() {
         Map<String, String> configMap = Map.of("filter.include", "mine\\..*|bad(one");
@@ -20,6 +20,7 @@ import java.util.Objects;
 import java.util.concurrent.atomic.LongAdder;
 
 import io.helidon.metrics.api.LabeledSnapshot;
+import io.helidon.metrics.api.RegistrySettings;
 import io.helidon.metrics.api.SnapshotMetric;
 
 import org.eclipse.microprofile.metrics.Histogram;
@@ -42,7 +43,15 @@ final class HelidonHistogram extends MetricImpl implements Histogram, SnapshotMe
     }
 
     static HelidonHistogram create(String type, Metadata metadata, Clock clock) {
-        return new HelidonHistogram(type, metadata, new HistogramImpl(clock));
+        return create(type, metadata, clock, RegistrySettings.Reservoir.EXPONENTIALLY_DECAYING);
+    }
+
+    static HelidonHistogram create(String type, Metadata metadata, RegistrySettings.Reservoir reservoir) {
+        return create(type, metadata, Clock.system(), reservoir);
+    }
+
+    static HelidonHistogram create(String type, Metadata metadata, Clock clock, RegistrySettings.Reservoir reservoir) {
+        return new HelidonHistogram(type, metadata, new HistogramImpl(clock, reservoir));
     }
 
     static HelidonHistogram create(String type, Metadata metadata, Histogram delegate) {
@@ -95,10 +104,10 @@ final class HelidonHistogram extends MetricImpl implements Histogram, SnapshotMe
     static final class HistogramImpl implements Histogram {
         private final LongAdder counter = new LongAdder();
         private final LongAdder sum = new LongAdder();
-        private final ExponentiallyDecayingReservoir reservoir;
+        private final Reservoir reservoir;
 
-        private HistogramImpl(Clock clock) {
-            this.reservoir = new ExponentiallyDecayingReservoir(clock);
+        private HistogramImpl(Clock clock, RegistrySettings.Reservoir reservoir) {
+            this.reservoir = Reservoir.create(reservoir, clock);
         }
 
         public void update(int value) {
@@ -133,8 +142,8 @@ final class HelidonHistogram extends MetricImpl implements Histogram, SnapshotMe
             return reservoir.getSnapshot();
         }
 
-        WeightedSnapshot snapshot() {
-            return reservoir.getSnapshot();
+        LabeledSnapshot snapshot() {
+            return reservoir.snapshot();
         }
 
         @Override
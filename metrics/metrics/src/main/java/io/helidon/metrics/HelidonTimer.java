@@ -22,6 +22,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.helidon.metrics.api.LabeledSnapshot;
+import io.helidon.metrics.api.RegistrySettings;
 import io.helidon.metrics.api.SnapshotMetric;
 
 import org.eclipse.microprofile.metrics.Metadata;
@@ -46,7 +47,15 @@ final class HelidonTimer extends MetricImpl implements Timer, SnapshotMetric {
     }
 
     static HelidonTimer create(String repoType, Metadata metadata, Clock clock) {
-        return create(repoType, metadata, new TimerImpl(repoType, metadata.getName(), clock));
+        return create(repoType, metadata, clock, RegistrySettings.Reservoir.EXPONENTIALLY_DECAYING);
+    }
+
+    static HelidonTimer create(String repoType, Metadata metadata, RegistrySettings.Reservoir reservoir) {
+        return create(repoType, metadata, Clock.system(), reservoir);
+    }
+
+    static HelidonTimer create(String repoType, Metadata metadata, Clock clock, RegistrySettings.Reservoir reservoir) {
+        return create(repoType, metadata, new TimerImpl(repoType, metadata.getName(), clock, reservoir));
     }
 
     static HelidonTimer create(String repoType, Metadata metadata, Timer metric) {
@@ -150,7 +159,7 @@ final class HelidonTimer extends MetricImpl implements Timer, SnapshotMetric {
         private final Clock clock;
         private long elapsedTimeNanos;
 
-        TimerImpl(String repoType, String name, Clock clock) {
+        TimerImpl(String repoType, String name, Clock clock, RegistrySettings.Reservoir reservoir) {
             this.meter = HelidonMeter.create(repoType, Metadata.builder()
                     .withName(name)
                     .withType(MetricType.METERED)
@@ -158,7 +167,7 @@ final class HelidonTimer extends MetricImpl implements Timer, SnapshotMetric {
             this.histogram = HelidonHistogram.create(repoType, Metadata.builder()
                     .withName(name)
                     .withType(MetricType.HISTOGRAM)
-                    .build(), clock);
+                    .build(), clock, reservoir);
             this.clock = clock;
         }
 
@@ -126,14 +126,19 @@ public class Registry extends AbstractRegistry {
     protected Map<MetricType, BiFunction<String, Metadata, io.helidon.metrics.api.HelidonMetric>> prepareMetricFactories() {
         // Omit gauge because creating a gauge requires an existing delegate instance.
         // These factory methods do not use delegates.
+        // Histograms and timers use the reservoir from the settings current when they are created.
         return Map.of(MetricType.COUNTER, HelidonCounter::create,
-                MetricType.HISTOGRAM, HelidonHistogram::create,
+                MetricType.HISTOGRAM, (type, metadata) -> HelidonHistogram.create(type, metadata, reservoir()),
                 MetricType.METERED, HelidonMeter::create,
-                MetricType.TIMER, HelidonTimer::create,
+                MetricType.TIMER, (type, metadata) -> HelidonTimer.create(type, metadata, reservoir()),
                 MetricType.SIMPLE_TIMER, HelidonSimpleTimer::create,
                 MetricType.CONCURRENT_GAUGE, HelidonConcurrentGauge::create);
     }
 
+    private RegistrySettings.Reservoir reservoir() {
+        return registrySettings.get().reservoir();
+    }
+
     @Override
     protected <T, R extends Number> Gauge<R> createGauge(Metadata metadata,
                                                               T object,
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.metrics;
+
+import io.helidon.metrics.api.LabeledSnapshot;
+import io.helidon.metrics.api.RegistrySettings;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+
+/**
+ * Values recorded by a histogram, from which snapshots are computed.
+ */
+interface Reservoir {
+
+    /**
+     * Create a reservoir of the configured type.
+     *
+     * @param type reservoir type
+     * @param clock clock to use
+     * @return a new reservoir
+     */
+    static Reservoir create(RegistrySettings.Reservoir type, Clock clock) {
+        switch (type) {
+        case SKETCH:
+            return new SketchReservoir();
+        case EXPONENTIALLY_DECAYING:
+        default:
+            return new ExponentiallyDecayingReservoir(clock);
+        }
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value value
+     * @param label exemplar label, empty if none
+     */
+    void update(long value, String label);
+
+    /**
+     * Record a value with a fixed timestamp.
+     *
+     * @param value value
+     * @param timestamp epoch timestamp of the value in seconds
+     * @param label exemplar label, empty if none
+     */
+    void update(long value, long timestamp, String label);
+
+    /**
+     * Snapshot of the recorded values.
+     *
+     * @return snapshot
+     */
+    Snapshot getSnapshot();
+
+    /**
+     * Snapshot of the recorded values with exemplars.
+     *
+     * @return labeled snapshot
+     */
+    LabeledSnapshot snapshot();
+}
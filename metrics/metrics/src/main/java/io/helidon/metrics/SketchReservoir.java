@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.helidon.metrics.WeightedSnapshot.WeightedSample;
+
+/**
+ * Reservoir counting recorded values in buckets of exponentially growing width, in the manner of HdrHistogram.
+ * <p>
+ * Values below {@value #LINEAR_BUCKETS} have a bucket each. Every higher power of two is split into {@value #SUB_BUCKETS}
+ * buckets of equal width, so the middle of a bucket is within 1/64 (about 1.6%) of any value counted in it, and all
+ * {@code long} values fit into {@value #BUCKETS} buckets. Negative values are counted as zero, the minimum is still exact.
+ * <p>
+ * Recording a value increments a counter of an {@link AtomicLongArray}, without locking or allocating. Counters are striped:
+ * a thread updates the stripe chosen by its identity hash, and once updates observe contention, more stripes are added
+ * (up to the number of processors), similar to {@link java.util.concurrent.atomic.LongAdder}.
+ * <p>
+ * To favor recent values, values are recorded into a window that is replaced every {@code ROTATION_INTERVAL}. A snapshot
+ * merges the current and the previous window, so it reflects between one and two intervals of recorded values.
+ */
+class SketchReservoir implements Reservoir {
+
+    static final int LINEAR_BITS = 6;
+    static final int LINEAR_BUCKETS = 1 << LINEAR_BITS;
+    static final int SUB_BUCKET_BITS = LINEAR_BITS - 1;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private static final Duration ROTATION_INTERVAL = Duration.ofMinutes(1);
+    private static final int MAX_STRIPES = maxStripes();
+
+    private volatile Windows windows = new Windows(new Window(1), null);
+
+    SketchReservoir() {
+        PeriodicExecutor.enroll(this::rotate, ROTATION_INTERVAL);
+    }
+
+    @Override
+    public void update(long value, String label) {
+        windows.current().record(value, label);
+    }
+
+    /**
+     * Adds a value. Values are kept per window, so the timestamp of the value is ignored.
+     *
+     * @param value     the value to be added
+     * @param timestamp the epoch timestamp of {@code value} in seconds
+     * @param label     the optional label associated with the sample
+     */
+    @Override
+    public void update(long value, long timestamp, String label) {
+        update(value, label);
+    }
+
+    @Override
+    public SketchSnapshot getSnapshot() {
+        Windows windows = this.windows;
+        long[] counts = new long[BUCKETS];
+        WeightedSample[] exemplars = ExemplarServiceManager.isActive() ? new WeightedSample[BUCKETS] : null;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        // previous window first, so exemplars of the current window replace older ones
+        for (Window window : new Window[] {windows.previous(), windows.current()}) {
+            if (window != null) {
+                window.addTo(counts, exemplars);
+                min = Math.min(min, window.min.get());
+                max = Math.max(max, window.max.get());
+            }
+        }
+        return new SketchSnapshot(counts, exemplars, min, max);
+    }
+
+    @Override
+    public SketchSnapshot snapshot() {
+        return getSnapshot();
+    }
+
+    /**
+     * Starts a new window, the current one becomes the previous one and the previous one is discarded.
+     */
+    void rotate() {
+        Window current = windows.current();
+        windows = new Windows(new Window(current.stripes.length), current);
+    }
+
+    /**
+     * Bucket of a value.
+     *
+     * @param value value
+     * @return bucket index
+     */
+    static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        // value >>> shift is within [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return LINEAR_BUCKETS + ((exponent - LINEAR_BITS) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Value representing a bucket, the middle of its range.
+     *
+     * @param bucket bucket index
+     * @return value
+     */
+    static double bucketValue(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_BUCKETS;
+        int shift = LINEAR_BITS + (offset >>> SUB_BUCKET_BITS) - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + (offset & (SUB_BUCKETS - 1))) << shift;
+        return lowest + ((1L << shift) - 1) / 2.0;
+    }
+
+    private static int maxStripes() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    }
+
+    private record Windows(Window current, Window previous) {
+    }
+
+    private static final class Window {
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+        // last exemplar of each bucket, only when exemplars are supported
+        private final AtomicReferenceArray<WeightedSample> exemplars;
+        private volatile AtomicLongArray[] stripes;
+
+        private Window(int stripeCount) {
+            AtomicLongArray[] stripes = new AtomicLongArray[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new AtomicLongArray(BUCKETS);
+            }
+            this.stripes = stripes;
+            this.exemplars = ExemplarServiceManager.isActive() ? new AtomicReferenceArray<>(BUCKETS) : null;
+        }
+
+        private void record(long value, String label) {
+            // min and max first, so a snapshot never sees a counted value outside of them
+            updateMin(value);
+            updateMax(value);
+
+            int bucket = bucket(value);
+            AtomicLongArray[] stripes = this.stripes;
+            AtomicLongArray stripe = stripes[System.identityHashCode(Thread.currentThread()) & (stripes.length - 1)];
+            long count = stripe.get(bucket);
+            if (!stripe.compareAndSet(bucket, count, count + 1)) {
+                grow(stripes);
+                stripe.getAndIncrement(bucket);
+            }
+
+            if (exemplars != null && !label.isEmpty()) {
+                exemplars.set(bucket, new WeightedSample(value, 1.0, label));
+            }
+        }
+
+        private void addTo(long[] counts, WeightedSample[] exemplars) {
+            for (AtomicLongArray stripe : stripes) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] += stripe.get(i);
+                }
+            }
+            if (exemplars != null && this.exemplars != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    WeightedSample exemplar = this.exemplars.get(i);
+                    if (exemplar != null) {
+                        exemplars[i] = exemplar;
+                    }
+                }
+            }
+        }
+
+        private void updateMin(long value) {
+            long current = min.get();
+            while (value < current && !min.compareAndSet(current, value)) {
+                current = min.get();
+            }
+        }
+
+        private void updateMax(long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        private synchronized void grow(AtomicLongArray[] observed) {
+            // another thread may have grown the stripes already
+            if (stripes != observed || observed.length >= MAX_STRIPES) {
+                return;
+            }
+            AtomicLongArray[] grown = new AtomicLongArray[observed.length * 2];
+            System.arraycopy(observed, 0, grown, 0, observed.length);
+            for (int i = observed.length; i < grown.length; i++) {
+                grown[i] = new AtomicLongArray(BUCKETS);
+            }
+            stripes = grown;
+        }
+    }
+}
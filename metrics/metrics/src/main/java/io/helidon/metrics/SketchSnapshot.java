@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.metrics.WeightedSnapshot.WeightedSample;
+import io.helidon.metrics.api.LabeledSnapshot;
+import io.helidon.metrics.api.Sample.Derived;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+
+import static io.helidon.metrics.api.Sample.derived;
+
+/**
+ * A statistical snapshot of a {@link SketchReservoir}.
+ * Each bucket is represented by its middle value, limited to the exact minimum and maximum.
+ */
+class SketchSnapshot extends Snapshot implements LabeledSnapshot {
+
+    private final long[] counts;
+    private final WeightedSample[] exemplars;
+    private final long count;
+    private final long min;
+    private final long max;
+    private final double mean;
+    private final double stdDev;
+
+    /**
+     * Create a new snapshot.
+     *
+     * @param counts    counts of values in each bucket
+     * @param exemplars exemplars of each bucket, {@code null} if exemplars are not supported
+     * @param min       lowest recorded value
+     * @param max       highest recorded value
+     */
+    SketchSnapshot(long[] counts, WeightedSample[] exemplars, long min, long max) {
+        this.counts = counts;
+        this.exemplars = exemplars;
+        this.min = min;
+        this.max = max;
+
+        long count = 0;
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                count += counts[i];
+                sum += counts[i] * bucketValue(i);
+            }
+        }
+        this.count = count;
+        this.mean = count == 0 ? 0 : sum / count;
+
+        // two-pass algorithm for variance, avoids numeric overflow
+        double variance = 0;
+        if (count > 1) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    double diff = bucketValue(i) - mean;
+                    variance += counts[i] * diff * diff;
+                }
+            }
+            variance /= count;
+        }
+        this.stdDev = Math.sqrt(variance);
+    }
+
+    /**
+     * Returns the value at the given quantile.
+     *
+     * @param quantile a given quantile, in {@code [0..1]}
+     * @return the value in the distribution at {@code quantile}
+     */
+    @Override
+    public double getValue(double quantile) {
+        return value(quantile).value();
+    }
+
+    @Override
+    public Derived value(double quantile) {
+        int bucket = bucket(quantile);
+        return bucket == -1 ? Derived.ZERO : derived(bucketValue(bucket), exemplar(bucket));
+    }
+
+    int bucket(double quantile) {
+        if ((quantile < 0.0) || (quantile > 1.0) || Double.isNaN(quantile)) {
+            throw new IllegalArgumentException(quantile + " is not in [0..1]");
+        }
+
+        if (count == 0) {
+            return -1;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return lastBucket();
+    }
+
+    /**
+     * Returns the number of values in the snapshot.
+     *
+     * @return the number of values
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the value representing each bucket that contains values, in ascending order.
+     * The sketch does not keep individual values, so each value is returned once regardless of how often it was recorded.
+     *
+     * @return the distinct values
+     */
+    @Override
+    public long[] getValues() {
+        int buckets = 0;
+        for (long bucketCount : counts) {
+            if (bucketCount != 0) {
+                buckets++;
+            }
+        }
+        long[] result = new long[buckets];
+        int index = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                result[index++] = Math.round(bucketValue(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Derived median() {
+        return value(0.5);
+    }
+
+    @Override
+    public Derived sample75thPercentile() {
+        return value(0.75);
+    }
+
+    @Override
+    public Derived sample95thPercentile() {
+        return value(0.95);
+    }
+
+    @Override
+    public Derived sample98thPercentile() {
+        return value(0.98);
+    }
+
+    @Override
+    public Derived sample99thPercentile() {
+        return value(0.99);
+    }
+
+    @Override
+    public Derived sample999thPercentile() {
+        return value(0.999);
+    }
+
+    /**
+     * Returns the highest value in the snapshot.
+     *
+     * @return the highest value
+     */
+    @Override
+    public long getMax() {
+        return max().value();
+    }
+
+    @Override
+    public WeightedSample max() {
+        return count == 0 ? WeightedSample.ZERO : sample(max, lastBucket());
+    }
+
+    /**
+     * Returns the lowest value in the snapshot.
+     *
+     * @return the lowest value
+     */
+    @Override
+    public long getMin() {
+        return min().value();
+    }
+
+    @Override
+    public WeightedSample min() {
+        return count == 0 ? WeightedSample.ZERO : sample(min, firstBucket());
+    }
+
+    /**
+     * Returns the arithmetic mean of the values in the snapshot, computed from the buckets.
+     *
+     * @return the arithmetic mean
+     */
+    @Override
+    public double getMean() {
+        return mean().value();
+    }
+
+    @Override
+    public Derived mean() {
+        return count == 0 ? Derived.ZERO : derived(mean, exemplar(SketchReservoir.bucket(Math.round(mean))));
+    }
+
+    /**
+     * Returns the standard deviation of the values in the snapshot, computed from the buckets.
+     *
+     * @return the standard deviation value
+     */
+    @Override
+    public double getStdDev() {
+        return stdDev().value();
+    }
+
+    @Override
+    public Derived stdDev() {
+        return count <= 1 ? Derived.ZERO : derived(stdDev);
+    }
+
+    /**
+     * Writes the value and count of each bucket that contains values to the given stream.
+     *
+     * @param output an output stream
+     */
+    public void dump(OutputStream output) {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.printf("%f,%d%n", bucketValue(i), counts[i]);
+                }
+            }
+        }
+    }
+
+    private double bucketValue(int bucket) {
+        return Math.min(max, Math.max(min, SketchReservoir.bucketValue(bucket)));
+    }
+
+    private WeightedSample exemplar(int bucket) {
+        return exemplars == null ? null : exemplars[bucket];
+    }
+
+    private WeightedSample sample(long value, int bucket) {
+        WeightedSample exemplar = exemplar(bucket);
+        return exemplar == null
+                ? new WeightedSample(value)
+                : new WeightedSample(value, 1.0, exemplar.timestamp(), exemplar.label());
+    }
+
+    private int firstBucket() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private int lastBucket() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.metrics.api.RegistrySettings;
+import io.helidon.metrics.serviceapi.PrometheusFormat;
+import io.helidon.metrics.serviceapi.PrometheusWriter;
+
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Unit test for {@link PrometheusWriter}.
+ */
+class PrometheusWriterTest {
+    // output of the string based implementation the writer replaced
+    private static final String PROMETHEUS = """
+            # TYPE application_hits_total counter
+            # HELP application_hits_total Counter hits
+            application_hits_total{k="1"} 1
+            application_hits_total{k="2"} 2
+            # TYPE application_requests_total counter
+            # HELP application_requests_total Counter requests
+            application_requests_total 5
+            # TYPE application_sizes_mean_bytes gauge
+            application_sizes_mean_bytes 42
+            # TYPE application_sizes_max_bytes gauge
+            application_sizes_max_bytes 42
+            # TYPE application_sizes_min_bytes gauge
+            application_sizes_min_bytes 42
+            # TYPE application_sizes_stddev_bytes gauge
+            application_sizes_stddev_bytes 0
+            # TYPE application_sizes_bytes summary
+            # HELP application_sizes_bytes Sizes
+            application_sizes_bytes_count 1
+            application_sizes_bytes_sum 42
+            application_sizes_bytes{quantile="0.5"} 42
+            application_sizes_bytes{quantile="0.75"} 42
+            application_sizes_bytes{quantile="0.95"} 42
+            application_sizes_bytes{quantile="0.98"} 42
+            application_sizes_bytes{quantile="0.99"} 42
+            application_sizes_bytes{quantile="0.999"} 42
+            # TYPE application_temperature gauge
+            # HELP application_temperature Temperature
+            application_temperature 2.25
+            """;
+
+    private Registry registry;
+
+    @BeforeEach
+    void createRegistry() {
+        registry = Registry.create(MetricRegistry.Type.APPLICATION, RegistrySettings.create());
+    }
+
+    @Test
+    void testPrometheusFormat() throws IOException {
+        registerMetrics();
+
+        assertThat(write(PrometheusWriter.create()), is(PROMETHEUS));
+        assertThat(PrometheusFormat.prometheusData(registry), is(PROMETHEUS));
+    }
+
+    @Test
+    void testOpenMetricsFormat() throws IOException {
+        registerMetrics();
+
+        // counter families are named without the _total suffix of their samples
+        String expected = PROMETHEUS.replace("# TYPE application_hits_total counter", "# TYPE application_hits counter")
+                .replace("# HELP application_hits_total", "# HELP application_hits")
+                .replace("# TYPE application_requests_total counter", "# TYPE application_requests counter")
+                .replace("# HELP application_requests_total", "# HELP application_requests")
+                + "# EOF\n";
+        assertThat(write(PrometheusWriter.create(PrometheusWriter.Format.OPENMETRICS)), is(expected));
+    }
+
+    @Test
+    void testOpenMetricsEmptyRegistry() throws IOException {
+        assertThat(write(PrometheusWriter.create(PrometheusWriter.Format.OPENMETRICS)), is("# EOF\n"));
+        assertThat(write(PrometheusWriter.create()), is(""));
+    }
+
+    @Test
+    void testExemplars() throws IOException {
+        TestExemplarService.label("trace_id=\"test\"");
+        try {
+            registerMetrics();
+        } finally {
+            TestExemplarService.label("");
+        }
+
+        String prometheus = write(PrometheusWriter.create());
+        assertThat(prometheus, containsString("application_requests_total 5 # {trace_id=\"test\"} 5 "));
+        assertThat(prometheus, containsString("application_hits_total{k=\"2\"} 2 # {trace_id=\"test\"} 2 "));
+
+        String openMetrics = write(PrometheusWriter.create(PrometheusWriter.Format.OPENMETRICS));
+        assertThat(openMetrics, containsString("application_requests_total 5 # {trace_id=\"test\"} 5 "));
+        assertThat(openMetrics, containsString("application_hits_total{k=\"2\"} 2 # {trace_id=\"test\"} 2 "));
+        assertThat(openMetrics, endsWith("# EOF\n"));
+        // OpenMetrics allows exemplars only on counters
+        for (String line : openMetrics.split("\n")) {
+            if (!line.startsWith("#") && !line.contains("_total")) {
+                assertThat(line, not(matchesPattern(".* # \\{.*")));
+            }
+        }
+    }
+
+    @Test
+    void testRemovedMetric() throws IOException {
+        registerMetrics();
+        PrometheusWriter writer = PrometheusWriter.create();
+        write(writer);
+
+        registry.remove("temperature");
+        assertThat(write(writer), not(containsString("application_temperature")));
+    }
+
+    private void registerMetrics() {
+        registry.counter(metadata("requests", "Counter requests", MetricType.COUNTER, MetricUnits.NONE)).inc(5);
+        Metadata hits = metadata("hits", "Counter hits", MetricType.COUNTER, MetricUnits.NONE);
+        registry.counter(hits, new Tag("k", "1")).inc();
+        registry.counter(hits, new Tag("k", "2")).inc(2);
+        registry.register(metadata("temperature", "Temperature", MetricType.GAUGE, MetricUnits.NONE),
+                          (Gauge<Double>) () -> 2.25);
+        registry.histogram(metadata("sizes", "Sizes", MetricType.HISTOGRAM, MetricUnits.BYTES)).update(42);
+    }
+
+    private String write(PrometheusWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out, registry);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Metadata metadata(String name, String description, MetricType type, String unit) {
+        return Metadata.builder()
+                .withName(name)
+                .withDescription(description)
+                .withType(type)
+                .withUnit(unit)
+                .build();
+    }
+}
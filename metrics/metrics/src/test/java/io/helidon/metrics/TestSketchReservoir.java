@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.helidon.metrics.api.RegistrySettings;
+
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class TestSketchReservoir {
+
+    // middle of a bucket is within 1/64 of the values counted in it
+    private static final double RELATIVE_ERROR = 1.0 / 64;
+
+    @Test
+    void checkBuckets() {
+        assertThat("Bucket of zero", SketchReservoir.bucket(0), is(0));
+        assertThat("Bucket of a negative value", SketchReservoir.bucket(-5), is(0));
+        assertThat("Bucket of the last exact value", SketchReservoir.bucket(63), is(63));
+        assertThat("Bucket of the highest value", SketchReservoir.bucket(Long.MAX_VALUE), is(SketchReservoir.BUCKETS - 1));
+
+        int previous = -1;
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 / 2 + 1) {
+            int bucket = SketchReservoir.bucket(value);
+            assertThat("Buckets grow with values", bucket, is(greaterThan(previous)));
+            assertThat("Value of bucket of " + value,
+                       SketchReservoir.bucketValue(bucket),
+                       is(closeTo(value, value * RELATIVE_ERROR)));
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void checkSnapshot() {
+        SketchReservoir reservoir = new SketchReservoir();
+        for (int i = 1; i <= 10_000; i++) {
+            reservoir.update(i, "");
+        }
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat("Size", snapshot.size(), is(10_000));
+        assertThat("Min", snapshot.getMin(), is(1L));
+        assertThat("Max", snapshot.getMax(), is(10_000L));
+        assertThat("Median", snapshot.getMedian(), is(closeTo(5_000, 5_000 * RELATIVE_ERROR)));
+        assertThat("99th percentile", snapshot.get99thPercentile(), is(closeTo(9_900, 9_900 * RELATIVE_ERROR)));
+        assertThat("Mean", snapshot.getMean(), is(closeTo(5_000.5, 5_000.5 * RELATIVE_ERROR)));
+        assertThat("Standard deviation", snapshot.getStdDev(), is(closeTo(2_886.9, 2_886.9 * RELATIVE_ERROR)));
+        assertThat("Distinct values", snapshot.getValues().length, is(lessThanOrEqualTo(SketchReservoir.BUCKETS)));
+    }
+
+    @Test
+    void checkEmptySnapshot() {
+        Snapshot snapshot = new SketchReservoir().getSnapshot();
+
+        assertThat("Size", snapshot.size(), is(0));
+        assertThat("Min", snapshot.getMin(), is(0L));
+        assertThat("Max", snapshot.getMax(), is(0L));
+        assertThat("Median", snapshot.getMedian(), is(0.0));
+        assertThat("Mean", snapshot.getMean(), is(0.0));
+    }
+
+    @Test
+    void checkRotation() {
+        SketchReservoir reservoir = new SketchReservoir();
+        reservoir.update(100, "");
+
+        reservoir.rotate();
+        reservoir.update(200, "");
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat("Size with previous window", snapshot.size(), is(2));
+        assertThat("Min with previous window", snapshot.getMin(), is(100L));
+
+        reservoir.rotate();
+        snapshot = reservoir.getSnapshot();
+        assertThat("Size after previous window is discarded", snapshot.size(), is(1));
+        assertThat("Min after previous window is discarded", snapshot.getMin(), is(200L));
+    }
+
+    @Test
+    void checkConcurrentUpdates() throws InterruptedException {
+        SketchReservoir reservoir = new SketchReservoir();
+        int threadCount = 8;
+        int updates = 100_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < updates; j++) {
+                    reservoir.update(1_000, "");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat("Size after concurrent updates", snapshot.size(), is(threadCount * updates));
+        assertThat("Median after concurrent updates", snapshot.getMedian(), is(1_000.0));
+    }
+
+    @Test
+    void checkReservoirFromSettings() {
+        Registry registry = Registry.create(MetricRegistry.Type.APPLICATION,
+                                            RegistrySettings.builder()
+                                                    .reservoir(RegistrySettings.Reservoir.SKETCH)
+                                                    .build());
+        Histogram histogram = registry.histogram("sketchHistogram");
+        histogram.update(42);
+
+        assertThat("Snapshot of histogram with sketch reservoir", histogram.getSnapshot(), is(instanceOf(SketchSnapshot.class)));
+        assertThat("Max of histogram with sketch reservoir", histogram.getSnapshot().getMax(), is(42L));
+        assertThat("Snapshot of timer with sketch reservoir",
+                   registry.timer("sketchTimer").getSnapshot(),
+                   is(instanceOf(SketchSnapshot.class)));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics.serviceapi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered output of the text exposition formats.
+ * Names and tags are written as cached bytes, numbers are formatted without creating strings where possible.
+ */
+final class ExpositionOutput {
+    private static final int BUFFER_SIZE = 8192;
+    // Double.toString switches to the computerized scientific notation from this value
+    private static final long PLAIN_DOUBLE_LIMIT = 10_000_000L;
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] POSITIVE_INFINITY = "+Inf".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEGATIVE_INFINITY = "-Inf".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] digits = new byte[20];
+    private int position;
+
+    ExpositionOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void write(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    void writeAscii(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                write(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            write(c);
+        }
+    }
+
+    void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int index = digits.length;
+        do {
+            digits[--index] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        int count = digits.length - index;
+        if (count > buffer.length - position) {
+            flushBuffer();
+        }
+        System.arraycopy(digits, index, buffer, position, count);
+        position += count;
+    }
+
+    /**
+     * Writes the same text as {@link Double#toString(double)}, except for infinities, which use the exposition format
+     * representation.
+     *
+     * @param value value to write
+     * @throws IOException in case of an I/O error
+     */
+    void writeDouble(double value) throws IOException {
+        if (Double.isNaN(value)) {
+            write(NAN);
+        } else if (Double.isInfinite(value)) {
+            write(value > 0 ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+        } else {
+            long whole = (long) value;
+            if (whole == value
+                    && whole > -PLAIN_DOUBLE_LIMIT
+                    && whole < PLAIN_DOUBLE_LIMIT
+                    && (whole != 0 || Double.doubleToRawLongBits(value) == 0)) {
+                writeLong(whole);
+                write('.');
+                write('0');
+            } else {
+                writeAscii(Double.toString(value));
+            }
+        }
+    }
+
+    void writeValue(Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double number) {
+            writeDouble(number);
+        } else {
+            writeAscii(String.valueOf(value));
+        }
+    }
+
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -16,47 +16,36 @@
 
 package io.helidon.metrics.serviceapi;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import io.helidon.metrics.api.HelidonMetric;
-import io.helidon.metrics.api.LabeledSnapshot;
-import io.helidon.metrics.api.MetricInstance;
 import io.helidon.metrics.api.Registry;
 import io.helidon.metrics.api.Sample;
-import io.helidon.metrics.api.SampledMetric;
-import io.helidon.metrics.api.SnapshotMetric;
 import io.helidon.metrics.api.SystemTagsManager;
 
-import org.eclipse.microprofile.metrics.ConcurrentGauge;
-import org.eclipse.microprofile.metrics.Counter;
-import org.eclipse.microprofile.metrics.Gauge;
-import org.eclipse.microprofile.metrics.Histogram;
 import org.eclipse.microprofile.metrics.Metadata;
-import org.eclipse.microprofile.metrics.Meter;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricUnits;
-import org.eclipse.microprofile.metrics.SimpleTimer;
-import org.eclipse.microprofile.metrics.Timer;
 
 import static java.lang.System.Logger.Level.WARNING;
 
 /**
  * Support for creating Prometheus responses for metrics endpoints.
+ * <p>
+ * To write a response directly to an output stream (and to use the OpenMetrics format), see {@link PrometheusWriter}.
  */
 public final class PrometheusFormat {
     private static final System.Logger LOGGER = System.getLogger(PrometheusFormat.class.getName());
@@ -116,16 +105,13 @@ public final class PrometheusFormat {
      * @return data of the metric
      */
     public static String prometheusDataByName(Registry registry, String metricName) {
-        StringBuilder sb = new StringBuilder();
-        boolean isFirst = true;
-        for (MetricInstance metricEntry : registry.list(metricName)) {
-            HelidonMetric metric = metricEntry.metric();
-            if (registry.enabled(metricName)) {
-                prometheusData(sb, metricEntry.id(), metric, isFirst);
-            }
-            isFirst = false;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            PrometheusWriter.create().write(out, registry, metricName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return sb.toString();
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     /**
@@ -136,8 +122,13 @@ public final class PrometheusFormat {
      */
 
     public static String prometheusData(Registry... registries) {
-        return Arrays.stream(registries).filter(r -> !r.empty()).map(PrometheusFormat::prometheusData)
-                .collect(Collectors.joining());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            PrometheusWriter.create().write(out, registries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     /**
@@ -149,41 +140,30 @@ public final class PrometheusFormat {
      * @return data of metric
      */
     public static String prometheusData(MetricID metricId, HelidonMetric value, boolean withHelpType) {
-        StringBuilder sb = new StringBuilder();
-        prometheusData(sb, metricId, value, withHelpType);
-        return sb.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private static void prometheusData(StringBuilder sb, MetricID key, HelidonMetric value, boolean withHelpType) {
-        Metadata metadata = value.metadata();
-        switch (metadata.getTypeRaw()) {
-        case CONCURRENT_GAUGE -> concurrentGauge(sb, key, metadata, value, (ConcurrentGauge) value, withHelpType);
-        case COUNTER -> counter(sb, key, metadata, value, (Counter) value, withHelpType);
-        case GAUGE -> gauge(sb, key, metadata, value, (Gauge<? extends Number>) value, withHelpType);
-        case METERED -> meter(sb, key, metadata, value, (Meter) value, withHelpType);
-        case HISTOGRAM -> histogram(sb, key, metadata, value, (Histogram) value, withHelpType);
-        case TIMER -> timer(sb, key, metadata, value, (Timer) value, withHelpType);
-        case SIMPLE_TIMER -> simpleTimer(sb, key, metadata, value, (SimpleTimer) value, withHelpType);
-        case INVALID -> throw new IllegalArgumentException("Invalid metric encountered: " + key);
-        default -> throw new IllegalArgumentException("Invalid metric type encountered: " + metadata.getTypeRaw()
-                                                              + ", key: " + key);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ExpositionOutput output = new ExpositionOutput(out);
+            PrometheusWriter.create().write(output, metricId, value, withHelpType);
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return out.toString(StandardCharsets.UTF_8);
     }
 
-    private static String nameWithUnits(String registryType, Metadata metadata, MetricID metricID) {
+    static String nameWithUnits(String registryType, Metadata metadata, MetricID metricID) {
         return nameWithUnits(registryType, metricID.getName(), units(metadata));
     }
 
-    private static String nameWithUnits(String registryType, String name, Units units) {
+    static String nameWithUnits(String registryType, String name, Units units) {
         return prometheusName(registryType, name) + units.getPrometheusUnit().map((it) -> "_" + it).orElse("");
     }
 
-    private static String prometheusName(String registryType, String name) {
+    static String prometheusName(String registryType, String name) {
         return prometheusClean(name, registryType + "_");
     }
 
-    private static String tags(Map<String, String> tags) {
+    static String tags(Map<String, String> tags) {
         StringJoiner sj = new StringJoiner(",", "{", "}").setEmptyValue("");
         SystemTagsManager.instance().allTags(tags).forEach(entry -> {
             if (entry.getKey() != null) {
@@ -193,367 +173,7 @@ public final class PrometheusFormat {
         return sj.toString();
     }
 
-    private static String prometheusData(Registry registry) {
-        StringBuilder builder = new StringBuilder();
-        Set<String> serialized = new HashSet<>();
-        registry.stream().sorted(Comparator.comparing(MetricInstance::id)).forEach(entry -> {
-            String name = entry.id().getName();
-            if (!serialized.contains(name)) {
-                prometheusData(builder, entry.id(), entry.metric(), true);
-                serialized.add(name);
-            } else {
-                prometheusData(builder, entry.id(), entry.metric(), false);
-            }
-        });
-        return builder.toString();
-    }
-
-    private static void simpleTimer(StringBuilder sb,
-                                    MetricID metricId,
-                                    Metadata metadata,
-                                    HelidonMetric helidonMetric,
-                                    SimpleTimer value,
-                                    boolean withHelpType) {
-        String tags = tags(metricId.getTags());
-        String baseName = prometheusName(helidonMetric.registryType(), metricId.getName());
-        String name = baseName + "_total";
-        help(sb, metadata, name, "counter", withHelpType);
-        sb.append(name).append(tags).append(" ").append(value.getCount());
-
-        Sample.Labeled sample = null;
-        if (helidonMetric instanceof Sample.Labeled labeled) {
-            sample = labeled;
-            sb.append(prometheusExemplar(TimeUnit.NANOSECONDS.toSeconds(labeled.value()), labeled));
-        }
-        sb.append("\n");
-
-        name = baseName + "_elapsedTime_" + MetricUnits.SECONDS;
-        if (withHelpType) {
-            prometheusType(sb, name, "gauge");
-        }
-        sb.append(name).append(tags).append(" ").append(value.getElapsedTime().toSeconds()).append(exemplarForElapsedTime(sample))
-                .append("\n");
-
-        name = baseName + "_maxTimeDuration_" + MetricUnits.SECONDS;
-        if (withHelpType) {
-            prometheusType(sb, name, "gauge");
-        }
-        sb.append(name).append(tags).append(" ").append(durationPrometheusOutput(value.getMaxTimeDuration()))
-                // todo Níma
-                //                .append(exemplarForElapsedTime(value.getMaxTimeDuration(),
-                //                                               simpleTimerImpl == null ? null : simpleTimerImpl.lastMaxSample))
-                .append("\n");
-
-        name = baseName + "_minTimeDuration_" + MetricUnits.SECONDS;
-        if (withHelpType) {
-            prometheusType(sb, name, "gauge");
-        }
-        sb.append(name).append(tags).append(" ").append(durationPrometheusOutput(value.getMinTimeDuration()))
-                // TOOD Níma
-                //                .append(exemplarForElapsedTime(getMinTimeDuration(),
-                //                                               simpleTimerImpl == null ? null : simpleTimerImpl.lastMinSample))
-                .append("\n");
-    }
-
-    private static void timer(StringBuilder sb,
-                              MetricID metricId,
-                              Metadata metadata,
-                              HelidonMetric helidonMetric,
-                              Timer value,
-                              boolean withHelpType) {
-        if (!(helidonMetric instanceof SnapshotMetric snapshotable)) {
-            return;
-        }
-        // In Prometheus, times are always expressed in seconds. So force the TimeUnits value accordingly, ignoring
-        // whatever units were specified in the timer's metadata.
-        String baseName = prometheusClean(metricId.getName(), helidonMetric.registryType() + "_");
-        PrometheusName name = PrometheusName.create(helidonMetric.registryType(),
-                                                    metadata,
-                                                    metricId,
-                                                    TimeUnits.PROMETHEUS_TIMER_CONVERSION_TIME_UNITS,
-                                                    baseName);
-
-        appendPrometheusTimerStatElement(sb, name, "rate_per_second", withHelpType, "gauge", value.getMeanRate());
-        appendPrometheusTimerStatElement(sb, name, "one_min_rate_per_second", withHelpType, "gauge", value.getOneMinuteRate());
-        appendPrometheusTimerStatElement(sb, name, "five_min_rate_per_second", withHelpType, "gauge", value.getFiveMinuteRate());
-        appendPrometheusTimerStatElement(sb,
-                                         name,
-                                         "fifteen_min_rate_per_second",
-                                         withHelpType,
-                                         "gauge",
-                                         value.getFifteenMinuteRate());
-
-        LabeledSnapshot snap = snapshotable.snapshot();
-        histogram(sb,
-                  name,
-                  metadata,
-                  snap,
-                  TimeUnits.PROMETHEUS_TIMER_CONVERSION_TIME_UNITS,
-                  value.getCount(),
-                  value.getElapsedTime().toSeconds(),
-                  withHelpType);
-    }
-
-    private static void appendPrometheusTimerStatElement(StringBuilder sb,
-                                                         PrometheusName name,
-                                                         String statName,
-                                                         boolean withHelpType,
-                                                         String typeName,
-                                                         double value) {
-        // For the timer stats output, suppress any units conversion; just emit the value directly.
-        if (withHelpType) {
-            prometheusType(sb, name.nameStat(statName), typeName);
-        }
-        sb.append(name.nameStatTags(statName)).append(" ").append(value).append("\n");
-    }
-
-    private static void histogram(StringBuilder sb,
-                                  MetricID metricId,
-                                  Metadata metadata,
-                                  HelidonMetric helidonMetric,
-                                  Histogram value,
-                                  boolean withHelpType) {
-
-        if (!(helidonMetric instanceof SnapshotMetric snapshotable)) {
-            return;
-        }
-
-        String name = metricId.getName();
-        String baseName = prometheusClean(name, helidonMetric.registryType() + "_");
-        Units units = units(metadata);
-
-        PrometheusName pName = PrometheusName.create(helidonMetric.registryType(), metadata, metricId, units, baseName);
-        histogram(sb, pName, metadata, snapshotable.snapshot(), units, value.getCount(), value.getSum(), withHelpType);
-    }
-
-    private static void histogram(StringBuilder sb,
-                                  PrometheusName name,
-                                  Metadata metadata,
-                                  LabeledSnapshot snap,
-                                  Units units,
-                                  long count,
-                                  long sum,
-                                  boolean withHelpType) {
-        // # TYPE application:file_sizes_mean_bytes gauge
-        // application:file_sizes_mean_bytes 4738.231
-        appendPrometheusElement(sb, name, "mean", withHelpType, "gauge", snap.mean());
-
-        // # TYPE application:file_sizes_max_bytes gauge
-        // application:file_sizes_max_bytes 31716
-        appendPrometheusElement(sb, name, "max", withHelpType, "gauge", snap.max());
-
-        // # TYPE application:file_sizes_min_bytes gauge
-        // application:file_sizes_min_bytes 180
-        appendPrometheusElement(sb, name, "min", withHelpType, "gauge", snap.min());
-
-        // # TYPE application:file_sizes_stddev_bytes gauge
-        // application:file_sizes_stddev_bytes 1054.7343037063602
-        appendPrometheusElement(sb, name, "stddev", withHelpType, "gauge", snap.stdDev());
-
-        // # TYPE application:file_sizes_bytes summary
-        // # HELP application:file_sizes_bytes Users file size
-        // application:file_sizes_bytes_count 2037
-
-        help(sb, metadata, name.nameUnits(), "summary", withHelpType);
-
-        sb.append(name.nameUnitsSuffixTags("count")).append(" ").append(count).append('\n');
-        sb.append(name.nameUnitsSuffixTags("sum")).append(" ").append(sum).append('\n');
-        // application:file_sizes_bytes{quantile="0.5"} 4201
-        // for each supported quantile
-        prometheusQuantile(sb, name, units, "0.5", snap.median());
-        prometheusQuantile(sb, name, units, "0.75", snap.sample75thPercentile());
-        prometheusQuantile(sb, name, units, "0.95", snap.sample95thPercentile());
-        prometheusQuantile(sb, name, units, "0.98", snap.sample98thPercentile());
-        prometheusQuantile(sb, name, units, "0.99", snap.sample99thPercentile());
-        prometheusQuantile(sb, name, units, "0.999", snap.sample999thPercentile());
-    }
-
-    private static void prometheusQuantile(StringBuilder sb,
-                                           PrometheusName name,
-                                           Units units,
-                                           String quantile,
-                                           Sample.Derived derived) {
-        // application:file_sizes_bytes{quantile="0.5"} 4201
-        String quantileTag = "quantile=\"" + quantile + "\"";
-        String tags = name.prometheusTags();
-        if (name.prometheusTags().isEmpty()) {
-            tags = "{" + quantileTag + "}";
-        } else {
-            tags = tags.substring(0, tags.length() - 1) + "," + quantileTag + "}";
-        }
-
-        sb.append(name.nameUnits()).append(tags).append(" ").append(units.convert(derived.value()));
-        sb.append(prometheusExemplar(units, derived.sample()));
-        sb.append("\n");
-    }
-
-    private static void appendPrometheusElement(StringBuilder sb,
-                                                PrometheusName name,
-                                                String statName,
-                                                boolean withHelpType,
-                                                String typeName,
-                                                Sample.Derived derived) {
-        appendPrometheusElement(sb,
-                                name,
-                                () -> name.nameStatUnits(statName),
-                                withHelpType,
-                                typeName,
-                                derived.value(),
-                                derived.sample());
-    }
-
-    private static void appendPrometheusElement(StringBuilder sb,
-                                                PrometheusName name,
-                                                String statName,
-                                                boolean withHelpType,
-                                                String typeName,
-                                                Sample.Labeled sample) {
-        appendPrometheusElement(sb, name, () -> name.nameStatUnits(statName), withHelpType, typeName, sample.value(), sample);
-    }
-
-    private static void appendPrometheusElement(StringBuilder sb,
-                                                PrometheusName name,
-                                                Supplier<String> nameToUse,
-                                                boolean withHelpType,
-                                                String typeName,
-                                                double value,
-                                                Sample.Labeled sample) {
-        if (withHelpType) {
-            prometheusType(sb, nameToUse.get(), typeName);
-        }
-        Object convertedValue = name.units().convert(value);
-        sb.append(nameToUse.get()).append(name.prometheusTags()).append(" ").append(convertedValue)
-                .append(prometheusExemplar(name.units(), sample)).append("\n");
-    }
-
-    private static void meter(StringBuilder sb,
-                              MetricID metricId,
-                              Metadata metadata,
-                              HelidonMetric helidonMetric,
-                              Meter value,
-                              boolean withHelpType) {
-         /*
-            From spec:
-            # TYPE application:requests_total counter
-            # HELP application:requests_total Tracks the number of requests to the server
-            application:requests_total 29382
-            # TYPE application:requests_rate_per_second gauge
-            application:requests_rate_per_second 12.223
-            # TYPE application:requests_one_min_rate_per_second gauge
-            application:requests_one_min_rate_per_second 12.563
-            # TYPE application:requests_five_min_rate_per_second gauge
-            application:requests_five_min_rate_per_second 12.364
-            # TYPE application:requests_fifteen_min_rate_per_second gauge
-            application:requests_fifteen_min_rate_per_second 12.126
-         */
-
-        String name = metricId.getName();
-        String baseName = prometheusClean(name, helidonMetric.registryType() + "_");
-        String tags = tags(metricId.getTags());
-        String nameUnits = baseName + "_total";
-
-        if (withHelpType) {
-            prometheusType(sb, nameUnits, "counter");
-            prometheusHelp(sb, metadata, nameUnits);
-        }
-        sb.append(nameUnits).append(tags).append(" ").append(value.getCount()).append("\n");
-
-        nameUnits = baseName + "_rate_per_second";
-        if (withHelpType) {
-            prometheusType(sb, nameUnits, "gauge");
-        }
-        sb.append(nameUnits).append(tags).append(" ").append(value.getMeanRate()).append("\n");
-
-        nameUnits = baseName + "_one_min_rate_per_second";
-        if (withHelpType) {
-            prometheusType(sb, nameUnits, "gauge");
-        }
-        sb.append(nameUnits).append(tags).append(" ").append(value.getOneMinuteRate()).append("\n");
-
-        nameUnits = baseName + "_five_min_rate_per_second";
-        if (withHelpType) {
-            prometheusType(sb, nameUnits, "gauge");
-        }
-        sb.append(nameUnits).append(tags).append(" ").append(value.getFiveMinuteRate()).append("\n");
-
-        nameUnits = baseName + "_fifteen_min_rate_per_second";
-        if (withHelpType) {
-            prometheusType(sb, nameUnits, "gauge");
-        }
-        sb.append(nameUnits).append(tags).append(" ").append(value.getFifteenMinuteRate()).append("\n");
-
-    }
-
-    private static void gauge(StringBuilder sb,
-                              MetricID metricId,
-                              Metadata metadata,
-                              HelidonMetric helidonMetric,
-                              Gauge<? extends Number> value,
-                              boolean withHelpType) {
-        String name = nameWithUnits(helidonMetric.registryType(), metadata, metricId);
-        help(sb, metadata, name, metadata.getType(), withHelpType);
-        sb.append(name).append(tags(metricId.getTags())).append(" ").append(units(metadata).convert(value.getValue()))
-                .append('\n');
-    }
-
-    private static void counter(StringBuilder sb,
-                                MetricID metricId,
-                                Metadata metadata,
-                                HelidonMetric helidonMetric,
-                                Counter value,
-                                boolean withHelpType) {
-        String name = prometheusName(helidonMetric.registryType(), metricId.getName());
-        name = name.endsWith("total") ? name : name + "_total";
-
-        help(sb, metadata, name, metadata.getType(), withHelpType);
-
-        sb.append(name).append(tags(metricId.getTags())).append(" ").append(value.getCount());
-
-        if (value instanceof SampledMetric sampled) {
-            sampled.sample().ifPresent(it -> sb.append(prometheusExemplar(units(metadata), it)));
-        }
-        sb.append('\n');
-    }
-
-    private static void concurrentGauge(StringBuilder sb,
-                                        MetricID metricId,
-                                        Metadata metadata,
-                                        HelidonMetric helidonMetric,
-                                        ConcurrentGauge value,
-                                        boolean withHelpType) {
-        String name = nameWithUnits(helidonMetric.registryType(), metadata, metricId);
-        String nameCurrent = name + "_current";
-        help(sb, metadata, nameCurrent, "gauge", withHelpType);
-
-        sb.append(nameCurrent).append(tags(metricId.getTags())).append(" ").append(value.getCount()).append('\n');
-        String nameMin = name + "_min";
-        if (withHelpType) {
-            prometheusType(sb, nameMin, "gauge");
-        }
-        sb.append(nameMin).append(tags(metricId.getTags())).append(" ").append(value.getMin()).append('\n');
-        String nameMax = name + "_max";
-        if (withHelpType) {
-            prometheusType(sb, nameMax, "gauge");
-        }
-        sb.append(nameMax).append(tags(metricId.getTags())).append(" ").append(value.getMax()).append('\n');
-    }
-
-    private static void help(StringBuilder sb, Metadata metadata, String name, String type, boolean withHelpType) {
-        if (withHelpType) {
-            prometheusType(sb, name, type);
-            prometheusHelp(sb, metadata, name);
-        }
-    }
-
-    private static void prometheusType(StringBuilder sb, String nameWithUnits, String type) {
-        sb.append("# TYPE ").append(nameWithUnits).append(" ").append(type).append('\n');
-    }
-
-    private static void prometheusHelp(StringBuilder sb, Metadata metadata, String nameWithUnits) {
-        sb.append("# HELP ").append(nameWithUnits).append(" ").append(metadata.getDescription()).append('\n');
-    }
-
-    private static Units units(Metadata metadata) {
+    static Units units(Metadata metadata) {
         String unit = metadata.getUnit();
         if ((null == unit) || unit.isEmpty() || MetricUnits.NONE.equals(unit)) {
             return new Units(null);
@@ -563,11 +183,11 @@ public final class PrometheusFormat {
         return units == null ? new Units(unit, unit, Function.identity()) : units;
     }
 
-    private static String prometheusExemplar(Units units, Sample.Labeled sample) {
+    static String prometheusExemplar(Units units, Sample.Labeled sample) {
         return sample == null ? "" : prometheusExemplar(units.convert(sample.value()), sample);
     }
 
-    private static String prometheusExemplar(Object value, Sample.Labeled sample) {
+    static String prometheusExemplar(Object value, Sample.Labeled sample) {
         if (sample == null || sample.label().isBlank()) {
             return "";
         }
@@ -602,7 +222,7 @@ public final class PrometheusFormat {
         return value;
     }
 
-    private static String prometheusClean(String name, String prefix) {
+    static String prometheusClean(String name, String prefix) {
         name = name.replaceAll("[^a-zA-Z0-9_]", "_");
 
         //Scope is always specified at the start of the metric name.
@@ -626,11 +246,11 @@ public final class PrometheusFormat {
         return name;
     }
 
-    private static String durationPrometheusOutput(Duration duration) {
+    static String durationPrometheusOutput(Duration duration) {
         return duration == null ? "NaN" : Double.toString(((double) duration.toNanos()) / 1000.0 / 1000.0 / 1000.0);
     }
 
-    private static String exemplarForElapsedTime(Sample.Labeled sample) {
+    static String exemplarForElapsedTime(Sample.Labeled sample) {
         return sample == null ? "" : prometheusExemplar(sample.value(), sample);
     }
 
@@ -639,16 +259,17 @@ public final class PrometheusFormat {
                                                        from));
     }
 
+    // converted values are always numbers, so avoid parsing them through BigDecimal (the result is the same)
     private static String convertNanos(Object o) {
-        return String.valueOf(new BigDecimal(String.valueOf(o)).doubleValue() / TimeUnits.NANOSECONDS);
+        return String.valueOf(((Number) o).doubleValue() / TimeUnits.NANOSECONDS);
     }
 
     private static String convertMicros(Object o) {
-        return String.valueOf(new BigDecimal(String.valueOf(o)).doubleValue() / TimeUnits.MICROSECONDS);
+        return String.valueOf(((Number) o).doubleValue() / TimeUnits.MICROSECONDS);
     }
 
     private static String convertMillis(Object o) {
-        return String.valueOf(new BigDecimal(String.valueOf(o)).doubleValue() / TimeUnits.MILLISECONDS);
+        return String.valueOf(((Number) o).doubleValue() / TimeUnits.MILLISECONDS);
     }
 
     static class Units {
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics.serviceapi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.metrics.api.HelidonMetric;
+import io.helidon.metrics.api.LabeledSnapshot;
+import io.helidon.metrics.api.MetricInstance;
+import io.helidon.metrics.api.Registry;
+import io.helidon.metrics.api.Sample;
+import io.helidon.metrics.api.SampledMetric;
+import io.helidon.metrics.api.SnapshotMetric;
+
+import org.eclipse.microprofile.metrics.ConcurrentGauge;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.Meter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.SimpleTimer;
+import org.eclipse.microprofile.metrics.Timer;
+
+import static io.helidon.metrics.serviceapi.PrometheusFormat.durationPrometheusOutput;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.exemplarForElapsedTime;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.nameWithUnits;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.prometheusClean;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.prometheusExemplar;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.prometheusName;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.tags;
+import static io.helidon.metrics.serviceapi.PrometheusFormat.units;
+
+/**
+ * Writes metrics in the Prometheus text format or in the OpenMetrics text format directly to an output stream.
+ * <p>
+ * Names and tags of each metric (already escaped and encoded) are cached by the writer, so a scrape only formats
+ * the current values. Cached metrics that were not part of the last full scrape of a registry are discarded.
+ * A single writer may be used by concurrent scrapes.
+ * <p>
+ * All lines of a metric family are written together, even when the metric has more than one set of tags.
+ */
+public final class PrometheusWriter {
+    private static final byte[] EOF = "# EOF\n".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] QUANTILES = {"0.5", "0.75", "0.95", "0.98", "0.99", "0.999"};
+    private static final String[] RATES = {"rate_per_second",
+            "one_min_rate_per_second",
+            "five_min_rate_per_second",
+            "fifteen_min_rate_per_second"};
+
+    private final Map<String, Map<MetricID, Series>> cache = new ConcurrentHashMap<>();
+    private final AtomicLong scrapes = new AtomicLong();
+    private final Format format;
+
+    private PrometheusWriter(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Create a new writer for the Prometheus text format.
+     *
+     * @return a new writer
+     */
+    public static PrometheusWriter create() {
+        return create(Format.PROMETHEUS);
+    }
+
+    /**
+     * Create a new writer for the specified format.
+     *
+     * @param format exposition format
+     * @return a new writer
+     */
+    public static PrometheusWriter create(Format format) {
+        return new PrometheusWriter(format);
+    }
+
+    /**
+     * Exposition format of this writer.
+     *
+     * @return format
+     */
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * Write all metrics of the specified registries.
+     *
+     * @param out        output stream to write to, it is flushed but not closed
+     * @param registries registries to write
+     * @throws IOException in case the output stream fails
+     */
+    public void write(OutputStream out, Registry... registries) throws IOException {
+        ExpositionOutput output = new ExpositionOutput(out);
+        for (Registry registry : registries) {
+            if (!registry.empty()) {
+                write(output, registry);
+            }
+        }
+        finish(output);
+    }
+
+    /**
+     * Write all metrics with the specified name from a registry.
+     *
+     * @param out        output stream to write to, it is flushed but not closed
+     * @param registry   registry
+     * @param metricName name of the metrics to write
+     * @throws IOException in case the output stream fails
+     */
+    public void write(OutputStream out, Registry registry, String metricName) throws IOException {
+        ExpositionOutput output = new ExpositionOutput(out);
+        if (registry.enabled(metricName)) {
+            List<MetricInstance> instances = registry.list(metricName);
+            if (!instances.isEmpty()) {
+                Map<MetricID, Series> registrySeries = registrySeries(instances.get(0).metric().registryType());
+                writeFamily(output, registrySeries, instances, 0, instances.size(), -1);
+            }
+        }
+        finish(output);
+    }
+
+    /**
+     * Write a single metric, without the end of exposition marker of the OpenMetrics format.
+     *
+     * @param out          output to write to
+     * @param metricId     metric ID
+     * @param metric       metric instance
+     * @param withHelpType whether to write the type and help lines
+     * @throws IOException in case the output fails
+     */
+    void write(ExpositionOutput out, MetricID metricId, HelidonMetric metric, boolean withHelpType) throws IOException {
+        Series series = series(registrySeries(metric.registryType()), metricId, metric, -1);
+        LabeledSnapshot snapshot = snapshot(metric);
+        for (int family = 0; family < series.families(); family++) {
+            write(out, series, metric, snapshot, family, withHelpType);
+        }
+    }
+
+    private void write(ExpositionOutput out, Registry registry) throws IOException {
+        long scrape = scrapes.incrementAndGet();
+        List<MetricInstance> instances = registry.stream()
+                .sorted(Comparator.comparing(MetricInstance::id))
+                .toList();
+        if (instances.isEmpty()) {
+            return;
+        }
+        String registryType = instances.get(0).metric().registryType();
+        Map<MetricID, Series> registrySeries = registrySeries(registryType);
+
+        int start = 0;
+        while (start < instances.size()) {
+            String name = instances.get(start).id().getName();
+            int end = start + 1;
+            while (end < instances.size() && name.equals(instances.get(end).id().getName())) {
+                end++;
+            }
+            writeFamily(out, registrySeries, instances, start, end, scrape);
+            start = end;
+        }
+        // metrics removed from the registry since the previous scrape
+        registrySeries.values().removeIf(it -> it.scrape < scrape);
+    }
+
+    private void writeFamily(ExpositionOutput out,
+                             Map<MetricID, Series> registrySeries,
+                             List<MetricInstance> instances,
+                             int start,
+                             int end,
+                             long scrape) throws IOException {
+        if (end - start == 1) {
+            MetricInstance instance = instances.get(start);
+            Series series = series(registrySeries, instance.id(), instance.metric(), scrape);
+            LabeledSnapshot snapshot = snapshot(instance.metric());
+            for (int family = 0; family < series.families(); family++) {
+                write(out, series, instance.metric(), snapshot, family, true);
+            }
+            return;
+        }
+
+        // metrics with more than one set of tags, lines of each family must be grouped together
+        int count = end - start;
+        Series[] series = new Series[count];
+        LabeledSnapshot[] snapshots = new LabeledSnapshot[count];
+        for (int i = 0; i < count; i++) {
+            MetricInstance instance = instances.get(start + i);
+            series[i] = series(registrySeries, instance.id(), instance.metric(), scrape);
+            snapshots[i] = snapshot(instance.metric());
+        }
+        for (int family = 0; family < series[0].families(); family++) {
+            for (int i = 0; i < count; i++) {
+                if (family < series[i].families()) {
+                    write(out, series[i], instances.get(start + i).metric(), snapshots[i], family, i == 0);
+                }
+            }
+        }
+    }
+
+    private void finish(ExpositionOutput out) throws IOException {
+        if (format == Format.OPENMETRICS) {
+            out.write(EOF);
+        }
+        out.flush();
+    }
+
+    private Map<MetricID, Series> registrySeries(String registryType) {
+        return cache.computeIfAbsent(registryType, it -> new ConcurrentHashMap<>());
+    }
+
+    private Series series(Map<MetricID, Series> registrySeries, MetricID metricId, HelidonMetric metric, long scrape) {
+        Series series = registrySeries.get(metricId);
+        // a metric removed and registered again with the same ID may have a different type, description or unit
+        if (series == null || series.metadata != metric.metadata()) {
+            series = describe(metricId, metric);
+            registrySeries.put(metricId, series);
+        }
+        if (scrape > series.scrape) {
+            series.scrape = scrape;
+        }
+        return series;
+    }
+
+    private static LabeledSnapshot snapshot(HelidonMetric metric) {
+        return metric instanceof SnapshotMetric snapshotMetric ? snapshotMetric.snapshot() : null;
+    }
+
+    private Series describe(MetricID metricId, HelidonMetric metric) {
+        Metadata metadata = metric.metadata();
+        String registryType = metric.registryType();
+        String tags = tags(metricId.getTags());
+        PrometheusFormat.Units units = units(metadata);
+        SeriesBuilder builder = new SeriesBuilder(metadata, format);
+
+        switch (metadata.getTypeRaw()) {
+        case COUNTER -> {
+            String name = prometheusName(registryType, metricId.getName());
+            String suffix = format == Format.PROMETHEUS ? "total" : "_total";
+            counterFamily(builder, name.endsWith(suffix) ? name : name + "_total", tags);
+        }
+        case GAUGE -> {
+            String name = nameWithUnits(registryType, metricId.getName(), units);
+            builder.family(name, metadata.getType(), true).sample(name + tags);
+        }
+        case CONCURRENT_GAUGE -> {
+            String name = nameWithUnits(registryType, metricId.getName(), units);
+            builder.family(name + "_current", "gauge", true).sample(name + "_current" + tags);
+            builder.family(name + "_min", "gauge", false).sample(name + "_min" + tags);
+            builder.family(name + "_max", "gauge", false).sample(name + "_max" + tags);
+        }
+        case METERED -> {
+            String baseName = prometheusClean(metricId.getName(), registryType + "_");
+            counterFamily(builder, baseName + "_total", tags);
+            for (String rate : RATES) {
+                builder.family(baseName + "_" + rate, "gauge", false).sample(baseName + "_" + rate + tags);
+            }
+        }
+        case SIMPLE_TIMER -> {
+            String baseName = prometheusName(registryType, metricId.getName());
+            counterFamily(builder, baseName + "_total", tags);
+            for (String stat : new String[] {"_elapsedTime_", "_maxTimeDuration_", "_minTimeDuration_"}) {
+                String name = baseName + stat + MetricUnits.SECONDS;
+                builder.family(name, "gauge", false).sample(name + tags);
+            }
+        }
+        case HISTOGRAM -> {
+            if (metric instanceof SnapshotMetric) {
+                String baseName = prometheusClean(metricId.getName(), registryType + "_");
+                summaryFamilies(builder,
+                                PrometheusFormat.PrometheusName.create(registryType, metadata, metricId, units, baseName));
+            }
+        }
+        case TIMER -> {
+            if (metric instanceof SnapshotMetric) {
+                // In Prometheus, times are always expressed in seconds. So force the TimeUnits value accordingly, ignoring
+                // whatever units were specified in the timer's metadata.
+                units = PrometheusFormat.TimeUnits.PROMETHEUS_TIMER_CONVERSION_TIME_UNITS;
+                String baseName = prometheusClean(metricId.getName(), registryType + "_");
+                PrometheusFormat.PrometheusName name = PrometheusFormat.PrometheusName.create(registryType,
+                                                                                              metadata,
+                                                                                              metricId,
+                                                                                              units,
+                                                                                              baseName);
+                for (String rate : RATES) {
+                    builder.family(name.nameStat(rate), "gauge", false).sample(name.nameStatTags(rate));
+                }
+                summaryFamilies(builder, name);
+            }
+        }
+        case INVALID -> throw new IllegalArgumentException("Invalid metric encountered: " + metricId);
+        default -> throw new IllegalArgumentException("Invalid metric type encountered: " + metadata.getTypeRaw()
+                                                              + ", key: " + metricId);
+        }
+        return builder.build(units);
+    }
+
+    // name is the name of the counter sample, the metric family name of OpenMetrics does not have the suffix
+    private void counterFamily(SeriesBuilder builder, String name, String tags) {
+        String family = name;
+        if (format == Format.OPENMETRICS && name.endsWith("_total")) {
+            family = name.substring(0, name.length() - "_total".length());
+        }
+        builder.family(family, "counter", true).sample(name + tags);
+    }
+
+    private static void summaryFamilies(SeriesBuilder builder, PrometheusFormat.PrometheusName name) {
+        for (String stat : new String[] {"mean", "max", "min", "stddev"}) {
+            builder.family(name.nameStatUnits(stat), "gauge", false).sample(name.nameStatUnits(stat) + name.prometheusTags());
+        }
+        builder.family(name.nameUnits(), "summary", true)
+                .sample(name.nameUnitsSuffixTags("count"))
+                .sample(name.nameUnitsSuffixTags("sum"));
+        String tags = name.prometheusTags();
+        for (String quantile : QUANTILES) {
+            String quantileTag = "quantile=\"" + quantile + "\"";
+            String quantileTags = tags.isEmpty()
+                    ? "{" + quantileTag + "}"
+                    : tags.substring(0, tags.length() - 1) + "," + quantileTag + "}";
+            builder.sample(name.nameUnits() + quantileTags);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(ExpositionOutput out,
+                       Series series,
+                       HelidonMetric metric,
+                       LabeledSnapshot snapshot,
+                       int family,
+                       boolean withHelpType) throws IOException {
+        if (withHelpType) {
+            out.write(series.headers[family]);
+        }
+        switch (series.metadata.getTypeRaw()) {
+        case COUNTER -> {
+            series.sample(out, 0);
+            out.writeLong(((Counter) metric).getCount());
+            if (metric instanceof SampledMetric sampled) {
+                Sample.Labeled sample = sampled.sample().orElse(null);
+                if (sample != null) {
+                    out.writeAscii(prometheusExemplar(series.units, sample));
+                }
+            }
+            out.write('\n');
+        }
+        case GAUGE -> {
+            series.sample(out, 0);
+            out.writeValue(series.units.convert(((Gauge<? extends Number>) metric).getValue()));
+            out.write('\n');
+        }
+        case CONCURRENT_GAUGE -> {
+            ConcurrentGauge gauge = (ConcurrentGauge) metric;
+            series.sample(out, family);
+            out.writeLong(switch (family) {
+                case 0 -> gauge.getCount();
+                case 1 -> gauge.getMin();
+                default -> gauge.getMax();
+            });
+            out.write('\n');
+        }
+        case METERED -> {
+            Meter meter = (Meter) metric;
+            series.sample(out, family);
+            if (family == 0) {
+                out.writeLong(meter.getCount());
+            } else {
+                out.writeDouble(rate(meter, family - 1));
+            }
+            out.write('\n');
+        }
+        case SIMPLE_TIMER -> simpleTimer(out, series, metric, (SimpleTimer) metric, family);
+        case HISTOGRAM -> {
+            Histogram histogram = (Histogram) metric;
+            summary(out, series, snapshot, family, 0, histogram.getCount(), histogram.getSum());
+        }
+        case TIMER -> {
+            Timer timer = (Timer) metric;
+            if (family < RATES.length) {
+                // For the timer stats output, suppress any units conversion; just emit the value directly.
+                series.sample(out, family);
+                out.writeDouble(rate(timer, family));
+                out.write('\n');
+            } else {
+                summary(out,
+                        series,
+                        snapshot,
+                        family - RATES.length,
+                        RATES.length,
+                        timer.getCount(),
+                        timer.getElapsedTime().toSeconds());
+            }
+        }
+        default -> throw new IllegalArgumentException("Invalid metric type encountered: " + series.metadata.getTypeRaw());
+        }
+    }
+
+    private void simpleTimer(ExpositionOutput out,
+                             Series series,
+                             HelidonMetric metric,
+                             SimpleTimer value,
+                             int family) throws IOException {
+        Sample.Labeled sample = metric instanceof Sample.Labeled labeled ? labeled : null;
+        series.sample(out, family);
+        switch (family) {
+        case 0 -> {
+            out.writeLong(value.getCount());
+            if (sample != null) {
+                out.writeAscii(prometheusExemplar(TimeUnit.NANOSECONDS.toSeconds(sample.value()), sample));
+            }
+        }
+        case 1 -> {
+            out.writeLong(value.getElapsedTime().toSeconds());
+            // OpenMetrics allows exemplars only on counters
+            if (format == Format.PROMETHEUS) {
+                out.writeAscii(exemplarForElapsedTime(sample));
+            }
+        }
+        case 2 -> out.writeAscii(durationPrometheusOutput(value.getMaxTimeDuration()));
+        default -> out.writeAscii(durationPrometheusOutput(value.getMinTimeDuration()));
+        }
+        out.write('\n');
+    }
+
+    private void summary(ExpositionOutput out,
+                         Series series,
+                         LabeledSnapshot snapshot,
+                         int family,
+                         int firstSample,
+                         long count,
+                         long sum) throws IOException {
+        PrometheusFormat.Units units = series.units;
+        switch (family) {
+        case 0 -> sample(out, series, firstSample, units.convert(snapshot.mean().value()), snapshot.mean().sample());
+        case 1 -> sample(out, series, firstSample + 1, units.convert((double) snapshot.max().value()), snapshot.max());
+        case 2 -> sample(out, series, firstSample + 2, units.convert((double) snapshot.min().value()), snapshot.min());
+        case 3 -> sample(out, series, firstSample + 3, units.convert(snapshot.stdDev().value()), snapshot.stdDev().sample());
+        default -> {
+            int index = firstSample + 4;
+            series.sample(out, index++);
+            out.writeLong(count);
+            out.write('\n');
+            series.sample(out, index++);
+            out.writeLong(sum);
+            out.write('\n');
+            sample(out, series, index++, snapshot.median());
+            sample(out, series, index++, snapshot.sample75thPercentile());
+            sample(out, series, index++, snapshot.sample95thPercentile());
+            sample(out, series, index++, snapshot.sample98thPercentile());
+            sample(out, series, index++, snapshot.sample99thPercentile());
+            sample(out, series, index, snapshot.sample999thPercentile());
+        }
+        }
+    }
+
+    private void sample(ExpositionOutput out, Series series, int index, Sample.Derived derived) throws IOException {
+        sample(out, series, index, series.units.convert(derived.value()), derived.sample());
+    }
+
+    private void sample(ExpositionOutput out, Series series, int index, Object value, Sample.Labeled sample)
+            throws IOException {
+        series.sample(out, index);
+        out.writeValue(value);
+        // OpenMetrics allows exemplars only on counters
+        if (format == Format.PROMETHEUS) {
+            out.writeAscii(prometheusExemplar(series.units, sample));
+        }
+        out.write('\n');
+    }
+
+    private static double rate(Meter meter, int index) {
+        return switch (index) {
+            case 0 -> meter.getMeanRate();
+            case 1 -> meter.getOneMinuteRate();
+            case 2 -> meter.getFiveMinuteRate();
+            default -> meter.getFifteenMinuteRate();
+        };
+    }
+
+    private static double rate(Timer timer, int index) {
+        return switch (index) {
+            case 0 -> timer.getMeanRate();
+            case 1 -> timer.getOneMinuteRate();
+            case 2 -> timer.getFiveMinuteRate();
+            default -> timer.getFifteenMinuteRate();
+        };
+    }
+
+    /**
+     * Text exposition formats.
+     */
+    public enum Format {
+        /**
+         * Prometheus text format, version 0.0.4.
+         */
+        PROMETHEUS("text/plain; version=0.0.4; charset=utf-8"),
+        /**
+         * OpenMetrics text format, version 1.0.0.
+         */
+        OPENMETRICS("application/openmetrics-text; version=1.0.0; charset=utf-8");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * Value of the {@code Content-Type} header of a response in this format.
+         *
+         * @return content type
+         */
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * Cached lines of a single metric.
+     * Each metric consists of one or more metric families (such as the mean and the summary of a histogram),
+     * and each family of one or more samples.
+     */
+    private static final class Series {
+        private final Metadata metadata;
+        private final PrometheusFormat.Units units;
+        // type and help lines of each family
+        private final byte[][] headers;
+        // name with tags and the separating space of each sample
+        private final byte[][] samples;
+        private volatile long scrape;
+
+        private Series(Metadata metadata, PrometheusFormat.Units units, byte[][] headers, byte[][] samples) {
+            this.metadata = metadata;
+            this.units = units;
+            this.headers = headers;
+            this.samples = samples;
+        }
+
+        int families() {
+            return headers.length;
+        }
+
+        void sample(ExpositionOutput out, int index) throws IOException {
+            out.write(samples[index]);
+        }
+    }
+
+    private static final class SeriesBuilder {
+        private final List<byte[]> headers = new ArrayList<>();
+        private final List<byte[]> samples = new ArrayList<>();
+        private final Metadata metadata;
+        private final Format format;
+
+        private SeriesBuilder(Metadata metadata, Format format) {
+            this.metadata = metadata;
+            this.format = format;
+        }
+
+        SeriesBuilder family(String name, String type, boolean withHelp) {
+            StringBuilder header = new StringBuilder();
+            header.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            if (withHelp) {
+                header.append("# HELP ").append(name).append(' ').append(help(metadata.getDescription())).append('\n');
+            }
+            headers.add(bytes(header.toString()));
+            return this;
+        }
+
+        SeriesBuilder sample(String nameWithTags) {
+            samples.add(bytes(nameWithTags + " "));
+            return this;
+        }
+
+        Series build(PrometheusFormat.Units units) {
+            return new Series(metadata, units, headers.toArray(new byte[0][]), samples.toArray(new byte[0][]));
+        }
+
+        private String help(String description) {
+            if (description == null) {
+                return "";
+            }
+            String help = description.replace("\\", "\\\\").replace("\n", "\\n");
+            return format == Format.OPENMETRICS ? help.replace("\"", "\\\"") : help;
+        }
+
+        private static byte[] bytes(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Adaptive limit protects a resource by limiting the number of concurrent calls, where the limit is continuously
+ * adjusted from observed latency of the calls.
+ * <p>
+ * When the resource gets slower (or starts failing), the limit decreases, and it grows again while the resource
+ * keeps up. Calls over the current limit fail immediately with {@link io.helidon.nima.faulttolerance.AdaptiveLimitException},
+ * so a saturated downstream service (such as a database) does not build up a queue of waiting requests.
+ */
+public interface AdaptiveLimit extends FtHandler {
+    /**
+     * A new builder for {@link io.helidon.nima.faulttolerance.AdaptiveLimit}.
+     *
+     * @return a new builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Provides access to internal stats for this limit.
+     *
+     * @return internal stats
+     */
+    Stats stats();
+
+    /**
+     * Algorithm used to adjust the limit.
+     */
+    enum Algorithm {
+        /**
+         * Additive increase, multiplicative decrease. The limit grows by one after a call that completed within
+         * the {@link Builder#latencyThreshold(java.time.Duration) latency threshold} while the limit was utilized,
+         * and is multiplied by the {@link Builder#backoffRatio(double) backoff ratio} after a slower or failed call.
+         */
+        AIMD,
+        /**
+         * Gradient of latency. The limit follows the ratio between a long term average latency and the latency of
+         * the current call (with a tolerance), growing by a small headroom while latency stays stable, and
+         * shrinking as latency grows because requests start queueing in the resource.
+         */
+        GRADIENT
+    }
+
+    /**
+     * Provides statistics during the lifetime of an adaptive limit.
+     */
+    interface Stats {
+        /**
+         * Current concurrency limit.
+         *
+         * @return limit
+         */
+        int limit();
+
+        /**
+         * Number of concurrent executions at this time.
+         *
+         * @return concurrent executions
+         */
+        long concurrentExecutions();
+
+        /**
+         * Number of calls accepted.
+         *
+         * @return calls accepted
+         */
+        long callsAccepted();
+
+        /**
+         * Number of calls rejected because of the limit.
+         *
+         * @return calls rejected
+         */
+        long callsRejected();
+    }
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.faulttolerance.AdaptiveLimit}.
+     */
+    class Builder implements io.helidon.common.Builder<Builder, AdaptiveLimit> {
+        private static final int DEFAULT_INITIAL_LIMIT = 20;
+        private static final int DEFAULT_MIN_LIMIT = 1;
+        private static final int DEFAULT_MAX_LIMIT = 200;
+
+        private final Set<Class<? extends Throwable>> skipOn = new HashSet<>();
+        private final Set<Class<? extends Throwable>> applyOn = new HashSet<>();
+        private Algorithm algorithm = Algorithm.GRADIENT;
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        private int longWindow = 600;
+        private String name = "AdaptiveLimit-" + System.identityHashCode(this);
+
+        private Builder() {
+        }
+
+        @Override
+        public AdaptiveLimit build() {
+            if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, but are: min "
+                                                           + minLimit + ", initial " + initialLimit + ", max " + maxLimit);
+            }
+            return new AdaptiveLimitImpl(this);
+        }
+
+        /**
+         * Algorithm to adjust the limit, defaults to {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#GRADIENT}.
+         *
+         * @param algorithm algorithm
+         * @return updated builder instance
+         */
+        public Builder algorithm(Algorithm algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Limit used before any latency is observed.
+         *
+         * @param initialLimit initial limit, default is {@value DEFAULT_INITIAL_LIMIT}
+         * @return updated builder instance
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * The limit never goes below this value.
+         *
+         * @param minLimit minimal limit, default is {@value DEFAULT_MIN_LIMIT}
+         * @return updated builder instance
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * The limit never goes above this value.
+         *
+         * @param maxLimit maximal limit, default is {@value DEFAULT_MAX_LIMIT}
+         * @return updated builder instance
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Ratio the limit is multiplied by when a call fails, and with
+         * {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#AIMD} also when a call is too slow.
+         * Defaults to {@code 0.9}.
+         *
+         * @param backoffRatio ratio between {@code 0.5} and {@code 1} (exclusive)
+         * @return updated builder instance
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio < 0.5 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Backoff ratio must be in range [0.5, 1), but is " + backoffRatio);
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Calls slower than this are considered a sign of overload, used by
+         * {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#AIMD}. Defaults to one second.
+         *
+         * @param latencyThreshold latency threshold
+         * @return updated builder instance
+         */
+        public Builder latencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        /**
+         * How much slower than the long term average a call may be before the limit decreases, used by
+         * {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#GRADIENT}. Defaults to {@code 1.5}.
+         *
+         * @param tolerance tolerance, at least {@code 1}
+         * @return updated builder instance
+         */
+        public Builder tolerance(double tolerance) {
+            if (tolerance < 1) {
+                throw new IllegalArgumentException("Tolerance must be at least 1, but is " + tolerance);
+            }
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * How quickly the limit follows a new estimate, used by
+         * {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#GRADIENT}. Defaults to {@code 0.2}.
+         *
+         * @param smoothing smoothing factor in range {@code (0, 1]}, {@code 1} uses the new estimate as is
+         * @return updated builder instance
+         */
+        public Builder smoothing(double smoothing) {
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("Smoothing must be in range (0, 1], but is " + smoothing);
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Number of calls the long term average latency is computed over, used by
+         * {@link io.helidon.nima.faulttolerance.AdaptiveLimit.Algorithm#GRADIENT}. Defaults to {@code 600}.
+         *
+         * @param longWindow number of calls
+         * @return updated builder instance
+         */
+        public Builder longWindow(int longWindow) {
+            if (longWindow < 1) {
+                throw new IllegalArgumentException("Long window must be at least 1, but is " + longWindow);
+            }
+            this.longWindow = longWindow;
+            return this;
+        }
+
+        /**
+         * These throwables will be considered failures that decrease the limit, and all other will not.
+         * <p>
+         * Cannot be combined with {@link #skipOn}.
+         *
+         * @param classes to consider failures
+         * @return updated builder instance
+         */
+        @SafeVarargs
+        public final Builder applyOn(Class<? extends Throwable>... classes) {
+            applyOn.clear();
+            Arrays.stream(classes)
+                    .forEach(this::addApplyOn);
+
+            return this;
+        }
+
+        /**
+         * Add a throwable to be considered a failure.
+         *
+         * @param clazz to consider failure
+         * @return updated builder instance
+         * @see #applyOn
+         */
+        public Builder addApplyOn(Class<? extends Throwable> clazz) {
+            this.applyOn.add(clazz);
+            return this;
+        }
+
+        /**
+         * These throwables will not be considered failures, all other will. Use for exceptions that do not indicate
+         * the resource is overloaded (such as validation errors).
+         * <p>
+         * Cannot be combined with {@link #applyOn}.
+         *
+         * @param classes to consider successful
+         * @return updated builder instance
+         */
+        @SafeVarargs
+        public final Builder skipOn(Class<? extends Throwable>... classes) {
+            skipOn.clear();
+            Arrays.stream(classes)
+                    .forEach(this::addSkipOn);
+
+            return this;
+        }
+
+        /**
+         * This throwable will not be considered failure.
+         *
+         * @param clazz to consider successful
+         * @return updated builder instance
+         */
+        public Builder addSkipOn(Class<? extends Throwable> clazz) {
+            this.skipOn.add(clazz);
+            return this;
+        }
+
+        /**
+         * A name assigned for debugging, error reporting or configuration purposes.
+         *
+         * @param name the name
+         * @return updated builder instance
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        Set<Class<? extends Throwable>> skipOn() {
+            return skipOn;
+        }
+
+        Set<Class<? extends Throwable>> applyOn() {
+            return applyOn;
+        }
+
+        Algorithm algorithm() {
+            return algorithm;
+        }
+
+        int initialLimit() {
+            return initialLimit;
+        }
+
+        int minLimit() {
+            return minLimit;
+        }
+
+        int maxLimit() {
+            return maxLimit;
+        }
+
+        double backoffRatio() {
+            return backoffRatio;
+        }
+
+        Duration latencyThreshold() {
+            return latencyThreshold;
+        }
+
+        double tolerance() {
+            return tolerance;
+        }
+
+        double smoothing() {
+            return smoothing;
+        }
+
+        int longWindow() {
+            return longWindow;
+        }
+
+        String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.lang.System.Logger.Level;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static io.helidon.nima.faulttolerance.SupplierHelper.toRuntimeException;
+import static io.helidon.nima.faulttolerance.SupplierHelper.unwrapThrowable;
+
+class AdaptiveLimitImpl implements AdaptiveLimit {
+    private static final System.Logger LOGGER = System.getLogger(AdaptiveLimitImpl.class.getName());
+
+    /*
+     Configuration options
+     */
+    private final String name;
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThreshold;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final ErrorChecker errorChecker;
+
+    /*
+     Runtime
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong callsAccepted = new AtomicLong();
+    private final AtomicLong callsRejected = new AtomicLong();
+    // admission only reads the limit, updates are serialized by this lock
+    // and skipped while another update is in progress
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile int limit;
+    // fractional limit of the gradient algorithm, guarded by update lock
+    private double estimatedLimit;
+    // long term average latency in nanoseconds, guarded by update lock
+    private double longLatency;
+    private long samples;
+
+    AdaptiveLimitImpl(Builder builder) {
+        this.name = builder.name();
+        this.algorithm = builder.algorithm();
+        this.minLimit = builder.minLimit();
+        this.maxLimit = builder.maxLimit();
+        this.backoffRatio = builder.backoffRatio();
+        this.latencyThreshold = builder.latencyThreshold().toNanos();
+        this.tolerance = builder.tolerance();
+        this.smoothing = builder.smoothing();
+        this.longWindow = builder.longWindow();
+        this.errorChecker = ErrorChecker.create(builder.skipOn(), builder.applyOn());
+        this.limit = builder.initialLimit();
+        this.estimatedLimit = builder.initialLimit();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public <T> T invoke(Supplier<? extends T> supplier) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                callsRejected.incrementAndGet();
+                throw new AdaptiveLimitException("Adaptive limit \"" + name + "\" of " + limit
+                                                         + " concurrent calls reached");
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        callsAccepted.incrementAndGet();
+
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return supplier.get();
+        } catch (Throwable t) {
+            Throwable throwable = unwrapThrowable(t);
+            failed = !errorChecker.shouldSkip(throwable);
+            throw toRuntimeException(throwable);
+        } finally {
+            long latency = System.nanoTime() - start;
+            // number of calls in flight while this one was running, including this one
+            int concurrent = inFlight.getAndDecrement();
+            update(latency, concurrent, failed);
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats() {
+            @Override
+            public int limit() {
+                return limit;
+            }
+
+            @Override
+            public long concurrentExecutions() {
+                return inFlight.get();
+            }
+
+            @Override
+            public long callsAccepted() {
+                return callsAccepted.get();
+            }
+
+            @Override
+            public long callsRejected() {
+                return callsRejected.get();
+            }
+        };
+    }
+
+    private void update(long latency, int concurrent, boolean failed) {
+        // limit is only an estimate, there is no need to wait for other threads to update it
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            int oldLimit = limit;
+            int newLimit = switch (algorithm) {
+                case AIMD -> aimd(latency, concurrent, failed);
+                case GRADIENT -> gradient(latency, concurrent, failed);
+            };
+            limit = newLimit;
+            if (newLimit != oldLimit && LOGGER.isLoggable(Level.DEBUG)) {
+                LOGGER.log(Level.DEBUG, name + " limit changed from " + oldLimit + " to " + newLimit);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private int aimd(long latency, int concurrent, boolean failed) {
+        int current = limit;
+        if (failed || latency > latencyThreshold) {
+            return Math.max(minLimit, (int) (current * backoffRatio));
+        }
+        // only grow when the limit is actually used, otherwise it could grow without bounds while idle
+        if (concurrent * 2 >= current) {
+            return Math.min(maxLimit, current + 1);
+        }
+        return current;
+    }
+
+    private int gradient(long latency, int concurrent, boolean failed) {
+        if (failed) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            return (int) estimatedLimit;
+        }
+        double shortLatency = Math.max(1, latency);
+        // average of the first samples, exponential moving average once the window is full
+        samples++;
+        longLatency += (shortLatency - longLatency) / Math.min(samples, longWindow);
+        // recover from a long term average that drifted up (for example after a period of overload)
+        if (longLatency / shortLatency > 2) {
+            longLatency *= 0.95;
+        }
+        // when the limit is not used, latency tells nothing about how much more the resource can take
+        if (concurrent < estimatedLimit / 2) {
+            return limit;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+        // headroom allows the limit to grow while latency is stable
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        return (int) estimatedLimit;
+    }
+}
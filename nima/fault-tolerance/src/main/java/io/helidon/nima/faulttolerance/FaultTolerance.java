@@ -41,6 +41,10 @@ import static java.lang.System.Logger.Level.ERROR;
  *     fails</li>
  *     <li>{@link io.helidon.nima.faulttolerance.Retry} - try to call a supplier again if invocation fails</li>
  *     <li>{@link io.helidon.nima.faulttolerance.Timeout} - time out a request if it takes too long</li>
+ *     <li>{@link io.helidon.nima.faulttolerance.RateLimiter} - limit number of requests to a resource in a period of
+ *     time</li>
+ *     <li>{@link io.helidon.nima.faulttolerance.AdaptiveLimit} - limit number of parallel requests to a resource,
+ *     adapting the limit to its latency</li>
  * </ul>
  *
  * @see #config(io.helidon.config.Config)
@@ -193,6 +197,28 @@ public final class FaultTolerance {
             return me();
         }
 
+        /**
+         * Add a rate limiter to the list.
+         *
+         * @param rateLimiter rate limiter handler
+         * @return updated builder instance
+         */
+        public B addRateLimiter(RateLimiter rateLimiter) {
+            add(rateLimiter);
+            return me();
+        }
+
+        /**
+         * Add an adaptive limit to the list.
+         *
+         * @param adaptiveLimit adaptive limit handler
+         * @return updated builder instance
+         */
+        public B addAdaptiveLimit(AdaptiveLimit adaptiveLimit) {
+            add(adaptiveLimit);
+            return me();
+        }
+
         /**
          * Add a handler to the list. This may be a custom handler or one of the predefined ones.
          *
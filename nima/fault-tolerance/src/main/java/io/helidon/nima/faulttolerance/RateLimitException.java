@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+/**
+ * Failure because of {@link io.helidon.nima.faulttolerance.RateLimiter}, the rate limit was reached
+ * and a permit could not be obtained within the configured wait time.
+ */
+public class RateLimitException extends RuntimeException {
+    RateLimitException(String message) {
+        super(message);
+    }
+}
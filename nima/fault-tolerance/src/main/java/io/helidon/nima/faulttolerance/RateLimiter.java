@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.time.Duration;
+
+/**
+ * Rate limiter caps the number of calls to a resource in a period of time.
+ * <p>
+ * When no permit is available, the call waits for one up to the configured {@link Builder#maxWait(java.time.Duration)}
+ * (the waiting thread sleeps, which is cheap on virtual threads), and if none becomes available in time,
+ * the call fails with {@link io.helidon.nima.faulttolerance.RateLimitException}. By default calls do not wait.
+ * <p>
+ * Acquiring a permit is lock-free.
+ */
+public interface RateLimiter extends FtHandler {
+    /**
+     * A new builder for {@link io.helidon.nima.faulttolerance.RateLimiter}.
+     *
+     * @return a new builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Try to obtain a permit without waiting, for use without {@link #invoke(java.util.function.Supplier)}.
+     *
+     * @return whether a permit was obtained
+     */
+    boolean tryAcquire();
+
+    /**
+     * Provides access to internal stats for this rate limiter.
+     *
+     * @return internal stats
+     */
+    Stats stats();
+
+    /**
+     * Algorithm used to limit the rate.
+     */
+    enum Type {
+        /**
+         * Permits are refilled continuously at the configured rate, up to the burst size.
+         * Allows bursts after a period of low traffic, while keeping the average rate.
+         */
+        TOKEN_BUCKET,
+        /**
+         * Number of calls in the last period is kept under the limit. The number is estimated from counts
+         * of the current and the previous fixed window, weighted by how much of the previous window overlaps the period.
+         */
+        SLIDING_WINDOW
+    }
+
+    /**
+     * Provides statistics during the lifetime of a rate limiter.
+     */
+    interface Stats {
+        /**
+         * Number of calls that obtained a permit.
+         *
+         * @return calls accepted
+         */
+        long callsAccepted();
+
+        /**
+         * Number of calls rejected by the rate limiter.
+         *
+         * @return calls rejected
+         */
+        long callsRejected();
+
+        /**
+         * Number of calls waiting for a permit at this time.
+         *
+         * @return waiting calls
+         */
+        long waitingCalls();
+
+        /**
+         * Estimated number of permits available at this time.
+         *
+         * @return available permits
+         */
+        long availablePermits();
+    }
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.faulttolerance.RateLimiter}.
+     */
+    class Builder implements io.helidon.common.Builder<Builder, RateLimiter> {
+        private static final int DEFAULT_LIMIT = 100;
+
+        private Type type = Type.TOKEN_BUCKET;
+        private int limit = DEFAULT_LIMIT;
+        private Duration period = Duration.ofSeconds(1);
+        private int burst = -1;
+        private Duration maxWait = Duration.ZERO;
+        private String name = "RateLimiter-" + System.identityHashCode(this);
+
+        private Builder() {
+        }
+
+        @Override
+        public RateLimiter build() {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be greater than 0, but is " + limit);
+            }
+            if (period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Period must be positive, but is " + period);
+            }
+            return switch (type) {
+                case TOKEN_BUCKET -> new TokenBucketRateLimiter(this);
+                case SLIDING_WINDOW -> new SlidingWindowRateLimiter(this);
+            };
+        }
+
+        /**
+         * Algorithm to use, defaults to {@link io.helidon.nima.faulttolerance.RateLimiter.Type#TOKEN_BUCKET}.
+         *
+         * @param type rate limiting algorithm
+         * @return updated builder instance
+         */
+        public Builder type(Type type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Maximal number of calls in a {@link #period(java.time.Duration)}.
+         *
+         * @param limit number of calls, default is {@value DEFAULT_LIMIT}
+         * @return updated builder instance
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Period the {@link #limit(int)} applies to, defaults to one second.
+         *
+         * @param period period
+         * @return updated builder instance
+         */
+        public Builder period(Duration period) {
+            this.period = period;
+            return this;
+        }
+
+        /**
+         * Maximal number of permits that can be accumulated by a token bucket, that is the largest burst
+         * of calls allowed at once. Defaults to the {@link #limit(int)}. Not used by a sliding window.
+         *
+         * @param burst bucket size
+         * @return updated builder instance
+         */
+        public Builder burst(int burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * How long a call may wait for a permit before it is rejected. Defaults to zero (no waiting).
+         *
+         * @param maxWait maximal wait time
+         * @return updated builder instance
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * A name assigned for debugging, error reporting or configuration purposes.
+         *
+         * @param name the name
+         * @return updated builder instance
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        int limit() {
+            return limit;
+        }
+
+        Duration period() {
+            return period;
+        }
+
+        int burst() {
+            return burst <= 0 ? limit : burst;
+        }
+
+        Duration maxWait() {
+            return maxWait;
+        }
+
+        String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.lang.System.Logger.Level;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static io.helidon.nima.faulttolerance.SupplierHelper.toRuntimeException;
+import static io.helidon.nima.faulttolerance.SupplierHelper.unwrapThrowable;
+
+/**
+ * Common handling of rate limiters, the algorithm only decides whether (and after how long) a permit is available.
+ */
+abstract class RateLimiterBase implements RateLimiter {
+    private static final System.Logger LOGGER = System.getLogger(RateLimiterBase.class.getName());
+
+    private final String name;
+    private final long maxWaitNanos;
+    private final AtomicLong callsAccepted = new AtomicLong();
+    private final AtomicLong callsRejected = new AtomicLong();
+    private final AtomicLong waitingCalls = new AtomicLong();
+
+    RateLimiterBase(Builder builder) {
+        this.name = builder.name();
+        this.maxWaitNanos = builder.maxWait().toNanos();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public <T> T invoke(Supplier<? extends T> supplier) {
+        if (!acquire()) {
+            throw new RateLimitException("Rate limit of \"" + name + "\" reached");
+        }
+        try {
+            return supplier.get();
+        } catch (Throwable t) {
+            throw toRuntimeException(unwrapThrowable(t));
+        }
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return accepted(reserve(System.nanoTime(), 0) == 0);
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats() {
+            @Override
+            public long callsAccepted() {
+                return callsAccepted.get();
+            }
+
+            @Override
+            public long callsRejected() {
+                return callsRejected.get();
+            }
+
+            @Override
+            public long waitingCalls() {
+                return waitingCalls.get();
+            }
+
+            @Override
+            public long availablePermits() {
+                return RateLimiterBase.this.availablePermits(System.nanoTime());
+            }
+        };
+    }
+
+    /**
+     * Reserve a permit.
+     *
+     * @param now          current time in nanoseconds
+     * @param maxWaitNanos how long the caller is willing to wait
+     * @return {@code 0} if the permit is available now, nanoseconds to wait before retrying (or, if the algorithm
+     *         reserved the permit, before using it), or {@code -1} if no permit can be available in time
+     */
+    abstract long reserve(long now, long maxWaitNanos);
+
+    /**
+     * Whether a positive result of {@link #reserve(long, long)} is a reservation, or only a hint when to try again.
+     *
+     * @return {@code true} if waiting for a reserved permit
+     */
+    abstract boolean reserves();
+
+    /**
+     * Estimated number of available permits.
+     *
+     * @param now current time in nanoseconds
+     * @return available permits
+     */
+    abstract long availablePermits(long now);
+
+    /**
+     * Return a permit reserved by {@link #reserve(long, long)} that is not going to be used.
+     * Only called when {@link #reserves()} is {@code true}.
+     */
+    void release() {
+    }
+
+    private boolean acquire() {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long now = System.nanoTime();
+        long wait = reserve(now, maxWaitNanos);
+        if (wait <= 0) {
+            return accepted(wait == 0);
+        }
+        waitingCalls.incrementAndGet();
+        try {
+            while (true) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+                if (reserves()) {
+                    return accepted(true);
+                }
+                now = System.nanoTime();
+                long remaining = deadline - now;
+                if (remaining < 0) {
+                    return accepted(false);
+                }
+                wait = reserve(now, remaining);
+                if (wait <= 0) {
+                    return accepted(wait == 0);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (reserves()) {
+                // otherwise the permit would be lost and delay all calls that come after this one
+                release();
+            }
+            if (LOGGER.isLoggable(Level.DEBUG)) {
+                LOGGER.log(Level.DEBUG, name + " interrupted while waiting for a permit");
+            }
+            return accepted(false);
+        } finally {
+            waitingCalls.decrementAndGet();
+        }
+    }
+
+    private boolean accepted(boolean accepted) {
+        if (accepted) {
+            callsAccepted.incrementAndGet();
+        } else {
+            callsRejected.incrementAndGet();
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding window estimated from two fixed windows: calls counted in the previous window are weighted by the part
+ * of the period that still overlaps it, and added to calls counted in the current window.
+ * Window state is immutable and replaced atomically. Waiting calls do not reserve a permit, they retry after
+ * the time one permit needs to free up, so a waiting call may be overtaken by a new one.
+ */
+class SlidingWindowRateLimiter extends RateLimiterBase {
+    private final long period;
+    private final int limit;
+    private final AtomicReference<Window> window;
+
+    SlidingWindowRateLimiter(Builder builder) {
+        super(builder);
+        this.period = builder.period().toNanos();
+        this.limit = builder.limit();
+        this.window = new AtomicReference<>(new Window(System.nanoTime(), 0, 0));
+    }
+
+    @Override
+    long reserve(long now, long maxWaitNanos) {
+        while (true) {
+            Window current = window.get();
+            Window updated = current.at(now, period);
+            if (updated.estimate(now, period) >= limit) {
+                if (updated != current) {
+                    window.compareAndSet(current, updated);
+                }
+                // a permit frees up as the previous window slides out, or when a new window starts
+                long retry = Math.max(1, period / limit);
+                return retry > maxWaitNanos ? -1 : retry;
+            }
+            if (window.compareAndSet(current, updated.increment())) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    boolean reserves() {
+        return false;
+    }
+
+    @Override
+    long availablePermits(long now) {
+        Window current = window.get().at(now, period);
+        return Math.max(0, limit - current.estimate(now, period));
+    }
+
+    private record Window(long start, int previous, int current) {
+        // window containing the provided time
+        Window at(long now, long period) {
+            long elapsed = now - start;
+            if (elapsed < period) {
+                return this;
+            }
+            if (elapsed < 2 * period) {
+                return new Window(start + period, current, 0);
+            }
+            return new Window(start + (elapsed / period) * period, 0, 0);
+        }
+
+        long estimate(long now, long period) {
+            long remaining = period - (now - start);
+            return current + (long) ((double) previous * remaining / period);
+        }
+
+        Window increment() {
+            return new Window(start, previous, current + 1);
+        }
+    }
+}
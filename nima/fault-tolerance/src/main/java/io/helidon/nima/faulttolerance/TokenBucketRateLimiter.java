@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket implemented as a generic cell rate algorithm: instead of counting tokens, a single atomic value holds
+ * the time at which the bucket would be full again. Each permit moves this time by one emission interval, and a permit
+ * is available if the time is not further in the future than the size of the bucket.
+ * A waiting call reserves its permit, so waiting calls are served in order of arrival; an interrupted call returns it.
+ */
+class TokenBucketRateLimiter extends RateLimiterBase {
+    // nanoseconds per permit
+    private final long interval;
+    // nanoseconds that fill the whole bucket
+    private final long capacity;
+    // time (System.nanoTime) at which all permits given so far are paid back
+    private final AtomicLong fullAt;
+
+    TokenBucketRateLimiter(Builder builder) {
+        super(builder);
+        this.interval = Math.max(1, builder.period().toNanos() / builder.limit());
+        this.capacity = interval * builder.burst();
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    long reserve(long now, long maxWaitNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    @Override
+    boolean reserves() {
+        return true;
+    }
+
+    @Override
+    void release() {
+        fullAt.addAndGet(-interval);
+    }
+
+    @Override
+    long availablePermits(long now) {
+        long used = Math.max(0, fullAt.get() - now);
+        return Math.max(0, (capacity - used) / interval);
+    }
+}
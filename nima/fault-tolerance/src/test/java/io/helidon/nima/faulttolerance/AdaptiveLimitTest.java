@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveLimitTest {
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+
+    @Test
+    void testRejectsOverLimit() throws Exception {
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .initialLimit(1)
+                .name("unit:adaptive")
+                .build();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = Async.invokeStatic(() -> limit.invoke(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "done";
+        }));
+        assertThat(started.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is(true));
+
+        AdaptiveLimitException exception = assertThrows(AdaptiveLimitException.class, () -> limit.invoke(() -> "rejected"));
+        assertThat(exception.getMessage(), is("Adaptive limit \"unit:adaptive\" of 1 concurrent calls reached"));
+
+        release.countDown();
+        assertThat(running.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is("done"));
+        assertThat(limit.stats().callsAccepted(), is(1L));
+        assertThat(limit.stats().callsRejected(), is(1L));
+        assertThat(limit.stats().concurrentExecutions(), is(0L));
+    }
+
+    @Test
+    void testAimdDecreasesOnSlowCalls() {
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .algorithm(AdaptiveLimit.Algorithm.AIMD)
+                .initialLimit(10)
+                .latencyThreshold(Duration.ofMillis(1))
+                .backoffRatio(0.5)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            limit.invoke(AdaptiveLimitTest::slowCall);
+        }
+        assertThat(limit.stats().limit(), is(1));
+    }
+
+    @Test
+    void testAimdIncreasesWhenUtilized() {
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .algorithm(AdaptiveLimit.Algorithm.AIMD)
+                .initialLimit(1)
+                .latencyThreshold(Duration.ofSeconds(10))
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            limit.invoke(() -> "fast");
+        }
+        // grows only while at least half of the limit is used by concurrent calls
+        assertThat(limit.stats().limit(), is(3));
+    }
+
+    @Test
+    void testFailuresDecrease() {
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .skipOn(IllegalArgumentException.class)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> limit.invoke(() -> {
+            throw new IllegalArgumentException("not an overload");
+        }));
+        assertThat(limit.stats().limit(), is(10));
+
+        assertThrows(IllegalStateException.class, () -> limit.invoke(() -> {
+            throw new IllegalStateException("overload");
+        }));
+        assertThat(limit.stats().limit(), is(5));
+    }
+
+    @Test
+    void testGradientGrowsWithStableLatency() {
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .algorithm(AdaptiveLimit.Algorithm.GRADIENT)
+                .initialLimit(1)
+                .smoothing(1)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            limit.invoke(() -> "fast");
+        }
+        assertThat(limit.stats().limit(), greaterThan(1));
+    }
+
+    @Test
+    void testGradientShrinksWithGrowingLatency() throws Exception {
+        int concurrency = 6;
+        AdaptiveLimit limit = AdaptiveLimit.builder()
+                .algorithm(AdaptiveLimit.Algorithm.GRADIENT)
+                .initialLimit(concurrency)
+                .maxLimit(concurrency)
+                .smoothing(1)
+                .tolerance(1)
+                .build();
+
+        // establish long term latency, single calls do not use enough of the limit to change it
+        for (int i = 0; i < 20; i++) {
+            limit.invoke(() -> "fast");
+        }
+        assertThat(limit.stats().limit(), is(concurrency));
+
+        CountDownLatch allStarted = new CountDownLatch(concurrency);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            calls.add(Async.invokeStatic(() -> limit.invoke(() -> {
+                allStarted.countDown();
+                try {
+                    allStarted.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return slowCall();
+            })));
+        }
+        for (CompletableFuture<String> call : calls) {
+            assertThat(call.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is("slow"));
+        }
+        assertThat(limit.stats().limit(), lessThan(concurrency));
+    }
+
+    private static String slowCall() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return "slow";
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.faulttolerance;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimiterTest {
+    @Test
+    void testTokenBucketRejects() {
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(3)
+                .period(Duration.ofMinutes(1))
+                .name("unit:tokenBucket")
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.invoke(() -> "ok"), is("ok"));
+        }
+        RateLimitException exception = assertThrows(RateLimitException.class, () -> limiter.invoke(() -> "ok"));
+        assertThat(exception.getMessage(), is("Rate limit of \"unit:tokenBucket\" reached"));
+
+        RateLimiter.Stats stats = limiter.stats();
+        assertThat(stats.callsAccepted(), is(3L));
+        assertThat(stats.callsRejected(), is(1L));
+        assertThat(stats.availablePermits(), is(0L));
+    }
+
+    @Test
+    void testTokenBucketBurst() {
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(10)
+                .burst(2)
+                .period(Duration.ofMinutes(1))
+                .build();
+
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(false));
+    }
+
+    @Test
+    void testTokenBucketWaits() {
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(1)
+                .period(Duration.ofMillis(200))
+                .maxWait(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        limiter.invoke(() -> "first");
+        limiter.invoke(() -> "second");
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(Duration.ofNanos(elapsed).toMillis(), greaterThanOrEqualTo(150L));
+        assertThat(limiter.stats().callsAccepted(), is(2L));
+        assertThat(limiter.stats().waitingCalls(), is(0L));
+    }
+
+    @Test
+    void testTokenBucketWaitTooLong() {
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(1)
+                .period(Duration.ofMinutes(1))
+                .maxWait(Duration.ofMillis(50))
+                .build();
+
+        limiter.invoke(() -> "first");
+        assertThrows(RateLimitException.class, () -> limiter.invoke(() -> "second"));
+    }
+
+    @Test
+    void testTokenBucketInterruptedWaitReleasesPermit() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(1)
+                .period(Duration.ofSeconds(1))
+                .maxWait(Duration.ofMillis(1500))
+                .build();
+
+        limiter.invoke(() -> "first");
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                limiter.invoke(() -> "second");
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        waiting.start();
+        while (limiter.stats().waitingCalls() == 0) {
+            Thread.sleep(10);
+        }
+        waiting.interrupt();
+        waiting.join();
+        assertThat(thrown.get(), instanceOf(RateLimitException.class));
+
+        // would have to wait for two periods if the interrupted call kept its permit
+        assertThat(limiter.invoke(() -> "third"), is("third"));
+        assertThat(limiter.stats().callsAccepted(), is(2L));
+        assertThat(limiter.stats().callsRejected(), is(1L));
+    }
+
+    @Test
+    void testSlidingWindowRejects() {
+        RateLimiter limiter = RateLimiter.builder()
+                .type(RateLimiter.Type.SLIDING_WINDOW)
+                .limit(3)
+                .period(Duration.ofMinutes(1))
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+        assertThat(limiter.tryAcquire(), is(false));
+        assertThrows(RateLimitException.class, () -> limiter.invoke(() -> "ok"));
+        assertThat(limiter.stats().callsRejected(), is(2L));
+    }
+
+    @Test
+    void testSlidingWindowWaits() {
+        RateLimiter limiter = RateLimiter.builder()
+                .type(RateLimiter.Type.SLIDING_WINDOW)
+                .limit(2)
+                .period(Duration.ofMillis(200))
+                .maxWait(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.invoke(() -> "ok");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(Duration.ofNanos(elapsed).toMillis(), greaterThanOrEqualTo(50L));
+        assertThat(limiter.stats().callsAccepted(), is(3L));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Input stream over a list of byte buffers, such as a message received in more than one data frame.
+ */
+final class ByteBuffersInputStream extends InputStream {
+    private final Iterator<ByteBuffer> buffers;
+    private ByteBuffer current;
+
+    ByteBuffersInputStream(List<ByteBuffer> buffers) {
+        this.buffers = buffers.iterator();
+    }
+
+    @Override
+    public int read() {
+        if (!nextBuffer()) {
+            return -1;
+        }
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextBuffer()) {
+            return -1;
+        }
+        int toRead = Math.min(len, current.remaining());
+        current.get(b, off, toRead);
+        return toRead;
+    }
+
+    private boolean nextBuffer() {
+        while (current == null || !current.hasRemaining()) {
+            if (!buffers.hasNext()) {
+                return false;
+            }
+            current = buffers.next();
+        }
+        return true;
+    }
+}
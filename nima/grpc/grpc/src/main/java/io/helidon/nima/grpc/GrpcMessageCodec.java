@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.grpc.Compressor;
+import io.grpc.Decompressor;
+import io.grpc.MethodDescriptor;
+
+/**
+ * Serializes and parses gRPC messages of one type, used for requests or responses of a method.
+ * Protobuf messages are serialized straight into the array that is sent (including the message prefix), and parsed
+ * directly from the received buffers (see {@link io.helidon.nima.grpc.GrpcMessageReader}); other messages use
+ * the streams of their marshaller.
+ *
+ * @param <T> type of the message
+ */
+public final class GrpcMessageCodec<T> {
+    private static final int PREFIX_LENGTH = GrpcMessageReader.PREFIX_LENGTH;
+
+    private final MethodDescriptor.Marshaller<T> marshaller;
+    private final Parser<T> parser;
+
+    private GrpcMessageCodec(MethodDescriptor.Marshaller<T> marshaller, Parser<T> parser) {
+        this.marshaller = marshaller;
+        this.parser = parser;
+    }
+
+    /**
+     * Create a codec for messages of a marshaller.
+     *
+     * @param marshaller marshaller of the messages, such as {@link io.grpc.MethodDescriptor#getRequestMarshaller()}
+     * @param <T>        type of the message
+     * @return a new codec
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GrpcMessageCodec<T> create(MethodDescriptor.Marshaller<T> marshaller) {
+        Parser<T> parser = null;
+        if (marshaller instanceof MethodDescriptor.PrototypeMarshaller<?> prototypeMarshaller
+                && prototypeMarshaller.getMessagePrototype() instanceof MessageLite prototype) {
+            parser = (Parser<T>) prototype.getParserForType();
+        }
+        return new GrpcMessageCodec<>(marshaller, parser);
+    }
+
+    /**
+     * Write the prefix of a message (compressed flag and message length) to the first
+     * {@value GrpcMessageReader#PREFIX_LENGTH} bytes of an array.
+     *
+     * @param bytes      array to write to
+     * @param compressed whether the message is compressed
+     * @param length     length of the message, without the prefix
+     */
+    public static void writePrefix(byte[] bytes, boolean compressed, int length) {
+        bytes[0] = (byte) (compressed ? 1 : 0);
+        bytes[1] = (byte) (length >>> 24);
+        bytes[2] = (byte) (length >>> 16);
+        bytes[3] = (byte) (length >>> 8);
+        bytes[4] = (byte) length;
+    }
+
+    /**
+     * Input stream over the buffers of a message, the buffers are not copied.
+     *
+     * @param message buffers of the message, as returned from {@link io.helidon.nima.grpc.GrpcMessageReader#next()}
+     * @return input stream
+     */
+    public static InputStream inputStream(List<ByteBuffer> message) {
+        return new ByteBuffersInputStream(message);
+    }
+
+    /**
+     * Serialize a message, including the message prefix.
+     *
+     * @param message message to serialize
+     * @return prefixed message
+     * @throws IOException in case the message cannot be serialized
+     */
+    public byte[] serialize(T message) throws IOException {
+        if (parser != null) {
+            MessageLite protoMessage = (MessageLite) message;
+            int size = protoMessage.getSerializedSize();
+            byte[] bytes = new byte[PREFIX_LENGTH + size];
+            writePrefix(bytes, false, size);
+            CodedOutputStream output = CodedOutputStream.newInstance(bytes, PREFIX_LENGTH, size);
+            protoMessage.writeTo(output);
+            output.checkNoSpaceLeft();
+            return bytes;
+        }
+        try (InputStream in = marshaller.stream(message)) {
+            byte[] messageBytes = in.readAllBytes();
+            byte[] bytes = new byte[PREFIX_LENGTH + messageBytes.length];
+            writePrefix(bytes, false, messageBytes.length);
+            System.arraycopy(messageBytes, 0, bytes, PREFIX_LENGTH, messageBytes.length);
+            return bytes;
+        }
+    }
+
+    /**
+     * Serialize and compress a message, including the message prefix.
+     *
+     * @param message    message to serialize
+     * @param compressor compressor to use
+     * @return prefixed compressed message
+     * @throws IOException in case the message cannot be serialized or compressed
+     */
+    public byte[] serialize(T message, Compressor compressor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // placeholder for the prefix
+        out.write(new byte[PREFIX_LENGTH]);
+        try (OutputStream compressed = compressor.compress(out);
+                InputStream in = marshaller.stream(message)) {
+            in.transferTo(compressed);
+        }
+        byte[] bytes = out.toByteArray();
+        writePrefix(bytes, true, bytes.length - PREFIX_LENGTH);
+        return bytes;
+    }
+
+    /**
+     * Parse a message that is not compressed.
+     *
+     * @param message buffers of the message, as returned from {@link io.helidon.nima.grpc.GrpcMessageReader#next()}
+     * @return parsed message
+     * @throws IOException in case the message cannot be parsed
+     */
+    public T parse(List<ByteBuffer> message) throws IOException {
+        if (parser == null) {
+            return marshaller.parse(inputStream(message));
+        }
+        // heap buffers of a single frame are read without a copy
+        CodedInputStream input = message.size() == 1
+                ? CodedInputStream.newInstance(message.get(0))
+                : CodedInputStream.newInstance(message);
+        return parser.parseFrom(input);
+    }
+
+    /**
+     * Parse a compressed message.
+     *
+     * @param message      buffers of the message, as returned from {@link io.helidon.nima.grpc.GrpcMessageReader#next()}
+     * @param decompressor decompressor of the encoding of the message
+     * @return parsed message
+     * @throws IOException in case the message cannot be decompressed or parsed
+     */
+    public T parse(List<ByteBuffer> message, Decompressor decompressor) throws IOException {
+        try (InputStream in = decompressor.decompress(inputStream(message))) {
+            return marshaller.parse(in);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.helidon.common.buffers.BufferData;
+
+/**
+ * Reassembles length prefixed gRPC messages from received data frames.
+ * Data of the frames is not copied, a message is provided as a list of byte buffers over the received frames,
+ * as a message may span more than one frame, and a single frame may contain more than one message.
+ */
+public final class GrpcMessageReader {
+    /**
+     * Length of the message prefix (compressed flag and message length).
+     */
+    public static final int PREFIX_LENGTH = 5;
+
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    private long available;
+    private int messageLength = -1;
+    private boolean compressed;
+
+    /**
+     * Add data of a received frame. All available bytes of the data are consumed.
+     *
+     * @param data frame data
+     */
+    public void add(BufferData data) {
+        if (data.available() == 0) {
+            return;
+        }
+        ByteBuffer buffer = data.readByteBuffer();
+        buffers.add(buffer);
+        available += buffer.remaining();
+    }
+
+    /**
+     * Next fully received message.
+     *
+     * @return buffers of the message (without the prefix), or {@code null} if the next message is not fully received yet
+     */
+    public List<ByteBuffer> next() {
+        if (messageLength < 0) {
+            if (available < PREFIX_LENGTH) {
+                return null;
+            }
+            compressed = readByte() == 1;
+            long length = ((long) readByte() << 24)
+                    | (readByte() << 16)
+                    | (readByte() << 8)
+                    | readByte();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("gRPC message too big: " + length);
+            }
+            messageLength = (int) length;
+        }
+        if (available < messageLength) {
+            return null;
+        }
+        List<ByteBuffer> message = read(messageLength);
+        messageLength = -1;
+        return message;
+    }
+
+    /**
+     * Whether the last message returned from {@link #next()} is compressed.
+     *
+     * @return whether compressed
+     */
+    public boolean compressed() {
+        return compressed;
+    }
+
+    /**
+     * Whether there is data of an incomplete message.
+     *
+     * @return whether there are buffered bytes
+     */
+    public boolean hasPartialMessage() {
+        return available > 0 || messageLength >= 0;
+    }
+
+    private int readByte() {
+        ByteBuffer buffer = buffers.peek();
+        int result = buffer.get() & 0xFF;
+        if (!buffer.hasRemaining()) {
+            buffers.poll();
+        }
+        available--;
+        return result;
+    }
+
+    private List<ByteBuffer> read(int length) {
+        List<ByteBuffer> result = new ArrayList<>(1);
+        int remaining = length;
+        while (remaining > 0) {
+            ByteBuffer buffer = buffers.peek();
+            int bufferLength = buffer.remaining();
+            if (bufferLength <= remaining) {
+                result.add(buffers.poll());
+                remaining -= bufferLength;
+            } else {
+                int position = buffer.position();
+                result.add(buffer.slice(position, remaining));
+                buffer.position(position + remaining);
+                remaining = 0;
+            }
+        }
+        available -= length;
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.nima.grpc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import io.helidon.common.buffers.BufferData;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class GrpcMessageReaderTest {
+    @Test
+    void testMessageInOneFrame() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        reader.add(BufferData.create(message(false, "hello")));
+
+        assertThat(text(reader.next()), is("hello"));
+        assertThat(reader.compressed(), is(false));
+        assertThat(reader.next(), is(nullValue()));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    @Test
+    void testMessageSplitAcrossFrames() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        byte[] message = message(true, "split message");
+
+        reader.add(frame(message, 0, 8));
+        assertThat(reader.next(), is(nullValue()));
+        assertThat(reader.hasPartialMessage(), is(true));
+
+        reader.add(frame(message, 8, 12));
+        assertThat(reader.next(), is(nullValue()));
+
+        reader.add(frame(message, 12, message.length));
+        assertThat(text(reader.next()), is("split message"));
+        assertThat(reader.compressed(), is(true));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    @Test
+    void testMessagesInOneFrame() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        reader.add(BufferData.create(concat(message(false, "first"),
+                                            message(true, "second"),
+                                            message(false, ""),
+                                            message(false, "third"))));
+
+        assertThat(text(reader.next()), is("first"));
+        assertThat(reader.compressed(), is(false));
+        assertThat(text(reader.next()), is("second"));
+        assertThat(reader.compressed(), is(true));
+        assertThat(text(reader.next()), is(""));
+        assertThat(text(reader.next()), is("third"));
+        assertThat(reader.next(), is(nullValue()));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    @Test
+    void testPrefixSplitAcrossFrames() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        byte[] first = message(false, "first");
+        byte[] second = message(false, "second");
+        byte[] data = concat(first, second);
+        // the second frame ends inside the prefix of the second message
+        int split = first.length + 2;
+
+        reader.add(frame(data, 0, split));
+        assertThat(text(reader.next()), is("first"));
+        assertThat(reader.next(), is(nullValue()));
+        assertThat(reader.hasPartialMessage(), is(true));
+
+        reader.add(frame(data, split, split + 1));
+        assertThat(reader.next(), is(nullValue()));
+
+        reader.add(frame(data, split + 1, data.length));
+        assertThat(text(reader.next()), is("second"));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    @Test
+    void testByteByByte() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        byte[] data = concat(message(false, "one"), message(true, "two"));
+
+        StringBuilder received = new StringBuilder();
+        for (int i = 0; i < data.length; i++) {
+            reader.add(frame(data, i, i + 1));
+            List<ByteBuffer> message = reader.next();
+            if (message != null) {
+                received.append(text(message)).append(reader.compressed() ? "(compressed)" : "").append(';');
+            }
+        }
+        assertThat(received.toString(), is("one;two(compressed);"));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    @Test
+    void testEmptyFrame() {
+        GrpcMessageReader reader = new GrpcMessageReader();
+        reader.add(BufferData.empty());
+
+        assertThat(reader.next(), is(nullValue()));
+        assertThat(reader.hasPartialMessage(), is(false));
+    }
+
+    private static BufferData frame(byte[] data, int from, int to) {
+        return BufferData.create(Arrays.copyOfRange(data, from, to));
+    }
+
+    private static byte[] message(boolean compressed, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] message = new byte[GrpcMessageReader.PREFIX_LENGTH + bytes.length];
+        GrpcMessageCodec.writePrefix(message, compressed, bytes.length);
+        System.arraycopy(bytes, 0, message, GrpcMessageReader.PREFIX_LENGTH, bytes.length);
+        return message;
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            out.writeBytes(array);
+        }
+        return out.toByteArray();
+    }
+
+    private static String text(List<ByteBuffer> message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : message) {
+            ByteBuffer copy = buffer.duplicate();
+            byte[] bytes = new byte[copy.remaining()];
+            copy.get(bytes);
+            out.writeBytes(bytes);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
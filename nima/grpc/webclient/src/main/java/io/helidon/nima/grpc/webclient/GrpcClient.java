@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc.webclient;
+
+import java.net.URI;
+import java.util.Objects;
+
+import io.helidon.nima.common.tls.Tls;
+import io.helidon.nima.http2.webclient.Http2Client;
+
+import io.grpc.Channel;
+
+/**
+ * gRPC client running on the Níma HTTP/2 client, so calls are blocking-friendly (virtual threads) and do not
+ * require Netty.
+ * <p>
+ * Calls are made through {@link #channel()}, which can be used with stubs generated by {@code protoc-gen-grpc-java}
+ * (blocking, asynchronous and future stubs), and supports unary, server streaming, client streaming and bidirectional
+ * streaming methods. Each call uses a single stream of one of the pooled HTTP/2 connections of the underlying
+ * {@link io.helidon.nima.http2.webclient.Http2Client}.
+ * <p>
+ * Deadlines of {@link io.grpc.CallOptions} (or of the current {@link io.grpc.Context}) are sent to the server
+ * and enforced by the client. Responses are decompressed using {@link io.grpc.DecompressorRegistry}, requests
+ * are compressed by the compressor configured in call options (or on the builder), once the server advertised support
+ * of that encoding.
+ * <p>
+ * The client should be {@link #close() closed} when no longer used.
+ */
+public interface GrpcClient extends AutoCloseable {
+    /**
+     * A new fluent API builder to customize client setup.
+     *
+     * @return a new builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Channel to use with generated stubs, or with {@link io.grpc.stub.ClientCalls}.
+     *
+     * @return channel of this client
+     */
+    Channel channel();
+
+    /**
+     * Close this client. Calls that are in progress are terminated, new calls fail with
+     * {@link io.grpc.Status.Code#UNAVAILABLE}.
+     * The HTTP/2 client is closed only if it was created by the builder of this client, a client configured through
+     * {@link io.helidon.nima.grpc.webclient.GrpcClient.Builder#http2Client(io.helidon.nima.http2.webclient.Http2Client)}
+     * is left open.
+     */
+    @Override
+    void close();
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.grpc.webclient.GrpcClient}.
+     */
+    class Builder implements io.helidon.common.Builder<Builder, GrpcClient> {
+        private URI baseUri;
+        private Tls tls;
+        private Http2Client http2Client;
+        private String compressor;
+
+        private Builder() {
+        }
+
+        @Override
+        public GrpcClient build() {
+            Objects.requireNonNull(baseUri, "Base URI must be configured");
+            if (http2Client != null) {
+                return new GrpcClientImpl(this, http2Client, false);
+            }
+            Http2Client.Http2ClientBuilder builder = Http2Client.builder()
+                    .baseUri(baseUri)
+                    .priorKnowledge(true);
+            if (tls != null) {
+                builder.tls(tls);
+            }
+            return new GrpcClientImpl(this, builder.build(), true);
+        }
+
+        /**
+         * Base URI of the server, such as {@code http://localhost:8080}.
+         *
+         * @param baseUri base uri
+         * @return updated builder
+         */
+        public Builder baseUri(String baseUri) {
+            return baseUri(URI.create(baseUri));
+        }
+
+        /**
+         * Base URI of the server, such as {@code http://localhost:8080}.
+         *
+         * @param baseUri base uri
+         * @return updated builder
+         */
+        public Builder baseUri(URI baseUri) {
+            this.baseUri = baseUri;
+            return this;
+        }
+
+        /**
+         * TLS configuration, used when the base URI uses {@code https}.
+         * Ignored when {@link #http2Client(io.helidon.nima.http2.webclient.Http2Client)} is configured.
+         *
+         * @param tls TLS configuration
+         * @return updated builder
+         */
+        public Builder tls(Tls tls) {
+            this.tls = tls;
+            return this;
+        }
+
+        /**
+         * HTTP/2 client to use, to customize connection pooling and socket options.
+         * The client should be configured with prior knowledge of HTTP/2.
+         * Defaults to a new client with prior knowledge.
+         *
+         * @param http2Client HTTP/2 client
+         * @return updated builder
+         */
+        public Builder http2Client(Http2Client http2Client) {
+            this.http2Client = http2Client;
+            return this;
+        }
+
+        /**
+         * Name of the compressor (from {@link io.grpc.CompressorRegistry}) to compress requests of calls that do not
+         * configure compression in their {@link io.grpc.CallOptions}, such as {@code gzip}.
+         * Requests are compressed only when the server advertised support of this encoding
+         * in {@code grpc-accept-encoding} of an earlier response.
+         * Defaults to no compression.
+         *
+         * @param compressor compressor name
+         * @return updated builder
+         */
+        public Builder compressor(String compressor) {
+            this.compressor = compressor;
+            return this;
+        }
+
+        URI baseUri() {
+            return baseUri;
+        }
+
+        String compressor() {
+            return compressor;
+        }
+    }
+}
@@ -0,0 +1,557 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc.webclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.Headers;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Http.Header;
+import io.helidon.common.http.Http.HeaderName;
+import io.helidon.common.http.Http.HeaderValue;
+import io.helidon.nima.grpc.GrpcMessageCodec;
+import io.helidon.nima.grpc.GrpcMessageReader;
+import io.helidon.nima.http2.Http2Headers;
+import io.helidon.nima.http2.webclient.Http2ClientExchange;
+import io.helidon.nima.http2.webclient.Http2ClientRequest;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Compressor;
+import io.grpc.CompressorRegistry;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Decompressor;
+import io.grpc.DecompressorRegistry;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A single gRPC call, using one HTTP/2 stream.
+ * Requests are written by the thread that calls {@link #sendMessage(Object)}, responses are read by a virtual thread
+ * started for the call, and delivered to the listener after they were requested by {@link #request(int)}.
+ */
+class GrpcClientCall<ReqT, ResT> extends ClientCall<ReqT, ResT> {
+    private static final System.Logger LOGGER = System.getLogger(GrpcClientCall.class.getName());
+    private static final Duration NO_DEADLINE = Duration.ofNanos(Long.MAX_VALUE);
+    private static final HeaderValue GRPC_CONTENT_TYPE = Header.createCached(Header.CONTENT_TYPE, "application/grpc");
+    private static final HeaderValue TE_TRAILERS = Header.createCached(Header.create("te"), "trailers");
+    private static final HeaderName GRPC_TIMEOUT = Header.createFromLowercase("grpc-timeout");
+    private static final HeaderName GRPC_ENCODING = Header.createFromLowercase("grpc-encoding");
+    private static final HeaderName GRPC_ACCEPT_ENCODING = Header.createFromLowercase("grpc-accept-encoding");
+    private static final HeaderName GRPC_STATUS = Header.createFromLowercase("grpc-status");
+    private static final HeaderName GRPC_MESSAGE = Header.createFromLowercase("grpc-message");
+    private static final Set<String> RESERVED_HEADERS = Set.of("content-type",
+                                                               "te",
+                                                               "grpc-timeout",
+                                                               "grpc-encoding",
+                                                               "grpc-accept-encoding",
+                                                               "grpc-status",
+                                                               "grpc-message");
+
+    private final GrpcClientImpl client;
+    private final MethodDescriptor<ReqT, ResT> method;
+    private final CallOptions callOptions;
+    private final Executor callExecutor;
+    private final GrpcMessageCodec<ReqT> requestCodec;
+    private final GrpcMessageCodec<ResT> responseCodec;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ReentrantLock demandLock = new ReentrantLock();
+    private final Condition demandChanged = demandLock.newCondition();
+
+    private volatile Listener<ResT> listener;
+    private volatile Http2ClientExchange exchange;
+    private volatile Deadline deadline;
+    private volatile boolean halfClosed;
+    private volatile boolean messageCompression = true;
+    // guarded by demandLock
+    private int demand;
+    private Compressor compressor;
+
+    GrpcClientCall(GrpcClientImpl client, MethodDescriptor<ReqT, ResT> method, CallOptions callOptions) {
+        this.client = client;
+        this.method = method;
+        this.callOptions = callOptions;
+        this.callExecutor = new SerializingExecutor(callOptions.getExecutor() == null
+                                                            ? Runnable::run
+                                                            : callOptions.getExecutor());
+        this.requestCodec = GrpcMessageCodec.create(method.getRequestMarshaller());
+        this.responseCodec = GrpcMessageCodec.create(method.getResponseMarshaller());
+    }
+
+    @Override
+    public void start(Listener<ResT> responseListener, Metadata headers) {
+        if (this.listener != null) {
+            throw new IllegalStateException("Call was already started");
+        }
+        this.listener = responseListener;
+        this.deadline = effectiveDeadline();
+
+        if (client.closed()) {
+            close(Status.UNAVAILABLE.withDescription("Client is closed"), new Metadata());
+            return;
+        }
+        if (deadline != null && deadline.isExpired()) {
+            close(Status.DEADLINE_EXCEEDED.withDescription("Deadline exceeded before the call was started"), new Metadata());
+            return;
+        }
+
+        String compressorName = client.compressor(callOptions);
+        if (compressorName != null) {
+            compressor = CompressorRegistry.getDefaultInstance().lookupCompressor(compressorName);
+            if (compressor == null) {
+                close(Status.INTERNAL.withDescription("Unable to find compressor by name " + compressorName),
+                      new Metadata());
+                return;
+            }
+        }
+
+        try {
+            exchange = prepareRequest(headers).exchange();
+        } catch (RuntimeException e) {
+            close(Status.UNAVAILABLE.withDescription("Failed to open stream to " + client.baseUri()).withCause(e),
+                  new Metadata());
+            return;
+        }
+        try {
+            client.executor().submit(this::readResponse);
+        } catch (RejectedExecutionException e) {
+            // client was closed in the meantime
+            exchange.cancel();
+            close(Status.UNAVAILABLE.withDescription("Client is closed").withCause(e), new Metadata());
+            return;
+        }
+        callExecutor.execute(() -> listener.onReady());
+    }
+
+    @Override
+    public void request(int numMessages) {
+        demandLock.lock();
+        try {
+            demand += numMessages;
+            demandChanged.signalAll();
+        } finally {
+            demandLock.unlock();
+        }
+    }
+
+    @Override
+    public void cancel(String message, Throwable cause) {
+        if (message == null && cause == null) {
+            message = "Call cancelled without message";
+        }
+        Status status = Status.CANCELLED;
+        if (message != null) {
+            status = status.withDescription(message);
+        }
+        if (cause != null) {
+            status = status.withCause(cause);
+        }
+        Http2ClientExchange exchange = this.exchange;
+        if (exchange != null && !closed.get()) {
+            exchange.cancel();
+        }
+        close(status, new Metadata());
+    }
+
+    @Override
+    public void halfClose() {
+        if (halfClosed) {
+            throw new IllegalStateException("Call was already half closed");
+        }
+        halfClosed = true;
+        write(BufferData.empty(), true);
+    }
+
+    @Override
+    public void sendMessage(ReqT message) {
+        if (halfClosed) {
+            throw new IllegalStateException("Call was already half closed");
+        }
+        byte[] bytes;
+        try {
+            bytes = serializeRequest(message);
+        } catch (IOException | RuntimeException e) {
+            cancel("Failed to serialize request", e);
+            return;
+        }
+        write(BufferData.create(bytes), false);
+    }
+
+    @Override
+    public boolean isReady() {
+        return exchange != null && !closed.get() && !halfClosed;
+    }
+
+    @Override
+    public void setMessageCompression(boolean enabled) {
+        this.messageCompression = enabled;
+    }
+
+    private void write(BufferData data, boolean endOfStream) {
+        Http2ClientExchange exchange = this.exchange;
+        if (exchange == null || closed.get()) {
+            // call was already closed (for example the server responded with an error), the data is ignored
+            return;
+        }
+        try {
+            exchange.writeData(data, endOfStream);
+        } catch (RuntimeException e) {
+            if (!closed.get()) {
+                cancel("Failed to send request data", e);
+            }
+        }
+    }
+
+    private Http2ClientRequest prepareRequest(Metadata headers) {
+        Http2ClientRequest request = client.http2Client()
+                .method(Http.Method.POST)
+                .uri(client.baseUri().resolve("/" + method.getFullMethodName()))
+                .header(GRPC_CONTENT_TYPE)
+                .header(TE_TRAILERS)
+                .header(GRPC_ACCEPT_ENCODING, acceptEncoding());
+
+        if (deadline != null) {
+            request.header(GRPC_TIMEOUT, timeout(deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+        }
+        if (compressor != null) {
+            request.header(GRPC_ENCODING, compressor.getMessageEncoding());
+        }
+        for (String key : headers.keys()) {
+            if (RESERVED_HEADERS.contains(key)) {
+                continue;
+            }
+            HeaderName name = Header.create(key);
+            if (key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+                for (byte[] value : headers.getAll(Metadata.Key.of(key, Metadata.BINARY_BYTE_MARSHALLER))) {
+                    request.header(name, Base64.getEncoder().withoutPadding().encodeToString(value));
+                }
+            } else {
+                for (String value : headers.getAll(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER))) {
+                    request.header(name, value);
+                }
+            }
+        }
+        return request;
+    }
+
+    // runs in a virtual thread of the client
+    private void readResponse() {
+        Http2ClientExchange exchange = this.exchange;
+        try {
+            Http2Headers headers = exchange.readHeaders(remainingTime());
+            Headers httpHeaders = headers.httpHeaders();
+            acceptedEncodings(httpHeaders);
+
+            if (exchange.endOfStream()) {
+                // trailers only response (usually an error)
+                close(status(headers), metadata(httpHeaders));
+                return;
+            }
+            Status invalid = validateHeaders(headers);
+            if (invalid != null) {
+                exchange.cancel();
+                close(invalid, metadata(httpHeaders));
+                return;
+            }
+
+            Decompressor decompressor = decompressor(httpHeaders);
+            Metadata responseHeaders = metadata(httpHeaders);
+            callExecutor.execute(() -> listener.onHeaders(responseHeaders));
+
+            GrpcMessageReader messageReader = new GrpcMessageReader();
+            BufferData data;
+            while ((data = exchange.readData(remainingTime())) != null) {
+                messageReader.add(data);
+                List<ByteBuffer> message;
+                while ((message = messageReader.next()) != null) {
+                    ResT response = parseResponse(message, messageReader.compressed(), decompressor);
+                    if (!awaitDemand()) {
+                        return;
+                    }
+                    callExecutor.execute(() -> listener.onMessage(response));
+                }
+            }
+            if (messageReader.hasPartialMessage()) {
+                close(Status.INTERNAL.withDescription("Response ended with an incomplete message"), new Metadata());
+                return;
+            }
+            Optional<Http2Headers> trailers = exchange.trailers();
+            if (trailers.isEmpty()) {
+                close(Status.INTERNAL.withDescription("Response ended without trailers"), new Metadata());
+            } else {
+                close(status(trailers.get()), metadata(trailers.get().httpHeaders()));
+            }
+        } catch (UncheckedIOException e) {
+            if (deadline != null && deadline.isExpired()) {
+                close(Status.DEADLINE_EXCEEDED.withDescription("Deadline exceeded after " + deadline), new Metadata());
+            } else {
+                close(Status.UNAVAILABLE.withCause(e), new Metadata());
+            }
+        } catch (Exception e) {
+            if (!closed.get()) {
+                exchange.cancel();
+                // reading threads are interrupted when the client is closed
+                Status status = client.closed()
+                        ? Status.UNAVAILABLE.withDescription("Client is closed")
+                        : Status.INTERNAL.withDescription("Failed to process response");
+                close(status.withCause(e), new Metadata());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void close(Status status, Metadata trailers) {
+        if (closed.compareAndSet(false, true)) {
+            demandLock.lock();
+            try {
+                demandChanged.signalAll();
+            } finally {
+                demandLock.unlock();
+            }
+            callExecutor.execute(() -> listener.onClose(status, trailers));
+        }
+    }
+
+    // wait until the listener requested another message, returns false if the call was closed in the meantime
+    private boolean awaitDemand() {
+        demandLock.lock();
+        try {
+            while (demand == 0) {
+                if (closed.get()) {
+                    return false;
+                }
+                if (deadline == null) {
+                    demandChanged.await();
+                } else {
+                    long remaining = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+                    if (remaining <= 0) {
+                        throw new UncheckedIOException(new IOException("Deadline exceeded while waiting for demand"));
+                    }
+                    demandChanged.awaitNanos(remaining);
+                }
+            }
+            demand--;
+            return !closed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for demand", e);
+        } finally {
+            demandLock.unlock();
+        }
+    }
+
+    private Deadline effectiveDeadline() {
+        Deadline callDeadline = callOptions.getDeadline();
+        Deadline contextDeadline = Context.current().getDeadline();
+        if (callDeadline == null) {
+            return contextDeadline;
+        }
+        if (contextDeadline == null) {
+            return callDeadline;
+        }
+        return callDeadline.minimum(contextDeadline);
+    }
+
+    private Duration remainingTime() {
+        if (deadline == null) {
+            return NO_DEADLINE;
+        }
+        return Duration.ofNanos(Math.max(0, deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+    }
+
+    private byte[] serializeRequest(ReqT message) throws IOException {
+        if (compressor != null && messageCompression) {
+            return requestCodec.serialize(message, compressor);
+        }
+        return requestCodec.serialize(message);
+    }
+
+    private ResT parseResponse(List<ByteBuffer> message, boolean compressed, Decompressor decompressor) throws IOException {
+        if (compressed) {
+            if (decompressor == null) {
+                throw new IllegalStateException("Received compressed message, but no grpc-encoding was specified");
+            }
+            return responseCodec.parse(message, decompressor);
+        }
+        return responseCodec.parse(message);
+    }
+
+    private Decompressor decompressor(Headers headers) {
+        Optional<String> encoding = headers.first(GRPC_ENCODING);
+        if (encoding.isEmpty() || "identity".equals(encoding.get())) {
+            return null;
+        }
+        Decompressor decompressor = DecompressorRegistry.getDefaultInstance().lookupDecompressor(encoding.get());
+        if (decompressor == null) {
+            throw new IllegalStateException("Unsupported grpc-encoding of response: " + encoding.get());
+        }
+        return decompressor;
+    }
+
+    private void acceptedEncodings(Headers headers) {
+        Set<String> accepted = new HashSet<>();
+        for (String value : headers.values(GRPC_ACCEPT_ENCODING)) {
+            for (String encoding : value.split(",")) {
+                accepted.add(encoding.trim());
+            }
+        }
+        client.acceptedEncodings(accepted);
+    }
+
+    private static String acceptEncoding() {
+        return String.join(",", DecompressorRegistry.getDefaultInstance().getAdvertisedMessageEncodings());
+    }
+
+    // returns status if the response is not a valid grpc response
+    private static Status validateHeaders(Http2Headers headers) {
+        Http.Status httpStatus = headers.status();
+        if (httpStatus.code() != Http.Status.OK_200.code()) {
+            return httpStatus(httpStatus);
+        }
+        Optional<String> contentType = headers.httpHeaders().first(Header.CONTENT_TYPE);
+        if (contentType.isEmpty() || !contentType.get().startsWith("application/grpc")) {
+            return Status.UNKNOWN.withDescription("Invalid content type of grpc response: " + contentType.orElse(""));
+        }
+        return null;
+    }
+
+    private static Status status(Http2Headers trailers) {
+        Headers headers = trailers.httpHeaders();
+        Optional<String> code = headers.first(GRPC_STATUS);
+        if (code.isEmpty()) {
+            if (trailers.status() != null && trailers.status().code() != Http.Status.OK_200.code()) {
+                return httpStatus(trailers.status());
+            }
+            return Status.UNKNOWN.withDescription("Response did not contain grpc-status");
+        }
+        Status status;
+        try {
+            status = Status.fromCodeValue(Integer.parseInt(code.get()));
+        } catch (NumberFormatException e) {
+            return Status.UNKNOWN.withDescription("Invalid grpc-status: " + code.get());
+        }
+        Optional<String> message = headers.first(GRPC_MESSAGE);
+        if (message.isPresent()) {
+            status = status.withDescription(percentDecode(message.get()));
+        }
+        return status;
+    }
+
+    // https://github.com/grpc/grpc/blob/master/doc/http-grpc-status-mapping.md
+    private static Status httpStatus(Http.Status httpStatus) {
+        Status.Code code = switch (httpStatus.code()) {
+            case 400 -> Status.Code.INTERNAL;
+            case 401 -> Status.Code.UNAUTHENTICATED;
+            case 403 -> Status.Code.PERMISSION_DENIED;
+            case 404 -> Status.Code.UNIMPLEMENTED;
+            case 429, 502, 503, 504 -> Status.Code.UNAVAILABLE;
+            default -> Status.Code.UNKNOWN;
+        };
+        return code.toStatus().withDescription("HTTP status " + httpStatus.code());
+    }
+
+    private static Metadata metadata(Headers headers) {
+        Metadata metadata = new Metadata();
+        for (HeaderValue header : headers) {
+            String name = header.name();
+            if (RESERVED_HEADERS.contains(name)) {
+                continue;
+            }
+            if (name.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+                Metadata.Key<byte[]> key = Metadata.Key.of(name, Metadata.BINARY_BYTE_MARSHALLER);
+                for (String value : header.allValues()) {
+                    try {
+                        metadata.put(key, Base64.getDecoder().decode(value));
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.log(System.Logger.Level.DEBUG, "Ignoring invalid binary header " + name, e);
+                    }
+                }
+            } else {
+                Metadata.Key<String> key = Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER);
+                for (String value : header.allValues()) {
+                    metadata.put(key, value);
+                }
+            }
+        }
+        return metadata;
+    }
+
+    // grpc-timeout header value, at most 8 digits
+    private static String timeout(long nanos) {
+        long value = Math.max(0, nanos);
+        long max = 100_000_000L;
+        if (value < max) {
+            return value + "n";
+        }
+        if (value < max * 1_000L) {
+            return value / 1_000L + "u";
+        }
+        if (value < max * 1_000_000L) {
+            return value / 1_000_000L + "m";
+        }
+        if (value < max * 1_000_000_000L) {
+            return value / 1_000_000_000L + "S";
+        }
+        if (value < max * 60_000_000_000L) {
+            return value / 60_000_000_000L + "M";
+        }
+        return Math.min(max - 1, value / 3_600_000_000_000L) + "H";
+    }
+
+    // grpc-message is percent encoded UTF-8
+    private static String percentDecode(String value) {
+        if (value.indexOf('%') == -1) {
+            return value;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (b == '%' && i + 2 < bytes.length) {
+                int high = Character.digit(bytes[i + 1], 16);
+                int low = Character.digit(bytes[i + 2], 16);
+                if (high != -1 && low != -1) {
+                    out.write((high << 4) | low);
+                    i += 2;
+                    continue;
+                }
+            }
+            out.write(b);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.grpc.webclient;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.helidon.nima.http2.webclient.Http2Client;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+
+class GrpcClientImpl implements GrpcClient {
+    private final URI baseUri;
+    private final Http2Client http2Client;
+    private final boolean ownHttp2Client;
+    private final String compressor;
+    private final ExecutorService executor;
+    private final Channel channel;
+
+    // encodings the server accepts, null until the first response is received
+    private volatile Set<String> acceptedEncodings;
+    private volatile boolean closed;
+
+    GrpcClientImpl(Builder builder, Http2Client http2Client, boolean ownHttp2Client) {
+        this.baseUri = builder.baseUri();
+        this.http2Client = http2Client;
+        this.ownHttp2Client = ownHttp2Client;
+        this.compressor = builder.compressor();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                                                   .name("grpc-client-", 0)
+                                                                   .inheritInheritableThreadLocals(false)
+                                                                   .factory());
+        this.channel = new GrpcChannel();
+    }
+
+    @Override
+    public Channel channel() {
+        return channel;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // interrupts threads reading responses of calls in progress
+        executor.shutdownNow();
+        if (ownHttp2Client) {
+            http2Client.close();
+        }
+    }
+
+    boolean closed() {
+        return closed;
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    Http2Client http2Client() {
+        return http2Client;
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Compressor to use for a call.
+     *
+     * @param callOptions options of the call
+     * @return name of the compressor, or {@code null} if requests should not be compressed
+     */
+    String compressor(CallOptions callOptions) {
+        String name = callOptions.getCompressor() == null ? compressor : callOptions.getCompressor();
+        if (name == null || "identity".equals(name)) {
+            return null;
+        }
+        Set<String> accepted = acceptedEncodings;
+        if (accepted == null || !accepted.contains(name)) {
+            // we do not know that the server supports this encoding
+            return null;
+        }
+        return name;
+    }
+
+    void acceptedEncodings(Set<String> acceptedEncodings) {
+        this.acceptedEncodings = acceptedEncodings;
+    }
+
+    private class GrpcChannel extends Channel {
+        @Override
+        public <ReqT, ResT> ClientCall<ReqT, ResT> newCall(MethodDescriptor<ReqT, ResT> methodDescriptor,
+                                                           CallOptions callOptions) {
+            return new GrpcClientCall<>(GrpcClientImpl.this, methodDescriptor, callOptions);
+        }
+
+        @Override
+        public String authority() {
+            return baseUri.getAuthority();
+        }
+    }
+}
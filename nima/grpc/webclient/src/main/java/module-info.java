@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.helidon.common.features.api.Feature;
+import io.helidon.common.features.api.HelidonFlavor;
+import io.helidon.common.features.api.Preview;
+
+/**
+ * Helidon Níma gRPC client.
+ */
+@Preview
+@Feature(value = "GRPC Client",
+        description = "gRPC client on the HTTP/2 WebClient",
+        in = HelidonFlavor.NIMA, invalidIn = HelidonFlavor.SE,
+        path = {"GRPC", "WebClient"}
+)
+module io.helidon.nima.grpc.client {
+    requires static io.helidon.common.features.api;
+
+    requires transitive io.helidon.nima.http2.webclient;
+    requires io.helidon.nima.grpc;
+    requires transitive io.grpc;
+
+    exports io.helidon.nima.grpc.webclient;
+}
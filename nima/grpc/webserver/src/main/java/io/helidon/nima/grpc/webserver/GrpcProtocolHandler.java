@@ -16,9 +16,8 @@
 
 package io.helidon.nima.grpc.webserver;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.http.Http;
@@ -26,6 +25,8 @@ import io.helidon.common.http.Http.Header;
 import io.helidon.common.http.Http.HeaderValue;
 import io.helidon.common.http.HttpPrologue;
 import io.helidon.common.http.WritableHeaders;
+import io.helidon.nima.grpc.GrpcMessageCodec;
+import io.helidon.nima.grpc.GrpcMessageReader;
 import io.helidon.nima.http2.FlowControl;
 import io.helidon.nima.http2.Http2Flag;
 import io.helidon.nima.http2.Http2FrameData;
@@ -33,6 +34,7 @@ import io.helidon.nima.http2.Http2FrameHeader;
 import io.helidon.nima.http2.Http2FrameTypes;
 import io.helidon.nima.http2.Http2Headers;
 import io.helidon.nima.http2.Http2RstStream;
+import io.helidon.nima.http2.Http2Setting;
 import io.helidon.nima.http2.Http2Settings;
 import io.helidon.nima.http2.Http2StreamState;
 import io.helidon.nima.http2.Http2StreamWriter;
@@ -57,6 +59,10 @@ class GrpcProtocolHandler<REQ, RES> implements Http2SubProtocolProvider.SubProto
     private final Http2Settings serverSettings;
     private final Http2Settings clientSettings;
     private final Grpc<REQ, RES> route;
+    private final GrpcMessageReader messageReader = new GrpcMessageReader();
+    private final GrpcMessageCodec<REQ> requestCodec;
+    private final GrpcMessageCodec<RES> responseCodec;
+    private final int maxFrameSize;
 
     private Http2StreamState currentStreamState;
     private ServerCall.Listener<REQ> listener;
@@ -79,6 +85,9 @@ class GrpcProtocolHandler<REQ, RES> implements Http2SubProtocolProvider.SubProto
         this.clientSettings = clientSettings;
         this.currentStreamState = currentStreamState;
         this.route = route;
+        this.requestCodec = GrpcMessageCodec.create(route.method().getRequestMarshaller());
+        this.responseCodec = GrpcMessageCodec.create(route.method().getResponseMarshaller());
+        this.maxFrameSize = clientSettings.value(Http2Setting.MAX_FRAME_SIZE).intValue();
     }
 
     @Override
@@ -114,15 +123,17 @@ class GrpcProtocolHandler<REQ, RES> implements Http2SubProtocolProvider.SubProto
     @Override
     public void data(Http2FrameHeader header, BufferData data) {
         try {
-            while (data.available() > 0) {
+            // messages may span multiple frames, the reader keeps incomplete messages until next data
+            messageReader.add(data);
+            List<ByteBuffer> message;
+            while ((message = messageReader.next()) != null) {
                 // todo compression support
-                boolean isCompressed = (data.read() == 1);
-                long length = data.readUnsignedInt32(); // if the result is > than data length, wait for next data?
-                byte[] bytes = new byte[(int) length];
-                data.read(bytes);
-                listener.onMessage(route.method().parseRequest(new ByteArrayInputStream(bytes)));
+                listener.onMessage(requestCodec.parse(message));
             }
             if (header.flags(Http2FrameTypes.DATA).endOfStream()) {
+                if (messageReader.hasPartialMessage()) {
+                    LOGGER.log(System.Logger.Level.WARNING, "End of stream received with an incomplete grpc message");
+                }
                 listener.onHalfClose();
             }
         } catch (Exception e) {
@@ -156,26 +167,31 @@ class GrpcProtocolHandler<REQ, RES> implements Http2SubProtocolProvider.SubProto
 
             @Override
             public void sendMessage(RES message) {
-                BufferData bufferData = BufferData.growing(1024);
-
-                try (InputStream inputStream = route.method().streamResponse(message)) {
-                    byte[] bytes = inputStream.readAllBytes();
-                    bufferData.write(0);
-                    bufferData.writeUnsignedInt32(bytes.length);
-                    bufferData.write(bytes);
+                byte[] bytes;
+                try {
+                    bytes = responseCodec.serialize(message);
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    LOGGER.log(System.Logger.Level.ERROR, "Failed to serialize grpc response", e);
+                    return;
                 }
 
                 // todo flags based on method type
                 // end flag should be sent when last message is sent (or just rst stream if we cannot determine this)
 
-                Http2FrameHeader header = Http2FrameHeader.create(bufferData.available(),
-                                                                  Http2FrameTypes.DATA,
-                                                                  Http2Flag.DataFlags.create(0),
-                                                                  streamId);
-
-                streamWriter.write(new Http2FrameData(header, bufferData), FlowControl.NOOP);
+                // large messages are split into frames of max frame size of the client, each frame only wraps
+                // a part of the serialized message
+                int offset = 0;
+                do {
+                    int length = Math.min(maxFrameSize, bytes.length - offset);
+                    Http2FrameHeader header = Http2FrameHeader.create(length,
+                                                                      Http2FrameTypes.DATA,
+                                                                      Http2Flag.DataFlags.create(0),
+                                                                      streamId);
+
+                    streamWriter.write(new Http2FrameData(header, BufferData.createReadOnly(bytes, offset, length)),
+                                       FlowControl.NOOP);
+                    offset += length;
+                } while (offset < bytes.length);
             }
 
             @Override
@@ -206,35 +222,4 @@ class GrpcProtocolHandler<REQ, RES> implements Http2SubProtocolProvider.SubProto
     private Metadata toMetadata(Http2Headers headers) {
         return null;
     }
-
-    private static final class BufferDataInputStream extends InputStream {
-        private final BufferData data;
-
-        private BufferDataInputStream(BufferData data) {
-            this.data = data;
-        }
-
-        @Override
-        public int read() throws IOException {
-            if (data.available() > 0) {
-                return data.read();
-            } else {
-                return -1;
-            }
-        }
-
-        @Override
-        public int read(byte[] b, int off, int len) throws IOException {
-            if (data.available() > 0) {
-                return data.read(b, off, len);
-            } else {
-                return -1;
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            data.skip(data.available());
-        }
-    }
 }
@@ -34,6 +34,7 @@ module io.helidon.nima.grpc.server {
     requires java.logging;
 
     requires io.helidon.nima.http2.webserver;
+    requires io.helidon.nima.grpc;
 
     requires transitive grpc.stub;
     requires transitive com.google.protobuf;
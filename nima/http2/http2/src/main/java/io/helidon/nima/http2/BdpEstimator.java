@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.buffers.BufferData;
+
+/**
+ * Estimates bandwidth-delay product of a connection, to grow receive windows so the peer is not limited by
+ * flow control on high latency links.
+ * <p>
+ * When data is received and no measurement is in progress, a PING is sent and all data received until it
+ * is acknowledged is counted. If the amount of data received within the round trip is close to the current window
+ * (the sender was limited by it) and the measured bandwidth is the highest seen so far, the window is doubled
+ * (up to the configured maximum).
+ * <p>
+ * Not thread safe, all methods are expected to be called from the thread reading frames of the connection.
+ */
+public final class BdpEstimator {
+    private static final byte[] PING_DATA = "BDP_PING".getBytes(StandardCharsets.US_ASCII);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxWindowSize;
+    private int windowSize;
+    private boolean pingInProgress;
+    private long pingSent;
+    private long sample;
+    private double maxBandwidth;
+
+    private BdpEstimator(int windowSize, int maxWindowSize) {
+        this.windowSize = windowSize;
+        this.maxWindowSize = maxWindowSize;
+    }
+
+    /**
+     * Create a new estimator.
+     *
+     * @param windowSize    current receive window size
+     * @param maxWindowSize maximal window size, the window never grows beyond it
+     * @return a new estimator
+     */
+    public static BdpEstimator create(int windowSize, int maxWindowSize) {
+        return new BdpEstimator(windowSize, maxWindowSize);
+    }
+
+    /**
+     * Create a new ping frame to be used for measurement.
+     *
+     * @return ping frame
+     */
+    public static Http2Ping ping() {
+        return Http2Ping.create(BufferData.create(PING_DATA));
+    }
+
+    /**
+     * Whether the data of an acknowledged ping belongs to a ping created by {@link #ping()}.
+     *
+     * @param pingData data of the ping frame
+     * @return {@code true} if this is a measurement ping
+     */
+    public static boolean isBdpPing(BufferData pingData) {
+        byte[] bytes = new byte[pingData.available()];
+        pingData.read(bytes);
+        pingData.rewind();
+        return Arrays.equals(PING_DATA, bytes);
+    }
+
+    /**
+     * Data frame received.
+     *
+     * @param bytes number of bytes of the frame (including padding)
+     * @return {@code true} if a measurement starts, and a {@link #ping()} should be sent
+     */
+    public boolean dataReceived(int bytes) {
+        return dataReceived(bytes, System.nanoTime());
+    }
+
+    /**
+     * Measurement ping was acknowledged.
+     *
+     * @return new window size, or {@code 0} if the window should not change
+     */
+    public int pingAcknowledged() {
+        return pingAcknowledged(System.nanoTime());
+    }
+
+    /**
+     * Current window size.
+     *
+     * @return window size
+     */
+    public int windowSize() {
+        return windowSize;
+    }
+
+    boolean dataReceived(int bytes, long now) {
+        if (pingInProgress) {
+            sample += bytes;
+            return false;
+        }
+        if (windowSize >= maxWindowSize) {
+            return false;
+        }
+        pingInProgress = true;
+        pingSent = now;
+        sample = bytes;
+        return true;
+    }
+
+    int pingAcknowledged(long now) {
+        if (!pingInProgress) {
+            return 0;
+        }
+        pingInProgress = false;
+        long rtt = Math.max(1, now - pingSent);
+        double bandwidth = (double) sample * NANOS_PER_SECOND / rtt;
+        if (bandwidth >= maxBandwidth) {
+            maxBandwidth = bandwidth;
+            // we received at least 2/3 of the window within a round trip, so the sender is probably blocked
+            if (sample * 3 >= windowSize * 2L && windowSize < maxWindowSize) {
+                windowSize = (int) Math.min(maxWindowSize, sample * 2);
+                return windowSize;
+            }
+        }
+        return 0;
+    }
+}
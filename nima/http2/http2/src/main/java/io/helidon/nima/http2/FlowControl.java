@@ -103,9 +103,9 @@ public interface FlowControl {
     Http2FrameData[] split(Http2FrameData frame);
 
     /**
-     * Block until a window size update happens.
+     * Block until a window size update makes the window available.
      *
-     * @return {@code true} if window update happened, {@code false} in case of timeout
+     * @return {@code true} in case of timeout, {@code false} if the window is available
      */
     boolean blockTillUpdate();
 }
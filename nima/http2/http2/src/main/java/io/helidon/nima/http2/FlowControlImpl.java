@@ -60,7 +60,8 @@ class FlowControlImpl implements FlowControl {
 
     @Override
     public boolean blockTillUpdate() {
-        return connectionWindowSize.blockTillUpdate();
+        // both connection and stream window updates are signalled on the connection window
+        return !connectionWindowSize.await(() -> getRemainingWindowSize() > 0);
     }
 
     @Override
@@ -17,9 +17,6 @@
 package io.helidon.nima.http2;
 
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.buffers.DataWriter;
@@ -27,18 +24,21 @@ import io.helidon.common.socket.SocketContext;
 
 /**
  * HTTP/2 connection writer.
+ * Frames of streams are interleaved according to stream priorities, see {@link #priority(int, Http2ExtensiblePriority)}
+ * and {@link #priority(int, Http2Priority)}.
  */
 public class Http2ConnectionWriter implements Http2StreamWriter {
     private final DataWriter writer;
 
-    // todo replace with prioritized lock (stream priority + connection writes have highest prio)
-    private final Lock streamLock = new ReentrantLock(true);
+    private final Http2WriteScheduler scheduler = new Http2WriteScheduler();
     private final SocketContext ctx;
     private final Http2FrameListener listener;
     private final Http2Headers.DynamicTable responseDynamicTable;
     private final Http2HuffmanEncoder responseHuffman;
     private final BufferData headerBuffer = BufferData.growing(512);
 
+    private volatile int maxFrameSize = Http2Setting.MAX_FRAME_SIZE.defaultValue().intValue();
+
     /**
      * A new writer.
      *
@@ -58,10 +58,18 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
 
     @Override
     public void write(Http2FrameData frame, FlowControl flowControl) {
-        withStreamLock(() -> {
-            noLockWrite(flowControl, frame);
-            return null;
-        });
+        Http2FrameHeader frameHeader = frame.header();
+        if (frameHeader.type() == Http2FrameType.DATA) {
+            writeData(frame, flowControl);
+            return;
+        }
+        int streamId = frameHeader.streamId();
+        acquire(streamId, frameHeader.type() != Http2FrameType.HEADERS);
+        try {
+            writeFrameInternal(frame);
+        } finally {
+            release(streamId, 0, closesStream(frameHeader));
+        }
     }
 
     @Override
@@ -70,7 +78,8 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
         // we must enforce parallelism of exactly 1, to make sure the dynamic table is updated
         // and then immediately written
 
-        return withStreamLock(() -> {
+        acquire(streamId, false);
+        try {
             int written = 0;
             headerBuffer.clear();
             headers.write(responseDynamicTable, responseHuffman, headerBuffer);
@@ -81,10 +90,12 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
             written += frameHeader.length();
             written += Http2FrameHeader.LENGTH;
 
-            noLockWrite(flowControl, new Http2FrameData(frameHeader, headerBuffer));
+            writeFrameInternal(new Http2FrameData(frameHeader, headerBuffer));
 
             return written;
-        });
+        } finally {
+            release(streamId, 0, flags.endOfStream());
+        }
     }
 
     @Override
@@ -97,9 +108,12 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
         // we must enforce parallelism of exactly 1, to make sure the dynamic table is updated
         // and then immediately written
 
-        return withStreamLock(() -> {
-            int bytesWritten = 0;
+        int bytesWritten = 0;
+        int dataLength = dataFrame.header().length();
+        Http2FrameData remaining = dataFrame;
 
+        acquire(streamId, false);
+        try {
             headerBuffer.clear();
             headers.write(responseDynamicTable, responseHuffman, headerBuffer);
             bytesWritten += headerBuffer.available();
@@ -110,13 +124,21 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
                                                                    streamId);
             bytesWritten += Http2FrameHeader.LENGTH;
 
-            noLockWrite(flowControl, new Http2FrameData(frameHeader, headerBuffer));
-            noLockWrite(flowControl, dataFrame);
-            bytesWritten += Http2FrameHeader.LENGTH;
-            bytesWritten += dataFrame.header().length();
+            writeFrameInternal(new Http2FrameData(frameHeader, headerBuffer));
+            remaining = writeDataLocked(dataFrame, flowControl);
+        } finally {
+            release(streamId,
+                    remaining == null ? dataLength : dataLength - remaining.header().length(),
+                    remaining == null && closesStream(dataFrame.header()));
+        }
+        if (remaining != null) {
+            // entity is larger than max frame size or flow control window, other streams can write in between
+            writeData(remaining, flowControl);
+        }
+        bytesWritten += Http2FrameHeader.LENGTH;
+        bytesWritten += dataLength;
 
-            return bytesWritten;
-        });
+        return bytesWritten;
     }
 
     /**
@@ -126,56 +148,152 @@ public class Http2ConnectionWriter implements Http2StreamWriter {
      * @throws InterruptedException in case we fail to lock on the stream
      */
     public void updateHeaderTableSize(long newSize) throws InterruptedException {
-        withStreamLock(() -> {
+        scheduler.acquire(0, true);
+        try {
             responseDynamicTable.protocolMaxTableSize(newSize);
-            return null;
-        });
+        } finally {
+            scheduler.release(0, 0);
+        }
+    }
+
+    /**
+     * Update maximal size of a frame the peer accepts, data frames are split to this size.
+     *
+     * @param maxFrameSize max frame size in bytes
+     */
+    public void maxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
     }
 
-    private <T> T withStreamLock(Callable<T> callable) {
+    /**
+     * Update extensible priority of a stream (RFC 9218), usually from the {@code priority} request header.
+     * Streams with lower urgency are written first; non-incremental streams of the same urgency are written one after
+     * another, incremental streams share the connection.
+     *
+     * @param streamId stream identifier
+     * @param priority priority of the stream
+     */
+    public void priority(int streamId, Http2ExtensiblePriority priority) {
+        scheduler.priority(streamId, priority);
+    }
+
+    /**
+     * Update weight of a stream from an RFC 7540 priority.
+     * Stream dependencies are not supported, the weight is used to share the connection between
+     * incremental streams of the same urgency.
+     *
+     * @param streamId stream identifier
+     * @param priority priority of the stream
+     */
+    public void priority(int streamId, Http2Priority priority) {
+        scheduler.weight(streamId, priority.weight());
+    }
+
+    /**
+     * A stream was closed (finished, reset, or failed), its priority is no longer needed.
+     * Priority of a stream is kept until this method is called, or until a frame ending the stream is written.
+     *
+     * @param streamId stream identifier
+     */
+    public void streamClosed(int streamId) {
+        scheduler.remove(streamId);
+    }
+
+    Http2WriteScheduler scheduler() {
+        return scheduler;
+    }
+
+    private static boolean closesStream(Http2FrameHeader frameHeader) {
+        Http2FrameType type = frameHeader.type();
+        if (type == Http2FrameType.RST_STREAM) {
+            return true;
+        }
+        return (type == Http2FrameType.DATA || type == Http2FrameType.HEADERS)
+                && (frameHeader.flags() & Http2Flag.END_OF_STREAM) != 0;
+    }
+
+    private void acquire(int streamId, boolean control) {
         try {
-            streamLock.lockInterruptibly();
-            try {
-                return callable.call();
-            } finally {
-                streamLock.unlock();
-            }
-        } catch (Exception e) {
+            scheduler.acquire(streamId, control);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
     }
 
-    private void noLockWrite(FlowControl flowControl, Http2FrameData frame) {
-        if (frame.header().type() == Http2FrameTypes.DATA.type()) {
-            splitAndWrite(frame, flowControl);
-        } else {
-            writeFrameInternal(frame);
+    private void release(int streamId, int contentBytes, boolean endOfStream) {
+        scheduler.release(streamId, contentBytes);
+        if (endOfStream) {
+            scheduler.remove(streamId);
         }
     }
 
-    private void splitAndWrite(Http2FrameData frame, FlowControl flowControl) {
-        Http2FrameData[] splitFrames = flowControl.split(frame);
-        if (splitFrames.length == 1) {
-            // windows are wide enough
-            writeFrameInternal(frame);
-            flowControl.decrementWindowSize(frame.header().length());
-        } else if (splitFrames.length == 0) {
-            // block until window update
-            if (!flowControl.blockTillUpdate()) {
-                // no timeout
-                splitAndWrite(frame, flowControl);
+    private void writeData(Http2FrameData frame, FlowControl flowControl) {
+        int streamId = frame.header().streamId();
+        Http2FrameData remaining = frame;
+        while (true) {
+            int length = remaining.header().length();
+            Http2FrameData notWritten = remaining;
+            acquire(streamId, false);
+            try {
+                notWritten = writeDataLocked(remaining, flowControl);
+            } finally {
+                release(streamId,
+                        notWritten == null ? length : length - notWritten.header().length(),
+                        notWritten == null && closesStream(remaining.header()));
             }
-        } else if (splitFrames.length == 2) {
-            // write send-able part and block until window update with the rest
-            writeFrameInternal(splitFrames[0]);
-            flowControl.decrementWindowSize(frame.header().length());
-            if (!flowControl.blockTillUpdate()) {
-                // no timeout
-                splitAndWrite(splitFrames[1], flowControl);
-            } else {
+            if (notWritten == null) {
+                return;
+            }
+            // block until window update without holding the connection, so other streams can write
+            if (flowControl.getRemainingWindowSize() <= 0 && flowControl.blockTillUpdate()) {
                 //TODO discarded frames after timeout
+                // the rest of the stream is never written
+                scheduler.remove(streamId);
+                return;
             }
+            remaining = notWritten;
+        }
+    }
+
+    // writes at most a single frame of max frame size, limited by flow control window
+    // returns the part of the frame that was not written, or null if written fully
+    private Http2FrameData writeDataLocked(Http2FrameData frame, FlowControl flowControl) {
+        int length = frame.header().length();
+        int size = Math.min(maxFrameSize, flowControl.getRemainingWindowSize());
+        if (length <= size || length == 0) {
+            writeFrameInternal(frame);
+            flowControl.decrementWindowSize(length);
+            return null;
+        }
+        if (size <= 0) {
+            return frame;
         }
+        Http2FrameData[] parts = split(frame, size);
+        writeFrameInternal(parts[0]);
+        flowControl.decrementWindowSize(size);
+        return parts[1];
+    }
+
+    private static Http2FrameData[] split(Http2FrameData frame, int size) {
+        Http2FrameHeader header = frame.header();
+        byte[] first = new byte[size];
+        frame.data().read(first);
+
+        // the rest keeps flags of the original frame (such as end of stream)
+        // and is not copied, so large frames are split in linear time
+        return new Http2FrameData[] {
+                new Http2FrameData(Http2FrameHeader.create(size,
+                                                           Http2FrameTypes.DATA,
+                                                           Http2Flag.DataFlags.create(0),
+                                                           header.streamId()),
+                                   BufferData.create(first)),
+                new Http2FrameData(Http2FrameHeader.create(header.length() - size,
+                                                           Http2FrameTypes.DATA,
+                                                           header.flags(Http2FrameTypes.DATA),
+                                                           header.streamId()),
+                                   frame.data())
+        };
     }
 
     private void writeFrameInternal(Http2FrameData frame) {
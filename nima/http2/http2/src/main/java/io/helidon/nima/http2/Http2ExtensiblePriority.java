@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import io.helidon.common.http.Http;
+
+/**
+ * Extensible priority of a stream as defined by
+ * <a href="https://www.rfc-editor.org/rfc/rfc9218.html">RFC 9218</a>, sent by clients in the {@code priority}
+ * request header.
+ *
+ * @param urgency     urgency from {@code 0} (most urgent) to {@code 7}
+ * @param incremental whether the response can be processed incrementally, so it can share bandwidth with other
+ *                    responses of the same urgency
+ */
+public record Http2ExtensiblePriority(int urgency, boolean incremental) {
+    /**
+     * Name of the priority header.
+     */
+    public static final Http.HeaderName HEADER_NAME = Http.Header.create("priority");
+    /**
+     * Default priority ({@code u=3}, not incremental).
+     */
+    public static final Http2ExtensiblePriority DEFAULT = new Http2ExtensiblePriority(3, false);
+
+    private static final int MAX_URGENCY = 7;
+
+    /**
+     * Create priority from a value of the {@code priority} header.
+     * Unknown parameters and invalid values are ignored as required by the specification, using defaults instead.
+     *
+     * @param value header value, such as {@code u=1, i}
+     * @return priority
+     */
+    public static Http2ExtensiblePriority create(String value) {
+        int urgency = DEFAULT.urgency();
+        boolean incremental = DEFAULT.incremental();
+
+        for (String member : value.split(",")) {
+            String trimmed = member.trim();
+            int eq = trimmed.indexOf('=');
+            String key = eq == -1 ? trimmed : trimmed.substring(0, eq);
+            String param = eq == -1 ? null : trimmed.substring(eq + 1);
+            // structured field parameters of a member are ignored
+            int semicolon = key.indexOf(';');
+            if (semicolon != -1) {
+                key = key.substring(0, semicolon);
+            }
+            if ("u".equals(key) && param != null) {
+                try {
+                    int parsed = Integer.parseInt(param);
+                    if (parsed >= 0 && parsed <= MAX_URGENCY) {
+                        urgency = parsed;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // invalid value, use default
+                }
+            } else if ("i".equals(key)) {
+                if (param == null || "?1".equals(param)) {
+                    incremental = true;
+                } else if ("?0".equals(param)) {
+                    incremental = false;
+                }
+            }
+        }
+        return new Http2ExtensiblePriority(urgency, incremental);
+    }
+}
@@ -17,7 +17,6 @@
 package io.helidon.nima.http2;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -72,7 +71,7 @@ public class Http2Headers {
      * Header name of the status pseudo header.
      */
     public static final HeaderName STATUS_NAME = Header.create(STATUS);
-    static final DynamicHeader EMPTY_HEADER_RECORD = new DynamicHeader(null, null, 0);
+    static final DynamicHeader EMPTY_HEADER_RECORD = new DynamicHeader(null, null, 0, 0);
     private static final System.Logger LOGGER = System.getLogger(Http2Headers.class.getName());
     private static final String TRAILERS = "trailers";
     private static final String HTTP = "http";
@@ -770,7 +769,7 @@ public class Http2Headers {
         public static final int MAX_INDEX;
 
         private static final Map<Integer, StaticHeader> BY_INDEX = new HashMap<>();
-        private static final Map<String, StaticHeader> BY_NAME_NO_VALUE = new HashMap<>();
+        private static final Map<String, StaticHeader> BY_NAME = new HashMap<>();
         private static final Map<String, Map<String, StaticHeader>> BY_NAME_VALUE = new HashMap<>();
 
         static {
@@ -782,9 +781,9 @@ public class Http2Headers {
                 if (predefinedHeader.hasValue()) {
                     BY_NAME_VALUE.computeIfAbsent(predefinedHeader.headerName().lowerCase(), it -> new HashMap<>())
                             .put(predefinedHeader.value(), predefinedHeader);
-                } else {
-                    BY_NAME_NO_VALUE.put(predefinedHeader.headerName().lowerCase(), predefinedHeader);
                 }
+                // lowest index of each name, used to index only the name (such as :path with a custom value)
+                BY_NAME.putIfAbsent(predefinedHeader.headerName().lowerCase(), predefinedHeader);
             }
 
             MAX_INDEX = maxIndex;
@@ -831,11 +830,11 @@ public class Http2Headers {
         static StaticHeader find(HeaderName headerName, String headerValue) {
             Map<String, StaticHeader> map = BY_NAME_VALUE.get(headerName.lowerCase());
             if (map == null) {
-                return BY_NAME_NO_VALUE.get(headerName.lowerCase());
+                return BY_NAME.get(headerName.lowerCase());
             }
             StaticHeader staticHeader = map.get(headerValue);
             if (staticHeader == null) {
-                return BY_NAME_NO_VALUE.get(headerName.lowerCase());
+                return BY_NAME.get(headerName.lowerCase());
             }
             return staticHeader;
         }
@@ -1092,12 +1091,24 @@ public class Http2Headers {
      * There is one dynamic table for inbound headers and one for outbound headers for each connection.
      * This is to minimize size of headers on the transport.
      * The table caches header names and values and then uses indexes only when transferring headers over network.
+     * <p>
+     * Entries are stored in a ring buffer in insertion order, each entry has a sequence number, so the HPACK index
+     * of an entry is computed from the number of inserted entries and adding or evicting an entry does not move
+     * other entries. Lookups by name and by name and value use hash indexes.
      */
     public static class DynamicTable {
-        private final List<DynamicHeader> headers = new ArrayList<>();
+        private static final int INITIAL_CAPACITY = 16;
+
+        // most recent entry of each header name, and most recent entry of each value of that name
+        private final Map<String, NameEntries> byName = new HashMap<>();
+        // ring buffer, the newest entry is at (inserted - 1), the oldest at (inserted - count)
+        private DynamicHeader[] entries = new DynamicHeader[INITIAL_CAPACITY];
         private volatile long protocolMaxTableSize;
         private long maxTableSize;
         private int currentTableSize;
+        private int count;
+        // number of entries ever added to this table, used as sequence number of the next entry
+        private long inserted;
 
         private DynamicTable(long protocolMaxTableSize) {
             this.protocolMaxTableSize = protocolMaxTableSize;
@@ -1140,9 +1151,6 @@ public class Http2Headers {
                 throw new Http2Exception(Http2ErrorCode.COMPRESSION, "Attempt to set larger size than protocol max");
             }
             this.maxTableSize = number;
-            if (maxTableSize == 0) {
-                headers.clear();
-            }
             while (maxTableSize < currentTableSize) {
                 evict();
             }
@@ -1150,10 +1158,11 @@ public class Http2Headers {
 
         int add(HeaderName headerName, String headerValue) {
             String name = headerName.lowerCase();
-            int size = name.length() + headerValue.getBytes(StandardCharsets.US_ASCII).length + 32;
+            // values are encoded as US-ASCII, one byte per character
+            int size = name.length() + headerValue.length() + 32;
 
             if (currentTableSize + size <= maxTableSize) {
-                return add(headerName, headerValue, size);
+                return add(headerName, name, headerValue, size);
             }
 
             while ((currentTableSize + size) > maxTableSize) {
@@ -1165,7 +1174,7 @@ public class Http2Headers {
                                                      + " header size: " + size);
                 }
             }
-            return add(headerName, headerValue, size);
+            return add(headerName, name, headerValue, size);
         }
 
         long protocolMaxTableSize() {
@@ -1180,7 +1189,7 @@ public class Http2Headers {
             return currentTableSize;
         }
 
-        private IndexedHeaderRecord find(HeaderName headerName, String headerValue) {
+        IndexedHeaderRecord find(HeaderName headerName, String headerValue) {
             StaticHeader staticHeader = StaticHeader.find(headerName, headerValue);
             IndexedHeaderRecord candidate = null;
 
@@ -1192,50 +1201,93 @@ public class Http2Headers {
                 }
                 candidate = staticHeader;
             }
-            for (int i = 0; i < headers.size(); i++) {
-                DynamicHeader header = headers.get(i);
-                if (header.headerName.equals(headerName)) {
-                    if (header.value().equals(headerValue)) {
-                        return new IndexedHeader(header, StaticHeader.MAX_INDEX + i + 1);
-                    }
-                    if (candidate == null) {
-                        candidate = new IndexedHeader(header, StaticHeader.MAX_INDEX + i + 1);
-                    }
+
+            NameEntries named = byName.get(headerName.lowerCase());
+            if (named != null) {
+                DynamicHeader exact = named.byValue.get(headerValue);
+                if (exact != null) {
+                    return new IndexedHeader(exact, index(exact));
+                }
+                if (candidate == null) {
+                    candidate = new IndexedHeader(named.latest, index(named.latest));
                 }
             }
 
             return candidate;
         }
 
+        private int index(DynamicHeader header) {
+            // the most recent entry has dynamic index 1
+            return StaticHeader.MAX_INDEX + (int) (inserted - header.sequence());
+        }
+
         private void evict() {
-            if (headers.isEmpty()) {
+            if (count == 0) {
                 return;
             }
-            DynamicHeader removed = headers.remove(headers.size() - 1);
-
-            if (removed != null) {
-                currentTableSize -= removed.size();
+            int position = position(inserted - count);
+            DynamicHeader removed = entries[position];
+            entries[position] = null;
+            count--;
+            currentTableSize -= removed.size();
+
+            // the oldest entry is indexed only if there is no newer entry with the same name (or name and value)
+            NameEntries named = byName.get(removed.headerName().lowerCase());
+            if (named.latest == removed) {
+                byName.remove(removed.headerName().lowerCase());
+            } else if (named.byValue.get(removed.value()) == removed) {
+                named.byValue.remove(removed.value());
             }
         }
 
-        private int add(HeaderName name, String value, int size) {
-            headers.add(0, new DynamicHeader(name, value, size));
+        private int add(HeaderName headerName, String lowerCaseName, String value, int size) {
+            if (count == entries.length) {
+                grow();
+            }
+            DynamicHeader header = new DynamicHeader(headerName, value, size, inserted);
+            entries[position(inserted)] = header;
+            inserted++;
+            count++;
             currentTableSize += size;
+
+            NameEntries named = byName.computeIfAbsent(lowerCaseName, it -> new NameEntries());
+            named.latest = header;
+            named.byValue.put(value, header);
             return 0;
         }
 
         private HeaderRecord doGet(int index) {
-            try {
-                // table is 1 based, list is 0 based
-                return headers.get(index - 1);
-            } catch (IndexOutOfBoundsException e) {
+            // table is 1 based, the most recent entry has index 1
+            if (index < 1 || index > count) {
                 throw new Http2Exception(Http2ErrorCode.PROTOCOL,
                                          "Dynamic table does not contain required header at index " + index);
             }
+            return entries[position(inserted - index)];
         }
+
+        private int position(long sequence) {
+            return (int) (sequence & (entries.length - 1));
+        }
+
+        private void grow() {
+            DynamicHeader[] old = entries;
+            DynamicHeader[] grown = new DynamicHeader[old.length * 2];
+            int oldMask = old.length - 1;
+            int newMask = grown.length - 1;
+            for (long sequence = inserted - count; sequence < inserted; sequence++) {
+                grown[(int) (sequence & newMask)] = old[(int) (sequence & oldMask)];
+            }
+            entries = grown;
+        }
+    }
+
+    private static final class NameEntries {
+        private final Map<String, DynamicHeader> byValue = new HashMap<>();
+        private DynamicHeader latest;
     }
 
-    private static record DynamicHeader(HeaderName headerName, String value, int size) implements HeaderRecord {
+    private static record DynamicHeader(HeaderName headerName, String value, int size, long sequence)
+            implements HeaderRecord {
     }
 
     private static record IndexedHeader(HeaderRecord delegate, int index) implements IndexedHeaderRecord {
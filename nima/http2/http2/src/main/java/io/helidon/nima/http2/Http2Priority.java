@@ -57,7 +57,8 @@ public record Http2Priority(boolean exclusive, int streamId, int weight) impleme
             streamDependency = streamId | (1 << 31);
         }
         data.writeInt32(streamDependency);
-        data.write(weight);
+        // weight is encoded as weight - 1 (see create)
+        data.write(weight - 1);
 
         Http2FrameHeader header = Http2FrameHeader.create(5, frameTypes(), flags, forStreamId);
         return new Http2FrameData(header, data);
@@ -19,6 +19,8 @@ package io.helidon.nima.http2;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+import io.helidon.common.buffers.BufferData;
+
 /**
  * HTTP/2 utility.
  */
@@ -43,4 +45,13 @@ public final class Http2Util {
         return Arrays.compare(PRIOR_KNOWLEDGE_PREFACE, 0, PREFACE_LENGTH,
                               bytes, 0, PREFACE_LENGTH) == 0;
     }
+
+    /**
+     * Prior knowledge preface, to be sent by a client as the first bytes of an HTTP/2 connection.
+     *
+     * @return a new buffer with the preface bytes
+     */
+    public static BufferData prefaceData() {
+        return BufferData.create(PRIOR_KNOWLEDGE_PREFACE);
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides which thread writes the next frame of a connection.
+ * Only one thread writes at a time; when a write is finished, the next waiting writer is selected:
+ * <ul>
+ *     <li>frames not carrying stream content (settings, window updates, pings etc.) first</li>
+ *     <li>streams with lower urgency next (RFC 9218)</li>
+ *     <li>non-incremental streams of the same urgency in order of stream identifiers</li>
+ *     <li>incremental streams and streams without extensible priority share the connection using weighted fair queuing,
+ *     based on bytes written and the RFC 7540 weight of each stream</li>
+ * </ul>
+ * As streams write at most one frame at a time, a large response is interleaved with frames of other streams.
+ * <p>
+ * State of a stream is kept from its first write or priority update until it is {@link #remove(int) removed},
+ * which must happen when the stream is closed for any reason.
+ */
+final class Http2WriteScheduler {
+    private static final int DEFAULT_WEIGHT = 16;
+    private static final int MAX_WEIGHT = 256;
+    private static final int CONTROL_RANK = -1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // all guarded by lock
+    private final Map<Integer, StreamState> streams = new HashMap<>();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>();
+    private boolean writing;
+    private long sequence;
+    // virtual time of fair queuing, start of the last scheduled write
+    private long virtualTime;
+
+    /**
+     * Wait until the calling thread can write.
+     *
+     * @param streamId stream identifier
+     * @param control  whether the frame is a control frame, rather than headers or data of the stream
+     * @throws InterruptedException when interrupted while waiting
+     */
+    void acquire(int streamId, boolean control) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!writing) {
+                writing = true;
+                return;
+            }
+            Waiter waiter = control ? new Waiter(CONTROL_RANK, false, 0, 0, sequence++, lock.newCondition())
+                    : waiter(state(streamId));
+            waiting.add(waiter);
+            try {
+                while (!waiter.granted) {
+                    waiter.condition.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    grantNext();
+                } else {
+                    waiting.remove(waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finish a write, must be called after each successful {@link #acquire(int, boolean)}.
+     *
+     * @param streamId stream identifier
+     * @param bytes    number of content bytes written by the stream, used for fair queuing
+     */
+    void release(int streamId, int bytes) {
+        lock.lock();
+        try {
+            if (bytes > 0) {
+                StreamState state = state(streamId);
+                state.lastCost = (long) bytes * MAX_WEIGHT / state.weight;
+                state.finish = Math.max(state.finish, virtualTime) + state.lastCost;
+            }
+            grantNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void priority(int streamId, Http2ExtensiblePriority priority) {
+        lock.lock();
+        try {
+            StreamState state = state(streamId);
+            state.urgency = priority.urgency();
+            state.incremental = priority.incremental();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void weight(int streamId, int weight) {
+        lock.lock();
+        try {
+            state(streamId).weight = Math.max(1, Math.min(MAX_WEIGHT, weight));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove state of a closed stream.
+     *
+     * @param streamId stream identifier
+     */
+    void remove(int streamId) {
+        lock.lock();
+        try {
+            streams.remove(streamId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // number of streams with scheduling state
+    int streams() {
+        lock.lock();
+        try {
+            return streams.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // number of threads waiting to write
+    int waiting() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void grantNext() {
+        Waiter next = waiting.poll();
+        if (next == null) {
+            writing = false;
+            return;
+        }
+        if (!next.sequential) {
+            virtualTime = Math.max(virtualTime, next.start);
+        }
+        next.granted = true;
+        next.condition.signal();
+    }
+
+    private Waiter waiter(StreamState state) {
+        if (!state.incremental) {
+            return new Waiter(state.urgency, true, 0, state.streamId, sequence++, lock.newCondition());
+        }
+        // a stream that was idle starts at current virtual time, so it does not get credit for the time it did not write
+        long start = Math.max(virtualTime, state.finish);
+        // ordered by expected finish of the write, assuming the same size as the last write of the stream,
+        // so a new stream with a small response is not queued behind streams writing full frames
+        return new Waiter(state.urgency, false, start, start + state.lastCost, sequence++, lock.newCondition());
+    }
+
+    private StreamState state(int streamId) {
+        return streams.computeIfAbsent(streamId, StreamState::new);
+    }
+
+    private static final class StreamState {
+        private final int streamId;
+        // streams without extensible priority are incremental, so they are fairly interleaved
+        private int urgency = Http2ExtensiblePriority.DEFAULT.urgency();
+        private boolean incremental = true;
+        private int weight = DEFAULT_WEIGHT;
+        // virtual finish time of the last write of this stream
+        private long finish;
+        // virtual duration of the last write of this stream
+        private long lastCost;
+
+        private StreamState(int streamId) {
+            this.streamId = streamId;
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final int rank;
+        private final boolean sequential;
+        private final long start;
+        private final long tag;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(int rank, boolean sequential, long start, long tag, long sequence, Condition condition) {
+            this.rank = rank;
+            this.sequential = sequential;
+            this.start = start;
+            this.tag = tag;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int result = Integer.compare(rank, other.rank);
+            if (result != 0) {
+                return result;
+            }
+            if (sequential != other.sequential) {
+                // non-incremental streams are sent before incremental ones of the same urgency
+                return sequential ? -1 : 1;
+            }
+            result = Long.compare(tag, other.tag);
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
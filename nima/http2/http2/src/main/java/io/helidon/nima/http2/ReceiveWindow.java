@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Receive side of flow control of a connection or a stream.
+ * Tracks data the peer may still send, and decides when the consumed data should be acknowledged using
+ * {@link io.helidon.nima.http2.Http2WindowUpdate}. Updates are sent once at least half of the window was consumed,
+ * rather than for each frame.
+ * <p>
+ * Data is received by the connection reader and consumed by the stream processing thread.
+ */
+public final class ReceiveWindow {
+    // bytes the peer may still send before receiving our next window update
+    private final AtomicInteger available;
+    // consumed bytes not yet acknowledged to the peer
+    private final AtomicInteger unacknowledged = new AtomicInteger();
+    private volatile int windowSize;
+
+    private ReceiveWindow(int windowSize) {
+        this.windowSize = windowSize;
+        this.available = new AtomicInteger(windowSize);
+    }
+
+    /**
+     * Create a new receive window.
+     *
+     * @param windowSize initial window size
+     * @return a new receive window
+     */
+    public static ReceiveWindow create(int windowSize) {
+        return new ReceiveWindow(windowSize);
+    }
+
+    /**
+     * Data was received from the peer.
+     *
+     * @param bytes number of bytes of the data frame (including padding)
+     * @return {@code false} if the peer sent more data than allowed by this window
+     */
+    public boolean received(int bytes) {
+        return available.addAndGet(-bytes) >= 0;
+    }
+
+    /**
+     * Data was consumed, and the peer can send more.
+     *
+     * @param bytes number of consumed bytes
+     * @return increment to send in a window update, or {@code 0} if no update should be sent yet
+     */
+    public int consumed(int bytes) {
+        int pending = unacknowledged.addAndGet(bytes);
+        if (pending < windowSize / 2) {
+            return 0;
+        }
+        int increment = unacknowledged.getAndSet(0);
+        if (increment > 0) {
+            available.addAndGet(increment);
+        }
+        return increment;
+    }
+
+    /**
+     * Change the window size.
+     * For connection window, the returned increment must be sent to the peer in a window update. For stream windows
+     * the peer is informed by {@link io.helidon.nima.http2.Http2Setting#INITIAL_WINDOW_SIZE} and the increment
+     * must not be sent.
+     *
+     * @param newWindowSize new window size
+     * @return difference between the new and the old window size
+     */
+    public int resize(int newWindowSize) {
+        int delta = newWindowSize - windowSize;
+        windowSize = newWindowSize;
+        available.addAndGet(delta);
+        return delta;
+    }
+
+    /**
+     * Current window size.
+     *
+     * @return window size
+     */
+    public int windowSize() {
+        return windowSize;
+    }
+
+    @Override
+    public String toString() {
+        return available.get() + "/" + windowSize;
+    }
+}
@@ -16,12 +16,12 @@
 
 package io.helidon.nima.http2;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 /**
  * Window size container, used with {@link io.helidon.nima.http2.FlowControl}.
@@ -36,19 +36,27 @@ public class WindowSize {
      */
     public static final int MAX_WIN_SIZE = Integer.MAX_VALUE;
 
-    private final AtomicInteger remainingWindowSize;
+    //TODO configurable timeout
+    private static final long UPDATE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
 
-    private final AtomicReference<CompletableFuture<Void>> updated = new AtomicReference<>(new CompletableFuture<>());
+    private final AtomicInteger remainingWindowSize;
+    // updates are only signalled when somebody waits, so window updates without blocked writers are cheap
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition updated = lock.newCondition();
+    private volatile int initialWindowSize;
 
     WindowSize(int initialWindowSize) {
-        remainingWindowSize = new AtomicInteger(initialWindowSize);
+        this.remainingWindowSize = new AtomicInteger(initialWindowSize);
+        this.initialWindowSize = initialWindowSize;
     }
 
     /**
      * Window size with default initial size.
      */
     public WindowSize() {
-        remainingWindowSize = new AtomicInteger(DEFAULT_WIN_SIZE);
+        this(DEFAULT_WIN_SIZE);
     }
 
     /**
@@ -60,7 +68,9 @@ public class WindowSize {
         // When the value of SETTINGS_INITIAL_WINDOW_SIZE changes,
         // a receiver MUST adjust the size of all stream flow-control windows that
         // it maintains by the difference between the new value and the old value
-        remainingWindowSize.updateAndGet(o -> (int) n - o);
+        int delta = (int) n - initialWindowSize;
+        initialWindowSize = (int) n;
+        remainingWindowSize.addAndGet(delta);
     }
 
     /**
@@ -96,23 +106,57 @@ public class WindowSize {
     /**
      * Block until window size update.
      *
-     * @return whether update happened before timeout
+     * @return {@code true} in case of timeout, {@code false} if update happened
      */
     public boolean blockTillUpdate() {
-        try {
-            //TODO configurable timeout
-            updated.get().get(10, TimeUnit.SECONDS);
-            return false;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            return true;
-        }
+        long current = updates.get();
+        return !await(() -> updates.get() != current);
     }
 
     /**
      * Trigger update of window size.
      */
     public void triggerUpdate() {
-        updated.getAndSet(new CompletableFuture<>()).complete(null);
+        updates.incrementAndGet();
+        // a waiter increments waiting before checking its condition, so either it sees our update, or we see it
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                updated.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Block until the condition is met, re-evaluating it on each update of this window.
+     *
+     * @param condition condition to wait for
+     * @return {@code true} if the condition was met, {@code false} in case of timeout or interruption
+     */
+    boolean await(BooleanSupplier condition) {
+        if (condition.getAsBoolean()) {
+            return true;
+        }
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            long nanos = UPDATE_TIMEOUT_NANOS;
+            while (!condition.getAsBoolean()) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = updated.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
     }
 
     @Override
@@ -21,6 +21,7 @@ import io.helidon.common.http.Http.Header;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 class DynamicTableTest {
@@ -54,6 +55,70 @@ class DynamicTableTest {
         testRecord(table, Http2Headers.StaticHeader.MAX_INDEX + 2, "b", "c");
     }
 
+    @Test
+    void testFindIndexes() {
+        Http2Headers.DynamicTable table = Http2Headers.DynamicTable.create(4096);
+        int first = Http2Headers.StaticHeader.MAX_INDEX + 1;
+
+        table.add(Header.create("x-first"), "one");
+        table.add(Header.create("x-second"), "two");
+        table.add(Header.create("x-first"), "three");
+
+        // exact match
+        assertThat(table.find(Header.create("x-first"), "one").index(), is(first + 2));
+        assertThat(table.find(Header.create("x-first"), "three").index(), is(first));
+        assertThat(table.find(Header.create("x-second"), "two").index(), is(first + 1));
+        // name match uses the most recent entry
+        Http2Headers.IndexedHeaderRecord nameOnly = table.find(Header.create("x-first"), "four");
+        assertThat(nameOnly.index(), is(first));
+        assertThat(nameOnly.value(), is("three"));
+        // static table has precedence for name match
+        assertThat(table.find(Header.ACCEPT_CHARSET, "utf-8").index(), is(15));
+        assertThat(table.find(Header.create("x-unknown"), "value"), nullValue());
+    }
+
+    @Test
+    void testEvictionUpdatesIndexes() {
+        // each entry is 32 + 3 + 1 bytes, the table fits 5 entries
+        Http2Headers.DynamicTable table = Http2Headers.DynamicTable.create(36 * 5);
+        int first = Http2Headers.StaticHeader.MAX_INDEX + 1;
+
+        // more entries than initial capacity of the ring, with wrap around and eviction
+        for (int i = 0; i < 100; i++) {
+            table.add(Header.create("x-" + (i % 7)), String.valueOf(i % 10));
+            assertThat(table.currentTableSize(), is(36 * Math.min(i + 1, 5)));
+        }
+        // last added is i = 99 -> x-1 / 9, then 98 -> x-0 / 8, 97 -> x-6 / 7, 96 -> x-5 / 6, 95 -> x-4 / 5
+        testRecord(table, first, "x-1", "9");
+        testRecord(table, first + 4, "x-4", "5");
+        assertThat(table.find(Header.create("x-6"), "7").index(), is(first + 2));
+        // evicted
+        assertThat(table.find(Header.create("x-3"), "4"), nullValue());
+        assertThat(table.find(Header.create("x-4"), "4").index(), is(first + 4));
+
+        table.maxTableSize(36 * 2);
+        assertThat(table.currentTableSize(), is(72));
+        assertThat(table.find(Header.create("x-4"), "5"), nullValue());
+        testRecord(table, first + 1, "x-0", "8");
+
+        table.maxTableSize(0);
+        assertThat(table.currentTableSize(), is(0));
+        assertThat(table.find(Header.create("x-1"), "9"), nullValue());
+    }
+
+    @Test
+    void testGrowingTable() {
+        Http2Headers.DynamicTable table = Http2Headers.DynamicTable.create(65536);
+        int first = Http2Headers.StaticHeader.MAX_INDEX + 1;
+        for (int i = 0; i < 100; i++) {
+            table.add(Header.create("x-header-" + i), "value-" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            testRecord(table, first + 99 - i, "x-header-" + i, "value-" + i);
+            assertThat(table.find(Header.create("x-header-" + i), "value-" + i).index(), is(first + 99 - i));
+        }
+    }
+
     private void testRecord(Http2Headers.DynamicTable table,
                             int index,
                             String expectedName,
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.buffers.BufferData;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class FlowControlTest {
+    @Test
+    void testReceiveWindowUpdates() {
+        ReceiveWindow window = ReceiveWindow.create(100);
+
+        assertThat(window.received(40), is(true));
+        // less than half of the window consumed, no update yet
+        assertThat(window.consumed(40), is(0));
+        assertThat(window.received(60), is(true));
+        assertThat(window.consumed(10), is(50));
+        // the peer already used the whole window
+        assertThat(window.received(51), is(false));
+    }
+
+    @Test
+    void testReceiveWindowResize() {
+        ReceiveWindow window = ReceiveWindow.create(100);
+        assertThat(window.received(100), is(true));
+
+        assertThat(window.resize(300), is(200));
+        assertThat(window.received(200), is(true));
+        assertThat(window.received(1), is(false));
+    }
+
+    @Test
+    void testBdpEstimatorGrowsWindow() {
+        BdpEstimator estimator = BdpEstimator.create(WindowSize.DEFAULT_WIN_SIZE, 200_000);
+
+        assertThat(estimator.dataReceived(16_384, 0), is(true));
+        assertThat(estimator.dataReceived(16_384, 10), is(false));
+        assertThat(estimator.dataReceived(16_384, 20), is(false));
+        // most of the window received within a round trip
+        assertThat(estimator.pingAcknowledged(1000), is(98_304));
+
+        assertThat(estimator.dataReceived(100_000, 2000), is(true));
+        // capped
+        assertThat(estimator.pingAcknowledged(3000), is(200_000));
+        // no more measurements once at maximum
+        assertThat(estimator.dataReceived(100_000, 4000), is(false));
+    }
+
+    @Test
+    void testBdpEstimatorKeepsWindow() {
+        BdpEstimator estimator = BdpEstimator.create(WindowSize.DEFAULT_WIN_SIZE, 200_000);
+
+        // the sender is not limited by the window
+        assertThat(estimator.dataReceived(1000, 0), is(true));
+        assertThat(estimator.pingAcknowledged(1000), is(0));
+        assertThat(estimator.windowSize(), is(WindowSize.DEFAULT_WIN_SIZE));
+    }
+
+    @Test
+    void testBdpEstimatorNeedsHigherBandwidth() {
+        BdpEstimator estimator = BdpEstimator.create(WindowSize.DEFAULT_WIN_SIZE, 1_000_000);
+        assertThat(estimator.dataReceived(65_535, 0), is(true));
+        assertThat(estimator.pingAcknowledged(1000), is(131_070));
+
+        // more data, but the round trip took much longer (queueing), this is not a sign of a bigger pipe
+        assertThat(estimator.dataReceived(131_070, 2000), is(true));
+        assertThat(estimator.pingAcknowledged(12_000), is(0));
+    }
+
+    @Test
+    void testBdpPing() {
+        Http2Ping ping = BdpEstimator.ping();
+
+        assertThat(BdpEstimator.isBdpPing(ping.data()), is(true));
+        assertThat(BdpEstimator.isBdpPing(BufferData.create(new byte[8])), is(false));
+    }
+
+    @Test
+    void testResetWindowSizeAppliesDifference() {
+        WindowSize windowSize = new WindowSize();
+        windowSize.decrementWindowSize(1000);
+
+        windowSize.resetWindowSize(WindowSize.DEFAULT_WIN_SIZE + 10_000);
+        assertThat(windowSize.getRemainingWindowSize(), is(WindowSize.DEFAULT_WIN_SIZE + 9000));
+    }
+
+    @Test
+    void testBlockedWriterUnblocked() throws InterruptedException {
+        WindowSize connectionWindowSize = new WindowSize();
+        FlowControl flowControl = FlowControl.create(1, 0, connectionWindowSize);
+        CountDownLatch unblocked = new CountDownLatch(1);
+        Thread.ofVirtual().start(() -> {
+            if (!flowControl.blockTillUpdate()) {
+                unblocked.countDown();
+            }
+        });
+
+        assertThat(unblocked.await(100, TimeUnit.MILLISECONDS), is(false));
+        // stream window update wakes up the writer
+        flowControl.incrementStreamWindowSize(100);
+        assertThat(unblocked.await(5, TimeUnit.SECONDS), is(true));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.util.List;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.DataWriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class Http2ConnectionWriterTest {
+    @Test
+    void testEndOfStreamRemovesPriority() {
+        Http2ConnectionWriter writer = new Http2ConnectionWriter(null, new DiscardingWriter(), List.of());
+        writer.priority(1, new Http2Priority(false, 0, 32));
+        writer.write(dataFrame(1, 10, false), FlowControl.NOOP);
+        assertThat(writer.scheduler().streams(), is(1));
+
+        writer.write(dataFrame(1, 10, true), FlowControl.NOOP);
+        assertThat(writer.scheduler().streams(), is(0));
+    }
+
+    @Test
+    void testStreamClosedRemovesPriority() {
+        Http2ConnectionWriter writer = new Http2ConnectionWriter(null, new DiscardingWriter(), List.of());
+        // stream reset by the client never writes a frame ending the stream
+        writer.priority(3, new Http2ExtensiblePriority(0, false));
+        writer.write(dataFrame(3, 10, false), FlowControl.NOOP);
+        assertThat(writer.scheduler().streams(), is(1));
+
+        writer.streamClosed(3);
+        assertThat(writer.scheduler().streams(), is(0));
+    }
+
+    @Test
+    void testFlowControlTimeoutRemovesPriority() {
+        Http2ConnectionWriter writer = new Http2ConnectionWriter(null, new DiscardingWriter(), List.of());
+        writer.priority(5, new Http2Priority(false, 0, 64));
+        // window is never updated, rest of the data is discarded
+        writer.write(dataFrame(5, 10, true), new ClosedWindow());
+        assertThat(writer.scheduler().streams(), is(0));
+    }
+
+    private static Http2FrameData dataFrame(int streamId, int length, boolean endOfStream) {
+        Http2FrameHeader header = Http2FrameHeader.create(length,
+                                                          Http2FrameTypes.DATA,
+                                                          Http2Flag.DataFlags.create(endOfStream ? Http2Flag.END_OF_STREAM : 0),
+                                                          streamId);
+        return new Http2FrameData(header, BufferData.create(new byte[length]));
+    }
+
+    private static final class DiscardingWriter implements DataWriter {
+        @Override
+        public void write(BufferData... buffers) {
+        }
+
+        @Override
+        public void write(BufferData buffer) {
+        }
+
+        @Override
+        public void writeNow(BufferData... buffers) {
+        }
+
+        @Override
+        public void writeNow(BufferData buffer) {
+        }
+    }
+
+    // flow control window that is never updated by the client
+    private static final class ClosedWindow implements FlowControl {
+        @Override
+        public void resetStreamWindowSize(long increment) {
+        }
+
+        @Override
+        public void decrementWindowSize(int decrement) {
+        }
+
+        @Override
+        public boolean incrementStreamWindowSize(int increment) {
+            return false;
+        }
+
+        @Override
+        public int getRemainingWindowSize() {
+            return 0;
+        }
+
+        @Override
+        public Http2FrameData[] split(Http2FrameData frame) {
+            return new Http2FrameData[] {frame};
+        }
+
+        @Override
+        public boolean blockTillUpdate() {
+            return true;
+        }
+    }
+}
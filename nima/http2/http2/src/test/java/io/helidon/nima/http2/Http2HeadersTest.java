@@ -250,6 +250,38 @@ class Http2HeadersTest {
         assertThat(headerRecord.value(), is("www.example.com"));
     }
 
+    @Test
+    void testRoundTripWithDynamicTable() {
+        DynamicTable encoderTable = DynamicTable.create(Http2Settings.create());
+        DynamicTable decoderTable = DynamicTable.create(Http2Settings.create());
+        Http2HuffmanEncoder huffman = new Http2HuffmanEncoder();
+
+        for (int i = 0; i < 3; i++) {
+            WritableHeaders<?> headers = WritableHeaders.create();
+            headers.set(CUSTOM_HEADER_NAME, "custom-value");
+            headers.set(Header.create("x-request"), String.valueOf(i));
+            Http2Headers http2Headers = Http2Headers.create(headers);
+            http2Headers.method(Http.Method.POST);
+            http2Headers.scheme("https");
+            // path not in static table, only its name is indexed
+            http2Headers.path("/service/method");
+            http2Headers.authority("localhost:8080");
+
+            BufferData buffer = BufferData.growing(128);
+            http2Headers.write(encoderTable, huffman, buffer);
+            byte[] bytes = new byte[buffer.available()];
+            buffer.read(bytes);
+            Http2Headers decoded = headers(HexFormat.of().formatHex(bytes), decoderTable);
+
+            assertThat(decoded.method(), is(Http.Method.POST));
+            assertThat(decoded.path(), is("/service/method"));
+            assertThat(decoded.authority(), is("localhost:8080"));
+            assertThat(decoded.httpHeaders().get(CUSTOM_HEADER_NAME).value(), is("custom-value"));
+            assertThat(decoded.httpHeaders().get(Header.create("x-request")).value(), is(String.valueOf(i)));
+            assertThat(decoderTable.currentTableSize(), is(encoderTable.currentTableSize()));
+        }
+    }
+
     private Http2Headers headers(String hexEncoded, DynamicTable dynamicTable) {
         BufferData data = data(hexEncoded);
         Http2FrameHeader header = Http2FrameHeader.create(data.available(),
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class Http2PriorityTest {
+    @Test
+    void testWriteRead() {
+        for (int weight : new int[] {1, 16, 256}) {
+            Http2Priority priority = new Http2Priority(false, 3, weight);
+            Http2FrameData frameData = priority.toFrameData(Http2Settings.create(), 5, Http2Flag.NoFlags.create());
+
+            assertThat(frameData.header().length(), is(5));
+            assertThat(frameData.header().streamId(), is(5));
+            assertThat(Http2Priority.create(frameData.data()), is(priority));
+        }
+    }
+
+    @Test
+    void testExclusive() {
+        Http2Priority priority = new Http2Priority(true, 7, 32);
+        Http2FrameData frameData = priority.toFrameData(Http2Settings.create(), 9, Http2Flag.NoFlags.create());
+
+        assertThat(Http2Priority.create(frameData.data()), is(priority));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+class Http2WriteSchedulerTest {
+    @Test
+    void testPriorityOrder() throws Exception {
+        Http2WriteScheduler scheduler = new Http2WriteScheduler();
+        scheduler.priority(3, new Http2ExtensiblePriority(0, false));
+        scheduler.priority(5, new Http2ExtensiblePriority(5, false));
+        scheduler.priority(7, new Http2ExtensiblePriority(5, false));
+        scheduler.priority(9, new Http2ExtensiblePriority(5, true));
+
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        scheduler.acquire(1, false);
+        // enqueued in "wrong" order
+        CountDownLatch done = new CountDownLatch(5);
+        waitFor(scheduler, 1, start(scheduler, 9, false, order, done));
+        waitFor(scheduler, 2, start(scheduler, 7, false, order, done));
+        waitFor(scheduler, 3, start(scheduler, 5, false, order, done));
+        waitFor(scheduler, 4, start(scheduler, 3, false, order, done));
+        waitFor(scheduler, 5, start(scheduler, 0, true, order, done));
+        scheduler.release(1, 100);
+
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        // control frames, urgency 0, urgency 5 non-incremental by stream id, urgency 5 incremental
+        assertThat(order, contains(0, 3, 5, 7, 9));
+    }
+
+    @Test
+    void testFairQueuing() throws Exception {
+        Http2WriteScheduler scheduler = new Http2WriteScheduler();
+        scheduler.weight(3, 256);
+
+        // stream 1 (default weight) has already written a lot of data
+        for (int i = 0; i < 10; i++) {
+            scheduler.acquire(1, false);
+            scheduler.release(1, 16384);
+        }
+
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        scheduler.acquire(5, false);
+        CountDownLatch done = new CountDownLatch(3);
+        waitFor(scheduler, 1, start(scheduler, 1, false, order, done));
+        waitFor(scheduler, 2, start(scheduler, 5, false, order, done));
+        waitFor(scheduler, 3, start(scheduler, 3, false, order, done));
+        scheduler.release(5, 100);
+
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        // new streams do not wait for the stream that already used the connection
+        assertThat(order.get(2), is(1));
+    }
+
+    @Test
+    void testRemoveStream() throws Exception {
+        Http2WriteScheduler scheduler = new Http2WriteScheduler();
+        scheduler.priority(3, new Http2ExtensiblePriority(1, false));
+        scheduler.weight(5, 32);
+        scheduler.acquire(7, false);
+        scheduler.release(7, 100);
+        // control frames do not create stream state
+        scheduler.acquire(0, true);
+        scheduler.release(0, 0);
+        assertThat(scheduler.streams(), is(3));
+
+        scheduler.remove(3);
+        scheduler.remove(5);
+        scheduler.remove(7);
+        assertThat(scheduler.streams(), is(0));
+    }
+
+    @Test
+    void testExtensiblePriorityHeader() {
+        assertThat(Http2ExtensiblePriority.create("u=1, i"), is(new Http2ExtensiblePriority(1, true)));
+        assertThat(Http2ExtensiblePriority.create("i=?0,u=7"), is(new Http2ExtensiblePriority(7, false)));
+        assertThat(Http2ExtensiblePriority.create("i=?1"), is(new Http2ExtensiblePriority(3, true)));
+        // invalid values are ignored
+        assertThat(Http2ExtensiblePriority.create("u=8, x=1"), is(Http2ExtensiblePriority.DEFAULT));
+        assertThat(Http2ExtensiblePriority.create("u=a"), is(Http2ExtensiblePriority.DEFAULT));
+        assertThat(Http2ExtensiblePriority.create(""), is(Http2ExtensiblePriority.DEFAULT));
+    }
+
+    private static Thread start(Http2WriteScheduler scheduler,
+                                int streamId,
+                                boolean control,
+                                List<Integer> order,
+                                CountDownLatch done) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.acquire(streamId, control);
+                order.add(streamId);
+                scheduler.release(streamId, 100);
+                done.countDown();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static void waitFor(Http2WriteScheduler scheduler, int waiting, Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (scheduler.waiting() < waiting) {
+            if (System.currentTimeMillis() > deadline || !thread.isAlive()) {
+                throw new IllegalStateException("Thread did not start waiting");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2.webclient;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.nima.http2.Http2Headers;
+
+class ClientExchangeImpl implements Http2ClientExchange {
+    private final Http2ClientStream stream;
+
+    ClientExchangeImpl(Http2ClientStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public int streamId() {
+        return stream.streamId();
+    }
+
+    @Override
+    public void writeData(BufferData data, boolean endOfStream) {
+        stream.writeData(data, endOfStream);
+    }
+
+    @Override
+    public Http2Headers readHeaders(Duration timeout) {
+        return stream.readHeaders(timeout);
+    }
+
+    @Override
+    public BufferData readData(Duration timeout) {
+        return stream.readData(timeout);
+    }
+
+    @Override
+    public boolean endOfStream() {
+        return stream.endOfStreamReceived();
+    }
+
+    @Override
+    public Optional<Http2Headers> trailers() {
+        return Optional.ofNullable(stream.trailers());
+    }
+
+    @Override
+    public void cancel() {
+        stream.cancel();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
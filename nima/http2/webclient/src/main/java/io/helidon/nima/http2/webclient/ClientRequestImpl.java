@@ -20,17 +20,15 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
 import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.ClientRequestHeaders;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.Http.Header;
 import io.helidon.common.http.Http.HeaderValue;
 import io.helidon.common.http.WritableHeaders;
-import io.helidon.common.socket.SocketOptions;
 import io.helidon.common.uri.UriQueryWriteable;
 import io.helidon.nima.common.tls.Tls;
 import io.helidon.nima.http2.Http2Headers;
@@ -40,8 +38,6 @@ import io.helidon.nima.webclient.ConnectionKey;
 import io.helidon.nima.webclient.UriHelper;
 
 class ClientRequestImpl implements Http2ClientRequest {
-    private static final Map<ConnectionKey, Http2ClientConnectionHandler> CHANNEL_CACHE = new ConcurrentHashMap<>();
-
     private final WritableHeaders<?> explicitHeaders = WritableHeaders.create();
 
     private final Http2ClientImpl client;
@@ -126,7 +122,7 @@ class ClientRequestImpl implements Http2ClientRequest {
             stream.writeData(BufferData.create(entityBytes), true);
         }
 
-        return readResponse(stream);
+        return readResponse(headers, stream);
     }
 
     @Override
@@ -153,7 +149,17 @@ class ClientRequestImpl implements Http2ClientRequest {
             throw new IllegalStateException("Output stream was not closed in handler");
         }
 
-        return readResponse(stream);
+        return readResponse(headers, stream);
+    }
+
+    @Override
+    public Http2ClientExchange exchange() {
+        WritableHeaders<?> headers = WritableHeaders.create(explicitHeaders);
+
+        Http2ClientStream stream = reserveStream();
+        stream.write(prepareHeaders(headers), false);
+
+        return new ClientExchangeImpl(stream);
     }
 
     @Override
@@ -186,10 +192,10 @@ class ClientRequestImpl implements Http2ClientRequest {
         return uri;
     }
 
-    private Http2ClientResponse readResponse(Http2ClientStream stream) {
+    private Http2ClientResponse readResponse(WritableHeaders<?> requestHeaders, Http2ClientStream stream) {
         Http2Headers headers = stream.readHeaders();
 
-        return new ClientResponseImpl(headers, stream);
+        return new ClientResponseImpl(ClientRequestHeaders.create(requestHeaders), headers, stream, client.mediaContext());
     }
 
     private byte[] entityBytes(Object entity) {
@@ -221,17 +227,14 @@ class ClientRequestImpl implements Http2ClientRequest {
             ConnectionKey connectionKey = new ConnectionKey(uri.scheme(),
                                                             uri.host(),
                                                             uri.port(),
-                                                            tls,
+                                                            "https".equals(uri.scheme()) ? tls : null,
                                                             client.dnsResolver(),
                                                             client.dnsAddressLookup());
 
-            // this statement locks all threads - must not do anything complicated (just create a new instance)
-            return CHANNEL_CACHE.computeIfAbsent(connectionKey,
-                                                 key -> new Http2ClientConnectionHandler(executor,
-                                                                                         SocketOptions.builder().build(),
-                                                                                         key))
-                    // this statement may block a single connection key
-                    .newStream(priorKnowledge, priority);
+            Http2ClientStream stream = client.connectionPool(connectionKey)
+                    .newStream(priorKnowledge);
+            stream.weight(priority);
+            return stream;
         } else {
             throw new UnsupportedOperationException("Explicit connection not (yet) supported for HTTP/2 client");
         }
@@ -16,21 +16,33 @@
 
 package io.helidon.nima.http2.webclient;
 
+import io.helidon.common.http.ClientRequestHeaders;
 import io.helidon.common.http.ClientResponseHeaders;
 import io.helidon.common.http.Headers;
 import io.helidon.common.http.Http;
+import io.helidon.nima.http.encoding.ContentDecoder;
+import io.helidon.nima.http.media.MediaContext;
 import io.helidon.nima.http.media.ReadableEntity;
+import io.helidon.nima.http.media.ReadableEntityBase;
 import io.helidon.nima.http2.Http2Headers;
+import io.helidon.nima.webclient.ClientResponseEntity;
 
 class ClientResponseImpl implements Http2ClientResponse {
     private final Http.Status responseStatus;
+    private final ClientRequestHeaders requestHeaders;
     private final ClientResponseHeaders responseHeaders;
+    private final MediaContext mediaContext;
     private Http2ClientStream stream;
 
-    ClientResponseImpl(Http2Headers headers, Http2ClientStream stream) {
+    ClientResponseImpl(ClientRequestHeaders requestHeaders,
+                       Http2Headers headers,
+                       Http2ClientStream stream,
+                       MediaContext mediaContext) {
         this.responseStatus = headers.status();
+        this.requestHeaders = requestHeaders;
         this.responseHeaders = ClientResponseHeaders.create(headers.httpHeaders());
         this.stream = stream;
+        this.mediaContext = mediaContext;
     }
 
     @Override
@@ -45,13 +57,23 @@ class ClientResponseImpl implements Http2ClientResponse {
 
     @Override
     public ReadableEntity entity() {
-        return stream.entity().copy(() -> this.stream = null);
+        if (stream == null || stream.endOfStreamReceived()) {
+            close();
+            return ReadableEntityBase.empty();
+        }
+        return ClientResponseEntity.create(ContentDecoder.NO_OP,
+                                           stream::readEntity,
+                                           this::close,
+                                           requestHeaders,
+                                           responseHeaders,
+                                           mediaContext);
     }
 
     @Override
     public void close() {
         if (stream != null) {
-            stream.cancel();
+            // cancels the stream if the entity was not fully read
+            stream.close();
             stream = null;
         }
     }
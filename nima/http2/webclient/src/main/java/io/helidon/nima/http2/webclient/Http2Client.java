@@ -16,13 +16,16 @@
 
 package io.helidon.nima.http2.webclient;
 
+import java.time.Duration;
+
+import io.helidon.nima.http2.WindowSize;
 import io.helidon.nima.webclient.HttpClient;
 import io.helidon.nima.webclient.WebClient;
 
 /**
  * HTTP2 client.
  */
-public interface Http2Client extends HttpClient<Http2ClientRequest, Http2ClientResponse> {
+public interface Http2Client extends HttpClient<Http2ClientRequest, Http2ClientResponse>, AutoCloseable {
 
     /**
      * A new fluent API builder to customize client setup.
@@ -33,12 +36,25 @@ public interface Http2Client extends HttpClient<Http2ClientRequest, Http2ClientR
         return new Http2ClientBuilder();
     }
 
+    /**
+     * Close all pooled connections of this client and stop their maintenance.
+     * Requests can no longer be executed using this client.
+     */
+    @Override
+    void close();
+
     /**
      * Fluent API builder for {@link io.helidon.nima.http2.webclient.Http2Client}.
      */
     class Http2ClientBuilder extends WebClient.Builder<Http2ClientBuilder, Http2Client> {
 
         private boolean priorKnowledge;
+        private int minConnections = 0;
+        private int maxConnections = 8;
+        private Duration connectionIdleTimeout = Duration.ofMinutes(1);
+        private Duration pingInterval = Duration.ofSeconds(30);
+        private Duration pingTimeout = Duration.ofSeconds(5);
+        private int maxReceiveWindowSize = 16 * 1024 * 1024;
 
         private Http2ClientBuilder() {
         }
@@ -65,13 +81,115 @@ public interface Http2Client extends HttpClient<Http2ClientRequest, Http2ClientR
             return this;
         }
 
+        /**
+         * Minimal number of connections to each endpoint. Requests are spread over at least this number of connections,
+         * and idle connections are not closed below this number.
+         * Defaults to {@code 0}.
+         *
+         * @param minConnections minimal number of connections per endpoint
+         * @return updated builder
+         */
+        public Http2ClientBuilder minConnections(int minConnections) {
+            if (minConnections < 0) {
+                throw new IllegalArgumentException("Minimal number of connections must not be negative");
+            }
+            this.minConnections = minConnections;
+            return this;
+        }
+
+        /**
+         * Maximal number of connections to each endpoint. A new connection is opened when all existing connections
+         * reached the maximal number of concurrent streams allowed by the server. When all connections are fully used,
+         * requests wait for a stream to be released, up to the connect timeout.
+         * Defaults to {@code 8}.
+         *
+         * @param maxConnections maximal number of connections per endpoint
+         * @return updated builder
+         */
+        public Http2ClientBuilder maxConnections(int maxConnections) {
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("Maximal number of connections must be at least 1");
+            }
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Connection without any active stream for longer than this timeout is closed.
+         * Defaults to one minute.
+         *
+         * @param connectionIdleTimeout idle timeout
+         * @return updated builder
+         */
+        public Http2ClientBuilder connectionIdleTimeout(Duration connectionIdleTimeout) {
+            this.connectionIdleTimeout = connectionIdleTimeout;
+            return this;
+        }
+
+        /**
+         * Connection that did not receive any frame for this duration is checked by sending a PING frame.
+         * Defaults to 30 seconds.
+         *
+         * @param pingInterval ping interval
+         * @return updated builder
+         */
+        public Http2ClientBuilder pingInterval(Duration pingInterval) {
+            this.pingInterval = pingInterval;
+            return this;
+        }
+
+        /**
+         * Connection that does not acknowledge a PING frame within this timeout is closed.
+         * Defaults to 5 seconds.
+         *
+         * @param pingTimeout ping timeout
+         * @return updated builder
+         */
+        public Http2ClientBuilder pingTimeout(Duration pingTimeout) {
+            this.pingTimeout = pingTimeout;
+            return this;
+        }
+
+        /**
+         * Maximal size of receive windows of a connection and of its streams.
+         * Windows start at the default size of 65,535 bytes, and grow based on estimated bandwidth-delay product
+         * of the connection, so large downloads over high latency links are not limited by flow control.
+         * Setting this to {@code 65535} disables the window tuning.
+         * Defaults to 16 MiB.
+         *
+         * @param maxReceiveWindowSize maximal receive window size in bytes
+         * @return updated builder
+         */
+        public Http2ClientBuilder maxReceiveWindowSize(int maxReceiveWindowSize) {
+            if (maxReceiveWindowSize < WindowSize.DEFAULT_WIN_SIZE) {
+                throw new IllegalArgumentException("Maximal receive window size must be at least "
+                                                           + WindowSize.DEFAULT_WIN_SIZE);
+            }
+            this.maxReceiveWindowSize = maxReceiveWindowSize;
+            return this;
+        }
+
         @Override
         public Http2Client build() {
+            if (minConnections > maxConnections) {
+                throw new IllegalArgumentException("Minimal number of connections (" + minConnections
+                                                           + ") is higher than maximal number of connections ("
+                                                           + maxConnections + ")");
+            }
             return new Http2ClientImpl(this);
         }
 
         boolean priorKnowledge() {
             return priorKnowledge;
         }
+
+        Http2ConnectionPool.Config poolConfig() {
+            return new Http2ConnectionPool.Config(minConnections,
+                                                  maxConnections,
+                                                  connectionIdleTimeout,
+                                                  pingInterval,
+                                                  pingTimeout,
+                                                  maxReceiveWindowSize);
+        }
     }
 }
@@ -17,61 +17,142 @@
 package io.helidon.nima.http2.webclient;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 
-import io.helidon.common.buffers.DataWriter;
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.DataReader;
 import io.helidon.common.socket.PlainSocket;
 import io.helidon.common.socket.SocketOptions;
 import io.helidon.common.socket.SocketWriter;
 import io.helidon.common.socket.TlsSocket;
+import io.helidon.nima.http2.BdpEstimator;
+import io.helidon.nima.http2.FlowControl;
 import io.helidon.nima.http2.Http2ConnectionWriter;
+import io.helidon.nima.http2.Http2ErrorCode;
+import io.helidon.nima.http2.Http2Exception;
+import io.helidon.nima.http2.Http2Flag;
+import io.helidon.nima.http2.Http2FrameData;
+import io.helidon.nima.http2.Http2FrameHeader;
+import io.helidon.nima.http2.Http2FrameListener;
+import io.helidon.nima.http2.Http2FrameType;
+import io.helidon.nima.http2.Http2FrameTypes;
+import io.helidon.nima.http2.Http2GoAway;
+import io.helidon.nima.http2.Http2Headers;
+import io.helidon.nima.http2.Http2HuffmanDecoder;
+import io.helidon.nima.http2.Http2LoggingFrameListener;
+import io.helidon.nima.http2.Http2Ping;
+import io.helidon.nima.http2.Http2Priority;
+import io.helidon.nima.http2.Http2RstStream;
+import io.helidon.nima.http2.Http2Setting;
+import io.helidon.nima.http2.Http2Settings;
+import io.helidon.nima.http2.Http2Util;
+import io.helidon.nima.http2.Http2WindowUpdate;
+import io.helidon.nima.http2.ReceiveWindow;
+import io.helidon.nima.http2.WindowSize;
 import io.helidon.nima.webclient.ConnectionKey;
 import io.helidon.nima.webclient.spi.DnsResolver;
 
 import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.TRACE;
 
+/**
+ * A single client HTTP/2 connection, multiplexing streams of requests to the same endpoint.
+ * Frames are read by a dedicated thread and dispatched to the streams.
+ */
 class Http2ClientConnection {
     private static final System.Logger LOGGER = System.getLogger(Http2ClientConnection.class.getName());
+    private static final int FRAME_HEADER_LENGTH = 9;
+    private static final int MAX_STREAM_ID = Integer.MAX_VALUE;
 
+    private final Map<Integer, Http2ClientStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<Void>> pingAck = new AtomicReference<>();
+    private final CountDownLatch serverSettingsReceived = new CountDownLatch(1);
+    // stream identifiers must be used in the order the streams are opened
+    private final ReentrantLock openStreamLock = new ReentrantLock();
+    private final WindowSize connectionWindowSize = new WindowSize();
+    private final ReceiveWindow connectionReceiveWindow = ReceiveWindow.create(WindowSize.DEFAULT_WIN_SIZE);
+    private final Http2Settings clientSettings = Http2Settings.builder()
+            .add(Http2Setting.ENABLE_PUSH, false)
+            .build();
+    private final Http2Headers.DynamicTable responseDynamicTable =
+            Http2Headers.DynamicTable.create(Http2Setting.HEADER_TABLE_SIZE.defaultValue());
+    private final Http2HuffmanDecoder responseHuffman = new Http2HuffmanDecoder();
+    private final Http2FrameListener recvListener = new Http2LoggingFrameListener("cl-recv");
+    private final List<Http2FrameData> continuationData = new ArrayList<>();
+    private final Http2ConnectionPool pool;
     private final ExecutorService executor;
     private final SocketOptions socketOptions;
     private final ConnectionKey connectionKey;
     private final boolean priorKnowledge;
+    // null if receive window tuning is disabled, used only by the reader thread
+    private final BdpEstimator bdpEstimator;
+
+    private volatile int maxConcurrentStreams = Integer.MAX_VALUE;
+    private volatile int initialWindowSize = WindowSize.DEFAULT_WIN_SIZE;
+    private volatile int streamReceiveWindowSize = WindowSize.DEFAULT_WIN_SIZE;
+    private volatile boolean draining;
+    private volatile long lastUsed = System.nanoTime();
+    private volatile long lastFrameReceived = System.nanoTime();
 
     private String channelId;
     private Socket socket;
     private PlainSocket helidonSocket;
+    private SocketWriter dataWriter;
     private Http2ConnectionWriter writer;
-    private InputStream inputStream;
+    private DataReader reader;
+    // guarded by openStreamLock
+    private int nextStreamId = 1;
 
-    Http2ClientConnection(ExecutorService executor,
+    Http2ClientConnection(Http2ConnectionPool pool,
+                          ExecutorService executor,
                           SocketOptions socketOptions,
                           ConnectionKey connectionKey,
-                          boolean priorKnowledge) {
+                          boolean priorKnowledge,
+                          int maxReceiveWindowSize) {
+        this.pool = pool;
         this.executor = executor;
         this.socketOptions = socketOptions;
         this.connectionKey = connectionKey;
         this.priorKnowledge = priorKnowledge;
+        this.bdpEstimator = maxReceiveWindowSize > WindowSize.DEFAULT_WIN_SIZE
+                ? BdpEstimator.create(WindowSize.DEFAULT_WIN_SIZE, maxReceiveWindowSize)
+                : null;
     }
 
     Http2ClientConnection connect() {
         try {
             doConnect();
         } catch (IOException e) {
+            close();
             throw new UncheckedIOException("Could not connect to " + connectionKey + ", with options: " + socketOptions, e);
         }
 
@@ -85,23 +166,202 @@ class Http2ClientConnection {
         return this;
     }
 
-    Http2ClientStream stream(int priority) {
-        return null;
+    /**
+     * Reserve a stream on this connection, without locking.
+     *
+     * @return {@code true} if the stream was reserved, {@code false} if the connection cannot accept more streams
+     */
+    boolean tryReserve() {
+        while (true) {
+            int current = activeStreams.get();
+            if (draining || current >= maxConcurrentStreams) {
+                return false;
+            }
+            if (activeStreams.compareAndSet(current, current + 1)) {
+                if (draining) {
+                    // retired concurrently
+                    unreserve();
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Create a new stream, a stream must be reserved using {@link #tryReserve()} first.
+     * Stream identifier is assigned when headers are written.
+     *
+     * @return a new stream
+     */
+    Http2ClientStream stream() {
+        lastUsed = System.nanoTime();
+        return new Http2ClientStream(this, socketOptions.readTimeout());
+    }
+
+    int activeStreams() {
+        return activeStreams.get();
+    }
+
+    int maxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    boolean draining() {
+        return draining;
+    }
+
+    boolean closed() {
+        return closed.get();
+    }
+
+    /**
+     * Time when this connection was last used to open a stream, or when the last stream was released.
+     *
+     * @return nano time
+     */
+    long lastUsed() {
+        return lastUsed;
     }
 
-    Http2ClientStream tryStream(int priority) {
+    /**
+     * Time when a frame was last received from the server.
+     *
+     * @return nano time
+     */
+    long lastFrameReceived() {
+        return lastFrameReceived;
+    }
+
+    /**
+     * Stop accepting new streams, the connection is closed when the last active stream is released.
+     */
+    void retire() {
+        draining = true;
+        if (activeStreams.get() == 0) {
+            close();
+        }
+    }
+
+    /**
+     * Send a ping and wait for acknowledgement.
+     *
+     * @param timeout how long to wait for the acknowledgement
+     * @return whether the server acknowledged the ping in time
+     */
+    boolean ping(Duration timeout) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        pingAck.set(ack);
         try {
-            return stream(priority);
-        } catch (IllegalStateException e) {
-            return null;
+            Http2Ping ping = Http2Ping.create(BufferData.create(new byte[8]));
+            writer.write(ping.toFrameData(clientSettings, 0, Http2Flag.PingFlags.create(0)), FlowControl.NOOP);
+            ack.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            return false;
         }
     }
 
     void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        draining = true;
+        if (writer != null) {
+            try {
+                Http2GoAway goAway = new Http2GoAway(0, Http2ErrorCode.NO_ERROR, "");
+                writer.write(goAway.toFrameData(clientSettings, 0, Http2Flag.NoFlags.create()), FlowControl.NOOP);
+            } catch (RuntimeException ignored) {
+                // connection is already broken
+            }
+        }
+        if (dataWriter != null) {
+            dataWriter.close();
+        }
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                if (LOGGER.isLoggable(DEBUG)) {
+                    LOGGER.log(DEBUG, "[" + channelId + "] failed to close socket", e);
+                }
+            }
+        }
+    }
+
+    void writeHeaders(Http2ClientStream stream, Http2Headers headers, boolean endOfStream) {
+        Http2Flag.HeaderFlags flags = Http2Flag.HeaderFlags.create(Http2Flag.END_OF_HEADERS
+                                                                           | (endOfStream ? Http2Flag.END_OF_STREAM : 0));
+        openStreamLock.lock();
         try {
-            socket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+            if (closed.get()) {
+                throw new IllegalStateException("Connection " + channelId + " is closed");
+            }
+            int streamId = nextStreamId;
+            nextStreamId += 2;
+            if (nextStreamId > MAX_STREAM_ID || nextStreamId < 0) {
+                // identifiers exhausted, a new connection must be used for further streams
+                draining = true;
+                pool.drain(this);
+            }
+            FlowControl flowControl = FlowControl.create(streamId, initialWindowSize, connectionWindowSize);
+            stream.open(streamId, flowControl, ReceiveWindow.create(streamReceiveWindowSize));
+            streams.put(streamId, stream);
+            writer.writeHeaders(headers, streamId, flags, flowControl);
+            int weight = stream.weight();
+            if (weight != 0) {
+                Http2Priority priority = new Http2Priority(false, 0, weight);
+                writer.write(priority.toFrameData(clientSettings, streamId, Http2Flag.NoFlags.create()), FlowControl.NOOP);
+            }
+        } finally {
+            openStreamLock.unlock();
+        }
+    }
+
+    void writeData(Http2FrameData frame, FlowControl flowControl) {
+        writer.write(frame, flowControl);
+    }
+
+    void windowUpdate(int streamId, int increment) {
+        if (increment > 0 && !closed.get()) {
+            Http2WindowUpdate windowUpdate = new Http2WindowUpdate(increment);
+            writer.write(windowUpdate.toFrameData(clientSettings, streamId, Http2Flag.NoFlags.create()), FlowControl.NOOP);
+        }
+    }
+
+    void rstStream(int streamId, Http2ErrorCode errorCode) {
+        if (!closed.get()) {
+            Http2RstStream rstStream = new Http2RstStream(errorCode);
+            writer.write(rstStream.toFrameData(clientSettings, streamId, Http2Flag.NoFlags.create()), FlowControl.NOOP);
+        }
+    }
+
+    /**
+     * Stream finished, its slot can be used by another stream.
+     *
+     * @param stream stream to release
+     */
+    void release(Http2ClientStream stream) {
+        if (stream.streamId() != 0) {
+            streams.remove(stream.streamId());
+        }
+        lastUsed = System.nanoTime();
+        unreserve();
+        pool.released(this);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + channelId + " " + connectionKey.host() + ":" + connectionKey.port() + ", streams: " + activeStreams.get()
+                + "/" + maxConcurrentStreams + (draining ? ", draining" : "") + "]";
+    }
+
+    private void unreserve() {
+        if (activeStreams.decrementAndGet() == 0 && draining) {
+            close();
         }
     }
 
@@ -126,9 +386,7 @@ class Http2ClientConnection {
                 ? PlainSocket.client(socket, channelId)
                 : TlsSocket.client(sslSocket, channelId);
 
-        DataWriter writer = SocketWriter.create(executor, helidonSocket, 32);
-        inputStream = socket.getInputStream();
-        this.writer = new Http2ConnectionWriter(helidonSocket, writer, List.of());
+        reader = new DataReader(helidonSocket);
 
         if (sslSocket != null) {
             sslSocket.startHandshake();
@@ -140,6 +398,289 @@ class Http2ClientConnection {
                 close();
                 throw new IllegalStateException("Failed to negotiate h2 protocol. Protocol from socket: " + negotiatedProtocol);
             }
+        } else if (!priorKnowledge) {
+            upgrade();
+        }
+
+        dataWriter = SocketWriter.create(executor, helidonSocket, 32);
+        writer = new Http2ConnectionWriter(helidonSocket, dataWriter, List.of(new Http2LoggingFrameListener("cl-send")));
+
+        dataWriter.write(Http2Util.prefaceData());
+        writer.write(clientSettings.toFrameData(clientSettings, 0, Http2Flag.SettingsFlags.create(0)), FlowControl.NOOP);
+
+        executor.submit(this::readFrames);
+
+        try {
+            if (!serverSettingsReceived.await(socketOptions.connectTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                close();
+                throw new IOException("Server did not send HTTP/2 settings within " + socketOptions.connectTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IOException("Interrupted while waiting for HTTP/2 settings", e);
+        }
+        if (closed.get()) {
+            throw new IOException("Connection closed during HTTP/2 connection preface");
+        }
+    }
+
+    // plain text connection without prior knowledge, upgrade from HTTP/1.1 using a request without side effects
+    // the response to the upgrade request is sent by the server on stream 1, and discarded
+    private void upgrade() throws IOException {
+        BufferData settings = clientSettings.toFrameData(clientSettings, 0, Http2Flag.SettingsFlags.create(0)).data();
+        byte[] settingsBytes = new byte[settings.available()];
+        settings.read(settingsBytes);
+
+        String request = "OPTIONS * HTTP/1.1\r\n"
+                + "Host: " + connectionKey.host() + ":" + connectionKey.port() + "\r\n"
+                + "Connection: Upgrade, HTTP2-Settings\r\n"
+                + "Upgrade: h2c\r\n"
+                + "HTTP2-Settings: " + Base64.getUrlEncoder().withoutPadding().encodeToString(settingsBytes) + "\r\n"
+                + "\r\n";
+        helidonSocket.write(BufferData.create(request.getBytes(StandardCharsets.US_ASCII)));
+
+        String statusLine = reader.readLine();
+        if (!statusLine.startsWith("HTTP/1.1 101")) {
+            close();
+            throw new IOException("Server does not support upgrade to h2c, status: " + statusLine);
+        }
+        // skip response headers
+        while (!reader.readLine().isEmpty()) {
+            // ignored
+        }
+        nextStreamId = 3;
+    }
+
+    private void readFrames() {
+        try {
+            while (!closed.get()) {
+                readFrame();
+            }
+        } catch (DataReader.InsufficientDataAvailableException e) {
+            if (LOGGER.isLoggable(DEBUG)) {
+                LOGGER.log(DEBUG, "[" + channelId + "] connection closed by server");
+            }
+        } catch (Throwable e) {
+            if (!closed.get() && LOGGER.isLoggable(DEBUG)) {
+                LOGGER.log(DEBUG, "[" + channelId + "] failed to read from connection", e);
+            }
+        } finally {
+            close();
+            serverSettingsReceived.countDown();
+            UncheckedIOException failure = new UncheckedIOException(new IOException("Connection " + channelId + " closed"));
+            streams.values().forEach(it -> it.fail(failure));
+            pool.drain(this);
+        }
+    }
+
+    private void readFrame() {
+        BufferData frameHeaderBuffer = reader.readBuffer(FRAME_HEADER_LENGTH);
+        Http2FrameHeader frameHeader = Http2FrameHeader.create(frameHeaderBuffer);
+        recvListener.frameHeader(helidonSocket, frameHeader);
+        frameHeader.type().checkLength(frameHeader.length());
+
+        BufferData frame = frameHeader.length() == 0
+                ? BufferData.empty()
+                : reader.readBuffer(frameHeader.length());
+        recvListener.frame(helidonSocket, frame);
+        lastFrameReceived = System.nanoTime();
+
+        if (!continuationData.isEmpty() && frameHeader.type() != Http2FrameType.CONTINUATION) {
+            throw new Http2Exception(Http2ErrorCode.PROTOCOL, "Expecting CONTINUATION, received " + frameHeader.type());
+        }
+
+        switch (frameHeader.type()) {
+        case DATA -> dataFrame(frameHeader, frame);
+        case HEADERS, CONTINUATION -> headersFrame(frameHeader, frame);
+        case SETTINGS -> settingsFrame(frameHeader, frame);
+        case PING -> pingFrame(frameHeader, frame);
+        case GO_AWAY -> goAwayFrame(Http2GoAway.create(frame));
+        case WINDOW_UPDATE -> windowUpdateFrame(frameHeader, frame);
+        case RST_STREAM -> rstStreamFrame(frameHeader, frame);
+        default -> {
+            // priority is ignored, push promise is disabled by our settings, unknown frames must be discarded
+        }
+        }
+    }
+
+    private void dataFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        BufferData data = frame;
+        if (frameHeader.flags(Http2FrameTypes.DATA).padded()) {
+            int padLength = frame.read();
+            if (padLength >= frameHeader.length()) {
+                throw new Http2Exception(Http2ErrorCode.PROTOCOL, "Invalid pad length");
+            }
+            data = BufferData.create(frameHeader.length() - padLength - 1);
+            data.write(frame, frameHeader.length() - padLength - 1);
+        }
+        // connection window is replenished immediately, stream window when the data is consumed
+        int length = frameHeader.length();
+        if (!connectionReceiveWindow.received(length)) {
+            throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL, "Connection receive window exceeded");
+        }
+        windowUpdate(0, connectionReceiveWindow.consumed(length));
+        if (bdpEstimator != null && bdpEstimator.dataReceived(length)) {
+            writer.write(BdpEstimator.ping().toFrameData(clientSettings, 0, Http2Flag.PingFlags.create(0)),
+                         FlowControl.NOOP);
+        }
+
+        Http2ClientStream stream = streams.get(frameHeader.streamId());
+        if (stream != null) {
+            stream.data(frameHeader, data);
+        }
+    }
+
+    private void headersFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        // this needs to retain the data until we receive last continuation, cannot use the same data
+        boolean endOfHeaders = frameHeader.type() == Http2FrameType.HEADERS
+                ? frameHeader.flags(Http2FrameTypes.HEADERS).endOfHeaders()
+                : frameHeader.flags(Http2FrameTypes.CONTINUATION).endOfHeaders();
+        if (!endOfHeaders) {
+            continuationData.add(new Http2FrameData(frameHeader, frame.copy()));
+            return;
+        }
+        Http2FrameData[] frames;
+        if (continuationData.isEmpty()) {
+            frames = new Http2FrameData[] {new Http2FrameData(frameHeader, frame)};
+        } else {
+            continuationData.add(new Http2FrameData(frameHeader, frame));
+            frames = continuationData.toArray(new Http2FrameData[0]);
+            continuationData.clear();
+        }
+        boolean endOfStream = frames[0].header().flags(Http2FrameTypes.HEADERS).endOfStream();
+
+        Http2ClientStream stream = streams.get(frameHeader.streamId());
+        // headers must always be decoded to keep the dynamic table in sync, even if the stream is gone
+        Http2ClientStream target = stream == null ? new Http2ClientStream(this, Duration.ZERO) : stream;
+        Http2Headers headers = Http2Headers.create(target, responseDynamicTable, responseHuffman, frames);
+        target.headers(headers, endOfStream);
+    }
+
+    private void settingsFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        if (frameHeader.flags(Http2FrameTypes.SETTINGS).ack()) {
+            return;
+        }
+        Http2Settings serverSettings = Http2Settings.create(frame);
+        recvListener.frame(helidonSocket, serverSettings);
+
+        serverSettings.presentValue(Http2Setting.HEADER_TABLE_SIZE)
+                .ifPresent(it -> {
+                    try {
+                        writer.updateHeaderTableSize(it);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while updating header table size", e);
+                    }
+                });
+        serverSettings.presentValue(Http2Setting.MAX_FRAME_SIZE)
+                .ifPresent(it -> writer.maxFrameSize(it.intValue()));
+        serverSettings.presentValue(Http2Setting.INITIAL_WINDOW_SIZE)
+                .ifPresent(it -> {
+                    initialWindowSize = it.intValue();
+                    streams.values().forEach(stream -> stream.flowControl().resetStreamWindowSize(it));
+                    connectionWindowSize.triggerUpdate();
+                });
+        serverSettings.presentValue(Http2Setting.MAX_CONCURRENT_STREAMS)
+                .ifPresent(it -> maxConcurrentStreams = (int) Math.min(it, Integer.MAX_VALUE));
+
+        Http2FrameHeader ack = Http2FrameHeader.create(0,
+                                                       Http2FrameTypes.SETTINGS,
+                                                       Http2Flag.SettingsFlags.create(Http2Flag.ACK),
+                                                       0);
+        writer.write(new Http2FrameData(ack, BufferData.empty()), FlowControl.NOOP);
+        serverSettingsReceived.countDown();
+        // limit of concurrent streams may have increased
+        pool.released(this);
+    }
+
+    private void pingFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        if (frameHeader.flags(Http2FrameTypes.PING).ack()) {
+            if (BdpEstimator.isBdpPing(frame)) {
+                if (bdpEstimator != null) {
+                    int newWindowSize = bdpEstimator.pingAcknowledged();
+                    if (newWindowSize > 0) {
+                        growReceiveWindows(newWindowSize);
+                    }
+                }
+                return;
+            }
+            CompletableFuture<Void> ack = pingAck.getAndSet(null);
+            if (ack != null) {
+                ack.complete(null);
+            }
+            return;
+        }
+        Http2FrameHeader header = Http2FrameHeader.create(frame.available(),
+                                                          Http2FrameTypes.PING,
+                                                          Http2Flag.PingFlags.create(Http2Flag.ACK),
+                                                          0);
+        writer.write(new Http2FrameData(header, frame), FlowControl.NOOP);
+    }
+
+    private void growReceiveWindows(int newWindowSize) {
+        if (LOGGER.isLoggable(DEBUG)) {
+            LOGGER.log(DEBUG, String.format("[%s] growing receive window from %d to %d bytes",
+                                            channelId,
+                                            streamReceiveWindowSize,
+                                            newWindowSize));
+        }
+        // streams are updated by the server when it receives the settings
+        streamReceiveWindowSize = newWindowSize;
+        streams.values().forEach(stream -> stream.receiveWindow().resize(newWindowSize));
+        Http2Settings settings = Http2Settings.builder()
+                .add(Http2Setting.INITIAL_WINDOW_SIZE, (long) newWindowSize)
+                .build();
+        writer.write(settings.toFrameData(clientSettings, 0, Http2Flag.SettingsFlags.create(0)), FlowControl.NOOP);
+        // connection window is not affected by settings
+        windowUpdate(0, connectionReceiveWindow.resize(newWindowSize));
+    }
+
+    private void goAwayFrame(Http2GoAway goAway) {
+        recvListener.frame(helidonSocket, goAway);
+        if (LOGGER.isLoggable(DEBUG)) {
+            LOGGER.log(DEBUG, String.format("[%s] received go away, last stream: %d, error code: %s, message: %s",
+                                            channelId,
+                                            goAway.lastStreamId(),
+                                            goAway.errorCode(),
+                                            goAway.details()));
+        }
+        draining = true;
+        pool.drain(this);
+        // streams not processed by the server can be safely retried by the caller
+        IllegalStateException refused = new IllegalStateException("Stream refused, server is shutting down connection "
+                                                                          + channelId);
+        streams.forEach((id, stream) -> {
+            if (id > goAway.lastStreamId()) {
+                stream.fail(refused);
+            }
+        });
+        if (activeStreams.get() == 0) {
+            close();
+        }
+    }
+
+    private void windowUpdateFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        Http2WindowUpdate windowUpdate = Http2WindowUpdate.create(frame);
+        recvListener.frame(helidonSocket, windowUpdate);
+        if (frameHeader.streamId() == 0) {
+            if (connectionWindowSize.incrementWindowSize(windowUpdate.windowSizeIncrement())) {
+                throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL, "Connection window size too big");
+            }
+        } else {
+            Http2ClientStream stream = streams.get(frameHeader.streamId());
+            if (stream != null) {
+                stream.windowUpdate(windowUpdate);
+            }
+        }
+    }
+
+    private void rstStreamFrame(Http2FrameHeader frameHeader, BufferData frame) {
+        Http2RstStream rstStream = Http2RstStream.create(frame);
+        recvListener.frame(helidonSocket, rstStream);
+        Http2ClientStream stream = streams.get(frameHeader.streamId());
+        if (stream != null) {
+            stream.rstStream(rstStream);
         }
     }
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2.webclient;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.nima.http2.Http2Headers;
+
+/**
+ * An open HTTP/2 stream of the client, used to exchange data frames in both directions at the same time,
+ * such as for bidirectional streaming protocols (gRPC).
+ * Request data may be written by one thread while another thread reads the response.
+ * <p>
+ * Reads block for at most the provided timeout. When it is exceeded, the stream is cancelled and
+ * an {@link java.io.UncheckedIOException} is thrown.
+ */
+public interface Http2ClientExchange extends AutoCloseable {
+    /**
+     * Identifier of the stream.
+     *
+     * @return stream id
+     */
+    int streamId();
+
+    /**
+     * Write a data frame. Blocks until the data fits into the flow control window of the stream.
+     * Data larger than the maximal frame size of the server is split into multiple frames.
+     *
+     * @param data        data to write
+     * @param endOfStream whether this is the last data of the request
+     * @throws IllegalStateException in case the stream is already closed for sending
+     */
+    void writeData(BufferData data, boolean endOfStream);
+
+    /**
+     * Read response headers, skipping informational responses.
+     * If the response ends with the headers (for example an error without entity),
+     * {@link #endOfStream()} returns {@code true} after this method.
+     *
+     * @param timeout how long to wait for the headers
+     * @return response headers
+     */
+    Http2Headers readHeaders(Duration timeout);
+
+    /**
+     * Read data of the next data frame of the response.
+     *
+     * @param timeout how long to wait for the data
+     * @return next data, or {@code null} if the response is finished
+     */
+    BufferData readData(Duration timeout);
+
+    /**
+     * Whether the whole response was received.
+     *
+     * @return {@code true} if end of stream was received
+     */
+    boolean endOfStream();
+
+    /**
+     * Trailers of the response, available once {@link #readData(java.time.Duration)} returned {@code null}.
+     *
+     * @return trailers, empty if the response is not finished, or has no trailers
+     */
+    Optional<Http2Headers> trailers();
+
+    /**
+     * Cancel the stream (sends {@code RST_STREAM}).
+     */
+    void cancel();
+
+    /**
+     * Close the exchange, cancelling the stream if the response was not fully read.
+     * The stream is released, so another stream can be opened on its connection.
+     */
+    @Override
+    void close();
+}
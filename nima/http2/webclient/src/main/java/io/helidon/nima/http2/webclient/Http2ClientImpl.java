@@ -16,18 +16,26 @@
 
 package io.helidon.nima.http2.webclient;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import io.helidon.common.http.Http;
 import io.helidon.common.uri.UriQueryWriteable;
+import io.helidon.nima.http.media.MediaContext;
+import io.helidon.nima.webclient.ConnectionKey;
 import io.helidon.nima.webclient.LoomClient;
 import io.helidon.nima.webclient.UriHelper;
 
 class Http2ClientImpl extends LoomClient implements Http2Client {
-
-    private boolean priorKnowledge;
+    private final Map<ConnectionKey, Http2ConnectionPool> connectionPools = new ConcurrentHashMap<>();
+    private final Http2ConnectionPool.Config poolConfig;
+    private final MediaContext mediaContext = MediaContext.create();
+    private final boolean priorKnowledge;
 
     Http2ClientImpl(Http2ClientBuilder builder) {
         super(builder);
         this.priorKnowledge = builder.priorKnowledge();
+        this.poolConfig = builder.poolConfig();
     }
 
     @Override
@@ -37,4 +45,20 @@ class Http2ClientImpl extends LoomClient implements Http2Client {
 
         return new ClientRequestImpl(this, executor(), method, helper, priorKnowledge, tls(), query);
     }
+
+    @Override
+    public void close() {
+        connectionPools.values().forEach(Http2ConnectionPool::close);
+        connectionPools.clear();
+    }
+
+    MediaContext mediaContext() {
+        return mediaContext;
+    }
+
+    Http2ConnectionPool connectionPool(ConnectionKey connectionKey) {
+        // this statement locks all threads - must not do anything complicated (just create a new instance)
+        return connectionPools.computeIfAbsent(connectionKey,
+                                               key -> new Http2ConnectionPool(executor(), socketOptions(), key, poolConfig));
+    }
 }
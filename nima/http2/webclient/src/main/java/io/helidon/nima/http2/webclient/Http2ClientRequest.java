@@ -24,7 +24,9 @@ import io.helidon.nima.webclient.ClientRequest;
 public interface Http2ClientRequest extends ClientRequest<Http2ClientRequest, Http2ClientResponse> {
     /**
      * Priority defines a weight between 1 and 256 (inclusive) to prioritize this stream by the server.
-     * Priorities are a suggestion.
+     * Priorities are a suggestion. The weight is sent in a {@code PRIORITY} frame right after the request headers,
+     * the stream does not depend on any other stream. If not configured, the server uses the default weight
+     * ({@code 16}).
      *
      * @param priority priority to configure for this stream (request/response)
      * @return updated request
@@ -39,4 +41,13 @@ public interface Http2ClientRequest extends ClientRequest<Http2ClientRequest, Ht
      * @return updated request
      */
     Http2ClientRequest priorKnowledge(boolean priorKnowledge);
+
+    /**
+     * Open the stream by sending request headers, to write request data and read response data at the same time.
+     * Used by protocols that stream in both directions over a single request, such as gRPC.
+     * The returned exchange must be closed.
+     *
+     * @return open stream
+     */
+    Http2ClientExchange exchange();
 }
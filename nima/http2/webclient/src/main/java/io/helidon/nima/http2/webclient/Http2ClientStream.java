@@ -18,84 +18,322 @@ package io.helidon.nima.http2.webclient;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.helidon.common.buffers.BufferData;
-import io.helidon.common.socket.SocketContext;
-import io.helidon.nima.http.media.ReadableEntityBase;
+import io.helidon.nima.http2.FlowControl;
 import io.helidon.nima.http2.Http2ErrorCode;
 import io.helidon.nima.http2.Http2Flag;
 import io.helidon.nima.http2.Http2FrameData;
 import io.helidon.nima.http2.Http2FrameHeader;
-import io.helidon.nima.http2.Http2FrameListener;
 import io.helidon.nima.http2.Http2FrameType;
 import io.helidon.nima.http2.Http2FrameTypes;
 import io.helidon.nima.http2.Http2Headers;
-import io.helidon.nima.http2.Http2LoggingFrameListener;
+import io.helidon.nima.http2.Http2Priority;
 import io.helidon.nima.http2.Http2RstStream;
-import io.helidon.nima.http2.Http2Settings;
+import io.helidon.nima.http2.Http2Stream;
 import io.helidon.nima.http2.Http2StreamState;
+import io.helidon.nima.http2.Http2WindowUpdate;
+import io.helidon.nima.http2.ReceiveWindow;
+
+/**
+ * Client side of a single HTTP/2 stream.
+ * Frames received by the connection reader are queued, and consumed by the thread that executes the request.
+ */
+class Http2ClientStream implements Http2Stream {
+    // marks the end of received data
+    private static final Object END_OF_STREAM = new Object();
+
+    private final Http2ClientConnection connection;
+    private final Duration readTimeout;
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    private final AtomicBoolean released = new AtomicBoolean();
 
-class Http2ClientStream {
-    private final Http2ClientConnection myConnection;
-    private final SocketContext ctx;
-    private final int streamId;
-    private final Http2FrameListener sendListener = new Http2LoggingFrameListener("cl-send");
-    private final Http2FrameListener recvListener = new Http2LoggingFrameListener("cl-recv");
-    // todo configure
-    private final Http2Settings settings = Http2Settings.create();
     private volatile Http2StreamState state = Http2StreamState.IDLE;
+    private volatile int streamId;
+    private volatile FlowControl flowControl;
+    private volatile ReceiveWindow receiveWindow;
+    private boolean endOfStreamReceived;
+    private int weight;
+    private Http2Headers trailers;
 
-    Http2ClientStream(Http2ClientConnection myConnection, SocketContext ctx, int streamId) {
-        this.myConnection = myConnection;
-        this.ctx = ctx;
-        this.streamId = streamId;
+    Http2ClientStream(Http2ClientConnection connection, Duration readTimeout) {
+        this.connection = connection;
+        this.readTimeout = readTimeout;
     }
 
-    void cancel() {
-        Http2RstStream rstStream = new Http2RstStream(Http2ErrorCode.CANCEL);
-        Http2FrameData frameData = rstStream.toFrameData(settings, streamId, Http2Flag.NoFlags.create());
-        sendListener.frameHeader(ctx, frameData.header());
-        sendListener.frame(ctx, rstStream);
-        write(frameData, false);
+    @Override
+    public void rstStream(Http2RstStream rstStream) {
+        state = Http2StreamState.CLOSED;
+        received.add(new IllegalStateException("Stream " + streamId + " reset by server, error code: "
+                                                       + rstStream.errorCode()));
+    }
+
+    @Override
+    public void windowUpdate(Http2WindowUpdate windowUpdate) {
+        FlowControl flowControl = this.flowControl;
+        if (flowControl != null) {
+            flowControl.incrementStreamWindowSize(windowUpdate.windowSizeIncrement());
+        }
+    }
+
+    @Override
+    public void headers(Http2Headers headers, boolean endOfStream) {
+        received.add(new ReceivedHeaders(headers, endOfStream));
+    }
+
+    @Override
+    public void data(Http2FrameHeader header, BufferData data) {
+        ReceiveWindow receiveWindow = this.receiveWindow;
+        if (receiveWindow != null) {
+            if (!receiveWindow.received(header.length())) {
+                cancel(Http2ErrorCode.FLOW_CONTROL);
+                received.add(new IllegalStateException("Stream " + streamId + " receive window exceeded by server"));
+                return;
+            }
+            // padding is consumed right away
+            int dataLength = data == null ? 0 : data.available();
+            connection.windowUpdate(streamId, receiveWindow.consumed(header.length() - dataLength));
+        }
+        if (data != null && data.available() > 0) {
+            received.add(data);
+        }
+        if (header.flags(Http2FrameTypes.DATA).endOfStream()) {
+            received.add(END_OF_STREAM);
+        }
+    }
+
+    @Override
+    public void priority(Http2Priority http2Priority) {
+        // we do not send any data after the request, priority of responses is up to the server
+    }
+
+    @Override
+    public int streamId() {
+        return streamId;
+    }
+
+    @Override
+    public Http2StreamState streamState() {
+        return state;
     }
 
-    ReadableEntityBase entity() {
-        return null;
+    @Override
+    public FlowControl flowControl() {
+        return flowControl;
     }
 
+    /**
+     * Write request headers, this opens the stream on the connection.
+     *
+     * @param http2Headers headers
+     * @param endOfStream  whether there is no entity
+     */
     void write(Http2Headers http2Headers, boolean endOfStream) {
         this.state = Http2StreamState.checkAndGetState(this.state, Http2FrameType.HEADERS, true, endOfStream, true);
-        //myConnection.writeHeaders(streamId, sendListener, http2Headers, endOfStream);
+        connection.writeHeaders(this, http2Headers, endOfStream);
     }
 
     void writeData(BufferData entityBytes, boolean endOfStream) {
-        // todo split to frames if bigger than max frame size
-        // todo handle flow control
         Http2FrameHeader frameHeader = Http2FrameHeader.create(entityBytes.available(),
                                                                Http2FrameTypes.DATA,
                                                                Http2Flag.DataFlags.create(endOfStream
                                                                                                   ? Http2Flag.END_OF_STREAM
                                                                                                   : 0),
                                                                streamId);
-        sendListener.frameHeader(ctx, frameHeader);
-        sendListener.frame(ctx, entityBytes);
-        write(new Http2FrameData(frameHeader, entityBytes), endOfStream);
+        this.state = Http2StreamState.checkAndGetState(this.state, Http2FrameType.DATA, true, endOfStream, false);
+        connection.writeData(new Http2FrameData(frameHeader, entityBytes), flowControl);
     }
 
+    /**
+     * Read response headers, skipping informational responses.
+     *
+     * @return response headers
+     */
     Http2Headers readHeaders() {
-        return null;
+        return readHeaders(readTimeout);
+    }
+
+    /**
+     * Read response headers, skipping informational responses.
+     *
+     * @param timeout how long to wait for the headers
+     * @return response headers
+     */
+    Http2Headers readHeaders(Duration timeout) {
+        while (true) {
+            Object next = next(timeout);
+            if (next instanceof ReceivedHeaders receivedHeaders) {
+                Http2Headers headers = receivedHeaders.headers();
+                if (headers.status() != null && headers.status().code() < 200) {
+                    continue;
+                }
+                headers.validateResponse();
+                if (receivedHeaders.endOfStream()) {
+                    finished();
+                }
+                return headers;
+            }
+            if (next == END_OF_STREAM) {
+                throw new IllegalStateException("Stream " + streamId + " finished without response headers");
+            }
+        }
+    }
+
+    /**
+     * Read next chunk of the response entity.
+     *
+     * @param estimate ignored, we return data as received in frames
+     * @return next buffer, or {@code null} if the entity was fully read
+     */
+    BufferData readEntity(int estimate) {
+        return readData(readTimeout);
+    }
+
+    /**
+     * Read next data frame of the response.
+     *
+     * @param timeout how long to wait for the data
+     * @return next buffer, or {@code null} if the response was fully read
+     */
+    BufferData readData(Duration timeout) {
+        if (endOfStreamReceived) {
+            return null;
+        }
+        while (true) {
+            Object next = next(timeout);
+            if (next instanceof BufferData data) {
+                // the data was consumed, so the server can send more
+                connection.windowUpdate(streamId, receiveWindow.consumed(data.available()));
+                return data;
+            }
+            if (next == END_OF_STREAM) {
+                finished();
+                return null;
+            }
+            if (next instanceof ReceivedHeaders receivedTrailers && receivedTrailers.endOfStream()) {
+                this.trailers = receivedTrailers.headers();
+                finished();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Trailers received after the response data.
+     *
+     * @return trailers, or {@code null} if the response was not fully read, or had no trailers
+     */
+    Http2Headers trailers() {
+        return trailers;
+    }
+
+    /**
+     * Whether the whole response was received.
+     *
+     * @return {@code true} if end of stream was received
+     */
+    boolean endOfStreamReceived() {
+        return endOfStreamReceived;
+    }
+
+    /**
+     * Cancel the stream if not finished and return it to the connection.
+     */
+    void close() {
+        if (!endOfStreamReceived && state != Http2StreamState.CLOSED) {
+            cancel();
+        }
+        release();
+    }
+
+    void cancel() {
+        cancel(Http2ErrorCode.CANCEL);
+        // wake up a thread waiting for the response
+        received.add(new IllegalStateException("Stream " + streamId + " was cancelled"));
+    }
+
+    /**
+     * Connection failed or was drained before this stream was processed.
+     *
+     * @param reason failure
+     */
+    void fail(RuntimeException reason) {
+        state = Http2StreamState.CLOSED;
+        received.add(reason);
+    }
+
+    void release() {
+        if (released.compareAndSet(false, true)) {
+            connection.release(this);
+        }
+    }
+
+    /**
+     * Weight of this stream sent to the server with the request headers.
+     *
+     * @param weight weight between 1 and 256, {@code 0} to use the default weight of the server
+     */
+    void weight(int weight) {
+        this.weight = weight;
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    void open(int streamId, FlowControl flowControl, ReceiveWindow receiveWindow) {
+        this.streamId = streamId;
+        this.flowControl = flowControl;
+        this.receiveWindow = receiveWindow;
+    }
+
+    ReceiveWindow receiveWindow() {
+        return receiveWindow;
     }
 
     ClientOutputStream outputStream() {
         return new ClientOutputStream();
     }
 
-    private void write(Http2FrameData frameData, boolean endOfStream) {
-        this.state = Http2StreamState.checkAndGetState(this.state,
-                                                       frameData.header().type(),
-                                                       true,
-                                                       endOfStream,
-                                                       false);
+    private void cancel(Http2ErrorCode errorCode) {
+        state = Http2StreamState.CLOSED;
+        if (streamId != 0) {
+            connection.rstStream(streamId, errorCode);
+        }
+    }
+
+    private void finished() {
+        endOfStreamReceived = true;
+        state = Http2StreamState.CLOSED;
+    }
+
+    private Object next(Duration timeout) {
+        Object next;
+        try {
+            next = received.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for response on stream " + streamId, e);
+        }
+        if (next == null) {
+            cancel();
+            release();
+            throw new UncheckedIOException(new IOException("Read timeout on stream " + streamId + " after " + timeout));
+        }
+        if (next instanceof RuntimeException e) {
+            release();
+            throw e;
+        }
+        return next;
+    }
+
+    private record ReceivedHeaders(Http2Headers headers, boolean endOfStream) {
     }
 
     class ClientOutputStream extends OutputStream {
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.http2.webclient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.helidon.common.socket.SocketOptions;
+import io.helidon.nima.webclient.ConnectionKey;
+
+import static java.lang.System.Logger.Level.DEBUG;
+
+/**
+ * Pool of HTTP/2 connections to a single remote endpoint.
+ * <p>
+ * A stream is opened on the least loaded connection (relative to the maximal number of concurrent streams
+ * advertised by the server) without locking. A new connection is opened only when there are fewer connections than
+ * the configured minimum, or when all connections are full. When the maximal number of connections is reached and
+ * all of them are full, callers wait for a stream to be released.
+ * <p>
+ * Connections that received GOAWAY are removed from the pool immediately, and closed once their last stream finishes.
+ * A maintenance task closes connections idle for longer than the idle timeout (keeping the minimal number of
+ * connections), and sends PING on connections that did not receive any frame within the ping interval, closing
+ * those that do not acknowledge it in time. The maintenance task runs while the pool has connections, and is stopped
+ * when the pool is closed.
+ */
+class Http2ConnectionPool {
+    private static final System.Logger LOGGER = System.getLogger(Http2ConnectionPool.class.getName());
+    private static final Http2ClientConnection[] NO_CONNECTIONS = new Http2ClientConnection[0];
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition streamReleased = lock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicBoolean maintenanceRunning = new AtomicBoolean();
+    private final ExecutorService executor;
+    private final SocketOptions socketOptions;
+    private final ConnectionKey connectionKey;
+    private final Config config;
+
+    // copy on write, so streams can be reserved without locking
+    private volatile Http2ClientConnection[] connections = NO_CONNECTIONS;
+    private volatile Future<?> maintenanceTask;
+    private volatile boolean closed;
+    // guarded by lock
+    private int connecting;
+
+    Http2ConnectionPool(ExecutorService executor,
+                        SocketOptions socketOptions,
+                        ConnectionKey connectionKey,
+                        Config config) {
+        this.executor = executor;
+        this.socketOptions = socketOptions;
+        this.connectionKey = connectionKey;
+        this.config = config;
+    }
+
+    /**
+     * Open a new stream on one of the pooled connections.
+     *
+     * @param priorKnowledge whether to use prior knowledge when a new connection is opened
+     * @return a new stream
+     * @throws IllegalStateException in case no stream can be obtained within connect timeout, or the pool is closed
+     */
+    Http2ClientStream newStream(boolean priorKnowledge) {
+        long deadline = System.nanoTime() + socketOptions.connectTimeout().toNanos();
+        while (true) {
+            checkOpen();
+            Http2ClientConnection connection = reserve();
+            if (connection == null) {
+                connection = reserveOrConnect(priorKnowledge, deadline);
+            }
+            if (connection != null) {
+                return connection.stream();
+            }
+        }
+    }
+
+    /**
+     * A stream of the connection was released, or the server allowed more concurrent streams.
+     *
+     * @param connection connection
+     */
+    void released(Http2ClientConnection connection) {
+        // waiting threads register before they check the connections, so the signal cannot be lost
+        if (waiting.get() > 0) {
+            signalWaiting();
+        }
+    }
+
+    /**
+     * Close all connections of this pool and stop its maintenance task.
+     * No new streams can be opened.
+     */
+    void close() {
+        Http2ClientConnection[] current;
+        lock.lock();
+        try {
+            closed = true;
+            current = connections;
+            connections = NO_CONNECTIONS;
+            streamReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Http2ClientConnection connection : current) {
+            connection.close();
+        }
+        Future<?> task = maintenanceTask;
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Remove the connection from this pool, no new streams are opened on it.
+     * Used when the server sent GOAWAY, when the connection failed, or when it was retired.
+     *
+     * @param connection connection to remove
+     */
+    void drain(Http2ClientConnection connection) {
+        lock.lock();
+        try {
+            Http2ClientConnection[] current = connections;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == connection) {
+                    Http2ClientConnection[] updated = new Http2ClientConnection[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    connections = updated;
+                    if (LOGGER.isLoggable(DEBUG)) {
+                        LOGGER.log(DEBUG, "Removed connection " + connection + " from pool for " + connectionKey);
+                    }
+                    break;
+                }
+            }
+            // a new connection may be opened instead
+            streamReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return connections.length;
+    }
+
+    // reserve a stream on the least loaded connection, returns null if a new connection should be opened
+    private Http2ClientConnection reserve() {
+        Http2ClientConnection[] current = connections;
+        if (current.length < config.minConnections()) {
+            return null;
+        }
+        // another thread may have reserved the last stream of the chosen connection, try again
+        for (int attempt = 0; attempt <= current.length; attempt++) {
+            Http2ClientConnection best = null;
+            long bestActive = 0;
+            long bestMax = 1;
+            for (Http2ClientConnection connection : current) {
+                if (connection.draining()) {
+                    continue;
+                }
+                long active = connection.activeStreams();
+                long max = connection.maxConcurrentStreams();
+                if (active >= max) {
+                    continue;
+                }
+                // active / max < bestActive / bestMax
+                if (best == null || active * bestMax < bestActive * max) {
+                    best = connection;
+                    bestActive = active;
+                    bestMax = max;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.tryReserve()) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    private Http2ClientConnection reserveOrConnect(boolean priorKnowledge, long deadline) {
+        lock.lock();
+        try {
+            // registered before reserving, so a stream released after a failed attempt signals this thread
+            waiting.incrementAndGet();
+            try {
+                while (connections.length + connecting >= config.maxConnections()) {
+                    checkOpen();
+                    Http2ClientConnection connection = reserve();
+                    if (connection != null) {
+                        return connection;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("No HTTP/2 stream available for " + connectionKey.host() + ":"
+                                                                + connectionKey.port() + " within "
+                                                                + socketOptions.connectTimeout() + ", all "
+                                                                + config.maxConnections() + " connections are fully used");
+                    }
+                    streamReleased.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an HTTP/2 stream", e);
+            } finally {
+                waiting.decrementAndGet();
+            }
+            checkOpen();
+            // another thread may have opened a connection in the meantime
+            if (connections.length + connecting >= config.minConnections()) {
+                Http2ClientConnection connection = reserve();
+                if (connection != null) {
+                    return connection;
+                }
+            }
+            connecting++;
+        } finally {
+            lock.unlock();
+        }
+
+        Http2ClientConnection connection = null;
+        try {
+            connection = new Http2ClientConnection(this,
+                                                   executor,
+                                                   socketOptions,
+                                                   connectionKey,
+                                                   priorKnowledge,
+                                                   config.maxReceiveWindowSize())
+                    .connect();
+        } finally {
+            lock.lock();
+            try {
+                connecting--;
+                if (connection != null && closed) {
+                    // pool was closed while connecting
+                    connection.close();
+                    connection = null;
+                }
+                if (connection != null) {
+                    Http2ClientConnection[] current = connections;
+                    Http2ClientConnection[] updated = Arrays.copyOf(current, current.length + 1);
+                    updated[current.length] = connection;
+                    connections = updated;
+                }
+                streamReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (connection == null) {
+            return null;
+        }
+        startMaintenance();
+
+        return connection.tryReserve() ? connection : null;
+    }
+
+    private void signalWaiting() {
+        lock.lock();
+        try {
+            streamReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("HTTP/2 connection pool for " + connectionKey.host() + ":"
+                                                    + connectionKey.port() + " is closed");
+        }
+    }
+
+    private void startMaintenance() {
+        if (!closed && maintenanceRunning.compareAndSet(false, true)) {
+            maintenanceTask = executor.submit(this::maintenance);
+            if (closed) {
+                // closed before the task was published
+                maintenanceTask.cancel(true);
+            }
+        }
+    }
+
+    private void maintenance() {
+        Duration interval = config.idleTimeout().compareTo(config.pingInterval()) < 0
+                ? config.idleTimeout()
+                : config.pingInterval();
+        long sleepMillis = Math.max(1, interval.toMillis() / 2);
+        try {
+            do {
+                Thread.sleep(sleepMillis);
+                maintain();
+            } while (connections.length > 0 && !closed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            maintenanceRunning.set(false);
+        }
+        // a connection may have been added after the last check
+        if (connections.length > 0 && !closed) {
+            startMaintenance();
+        }
+    }
+
+    private void maintain() {
+        long now = System.nanoTime();
+        long idleTimeout = config.idleTimeout().toNanos();
+        long pingInterval = config.pingInterval().toNanos();
+        int remaining = connections.length;
+
+        for (Http2ClientConnection connection : connections) {
+            if (connection.closed() || connection.draining()) {
+                drain(connection);
+                remaining--;
+            } else if (connection.activeStreams() == 0
+                    && now - connection.lastUsed() > idleTimeout
+                    && remaining > config.minConnections()) {
+                if (LOGGER.isLoggable(DEBUG)) {
+                    LOGGER.log(DEBUG, "Closing idle connection " + connection);
+                }
+                drain(connection);
+                connection.retire();
+                remaining--;
+            } else if (now - connection.lastFrameReceived() > pingInterval && !connection.ping(config.pingTimeout())) {
+                if (LOGGER.isLoggable(DEBUG)) {
+                    LOGGER.log(DEBUG, "Closing connection " + connection + ", ping not acknowledged within "
+                            + config.pingTimeout());
+                }
+                drain(connection);
+                connection.close();
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * Configuration of a connection pool.
+     *
+     * @param minConnections       minimal number of connections kept open (once opened)
+     * @param maxConnections       maximal number of connections
+     * @param idleTimeout          time after which a connection without active streams is closed
+     * @param pingInterval         time without any received frame after which the connection is checked using PING
+     * @param pingTimeout          how long to wait for PING acknowledgement before closing the connection
+     * @param maxReceiveWindowSize maximal size of receive windows of each connection and its streams
+     */
+    record Config(int minConnections,
+                  int maxConnections,
+                  Duration idleTimeout,
+                  Duration pingInterval,
+                  Duration pingTimeout,
+                  int maxReceiveWindowSize) {
+    }
+}
@@ -29,9 +29,11 @@ import io.helidon.common.http.Http;
 import io.helidon.common.http.Http.Header;
 import io.helidon.common.http.Http.HeaderValues;
 import io.helidon.common.http.HttpPrologue;
+import io.helidon.nima.http2.BdpEstimator;
 import io.helidon.nima.http2.FlowControl;
 import io.helidon.nima.http2.Http2ConnectionWriter;
 import io.helidon.nima.http2.Http2ErrorCode;
+import io.helidon.nima.http2.Http2ExtensiblePriority;
 import io.helidon.nima.http2.Http2Exception;
 import io.helidon.nima.http2.Http2Flag;
 import io.helidon.nima.http2.Http2FrameData;
@@ -51,6 +53,7 @@ import io.helidon.nima.http2.Http2Settings;
 import io.helidon.nima.http2.Http2StreamState;
 import io.helidon.nima.http2.Http2Util;
 import io.helidon.nima.http2.Http2WindowUpdate;
+import io.helidon.nima.http2.ReceiveWindow;
 import io.helidon.nima.http2.WindowSize;
 import io.helidon.nima.webserver.CloseConnectionException;
 import io.helidon.nima.webserver.ConnectionContext;
@@ -83,6 +86,9 @@ public class Http2Connection implements ServerConnection {
             Http2FrameListener.create(List.of(new Http2LoggingFrameListener("recv")));
     private final Http2ConnectionWriter connectionWriter;
     private final WindowSize connectionWindowSize = new WindowSize();
+    private final ReceiveWindow connectionReceiveWindow = ReceiveWindow.create(WindowSize.DEFAULT_WIN_SIZE);
+    // null if receive window tuning is disabled
+    private final BdpEstimator bdpEstimator;
     private final DataReader reader;
 
     private Http2Settings serverSettings = Http2Settings.builder()
@@ -103,9 +109,13 @@ public class Http2Connection implements ServerConnection {
     private int lastStreamId;
     private long maxClientFrameSize = 16_384;
     private int streamInitialWindowSize = WindowSize.DEFAULT_WIN_SIZE;
+    private int streamReceiveWindowSize = WindowSize.DEFAULT_WIN_SIZE;
 
-    Http2Connection(ConnectionContext ctx) {
+    Http2Connection(ConnectionContext ctx, int maxReceiveWindowSize) {
         this.ctx = ctx;
+        this.bdpEstimator = maxReceiveWindowSize > WindowSize.DEFAULT_WIN_SIZE
+                ? BdpEstimator.create(WindowSize.DEFAULT_WIN_SIZE, maxReceiveWindowSize)
+                : null;
 
         this.connectionWriter = new Http2ConnectionWriter(ctx, ctx.dataWriter(), List.of(new Http2LoggingFrameListener("send")));
         this.requestDynamicTable = Http2Headers.DynamicTable.create(serverSettings.value(Http2Setting.HEADER_TABLE_SIZE));
@@ -389,6 +399,7 @@ public class Http2Connection implements ServerConnection {
                 throw new Http2Exception(Http2ErrorCode.PROTOCOL, "Frame size must be between 2^14 and 2^24-1, but is: "
                         + maxClientFrameSize);
             }
+            connectionWriter.maxFrameSize((int) maxClientFrameSize);
 
             // TODO for each
             //        Http2Setting.MAX_CONCURRENT_STREAMS;
@@ -414,7 +425,7 @@ public class Http2Connection implements ServerConnection {
             stream.headers(upgradeHeaders, !hasEntity);
             upgradeHeaders = null;
             ctx.sharedExecutor()
-                    .submit(new StreamRunnable(streams, stream, stream.streamId()));
+                    .submit(new StreamRunnable(streams, connectionWriter, stream, stream.streamId()));
         }
     }
 
@@ -424,8 +435,17 @@ public class Http2Connection implements ServerConnection {
         StreamContext stream = stream(frameHeader.streamId());
         stream.stream().checkDataReceivable();
 
-        // todo we need to have some information about how much data is buffered for a stream
-        // to prevent OOM (use flow control!)
+        // buffered data is limited by stream receive windows, the connection window is replenished right away
+        int length = frameHeader.length();
+        if (!connectionReceiveWindow.received(length)) {
+            throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL, "Connection receive window exceeded");
+        }
+        writeWindowUpdate(connectionReceiveWindow.consumed(length));
+        if (bdpEstimator != null && bdpEstimator.dataReceived(length)) {
+            connectionWriter.write(BdpEstimator.ping().toFrameData(clientSettings, 0, Http2Flag.PingFlags.create(0)),
+                                   FlowControl.NOOP);
+        }
+
         if (frameHeader.flags(Http2FrameTypes.DATA).padded()) {
             BufferData frameData = inProgressFrame();
             int padLength = frameData.read();
@@ -492,6 +512,7 @@ public class Http2Connection implements ServerConnection {
 
         receiveFrameListener.headers(ctx, headers);
         headers.validateRequest();
+        priority(streamId, stream, headers);
         // todo configure path validation
         String path = headers.path();
         Http.Method method = headers.method();
@@ -507,7 +528,7 @@ public class Http2Connection implements ServerConnection {
 
         // we now have all information needed to execute
         ctx.sharedExecutor()
-                .submit(new StreamRunnable(streams, stream, stream.streamId()));
+                .submit(new StreamRunnable(streams, connectionWriter, stream, stream.streamId()));
     }
 
     private void pingFrame() {
@@ -520,7 +541,14 @@ public class Http2Connection implements ServerConnection {
                                      "Received ping with wrong size. Should be 8 bytes, is " + frameHeader.length());
         }
         if (frameHeader.flags(Http2FrameTypes.PING).ack()) {
-            // ignore - ACK for an unsent ping (we do not send pings for now)
+            // we only send pings to estimate bandwidth-delay product
+            BufferData data = inProgressFrame();
+            if (bdpEstimator != null && BdpEstimator.isBdpPing(data)) {
+                int newWindowSize = bdpEstimator.pingAcknowledged();
+                if (newWindowSize > 0) {
+                    growReceiveWindows(newWindowSize);
+                }
+            }
             state = State.READ_FRAME;
         } else {
             ping = Http2Ping.create(inProgressFrame());
@@ -554,12 +582,56 @@ public class Http2Connection implements ServerConnection {
         }
         if (stream.continuationData.isEmpty()) {
             stream.stream().priority(http2Priority);
+            // idle streams may never be opened, and closed streams are never removed from the writer,
+            // priority of an idle stream is applied once its headers are received
+            Http2StreamState streamState = stream.stream().streamState();
+            if (streamState != Http2StreamState.IDLE && streamState != Http2StreamState.CLOSED) {
+                connectionWriter.priority(frameHeader.streamId(), http2Priority);
+            }
             state = State.READ_FRAME;
         } else {
             throw new Http2Exception(Http2ErrorCode.PROTOCOL, "Received priority while processing headers");
         }
     }
 
+    private void priority(int streamId, Http2Stream stream, Http2Headers headers) {
+        // priority from the headers frame (RFC 7540) and from the priority header (RFC 9218)
+        Http2Priority http2Priority = stream.priority();
+        if (http2Priority != null) {
+            connectionWriter.priority(streamId, http2Priority);
+        }
+        headers.httpHeaders()
+                .first(Http2ExtensiblePriority.HEADER_NAME)
+                .ifPresent(it -> connectionWriter.priority(streamId, Http2ExtensiblePriority.create(it)));
+    }
+
+    private void growReceiveWindows(int newWindowSize) {
+        ctx.log(LOGGER, DEBUG, "Growing receive window from %d to %d bytes",
+                streamReceiveWindowSize,
+                newWindowSize);
+        // streams are updated by the client when it receives the settings
+        streamReceiveWindowSize = newWindowSize;
+        for (StreamContext sctx : streams.values()) {
+            sctx.stream().receiveWindow().resize(newWindowSize);
+        }
+        serverSettings = Http2Settings.builder()
+                .add(Http2Setting.ENABLE_PUSH, false)
+                .add(Http2Setting.INITIAL_WINDOW_SIZE, (long) newWindowSize)
+                .build();
+        connectionWriter.write(serverSettings.toFrameData(serverSettings, 0, Http2Flag.SettingsFlags.create(0)),
+                               FlowControl.NOOP);
+        // connection window is not affected by settings
+        writeWindowUpdate(connectionReceiveWindow.resize(newWindowSize));
+    }
+
+    private void writeWindowUpdate(int increment) {
+        if (increment > 0) {
+            Http2WindowUpdate windowUpdate = new Http2WindowUpdate(increment);
+            connectionWriter.write(windowUpdate.toFrameData(clientSettings, 0, Http2Flag.NoFlags.create()),
+                                   FlowControl.NOOP);
+        }
+    }
+
     private void writePingAck() {
         BufferData frame = ping.data();
         Http2FrameHeader header = Http2FrameHeader.create(frame.available(),
@@ -633,7 +705,8 @@ public class Http2Connection implements ServerConnection {
                                                               connectionWriter,
                                                               FlowControl.create(streamId,
                                                                                  streamInitialWindowSize,
-                                                                                 connectionWindowSize)));
+                                                                                 connectionWindowSize),
+                                                              ReceiveWindow.create(streamReceiveWindowSize)));
             streams.put(streamId, streamContext);
         }
 
@@ -679,19 +752,29 @@ public class Http2Connection implements ServerConnection {
 
     private static final class StreamRunnable implements Runnable {
         private final Map<Integer, StreamContext> streams;
+        private final Http2ConnectionWriter connectionWriter;
         private final Http2Stream stream;
         private final int streamId;
 
-        private StreamRunnable(Map<Integer, StreamContext> streams, Http2Stream stream, int streamId) {
+        private StreamRunnable(Map<Integer, StreamContext> streams,
+                               Http2ConnectionWriter connectionWriter,
+                               Http2Stream stream,
+                               int streamId) {
             this.streams = streams;
+            this.connectionWriter = connectionWriter;
             this.stream = stream;
             this.streamId = streamId;
         }
 
         @Override
         public void run() {
-            stream.run();
-            streams.remove(stream.streamId());
+            try {
+                stream.run();
+            } finally {
+                streams.remove(stream.streamId());
+                // the stream may have been reset by the client, or failed before writing its end
+                connectionWriter.streamClosed(streamId);
+            }
         }
     }
 
@@ -17,8 +17,11 @@
 package io.helidon.nima.http2.webserver;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 import io.helidon.common.buffers.BufferData;
+import io.helidon.config.Config;
+import io.helidon.nima.http2.WindowSize;
 import io.helidon.nima.webserver.ConnectionContext;
 import io.helidon.nima.webserver.spi.ServerConnection;
 import io.helidon.nima.webserver.spi.ServerConnectionProvider;
@@ -30,6 +33,61 @@ import static io.helidon.nima.http2.Http2Util.isPreface;
  * {@link java.util.ServiceLoader} provider implementation for HTTP/2 server connection provider.
  */
 public class Http2ConnectionProvider implements ServerConnectionProvider {
+    static final int DEFAULT_MAX_RECEIVE_WINDOW_SIZE = 16 * 1024 * 1024;
+    static final String CONFIG_KEY = "server.connection-providers.http_2";
+
+    private final int maxReceiveWindowSize;
+
+    /**
+     * Create a new instance with default configuration.
+     *
+     * @deprecated to be used solely by {@link java.util.ServiceLoader}
+     */
+    @Deprecated
+    public Http2ConnectionProvider() {
+        this(builder());
+    }
+
+    private Http2ConnectionProvider(Builder builder) {
+        this.maxReceiveWindowSize = builder.maxReceiveWindowSize;
+    }
+
+    /**
+     * Builder to set up this provider.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Read the configured maximal receive window size, shared by this provider and {@link Http2UpgradeProvider}.
+     *
+     * @param consumer consumer of the configured value, not called if not configured
+     */
+    static void configuredMaxReceiveWindowSize(Consumer<Integer> consumer) {
+        Config.create()
+                .get(CONFIG_KEY)
+                .get("max-receive-window-size")
+                .asInt()
+                .ifPresent(consumer);
+    }
+
+    /**
+     * Validate a maximal receive window size.
+     *
+     * @param maxReceiveWindowSize maximal receive window size in bytes
+     * @return the validated size
+     * @throws IllegalArgumentException if the size is smaller than the default window size
+     */
+    static int checkMaxReceiveWindowSize(int maxReceiveWindowSize) {
+        if (maxReceiveWindowSize < WindowSize.DEFAULT_WIN_SIZE) {
+            throw new IllegalArgumentException("Maximal receive window size must be at least "
+                                                       + WindowSize.DEFAULT_WIN_SIZE);
+        }
+        return maxReceiveWindowSize;
+    }
 
     @Override
     public int bytesToIdentifyConnection() {
@@ -57,9 +115,40 @@ public class Http2ConnectionProvider implements ServerConnectionProvider {
 
     @Override
     public ServerConnection connection(ConnectionContext ctx) {
-        Http2Connection result = new Http2Connection(ctx);
+        Http2Connection result = new Http2Connection(ctx, maxReceiveWindowSize);
         result.expectPreface();
 
         return result;
     }
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.http2.webserver.Http2ConnectionProvider}.
+     */
+    public static class Builder implements io.helidon.common.Builder<Builder, Http2ConnectionProvider> {
+        private int maxReceiveWindowSize = DEFAULT_MAX_RECEIVE_WINDOW_SIZE;
+
+        private Builder() {
+            configuredMaxReceiveWindowSize(this::maxReceiveWindowSize);
+        }
+
+        @Override
+        public Http2ConnectionProvider build() {
+            return new Http2ConnectionProvider(this);
+        }
+
+        /**
+         * Maximal size of receive windows of a connection and of its streams.
+         * Windows start at the default size of 65,535 bytes, and grow based on estimated bandwidth-delay product
+         * of the connection, so clients uploading over high latency links are not limited by flow control.
+         * Setting this to {@code 65535} disables the window tuning.
+         * Defaults to 16 MiB.
+         *
+         * @param maxReceiveWindowSize maximal receive window size in bytes
+         * @return updated builder
+         */
+        public Builder maxReceiveWindowSize(int maxReceiveWindowSize) {
+            this.maxReceiveWindowSize = checkMaxReceiveWindowSize(maxReceiveWindowSize);
+            return this;
+        }
+    }
 }
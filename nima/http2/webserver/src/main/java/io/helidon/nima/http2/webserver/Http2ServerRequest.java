@@ -16,6 +16,7 @@
 
 package io.helidon.nima.http2.webserver;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import io.helidon.common.LazyValue;
@@ -51,6 +52,7 @@ class Http2ServerRequest implements RoutingRequest {
 
     private HttpPrologue prologue;
     private RoutedPath path;
+    private String matchingPattern;
     private WritableHeaders<?> writable;
     private Context context;
 
@@ -157,6 +159,17 @@ class Http2ServerRequest implements RoutingRequest {
         return this;
     }
 
+    @Override
+    public Http2ServerRequest matchingPattern(String pattern) {
+        this.matchingPattern = pattern;
+        return this;
+    }
+
+    @Override
+    public Optional<String> matchingPattern() {
+        return Optional.ofNullable(matchingPattern);
+    }
+
     @Override
     public RoutingRequest prologue(HttpPrologue newPrologue) {
         this.prologue = newPrologue;
@@ -89,7 +89,7 @@ class Http2ServerResponse extends ServerResponseBase<Http2ServerResponse> {
                                           true,
                                           false,
                                           String.valueOf(bytes.length)));
-        headers.setIfAbsent(Header.create(Header.DATE, true, false, Http.DateTime.rfc1123String()));
+        headers.setIfAbsent(Http.DateTime.header());
 
         Http2Headers http2Headers = Http2Headers.create(headers);
         http2Headers.status(status());
@@ -248,7 +248,7 @@ class Http2ServerResponse extends ServerResponseBase<Http2ServerResponse> {
                                           String.valueOf(firstBuffer.available())));
                 contentLength = firstBuffer.available();
             }
-            headers.setIfAbsent(Header.create(Header.DATE, true, false, Http.DateTime.rfc1123String()));
+            headers.setIfAbsent(Http.DateTime.header());
 
             Http2Headers http2Headers = Http2Headers.create(headers);
             http2Headers.status(status);
@@ -278,7 +278,7 @@ class Http2ServerResponse extends ServerResponseBase<Http2ServerResponse> {
         }
 
         private void sendHeadersAndPrepare() {
-            headers.setIfAbsent(Header.create(Header.DATE, true, false, Http.DateTime.rfc1123String()));
+            headers.setIfAbsent(Http.DateTime.header());
 
             Http2Headers http2Headers = Http2Headers.create(headers);
             http2Headers.validateResponse();
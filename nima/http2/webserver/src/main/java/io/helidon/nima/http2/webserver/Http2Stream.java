@@ -19,12 +19,14 @@ package io.helidon.nima.http2.webserver;
 import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.ServiceLoader;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import io.helidon.common.HelidonServiceLoader;
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.http.DirectHandler;
 import io.helidon.common.http.Headers;
+import io.helidon.common.http.Http;
 import io.helidon.common.http.Http.Header;
 import io.helidon.common.http.HttpPrologue;
 import io.helidon.common.http.RequestException;
@@ -45,11 +47,14 @@ import io.helidon.nima.http2.Http2Settings;
 import io.helidon.nima.http2.Http2StreamState;
 import io.helidon.nima.http2.Http2StreamWriter;
 import io.helidon.nima.http2.Http2WindowUpdate;
+import io.helidon.nima.http2.ReceiveWindow;
 import io.helidon.nima.http2.webserver.spi.Http2SubProtocolProvider;
 import io.helidon.nima.http2.webserver.spi.SubProtocolResult;
 import io.helidon.nima.webserver.CloseConnectionException;
 import io.helidon.nima.webserver.ConnectionContext;
+import io.helidon.nima.webserver.KeyPerformanceIndicatorSupport;
 import io.helidon.nima.webserver.Router;
+import io.helidon.nima.webserver.http.DirectTransportRequest;
 import io.helidon.nima.webserver.http.HttpRouting;
 
 /**
@@ -74,7 +79,9 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
     private final Http2Settings clientSettings;
     private final Http2StreamWriter writer;
     private final Router router;
-    private final ArrayBlockingQueue<DataFrame> inboundData = new ArrayBlockingQueue<>(32);
+    private final ReceiveWindow receiveWindow;
+    // bounded by the receive window
+    private final BlockingQueue<DataFrame> inboundData = new LinkedBlockingQueue<>();
     private boolean wasLastDataFrame = false;
     private volatile Http2Headers headers;
     private volatile Http2Priority priority;
@@ -95,6 +102,7 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
      * @param clientSettings client settings
      * @param writer         writer
      * @param flowControl    flow control
+     * @param receiveWindow  receive window of this stream
      */
     public Http2Stream(ConnectionContext ctx,
                        HttpRouting routing,
@@ -102,7 +110,8 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
                        Http2Settings serverSettings,
                        Http2Settings clientSettings,
                        Http2StreamWriter writer,
-                       FlowControl flowControl) {
+                       FlowControl flowControl,
+                       ReceiveWindow receiveWindow) {
         this.ctx = ctx;
         this.routing = routing;
         this.streamId = streamId;
@@ -111,6 +120,7 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
         this.writer = writer;
         this.router = ctx.router();
         this.flowControl = flowControl;
+        this.receiveWindow = receiveWindow;
     }
 
     /**
@@ -210,7 +220,12 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
 
     @Override
     public void data(Http2FrameHeader header, BufferData data) {
-        // todo check number of queued items and modify flow control if we seem to be collecting messages
+        if (!receiveWindow.received(header.length())) {
+            state = Http2StreamState.CLOSED;
+            Http2RstStream rst = new Http2RstStream(Http2ErrorCode.FLOW_CONTROL);
+            writer.write(rst.toFrameData(clientSettings, streamId, Http2Flag.NoFlags.create()), flowControl);
+            return;
+        }
         if (expectedLength != -1 && expectedLength < header.length()) {
             state = Http2StreamState.CLOSED;
             Http2RstStream rst = new Http2RstStream(Http2ErrorCode.PROTOCOL);
@@ -236,6 +251,15 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
         this.priority = http2Priority;
     }
 
+    /**
+     * Priority of this stream as received in headers or priority frame.
+     *
+     * @return priority or {@code null} if none was received
+     */
+    Http2Priority priority() {
+        return priority;
+    }
+
     @Override
     public int streamId() {
         return streamId;
@@ -317,10 +341,21 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
 
         if (frame.header().flags(Http2FrameTypes.DATA).endOfStream()) {
             wasLastDataFrame = true;
+        } else {
+            consumed(frame);
         }
         return frame.data();
     }
 
+    // the client can send more data on this stream
+    private void consumed(DataFrame frame) {
+        int increment = receiveWindow.consumed(frame.header().length());
+        if (increment > 0 && state != Http2StreamState.CLOSED) {
+            Http2WindowUpdate windowUpdate = new Http2WindowUpdate(increment);
+            writer.write(windowUpdate.toFrameData(clientSettings, streamId, Http2Flag.NoFlags.create()), FlowControl.NOOP);
+        }
+    }
+
     private void handle() {
         Headers httpHeaders = headers.httpHeaders();
         if (httpHeaders.contains(Header.CONTENT_LENGTH)) {
@@ -369,11 +404,23 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
                                                                    decoder,
                                                                    streamId,
                                                                    this::readEntityFromPipeline);
+            KeyPerformanceIndicatorSupport.AdmissionControl admissionControl = ctx.admissionControl();
+            if (!admissionControl.tryAcquireRequest()) {
+                this.state = Http2StreamState.CLOSED;
+                throw RequestException.builder()
+                        .type(DirectHandler.EventType.OTHER)
+                        .status(Http.Status.SERVICE_UNAVAILABLE_503)
+                        .request(DirectTransportRequest.create(prologue, httpHeaders))
+                        .message("Server overloaded")
+                        .build();
+            }
+            long admitted = System.nanoTime();
             Http2ServerResponse response = new Http2ServerResponse(ctx, request, writer, streamId, flowControl);
             try {
                 routing.route(ctx, request, response);
             } finally {
                 this.state = Http2StreamState.CLOSED;
+                admissionControl.requestCompleted(admitted);
             }
         } else {
             subProtocolHandler.init();
@@ -388,9 +435,22 @@ public class Http2Stream implements Runnable, io.helidon.nima.http2.Http2Stream
                 }
                 subProtocolHandler.data(frame.header, frame.data);
                 this.state = subProtocolHandler.streamState();
+                if (!frame.header().flags(Http2FrameTypes.DATA).endOfStream()) {
+                    consumed(frame);
+                }
             }
         }
     }
 
+    /**
+     * Receive window of this stream.
+     * This method is called from connection thread.
+     *
+     * @return receive window
+     */
+    ReceiveWindow receiveWindow() {
+        return receiveWindow;
+    }
+
     private record DataFrame(Http2FrameHeader header, BufferData data) { }
 }
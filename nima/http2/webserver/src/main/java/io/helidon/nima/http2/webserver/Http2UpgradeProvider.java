@@ -43,6 +43,31 @@ public class Http2UpgradeProvider implements Http1UpgradeProvider {
     private static final HeaderName HTTP2_SETTINGS_HEADER_NAME = Header.create("HTTP2-Settings");
     private static final Base64.Decoder BASE_64_DECODER = Base64.getDecoder();
 
+    private final int maxReceiveWindowSize;
+
+    /**
+     * Create a new instance with default configuration.
+     *
+     * @deprecated to be used solely by {@link java.util.ServiceLoader}
+     */
+    @Deprecated
+    public Http2UpgradeProvider() {
+        this(builder());
+    }
+
+    private Http2UpgradeProvider(Builder builder) {
+        this.maxReceiveWindowSize = builder.maxReceiveWindowSize;
+    }
+
+    /**
+     * Builder to set up this provider.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     @Override
     public String supportedProtocol() {
         return "h2c";
@@ -52,7 +77,7 @@ public class Http2UpgradeProvider implements Http1UpgradeProvider {
     public ServerConnection upgrade(ConnectionContext ctx,
                                     HttpPrologue prologue,
                                     WritableHeaders<?> headers) {
-        Http2Connection connection = new Http2Connection(ctx);
+        Http2Connection connection = new Http2Connection(ctx, maxReceiveWindowSize);
         if (headers.contains(HTTP2_SETTINGS_HEADER_NAME)) {
             connection.clientSettings(Http2Settings.create(BufferData.create(BASE_64_DECODER.decode(headers.get(
                     HTTP2_SETTINGS_HEADER_NAME).value().getBytes(StandardCharsets.US_ASCII)))));
@@ -80,4 +105,32 @@ public class Http2UpgradeProvider implements Http1UpgradeProvider {
         dataWriter.write(BufferData.create(SWITCHING_PROTOCOLS_BYTES));
         return connection;
     }
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.http2.webserver.Http2UpgradeProvider}.
+     */
+    public static class Builder implements io.helidon.common.Builder<Builder, Http2UpgradeProvider> {
+        private int maxReceiveWindowSize = Http2ConnectionProvider.DEFAULT_MAX_RECEIVE_WINDOW_SIZE;
+
+        private Builder() {
+            Http2ConnectionProvider.configuredMaxReceiveWindowSize(this::maxReceiveWindowSize);
+        }
+
+        @Override
+        public Http2UpgradeProvider build() {
+            return new Http2UpgradeProvider(this);
+        }
+
+        /**
+         * Maximal size of receive windows of an upgraded connection and of its streams.
+         *
+         * @param maxReceiveWindowSize maximal receive window size in bytes
+         * @return updated builder
+         * @see io.helidon.nima.http2.webserver.Http2ConnectionProvider.Builder#maxReceiveWindowSize(int)
+         */
+        public Builder maxReceiveWindowSize(int maxReceiveWindowSize) {
+            this.maxReceiveWindowSize = Http2ConnectionProvider.checkMaxReceiveWindowSize(maxReceiveWindowSize);
+            return this;
+        }
+    }
 }
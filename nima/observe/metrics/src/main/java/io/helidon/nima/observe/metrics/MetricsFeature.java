@@ -15,12 +15,17 @@
  */
 package io.helidon.nima.observe.metrics;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import io.helidon.common.LazyValue;
 import io.helidon.common.http.Http;
+import io.helidon.common.http.HttpException;
 import io.helidon.common.media.type.MediaType;
 import io.helidon.common.media.type.MediaTypes;
 import io.helidon.config.Config;
@@ -30,7 +35,7 @@ import io.helidon.metrics.api.Registry;
 import io.helidon.metrics.api.RegistryFactory;
 import io.helidon.metrics.api.SystemTagsManager;
 import io.helidon.metrics.serviceapi.JsonFormat;
-import io.helidon.metrics.serviceapi.PrometheusFormat;
+import io.helidon.metrics.serviceapi.PrometheusWriter;
 import io.helidon.nima.servicecommon.HelidonFeatureSupport;
 import io.helidon.nima.webserver.KeyPerformanceIndicatorSupport;
 import io.helidon.nima.webserver.http.Handler;
@@ -70,8 +75,17 @@ import org.eclipse.microprofile.metrics.MetricRegistry;
  * <tr><td>helidon.metrics.base.${metricName}.enabled</td><td>true</td><td>Can
  * control which base metrics are exposed, set to false to disable a base
  * metric</td></tr>
+ * <tr><td>gzip</td><td>false</td><td>Whether to compress the Prometheus and OpenMetrics
+ * responses when the client accepts gzip</td></tr>
+ * <tr><td>route-metrics.enabled</td><td>true</td><td>Whether to record request rate, errors and duration
+ * of each route (vendor metrics {@code requests.route} and {@code requests.route.errors})</td></tr>
+ * <tr><td>route-metrics.max-series</td><td>1000</td><td>Maximal number of distinct combinations of route,
+ * method and status class; requests of further combinations are recorded with {@code overflow} tags</td></tr>
  * </table>
  * <p>
+ * Metrics are provided as JSON, in the Prometheus text format, or in the OpenMetrics text format,
+ * depending on the {@code Accept} header of the request.
+ * <p>
  * The application metrics registry is then available as follows:
  * <pre>{@code
  *  req.context().get(MetricRegistry.class).ifPresent(reg -> reg.counter("myCounter").inc());
@@ -82,15 +96,28 @@ public class MetricsFeature extends HelidonFeatureSupport {
     private static final JsonBuilderFactory JSON = Json.createBuilderFactory(Collections.emptyMap());
     private static final Handler DISABLED_ENDPOINT_HANDLER = (req, res) -> res.status(Http.Status.NOT_FOUND_404)
             .send("Metrics are disabled");
+    private static final MediaType APPLICATION_OPENMETRICS = MediaTypes.create("application", "openmetrics-text");
+    private static final Http.HeaderValue CONTENT_ENCODING_GZIP = Http.Header.createCached(Http.Header.CONTENT_ENCODING,
+                                                                                           "gzip");
+    private static final Http.HeaderValue VARY_ACCEPT_ENCODING = Http.Header.createCached(Http.Header.VARY,
+                                                                                           "Accept-Encoding");
 
     private final MetricsSettings metricsSettings;
     private final RegistryFactory registryFactory;
+    private final PrometheusWriter prometheusWriter = PrometheusWriter.create(PrometheusWriter.Format.PROMETHEUS);
+    private final PrometheusWriter openMetricsWriter = PrometheusWriter.create(PrometheusWriter.Format.OPENMETRICS);
+    private final boolean gzip;
+    private final boolean routeMetrics;
+    private final int routeMetricsMaxSeries;
 
     private MetricsFeature(Builder builder) {
         super(LOGGER, builder, "Metrics");
 
         this.registryFactory = builder.registryFactory();
         this.metricsSettings = builder.metricsSettings();
+        this.gzip = builder.gzip;
+        this.routeMetrics = builder.routeMetrics;
+        this.routeMetricsMaxSeries = builder.routeMetricsMaxSeries;
         SystemTagsManager.create(metricsSettings);
     }
 
@@ -151,18 +178,24 @@ public class MetricsFeature extends HelidonFeatureSupport {
                 KeyPerformanceIndicatorMetricsImpls.get(metricPrefix,
                                                         metricsSettings
                                                                 .keyPerformanceIndicatorSettings());
+        RouteMetrics routes = routeMetrics && registryFactory.enabled()
+                ? RouteMetrics.create(registryFactory.getRegistry(MetricRegistry.Type.VENDOR), routeMetricsMaxSeries)
+                : null;
 
         rules.addFilter((chain, req, res) -> {
             KeyPerformanceIndicatorSupport.Context kpiContext = kpiContext(req);
             PostRequestMetricsSupport prms = PostRequestMetricsSupport.create();
             req.context().register(prms);
 
+            long startNanos = System.nanoTime();
             kpiContext.requestHandlingStarted(kpiMetrics);
             try {
                 chain.proceed();
                 postRequestProcessing(prms, req, res, null, kpiContext);
+                recordRoute(routes, req, res, null, startNanos);
             } catch (Exception e) {
                 postRequestProcessing(prms, req, res, e, kpiContext);
+                recordRoute(routes, req, res, e, startNanos);
             }
         });
     }
@@ -186,7 +219,7 @@ public class MetricsFeature extends HelidonFeatureSupport {
         configureVendorMetrics(defaultRouting);
     }
 
-    private static void getAll(ServerRequest req, ServerResponse res, Registry registry) {
+    private void getAll(ServerRequest req, ServerResponse res, Registry registry) {
         res.header(Http.HeaderValues.CACHE_NO_CACHE);
         if (registry.empty()) {
             res.status(Http.Status.NO_CONTENT_204);
@@ -198,17 +231,18 @@ public class MetricsFeature extends HelidonFeatureSupport {
 
         if (mediaType == MediaTypes.APPLICATION_JSON) {
             sendJson(res, JsonFormat.jsonData(registry));
-        } else if (mediaType == MediaTypes.TEXT_PLAIN) {
-            res.send(PrometheusFormat.prometheusData(registry));
+        } else if (mediaType == MediaTypes.TEXT_PLAIN || mediaType == APPLICATION_OPENMETRICS) {
+            sendText(req, res, mediaType, out -> writer(mediaType).write(out, registry));
         } else {
             res.status(Http.Status.NOT_ACCEPTABLE_406);
             res.send();
         }
     }
 
+    // text/plain is the first choice, so it is used when the client does not send Accept
     private static MediaType bestAccepted(ServerRequest req) {
         return req.headers()
-                .bestAccepted(MediaTypes.TEXT_PLAIN, MediaTypes.APPLICATION_JSON)
+                .bestAccepted(MediaTypes.TEXT_PLAIN, MediaTypes.APPLICATION_JSON, APPLICATION_OPENMETRICS)
                 .orElse(null);
     }
 
@@ -216,6 +250,45 @@ public class MetricsFeature extends HelidonFeatureSupport {
         res.send(object);
     }
 
+    private static boolean acceptsGzip(ServerRequest req) {
+        if (!req.headers().contains(Http.Header.ACCEPT_ENCODING)) {
+            return false;
+        }
+        for (String value : req.headers().get(Http.Header.ACCEPT_ENCODING).allValues(true)) {
+            int index = value.indexOf(';');
+            String encoding = (index == -1 ? value : value.substring(0, index)).trim();
+            if (encoding.equalsIgnoreCase("gzip")) {
+                // gzip;q=0 means the client does not accept it
+                return index == -1 || !value.substring(index + 1).replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private PrometheusWriter writer(MediaType mediaType) {
+        return mediaType == APPLICATION_OPENMETRICS ? openMetricsWriter : prometheusWriter;
+    }
+
+    // writes the text formats directly to the response, without creating the whole entity in memory
+    private void sendText(ServerRequest req, ServerResponse res, MediaType mediaType, TextWriter entity) {
+        res.header(Http.Header.CONTENT_TYPE, writer(mediaType).format().contentType());
+        // explicit content encoding header disables content encoding of the server
+        boolean compress = false;
+        if (gzip) {
+            // the response depends on the accepted encodings, so caches must not share it between clients
+            res.header(VARY_ACCEPT_ENCODING);
+            compress = acceptsGzip(req);
+        }
+        if (compress) {
+            res.header(CONTENT_ENCODING_GZIP);
+        }
+        try (OutputStream out = compress ? new GZIPOutputStream(res.outputStream()) : res.outputStream()) {
+            entity.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static KeyPerformanceIndicatorSupport.Context kpiContext(ServerRequest request) {
         return request.context()
                 .get(KeyPerformanceIndicatorSupport.Context.class)
@@ -252,8 +325,8 @@ public class MetricsFeature extends HelidonFeatureSupport {
                     MediaType mediaType = bestAccepted(req);
                     if (mediaType == MediaTypes.APPLICATION_JSON) {
                         sendJson(res, JsonFormat.jsonDataByName(registry, metricName));
-                    } else if (mediaType == MediaTypes.TEXT_PLAIN) {
-                        res.send(PrometheusFormat.prometheusDataByName(registry, metricName));
+                    } else if (mediaType == MediaTypes.TEXT_PLAIN || mediaType == APPLICATION_OPENMETRICS) {
+                        sendText(req, res, mediaType, out -> writer(mediaType).write(out, registry, metricName));
                     } else {
                         res.status(Http.Status.NOT_ACCEPTABLE_406);
                         res.send();
@@ -290,13 +363,36 @@ public class MetricsFeature extends HelidonFeatureSupport {
         prms.runTasks(request, response, throwable);
     }
 
+    // the route pattern is known once the request is routed
+    private static void recordRoute(RouteMetrics routes,
+                                    ServerRequest request,
+                                    ServerResponse response,
+                                    Throwable throwable,
+                                    long startNanos) {
+        if (routes == null) {
+            return;
+        }
+        int status;
+        if (throwable == null) {
+            status = response.status().code();
+        } else if (throwable instanceof HttpException httpException) {
+            status = httpException.status().code();
+        } else {
+            status = Http.Status.INTERNAL_SERVER_ERROR_500.code();
+        }
+        routes.record(request.matchingPattern().orElse(null),
+                      request.prologue().method(),
+                      status,
+                      System.nanoTime() - startNanos);
+    }
+
     private void getMultiple(ServerRequest req, ServerResponse res, Registry... registries) {
         MediaType mediaType = bestAccepted(req);
         res.header(Http.HeaderValues.CACHE_NO_CACHE);
         if (mediaType == MediaTypes.APPLICATION_JSON) {
             sendJson(res, JsonFormat.jsonData(registries));
-        } else if (mediaType == MediaTypes.TEXT_PLAIN) {
-            res.send(PrometheusFormat.prometheusData(registries));
+        } else if (mediaType == MediaTypes.TEXT_PLAIN || mediaType == APPLICATION_OPENMETRICS) {
+            sendText(req, res, mediaType, out -> writer(mediaType).write(out, registries));
         } else {
             res.status(Http.Status.NOT_ACCEPTABLE_406);
             res.send();
@@ -348,12 +444,20 @@ public class MetricsFeature extends HelidonFeatureSupport {
                         ));
     }
 
+    @FunctionalInterface
+    private interface TextWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
     /**
      * A fluent API builder to build instances of {@link MetricsFeature}.
      */
     public static final class Builder extends HelidonFeatureSupport.Builder<Builder, MetricsFeature> {
         private LazyValue<RegistryFactory> registryFactory;
         private MetricsSettings.Builder metricsSettingsBuilder = MetricsSettings.builder();
+        private boolean gzip;
+        private boolean routeMetrics = true;
+        private int routeMetricsMaxSeries = 1000;
 
         private Builder() {
             super("/metrics");
@@ -378,6 +482,54 @@ public class MetricsFeature extends HelidonFeatureSupport {
         public Builder config(Config config) {
             super.config(config);
             metricsSettingsBuilder.config(config);
+            config.get("gzip").asBoolean().ifPresent(this::gzip);
+            config.get("route-metrics.enabled").asBoolean().ifPresent(this::routeMetrics);
+            config.get("route-metrics.max-series").asInt().ifPresent(this::routeMetricsMaxSeries);
+            return this;
+        }
+
+        /**
+         * Whether to record request rate, errors and duration of each route in the vendor registry.
+         * Requests are recorded by a timer {@code requests.route} and a counter of server errors
+         * {@code requests.route.errors}, tagged by the path pattern of the matched route (such as {@code /greet/{name}}),
+         * HTTP method, and for the timer status class (such as {@code 2xx}).
+         *
+         * @param routeMetrics whether to record route metrics, defaults to {@code true}
+         * @return updated builder
+         */
+        public Builder routeMetrics(boolean routeMetrics) {
+            this.routeMetrics = routeMetrics;
+            return this;
+        }
+
+        /**
+         * Maximal number of distinct combinations of route, method and status class recorded by route metrics.
+         * Requests of further combinations are recorded with route and method tags set to {@code overflow},
+         * so a large number of routes or unexpected methods cannot create an unbounded number of metrics.
+         *
+         * @param maxSeries maximal number of series, defaults to {@code 1000}
+         * @return updated builder
+         * @see #routeMetrics(boolean)
+         */
+        public Builder routeMetricsMaxSeries(int maxSeries) {
+            if (maxSeries < 0) {
+                throw new IllegalArgumentException("Maximal number of route metrics series must not be negative: "
+                                                           + maxSeries);
+            }
+            this.routeMetricsMaxSeries = maxSeries;
+            return this;
+        }
+
+        /**
+         * Whether to compress responses in the Prometheus and OpenMetrics text formats using gzip
+         * when the client accepts it, even if content encoding is not configured for the server.
+         * Scrapes of large registries compress well, Prometheus accepts gzip by default.
+         *
+         * @param gzip whether to compress the text formats, defaults to {@code false}
+         * @return updated builder
+         */
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
             return this;
         }
 
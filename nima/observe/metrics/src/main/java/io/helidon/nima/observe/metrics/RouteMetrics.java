@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.observe.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.helidon.common.http.Http;
+import io.helidon.metrics.api.MetricHandle;
+import io.helidon.metrics.api.Registry;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * Request rate, errors and duration of each route, tagged by the path pattern of the route, HTTP method and status class.
+ * <p>
+ * Metrics of each combination of tags are bound once and cached, so recording a request only does lock-free lookups
+ * and updates of the metrics. The number of distinct tag combinations is limited; once the limit is reached, requests
+ * of new combinations are recorded with route and method tags set to {@value #OVERFLOW}.
+ */
+class RouteMetrics {
+    /**
+     * Name of the timer of requests of a route.
+     */
+    static final String REQUESTS_NAME = "requests.route";
+
+    /**
+     * Name of the counter of requests of a route that failed with a server error.
+     */
+    static final String ERRORS_NAME = "requests.route.errors";
+
+    /**
+     * Route tag of requests that were not routed to a route with a path pattern, such as {@code 404} responses.
+     */
+    static final String UNMATCHED = "unmatched";
+
+    /**
+     * Route and method tag of requests recorded after the limit of distinct tag combinations is reached.
+     */
+    static final String OVERFLOW = "overflow";
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final int SERVER_ERROR = 4;
+
+    private static final Metadata REQUESTS_METADATA = Metadata.builder()
+            .withName(REQUESTS_NAME)
+            .withDisplayName("Requests of a route")
+            .withDescription("Duration of requests by route path pattern, HTTP method and status class")
+            .withType(MetricType.TIMER)
+            .withUnit(MetricUnits.NANOSECONDS)
+            .build();
+    private static final Metadata ERRORS_METADATA = Metadata.builder()
+            .withName(ERRORS_NAME)
+            .withDisplayName("Failed requests of a route")
+            .withDescription("Number of requests that failed with a server error by route path pattern and HTTP method")
+            .withType(MetricType.COUNTER)
+            .withUnit(MetricUnits.NONE)
+            .build();
+
+    private final Registry registry;
+    private final int maxSeries;
+    private final AtomicInteger series = new AtomicInteger();
+    private final Map<String, Map<Http.Method, AtomicReferenceArray<Series>>> routes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Series> overflow = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+
+    private RouteMetrics(Registry registry, int maxSeries) {
+        this.registry = registry;
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * Create route metrics registered in the provided registry.
+     *
+     * @param registry  registry to register the metrics in
+     * @param maxSeries maximal number of distinct combinations of route, method and status class
+     * @return new route metrics
+     */
+    static RouteMetrics create(Registry registry, int maxSeries) {
+        return new RouteMetrics(registry, maxSeries);
+    }
+
+    /**
+     * Record a completed request.
+     *
+     * @param route         path pattern of the route, or {@code null} if not routed to a route with a pattern
+     * @param method        HTTP method of the request
+     * @param status        status code of the response
+     * @param durationNanos duration of the request in nanoseconds
+     */
+    void record(String route, Http.Method method, int status, long durationNanos) {
+        int statusClass = Math.min(Math.max(status / 100 - 1, 0), STATUS_CLASSES.length - 1);
+        Series series = series(route == null ? UNMATCHED : route, method, statusClass);
+        series.requests.get().update(Duration.ofNanos(durationNanos));
+        if (series.errors != null) {
+            series.errors.get().inc();
+        }
+    }
+
+    /**
+     * Number of distinct combinations of route, method and status class recorded, excluding the overflow.
+     *
+     * @return number of series
+     */
+    int series() {
+        return series.get();
+    }
+
+    private Series series(String route, Http.Method method, int statusClass) {
+        Map<Http.Method, AtomicReferenceArray<Series>> methods = routes.get(route);
+        AtomicReferenceArray<Series> statuses = methods == null ? null : methods.get(method);
+        if (statuses != null) {
+            Series existing = statuses.get(statusClass);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        // first request of this combination, reserve a slot so concurrent requests cannot exceed the limit
+        if (series.incrementAndGet() > maxSeries) {
+            series.decrementAndGet();
+            return overflowSeries(statusClass);
+        }
+        if (statuses == null) {
+            statuses = routes.computeIfAbsent(route, it -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, it -> new AtomicReferenceArray<>(STATUS_CLASSES.length));
+        }
+        Series created = new Series(registry, route, method.text(), statusClass);
+        if (statuses.compareAndSet(statusClass, null, created)) {
+            return created;
+        }
+        // another thread registered it, metrics are the same instances
+        series.decrementAndGet();
+        return statuses.get(statusClass);
+    }
+
+    private Series overflowSeries(int statusClass) {
+        Series existing = overflow.get(statusClass);
+        if (existing != null) {
+            return existing;
+        }
+        overflow.compareAndSet(statusClass, null, new Series(registry, OVERFLOW, OVERFLOW, statusClass));
+        return overflow.get(statusClass);
+    }
+
+    private static final class Series {
+        private final MetricHandle<Timer> requests;
+        // only for server errors
+        private final MetricHandle<Counter> errors;
+
+        private Series(Registry registry, String route, String method, int statusClass) {
+            Tag routeTag = new Tag("route", route);
+            Tag methodTag = new Tag("method", method);
+            this.requests = registry.handle(Timer.class,
+                                            REQUESTS_METADATA,
+                                            routeTag,
+                                            methodTag,
+                                            new Tag("status", STATUS_CLASSES[statusClass]));
+            this.errors = statusClass == SERVER_ERROR
+                    ? registry.handle(Counter.class, ERRORS_METADATA, routeTag, methodTag)
+                    : null;
+        }
+    }
+}
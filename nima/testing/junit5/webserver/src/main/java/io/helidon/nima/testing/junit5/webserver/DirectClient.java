@@ -25,6 +25,7 @@ import java.util.Optional;
 import io.helidon.common.http.Http;
 import io.helidon.common.socket.PeerInfo;
 import io.helidon.nima.webclient.WebClient;
+import io.helidon.nima.webclient.http1.ConnectionPoolStats;
 import io.helidon.nima.webclient.http1.Http1Client;
 import io.helidon.nima.webclient.http1.Http1ClientRequest;
 import io.helidon.nima.webserver.Router;
@@ -94,6 +95,12 @@ public class DirectClient implements Http1Client {
                 .connection(new DirectClientConnection(clientPeer, localPeer, router, isTls));
     }
 
+    @Override
+    public ConnectionPoolStats connectionPoolStats() {
+        // requests use direct connections, the pool is never used
+        return httpClient.connectionPoolStats();
+    }
+
     /**
      * Whether to use tls (mark this connection as secure).
      *
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.helidon.common.buffers.BufferPool;
+import io.helidon.common.buffers.DataReader;
+import io.helidon.common.http.Http.Header;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.common.http.WritableHeaders;
+import io.helidon.nima.webserver.http1.Http1Headers;
+import io.helidon.nima.webserver.http1.Http1Prologue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads HTTP/1 requests from a simulated socket, either copying data into a new array for each read
+ * (same as {@link io.helidon.common.socket.PlainSocket#get()}), or reading into arrays borrowed from a
+ * {@link io.helidon.common.buffers.BufferPool}.
+ * Run with {@code -prof gc} to compare allocation rate.
+ */
+@State(Scope.Thread)
+public class BufferPoolJmhTest {
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final byte[] REQUEST = """
+            GET /plaintext HTTP/1.1\r
+            Host: localhost:8080\r
+            User-Agent: curl/7.68.0\r
+            Accept: */*\r
+            \r
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"true", "false"})
+    private boolean pooled;
+
+    // requests sent by the client on a single connection
+    @Param({"1", "10"})
+    private int requests;
+
+    private BufferPool pool;
+    private byte[] socketBuffer;
+
+    @Setup
+    public void setup() {
+        pool = BufferPool.create();
+        socketBuffer = new byte[READ_BUFFER_SIZE];
+    }
+
+    @Benchmark
+    public void connection(Blackhole bh) {
+        SimulatedSocket socket = new SimulatedSocket(requests);
+        DataReader reader;
+        if (pooled) {
+            reader = new DataReader(socket::read, pool, READ_BUFFER_SIZE);
+        } else {
+            reader = new DataReader(() -> {
+                int read = socket.read(socketBuffer);
+                return read == -1 ? null : Arrays.copyOf(socketBuffer, read);
+            });
+        }
+        for (int i = 0; i < requests; i++) {
+            readRequest(bh, reader);
+        }
+        reader.release();
+    }
+
+    private void readRequest(Blackhole bh, DataReader reader) {
+        Http1Prologue prologue = new Http1Prologue(reader, 1024, false);
+        Http1Headers headers = new Http1Headers(reader, 4096, false);
+
+        HttpPrologue httpPrologue = prologue.readPrologue();
+        WritableHeaders<?> httpHeaders = headers.readHeaders(httpPrologue);
+        boolean hasContent = httpHeaders.contains(Header.CONTENT_LENGTH);
+        String authority = httpHeaders.get(Header.HOST).value();
+
+        bh.consume(hasContent);
+        bh.consume(authority);
+    }
+
+    // each read returns a single request, as with a client that waits for response before sending the next request
+    private static final class SimulatedSocket {
+        private int remaining;
+
+        private SimulatedSocket(int requests) {
+            this.remaining = requests;
+        }
+
+        int read(byte[] buffer) {
+            if (remaining == 0) {
+                return -1;
+            }
+            remaining--;
+            System.arraycopy(REQUEST, 0, buffer, 0, REQUEST.length);
+            return REQUEST.length;
+        }
+    }
+}
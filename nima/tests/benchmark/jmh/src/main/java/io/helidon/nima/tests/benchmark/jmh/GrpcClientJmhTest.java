@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.logging.common.LogConfig;
+import io.helidon.nima.grpc.webclient.GrpcClient;
+import io.helidon.nima.grpc.webserver.GrpcRouting;
+import io.helidon.nima.tests.benchmark.jmh.grpc.Echo;
+import io.helidon.nima.tests.benchmark.jmh.grpc.Echo.Payload;
+import io.helidon.nima.webserver.WebServer;
+
+import com.google.protobuf.ByteString;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import static io.helidon.nima.grpc.webserver.ResponseHelper.complete;
+
+/**
+ * Unary and bidirectional streaming calls to a Níma gRPC server, made either by the Níma gRPC client
+ * (on the HTTP/2 WebClient), or by the grpc-java Netty client, both running in the same JVM as the server.
+ */
+@State(Scope.Benchmark)
+public class GrpcClientJmhTest {
+    private static final MethodDescriptor<Payload, Payload> UNARY = method(MethodDescriptor.MethodType.UNARY, "Unary");
+    private static final MethodDescriptor<Payload, Payload> STREAM = method(MethodDescriptor.MethodType.BIDI_STREAMING,
+                                                                            "Stream");
+
+    @Param({"nima", "netty"})
+    private String client;
+
+    @Param({"1024", "65536"})
+    private int messageSize;
+
+    private WebServer server;
+    private ManagedChannel nettyChannel;
+    private GrpcClient nimaClient;
+    private Channel channel;
+    private Payload payload;
+
+    @Setup
+    public void setup() {
+        LogConfig.configureRuntime();
+
+        server = WebServer.builder()
+                .defaultSocket(socket -> socket
+                        .connectionOptions(builder -> builder
+                                .readTimeout(Duration.ZERO)
+                                .connectTimeout(Duration.ZERO))
+                        .host("127.0.0.1"))
+                .addRouting(GrpcRouting.builder()
+                                    .unary(Echo.getDescriptor(), "EchoService", "Unary", this::echo)
+                                    .bidi(Echo.getDescriptor(), "EchoService", "Stream", this::echoStream)
+                                    .build())
+                .build()
+                .start();
+
+        if ("netty".equals(client)) {
+            nettyChannel = ManagedChannelBuilder.forAddress("127.0.0.1", server.port())
+                    .usePlaintext()
+                    .build();
+            channel = nettyChannel;
+        } else {
+            nimaClient = GrpcClient.builder()
+                    .baseUri("http://127.0.0.1:" + server.port())
+                    .build();
+            channel = nimaClient.channel();
+        }
+
+        payload = Payload.newBuilder()
+                .setData(ByteString.copyFrom(new byte[messageSize]))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (nettyChannel != null) {
+            nettyChannel.shutdown();
+            nettyChannel.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (nimaClient != null) {
+            nimaClient.close();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public Payload unary() {
+        return ClientCalls.blockingUnaryCall(channel, UNARY, CallOptions.DEFAULT, payload);
+    }
+
+    @Benchmark
+    public Payload streaming(StreamState stream) throws InterruptedException {
+        stream.requests.onNext(payload);
+        return stream.responses.take();
+    }
+
+    /**
+     * A bidirectional stream opened for each benchmark thread, each message is echoed by the server.
+     */
+    @State(Scope.Thread)
+    public static class StreamState {
+        private final BlockingQueue<Payload> responses = new LinkedBlockingQueue<>();
+        private StreamObserver<Payload> requests;
+
+        @Setup
+        public void setup(GrpcClientJmhTest benchmark) {
+            requests = ClientCalls.asyncBidiStreamingCall(benchmark.channel.newCall(STREAM, CallOptions.DEFAULT),
+                                                          new StreamObserver<>() {
+                                                              @Override
+                                                              public void onNext(Payload value) {
+                                                                  responses.add(value);
+                                                              }
+
+                                                              @Override
+                                                              public void onError(Throwable t) {
+                                                              }
+
+                                                              @Override
+                                                              public void onCompleted() {
+                                                              }
+                                                          });
+        }
+
+        @TearDown
+        public void tearDown() {
+            requests.onCompleted();
+        }
+    }
+
+    private void echo(Payload request, StreamObserver<Payload> observer) {
+        complete(observer, request);
+    }
+
+    private StreamObserver<Payload> echoStream(StreamObserver<Payload> observer) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(Payload value) {
+                observer.onNext(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                observer.onError(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                observer.onCompleted();
+            }
+        };
+    }
+
+    private static MethodDescriptor<Payload, Payload> method(MethodDescriptor.MethodType type, String methodName) {
+        return MethodDescriptor.<Payload, Payload>newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName("EchoService", methodName))
+                .setRequestMarshaller(ProtoUtils.marshaller(Payload.getDefaultInstance()))
+                .setResponseMarshaller(ProtoUtils.marshaller(Payload.getDefaultInstance()))
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Http.Header;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.common.http.WritableHeaders;
+import io.helidon.nima.grpc.webserver.GrpcProtocolProvider;
+import io.helidon.nima.grpc.webserver.GrpcRouting;
+import io.helidon.nima.http2.FlowControl;
+import io.helidon.nima.http2.Http2Flag;
+import io.helidon.nima.http2.Http2FrameData;
+import io.helidon.nima.http2.Http2FrameHeader;
+import io.helidon.nima.http2.Http2FrameTypes;
+import io.helidon.nima.http2.Http2Headers;
+import io.helidon.nima.http2.Http2Settings;
+import io.helidon.nima.http2.Http2StreamState;
+import io.helidon.nima.http2.Http2StreamWriter;
+import io.helidon.nima.http2.webserver.spi.Http2SubProtocolProvider.SubProtocolHandler;
+import io.helidon.nima.tests.benchmark.jmh.grpc.Echo;
+import io.helidon.nima.tests.benchmark.jmh.grpc.Echo.Payload;
+import io.helidon.nima.webserver.Router;
+
+import com.google.protobuf.ByteString;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static io.helidon.nima.grpc.webserver.ResponseHelper.complete;
+
+/**
+ * Unary and streaming gRPC calls handled by the gRPC sub-protocol of HTTP/2, with request data frames
+ * delivered in process and response frames consumed by a stream writer that only counts bytes.
+ * This measures parsing of requests from received frames and serialization of responses into data frames.
+ * Run with {@code -prof gc} to compare allocation rate.
+ */
+@State(Scope.Thread)
+public class GrpcJmhTest {
+    private static final int MAX_FRAME_SIZE = 16384;
+    private static final int PREFIX_LENGTH = 5;
+
+    @Param({"1024", "1048576"})
+    private int messageSize;
+
+    private final GrpcProtocolProvider provider = new GrpcProtocolProvider();
+    private final Http2Settings settings = Http2Settings.create();
+    private final CountingWriter writer = new CountingWriter();
+
+    private Router router;
+    private Http2Headers headers;
+    private HttpPrologue unaryPrologue;
+    private SubProtocolHandler streamHandler;
+    private byte[] request;
+    private int streamId = 1;
+
+    @Setup
+    public void setup() {
+        router = Router.builder()
+                .addRouting(GrpcRouting.builder()
+                                    .unary(Echo.getDescriptor(), "EchoService", "Unary", this::echo)
+                                    .bidi(Echo.getDescriptor(), "EchoService", "Stream", this::echoStream)
+                                    .build())
+                .build();
+        headers = Http2Headers.create(WritableHeaders.create()
+                                              .set(Header.CONTENT_TYPE, "application/grpc"));
+        unaryPrologue = prologue("/EchoService/Unary");
+
+        byte[] message = Payload.newBuilder()
+                .setData(ByteString.copyFrom(new byte[messageSize]))
+                .build()
+                .toByteArray();
+        request = new byte[PREFIX_LENGTH + message.length];
+        request[1] = (byte) (message.length >>> 24);
+        request[2] = (byte) (message.length >>> 16);
+        request[3] = (byte) (message.length >>> 8);
+        request[4] = (byte) message.length;
+        System.arraycopy(message, 0, request, PREFIX_LENGTH, message.length);
+
+        streamHandler = handler(prologue("/EchoService/Stream"));
+    }
+
+    @Benchmark
+    public long unary() {
+        SubProtocolHandler handler = handler(unaryPrologue);
+        sendRequest(handler, true);
+        return writer.reset();
+    }
+
+    @Benchmark
+    public long streaming() {
+        sendRequest(streamHandler, false);
+        return writer.reset();
+    }
+
+    private SubProtocolHandler handler(HttpPrologue prologue) {
+        SubProtocolHandler handler = provider.subProtocol(null,
+                                                          prologue,
+                                                          headers,
+                                                          writer,
+                                                          streamId,
+                                                          settings,
+                                                          settings,
+                                                          Http2StreamState.OPEN,
+                                                          router)
+                .subProtocol();
+        streamId += 2;
+        handler.init();
+        return handler;
+    }
+
+    // request message split into frames of the default max frame size
+    private void sendRequest(SubProtocolHandler handler, boolean endOfStream) {
+        int offset = 0;
+        while (offset < request.length) {
+            int length = Math.min(MAX_FRAME_SIZE, request.length - offset);
+            boolean last = offset + length == request.length;
+            Http2FrameHeader header = Http2FrameHeader.create(length,
+                                                              Http2FrameTypes.DATA,
+                                                              Http2Flag.DataFlags.create(last && endOfStream
+                                                                                                 ? Http2Flag.END_OF_STREAM
+                                                                                                 : 0),
+                                                              1);
+            handler.data(header, BufferData.createReadOnly(request, offset, length));
+            offset += length;
+        }
+    }
+
+    private void echo(Payload request, StreamObserver<Payload> observer) {
+        complete(observer, request);
+    }
+
+    private StreamObserver<Payload> echoStream(StreamObserver<Payload> observer) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(Payload value) {
+                observer.onNext(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                observer.onError(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                observer.onCompleted();
+            }
+        };
+    }
+
+    private static HttpPrologue prologue(String path) {
+        return HttpPrologue.create("HTTP/2.0", "HTTP", "2.0", Http.Method.POST, path, false);
+    }
+
+    private static final class CountingWriter implements Http2StreamWriter {
+        private long bytes;
+
+        @Override
+        public void write(Http2FrameData frame, FlowControl flowControl) {
+            BufferData data = frame.data();
+            bytes += data.available();
+            data.skip(data.available());
+        }
+
+        @Override
+        public int writeHeaders(Http2Headers headers, int streamId, Http2Flag.HeaderFlags flags, FlowControl flowControl) {
+            return 0;
+        }
+
+        @Override
+        public int writeHeaders(Http2Headers headers,
+                                int streamId,
+                                Http2Flag.HeaderFlags flags,
+                                Http2FrameData dataFrame,
+                                FlowControl flowControl) {
+            write(dataFrame, flowControl);
+            return 0;
+        }
+
+        private long reset() {
+            long result = bytes;
+            bytes = 0;
+            return result;
+        }
+    }
+}
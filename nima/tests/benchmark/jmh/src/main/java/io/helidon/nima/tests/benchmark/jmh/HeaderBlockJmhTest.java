@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Http.Header;
+import io.helidon.common.http.Http.HeaderValue;
+import io.helidon.common.http.PreEncodedHeaders;
+import io.helidon.common.http.ServerResponseHeaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Serializes headers of a plaintext response (as in TechEmpower plaintext benchmark), either header by header
+ * with the date formatted for each response, or using a pre-encoded route header block and shared date header.
+ */
+@State(Scope.Benchmark)
+public class HeaderBlockJmhTest {
+    private static final HeaderValue CONTENT_TYPE = Header.create(Header.CONTENT_TYPE, "text/plain");
+    private static final HeaderValue SERVER = Header.create(Header.SERVER, "Nima");
+    private static final HeaderValue CONTENT_LENGTH = Header.create(Header.CONTENT_LENGTH, "13");
+    private static final PreEncodedHeaders BLOCK = PreEncodedHeaders.create(Header.createCached(Header.CONTENT_TYPE,
+                                                                                                "text/plain"),
+                                                                            Header.createCached(Header.SERVER, "Nima"));
+
+    @Benchmark
+    public void perHeader(Blackhole bh) {
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        headers.set(CONTENT_TYPE);
+        headers.set(SERVER);
+        headers.set(CONTENT_LENGTH);
+        headers.set(Header.create(Header.DATE, true, false, Http.DateTime.rfc1123String()));
+
+        BufferData buffer = BufferData.growing(256);
+        for (HeaderValue header : headers) {
+            header.writeHttp1Header(buffer);
+        }
+        bh.consume(buffer);
+    }
+
+    @Benchmark
+    public void preEncoded(Blackhole bh) {
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        headers.set(BLOCK);
+        headers.set(CONTENT_LENGTH);
+
+        BufferData buffer = BufferData.growing(256);
+        Http.DateTime.header().writeHttp1Header(buffer);
+        BLOCK.writeHttp1(headers, buffer);
+        bh.consume(buffer);
+    }
+}
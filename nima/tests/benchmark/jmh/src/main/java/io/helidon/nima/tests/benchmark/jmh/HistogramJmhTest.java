@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.helidon.metrics.Registry;
+import io.helidon.metrics.api.RegistrySettings;
+
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Concurrent updates of a single histogram, with each reservoir that can be selected in registry settings.
+ * Values are spread over the range of typical request durations in nanoseconds.
+ */
+@State(Scope.Benchmark)
+public class HistogramJmhTest {
+    private static final long MAX_VALUE = 100_000_000;
+
+    @Param({"EXPONENTIALLY_DECAYING", "SKETCH"})
+    private RegistrySettings.Reservoir reservoir;
+
+    private Histogram histogram;
+
+    @Setup
+    public void setup() {
+        Registry registry = Registry.create(MetricRegistry.Type.APPLICATION,
+                                            RegistrySettings.builder()
+                                                    .reservoir(reservoir)
+                                                    .build());
+        histogram = registry.histogram("requests");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void update1() {
+        update();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void update4() {
+        update();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void update16() {
+        update();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void update64() {
+        update();
+    }
+
+    private void update() {
+        histogram.update(ThreadLocalRandom.current().nextLong(MAX_VALUE));
+    }
+}
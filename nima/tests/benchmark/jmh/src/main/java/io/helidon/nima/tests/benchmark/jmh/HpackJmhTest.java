@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Http.Header;
+import io.helidon.common.http.WritableHeaders;
+import io.helidon.nima.http2.FlowControl;
+import io.helidon.nima.http2.Http2Flag;
+import io.helidon.nima.http2.Http2FrameData;
+import io.helidon.nima.http2.Http2FrameHeader;
+import io.helidon.nima.http2.Http2FrameTypes;
+import io.helidon.nima.http2.Http2Headers;
+import io.helidon.nima.http2.Http2Headers.DynamicTable;
+import io.helidon.nima.http2.Http2HuffmanDecoder;
+import io.helidon.nima.http2.Http2HuffmanEncoder;
+import io.helidon.nima.http2.Http2Priority;
+import io.helidon.nima.http2.Http2RstStream;
+import io.helidon.nima.http2.Http2Stream;
+import io.helidon.nima.http2.Http2StreamState;
+import io.helidon.nima.http2.Http2WindowUpdate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * HPACK encoding and decoding of gRPC-like request headers with custom metadata, using connection dynamic tables
+ * that are already populated (steady state of a long-lived connection).
+ */
+@State(Scope.Benchmark)
+public class HpackJmhTest {
+    private static final int METADATA_HEADERS = 30;
+
+    @Param({"4096", "65536"})
+    private long tableSize;
+
+    private final Http2HuffmanEncoder huffmanEncoder = new Http2HuffmanEncoder();
+    private final Http2HuffmanDecoder huffmanDecoder = new Http2HuffmanDecoder();
+    private DynamicTable encoderTable;
+    private DynamicTable decoderTable;
+    private byte[] indexedBlock;
+    private int requestId;
+
+    @Setup
+    public void setup() {
+        encoderTable = DynamicTable.create(tableSize);
+        decoderTable = DynamicTable.create(tableSize);
+
+        // the first block populates both tables, the second one is (mostly) indexed
+        decode(encode(encoderTable, 0), decoderTable);
+        indexedBlock = encode(encoderTable, 0);
+        decode(indexedBlock, decoderTable);
+    }
+
+    @Benchmark
+    public void encodeIndexed(Blackhole bh) {
+        bh.consume(encode(encoderTable, 0));
+    }
+
+    @Benchmark
+    public void encodeChangingValues(Blackhole bh) {
+        // a changing header value is added to the table for each request, evicting the oldest entries
+        bh.consume(encode(encoderTable, ++requestId));
+    }
+
+    @Benchmark
+    public void decodeIndexed(Blackhole bh) {
+        bh.consume(decode(indexedBlock, decoderTable));
+    }
+
+    private byte[] encode(DynamicTable table, int requestId) {
+        WritableHeaders<?> headers = WritableHeaders.create();
+        headers.set(Header.CONTENT_TYPE, "application/grpc");
+        headers.set(Header.create("te"), "trailers");
+        headers.set(Header.USER_AGENT, "grpc-java-nima/4.0.0");
+        headers.set(Header.create("grpc-timeout"), "1S");
+        for (int i = 0; i < METADATA_HEADERS; i++) {
+            headers.set(Header.create("x-metadata-" + i), "metadata-value-" + i);
+        }
+        headers.set(Header.create("x-request-id"), String.valueOf(requestId));
+
+        Http2Headers http2Headers = Http2Headers.create(headers);
+        http2Headers.method(Http.Method.POST);
+        http2Headers.scheme("https");
+        http2Headers.path("/helidon.benchmark.EchoService/Echo");
+        http2Headers.authority("localhost:8080");
+
+        BufferData buffer = BufferData.growing(1024);
+        http2Headers.write(table, huffmanEncoder, buffer);
+        byte[] bytes = new byte[buffer.available()];
+        buffer.read(bytes);
+        return bytes;
+    }
+
+    private Http2Headers decode(byte[] block, DynamicTable table) {
+        BufferData data = BufferData.create(block);
+        Http2FrameHeader header = Http2FrameHeader.create(block.length,
+                                                          Http2FrameTypes.HEADERS,
+                                                          Http2Flag.HeaderFlags.create(Http2Flag.END_OF_HEADERS),
+                                                          1);
+        return Http2Headers.create(NoopStream.INSTANCE, table, huffmanDecoder, new Http2FrameData(header, data));
+    }
+
+    private static final class NoopStream implements Http2Stream {
+        private static final NoopStream INSTANCE = new NoopStream();
+
+        @Override
+        public void rstStream(Http2RstStream rstStream) {
+        }
+
+        @Override
+        public void windowUpdate(Http2WindowUpdate windowUpdate) {
+        }
+
+        @Override
+        public void headers(Http2Headers headers, boolean endOfStream) {
+        }
+
+        @Override
+        public void data(Http2FrameHeader header, BufferData data) {
+        }
+
+        @Override
+        public void priority(Http2Priority http2Priority) {
+        }
+
+        @Override
+        public int streamId() {
+            return 1;
+        }
+
+        @Override
+        public Http2StreamState streamState() {
+            return Http2StreamState.OPEN;
+        }
+
+        @Override
+        public FlowControl flowControl() {
+            return null;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.helidon.nima.webserver.http1.Http1Headers;
 import io.helidon.nima.webserver.http1.Http1Prologue;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -52,6 +53,10 @@ public class Http1ParsingJmhTest {
                     Accept: */*""".getBytes(StandardCharsets.UTF_8),
             "\r\n\r\n".getBytes(StandardCharsets.UTF_8));
 
+    // scan for delimiters a word at a time
+    @Param({"false", "true"})
+    private boolean wordScan;
+
     private byte[] longMessage;
 
     @Setup
@@ -69,6 +74,7 @@ public class Http1ParsingJmhTest {
     @Benchmark
     public void singleBuffer(Blackhole bh) {
         DataReader reader = new DataReader(() -> SINGLE_BUFFER);
+        reader.wordScan(wordScan);
         readRequest(bh, reader);
     }
 
@@ -81,12 +87,14 @@ public class Http1ParsingJmhTest {
             }
             return null;
         });
+        reader.wordScan(wordScan);
         readRequest(bh, reader);
     }
 
     @Benchmark
     public void longHeader(Blackhole bh) {
         DataReader reader = new DataReader(() -> longMessage);
+        reader.wordScan(wordScan);
         readRequest(bh, reader);
     }
 
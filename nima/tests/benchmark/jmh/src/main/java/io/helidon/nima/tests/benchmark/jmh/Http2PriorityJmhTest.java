@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.DataWriter;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.WritableHeaders;
+import io.helidon.nima.http2.FlowControl;
+import io.helidon.nima.http2.Http2ConnectionWriter;
+import io.helidon.nima.http2.Http2ExtensiblePriority;
+import io.helidon.nima.http2.Http2Flag;
+import io.helidon.nima.http2.Http2FrameData;
+import io.helidon.nima.http2.Http2FrameHeader;
+import io.helidon.nima.http2.Http2FrameTypes;
+import io.helidon.nima.http2.Http2Headers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Latency of small responses written to an HTTP/2 connection while bulk streams continuously write large data frames
+ * to the same connection. The socket is simulated with a fixed cost per byte.
+ * Use sample time mode results (percentiles) to compare tail latency, with and without extensible priority
+ * of the small responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Http2PriorityJmhTest {
+    private static final int BULK_FRAME_SIZE = 16384;
+    // simulated network throughput of 1 GB/s
+    private static final long NANOS_PER_KB = 1000;
+    private static final byte[] BULK_DATA = new byte[BULK_FRAME_SIZE];
+    private static final byte[] SMALL_DATA = new byte[128];
+
+    @Param({"1", "8"})
+    private int bulkStreams;
+
+    @Param({"false", "true"})
+    private boolean urgent;
+
+    private final AtomicInteger streamIds = new AtomicInteger(1);
+    private final List<Thread> bulkThreads = new ArrayList<>();
+    private Http2ConnectionWriter writer;
+    private volatile boolean running;
+
+    @Setup
+    public void setup() {
+        writer = new Http2ConnectionWriter(null, new SimulatedSocket(), List.of());
+        running = true;
+        for (int i = 0; i < bulkStreams; i++) {
+            int streamId = nextStreamId();
+            bulkThreads.add(Thread.ofVirtual().start(() -> {
+                while (running) {
+                    writer.write(dataFrame(streamId, BULK_DATA, false), FlowControl.NOOP);
+                }
+            }));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread bulkThread : bulkThreads) {
+            bulkThread.join();
+        }
+        bulkThreads.clear();
+    }
+
+    @Benchmark
+    public int smallResponse() {
+        int streamId = nextStreamId();
+        if (urgent) {
+            writer.priority(streamId, new Http2ExtensiblePriority(0, false));
+        }
+        Http2Headers headers = Http2Headers.create(WritableHeaders.create())
+                .status(Http.Status.OK_200);
+        return writer.writeHeaders(headers,
+                                   streamId,
+                                   Http2Flag.HeaderFlags.create(Http2Flag.END_OF_HEADERS),
+                                   dataFrame(streamId, SMALL_DATA, true),
+                                   FlowControl.NOOP);
+    }
+
+    private int nextStreamId() {
+        return streamIds.getAndAdd(2);
+    }
+
+    private static Http2FrameData dataFrame(int streamId, byte[] data, boolean endOfStream) {
+        Http2FrameHeader header = Http2FrameHeader.create(data.length,
+                                                          Http2FrameTypes.DATA,
+                                                          Http2Flag.DataFlags.create(endOfStream
+                                                                                             ? Http2Flag.END_OF_STREAM
+                                                                                             : 0),
+                                                          streamId);
+        return new Http2FrameData(header, BufferData.create(data));
+    }
+
+    private static final class SimulatedSocket implements DataWriter {
+        @Override
+        public void write(BufferData... buffers) {
+            for (BufferData buffer : buffers) {
+                write(buffer);
+            }
+        }
+
+        @Override
+        public void write(BufferData buffer) {
+            long end = System.nanoTime() + buffer.available() * NANOS_PER_KB / 1024;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void writeNow(BufferData... buffers) {
+            write(buffers);
+        }
+
+        @Override
+        public void writeNow(BufferData buffer) {
+            write(buffer);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.helidon.common.http.HttpPrologue;
 import io.helidon.nima.webserver.http1.Http1Prologue;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
@@ -33,18 +34,31 @@ public class HttpPrologueParsingJmhTest {
     private static final byte[] ENCODED_PROLOGUE =
             "GET /one/two?a=b%26c=d&e=f&e=g&h=x%63%23e%3c#a%20frag%23ment HTTP/1.1\r\n".getBytes(
                     StandardCharsets.UTF_8);
+    private static final byte[] LONG_PROLOGUE = ("GET /" + "segment/".repeat(64) + "?query=" + "v".repeat(256)
+                                                         + " HTTP/1.1\r\n").getBytes(StandardCharsets.UTF_8);
+
+    // scan for delimiters a word at a time
+    @Param({"false", "true"})
+    private boolean wordScan;
 
     @Benchmark
     public void techEmpower(Blackhole bh) {
-        HttpPrologue prologue = new Http1Prologue(new DataReader(() -> TECHEMPOWER_PROLOGUE), 1024, false)
-                .readPrologue();
-        bh.consume(prologue);
+        bh.consume(read(TECHEMPOWER_PROLOGUE));
     }
 
     @Benchmark
     public void encoded(Blackhole bh) {
-        HttpPrologue prologue = new Http1Prologue(new DataReader(() -> ENCODED_PROLOGUE), 1024, false)
-                .readPrologue();
-        bh.consume(prologue);
+        bh.consume(read(ENCODED_PROLOGUE));
+    }
+
+    @Benchmark
+    public void longPath(Blackhole bh) {
+        bh.consume(read(LONG_PROLOGUE));
+    }
+
+    private HttpPrologue read(byte[] prologue) {
+        DataReader reader = new DataReader(() -> prologue);
+        reader.wordScan(wordScan);
+        return new Http1Prologue(reader, 1024, false).readPrologue();
     }
 }
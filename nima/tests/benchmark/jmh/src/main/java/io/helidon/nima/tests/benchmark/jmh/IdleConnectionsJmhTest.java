@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.helidon.common.buffers.BufferPool;
+import io.helidon.logging.common.LogConfig;
+import io.helidon.nima.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures heap retained by idle keep-alive connections, with connections blocking a virtual thread in a read,
+ * and with connections parked on a selector.
+ * The result of interest is the {@code bytesPerConnection} secondary metric. It includes client side sockets
+ * (the same in both modes), so only the difference between the modes is meaningful.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class IdleConnectionsJmhTest {
+    private static final byte[] REQUEST = "GET /plaintext HTTP/1.1\r\nHost: localhost\r\n\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"1000"})
+    private int connections;
+
+    @Param({"true", "false"})
+    private boolean parking;
+
+    private WebServer server;
+    private List<Socket> clients;
+
+    @Setup
+    public void setup() {
+        LogConfig.configureRuntime();
+
+        server = WebServer.builder()
+                .defaultSocket(socket -> {
+                    socket.connectionOptions(builder -> builder.readTimeout(Duration.ZERO))
+                            .host("127.0.0.1")
+                            .backlog(8192)
+                            .idleConnectionParking(parking);
+                    if (parking) {
+                        socket.bufferPool(BufferPool.create());
+                    }
+                })
+                .routing(router -> router.get("/plaintext", (req, res) -> res.send("Hello, World!")))
+                .build()
+                .start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeClients() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public void idleConnections(HeapCounters counters) throws InterruptedException {
+        long before = usedHeap();
+        clients = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            clients.add(connect());
+        }
+        // let the server finish processing of the responses
+        Thread.sleep(500);
+        long after = usedHeap();
+        counters.bytesPerConnection = (after - before) / connections;
+    }
+
+    private Socket connect() {
+        try {
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+            OutputStream out = socket.getOutputStream();
+            out.write(REQUEST);
+            out.flush();
+            readResponse(socket.getInputStream());
+            return socket;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // response is small, read until the end of the entity
+    private static void readResponse(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        String received = "";
+        while (!received.endsWith("Hello, World!")) {
+            int read = in.read(buffer);
+            if (read == -1) {
+                throw new IOException("Connection closed before response was received");
+            }
+            received = received + new String(buffer, 0, read, StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Secondary metrics of the benchmark.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+        /**
+         * Heap retained by a single idle connection.
+         */
+        public long bytesPerConnection;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import io.helidon.metrics.Registry;
+import io.helidon.metrics.api.MetricHandle;
+import io.helidon.metrics.api.RegistrySettings;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Concurrent lookup of an existing counter in a registry, by name, by name and tags, by metric ID, and through a
+ * pre-bound {@link MetricHandle}. Lookup of an existing metric does not take the registry lock, so throughput of
+ * the variants should scale with the number of threads.
+ */
+@State(Scope.Benchmark)
+public class MetricLookupJmhTest {
+    private static final Tag[] TAGS = {new Tag("method", "GET"), new Tag("path", "/greet")};
+
+    private Registry registry;
+    private MetricID metricId;
+    private MetricHandle<Counter> handle;
+
+    @Setup
+    public void setup() {
+        registry = Registry.create(MetricRegistry.Type.APPLICATION, RegistrySettings.create());
+        // other metrics with the same name, so the lookup is not trivial
+        for (int i = 0; i < 100; i++) {
+            registry.counter("requests", new Tag("method", "GET"), new Tag("path", "/path/" + i));
+        }
+        registry.counter("requests");
+        metricId = new MetricID("requests", TAGS);
+        handle = registry.handle(Counter.class, "requests", TAGS);
+    }
+
+    @Benchmark
+    public void byName() {
+        registry.counter("requests").inc();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void byName16() {
+        registry.counter("requests").inc();
+    }
+
+    @Benchmark
+    public void byNameAndTags() {
+        registry.counter("requests", TAGS).inc();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void byNameAndTags4() {
+        registry.counter("requests", TAGS).inc();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void byNameAndTags16() {
+        registry.counter("requests", TAGS).inc();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void byNameAndTags64() {
+        registry.counter("requests", TAGS).inc();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void byMetricId16() {
+        registry.counter(metricId).inc();
+    }
+
+    @Benchmark
+    public void handle() {
+        handle.get().inc();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void handle16() {
+        handle.get().inc();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void handle64() {
+        handle.get().inc();
+    }
+}
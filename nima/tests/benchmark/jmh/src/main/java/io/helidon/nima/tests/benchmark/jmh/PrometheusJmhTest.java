@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.metrics.Registry;
+import io.helidon.metrics.api.RegistrySettings;
+import io.helidon.metrics.serviceapi.PrometheusFormat;
+import io.helidon.metrics.serviceapi.PrometheusWriter;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scrape of a registry with 100k series (1000 counters with 100 tag values each), comparing the string based
+ * {@link PrometheusFormat} with the streaming {@link PrometheusWriter}. The output is consumed by a stream that only
+ * counts bytes; the string benchmark always uses the Prometheus format. Run with {@code -prof gc} to compare allocation rate.
+ */
+@State(Scope.Benchmark)
+public class PrometheusJmhTest {
+    private static final int NAMES = 1000;
+    private static final int TAG_VALUES = 100;
+
+    @Param({"PROMETHEUS", "OPENMETRICS"})
+    private PrometheusWriter.Format format;
+
+    private Registry registry;
+    private PrometheusWriter writer;
+
+    @Setup
+    public void setup() {
+        registry = Registry.create(MetricRegistry.Type.APPLICATION, RegistrySettings.create());
+        for (int i = 0; i < NAMES; i++) {
+            for (int j = 0; j < TAG_VALUES; j++) {
+                registry.counter("requests_" + i, new Tag("path", "/path/" + j)).inc(j);
+            }
+        }
+        writer = PrometheusWriter.create(format);
+    }
+
+    @Benchmark
+    public long string() {
+        return PrometheusFormat.prometheusData(registry).length();
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.write(out, registry);
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamGzip() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            writer.write(gzip, registry);
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.lang.reflect.Proxy;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.nima.webserver.ConnectionContext;
+import io.helidon.nima.webserver.http.HttpRouting;
+import io.helidon.nima.webserver.http.RoutingRequest;
+import io.helidon.nima.webserver.http.RoutingResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares compiled routes with sequential testing of each route.
+ * Requests go through {@link HttpRouting#route(ConnectionContext, RoutingRequest, RoutingResponse)}, request and response
+ * are minimal stubs, so the benchmark measures the cost of finding a route.
+ */
+@State(Scope.Benchmark)
+public class RoutingJmhTest {
+    @Param({"10", "100", "1000"})
+    private int routeCount;
+
+    @Param({"true", "false"})
+    private boolean compiledRoutes;
+
+    private HttpRouting routing;
+    private RoutingRequest firstRouteRequest;
+    private RoutingRequest lastExactRequest;
+    private RoutingRequest lastParamRequest;
+    private RoutingResponse response;
+
+    @Setup
+    public void setup() {
+        HttpRouting.Builder builder = HttpRouting.builder()
+                .compiledRoutes(compiledRoutes);
+
+        // half of the routes are exact, half use a path parameter
+        for (int i = 0; i < routeCount / 2; i++) {
+            builder.get("/service" + i + "/resource", (req, res) -> res.send());
+            builder.get("/service" + i + "/resource/{id}", (req, res) -> res.send());
+        }
+        routing = builder.build();
+
+        int last = (routeCount / 2) - 1;
+        firstRouteRequest = request("/service0/resource");
+        lastExactRequest = request("/service" + last + "/resource");
+        lastParamRequest = request("/service" + last + "/resource/42");
+        response = proxy(RoutingResponse.class, null);
+    }
+
+    @Benchmark
+    public void firstRoute(Blackhole bh) {
+        routing.route(null, firstRouteRequest, response);
+        bh.consume(firstRouteRequest);
+    }
+
+    @Benchmark
+    public void lastExactRoute(Blackhole bh) {
+        routing.route(null, lastExactRequest, response);
+        bh.consume(lastExactRequest);
+    }
+
+    @Benchmark
+    public void lastParamRoute(Blackhole bh) {
+        routing.route(null, lastParamRequest, response);
+        bh.consume(lastParamRequest);
+    }
+
+    private static RoutingRequest request(String path) {
+        HttpPrologue prologue = HttpPrologue.create("HTTP/1.1", "HTTP", "1.1", Http.Method.GET, path, false);
+        return proxy(RoutingRequest.class, prologue);
+    }
+
+    // only methods used by routing return a value, all other methods are no-op
+    private static <T> T proxy(Class<T> type, HttpPrologue prologue) {
+        Object instance = Proxy.newProxyInstance(RoutingJmhTest.class.getClassLoader(),
+                                                 new Class<?>[] {type},
+                                                 (proxy, method, args) -> {
+                                                     Class<?> returnType = method.getReturnType();
+                                                     if (returnType == boolean.class) {
+                                                         return false;
+                                                     }
+                                                     if (returnType == HttpPrologue.class) {
+                                                         return prologue;
+                                                     }
+                                                     if (returnType.isInstance(proxy)) {
+                                                         return proxy;
+                                                     }
+                                                     return null;
+                                                 });
+        return type.cast(instance);
+    }
+}
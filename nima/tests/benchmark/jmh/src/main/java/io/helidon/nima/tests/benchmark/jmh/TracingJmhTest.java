@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.lang.reflect.Proxy;
+
+import io.helidon.common.context.Context;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.nima.webserver.http.HttpRouting;
+import io.helidon.nima.webserver.http.RoutingRequest;
+import io.helidon.nima.webserver.http.RoutingResponse;
+import io.helidon.nima.webserver.tracing.TracingFeature;
+import io.helidon.tracing.Tracer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of {@link TracingFeature} for a request that is not traced, compared to routing without tracing and to
+ * a traced request (using a no-op tracer).
+ * Requests that are not sampled, and requests of paths with disabled tracing, should only add the cost of
+ * matching the path configurations and of the sampling decision; inbound span context of requests that are not
+ * sampled is only extracted when requested.
+ */
+@State(Scope.Benchmark)
+public class TracingJmhTest {
+    private HttpRouting noTracing;
+    private HttpRouting sampled;
+    private HttpRouting unsampled;
+    private RoutingRequest request;
+    private RoutingRequest metricsRequest;
+    private RoutingResponse response;
+
+    @Setup
+    public void setup() {
+        noTracing = routing(null);
+        sampled = routing(TracingFeature.builder()
+                                  .tracer(Tracer.noOp())
+                                  .build());
+        unsampled = routing(TracingFeature.builder()
+                                    .tracer(Tracer.noOp())
+                                    .samplingRatio(0)
+                                    .build());
+
+        request = request("/greet/joe");
+        // disabled by default configuration of tracing feature
+        metricsRequest = request("/metrics/vendor");
+        response = proxy(RoutingResponse.class, null);
+    }
+
+    @Benchmark
+    public void noTracing(Blackhole bh) {
+        noTracing.route(null, request, response);
+        bh.consume(request);
+    }
+
+    @Benchmark
+    public void sampled(Blackhole bh) {
+        sampled.route(null, request, response);
+        bh.consume(request);
+    }
+
+    @Benchmark
+    public void unsampled(Blackhole bh) {
+        unsampled.route(null, request, response);
+        bh.consume(request);
+    }
+
+    @Benchmark
+    public void disabledPath(Blackhole bh) {
+        sampled.route(null, metricsRequest, response);
+        bh.consume(metricsRequest);
+    }
+
+    private static HttpRouting routing(TracingFeature feature) {
+        HttpRouting.Builder builder = HttpRouting.builder();
+        if (feature != null) {
+            builder.addFeature(() -> feature);
+        }
+        return builder.get("/greet/{name}", (req, res) -> res.send())
+                .get("/metrics/*", (req, res) -> res.send())
+                .build();
+    }
+
+    private static RoutingRequest request(String path) {
+        HttpPrologue prologue = HttpPrologue.create("HTTP/1.1", "HTTP", "1.1", Http.Method.GET, path, false);
+        return proxy(RoutingRequest.class, prologue);
+    }
+
+    // only methods used by routing and tracing return a value, all other methods are no-op
+    private static <T> T proxy(Class<T> type, HttpPrologue prologue) {
+        Context context = Context.create();
+        Object instance = Proxy.newProxyInstance(TracingJmhTest.class.getClassLoader(),
+                                                 new Class<?>[] {type},
+                                                 (proxy, method, args) -> {
+                                                     Class<?> returnType = method.getReturnType();
+                                                     if (returnType == boolean.class) {
+                                                         // filters require the response to be sent
+                                                         return method.getName().equals("isSent");
+                                                     }
+                                                     if (returnType == HttpPrologue.class) {
+                                                         return prologue;
+                                                     }
+                                                     if (returnType == Context.class) {
+                                                         return context;
+                                                     }
+                                                     if (returnType == Http.Status.class) {
+                                                         return Http.Status.OK_200;
+                                                     }
+                                                     if (returnType.isInstance(proxy)) {
+                                                         return proxy;
+                                                     }
+                                                     return null;
+                                                 });
+        return type.cast(instance);
+    }
+}
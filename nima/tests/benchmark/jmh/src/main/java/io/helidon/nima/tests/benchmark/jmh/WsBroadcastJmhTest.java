@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.benchmark.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.logging.common.LogConfig;
+import io.helidon.nima.webserver.WebServer;
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+import io.helidon.nima.websocket.WsListener;
+import io.helidon.nima.websocket.WsSession;
+import io.helidon.nima.websocket.webserver.WebSocketRouting;
+import io.helidon.nima.websocket.webserver.WsBroadcastGroup;
+import io.helidon.nima.websocket.webserver.WsUpgradeProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Fan-out of a message to many WebSocket connections, either through a broadcast group (frame encoded once and
+ * written by a virtual thread of each member), or by sending the message to each session in a loop.
+ * Each invocation waits until all clients received the whole message.
+ */
+@State(Scope.Benchmark)
+public class WsBroadcastJmhTest {
+    private static final String MESSAGE = "{\"room\":\"general\",\"user\":\"helidon\",\"text\":\""
+            + "Hello from the benchmark, this is a chat message of a typical size.".repeat(3)
+            + "\"}";
+    // header with 16-bit extended payload length
+    private static final int FRAME_SIZE = 4 + MESSAGE.getBytes(StandardCharsets.UTF_8).length;
+
+    @Param({"100", "1000"})
+    private int members;
+
+    @Param({"group", "sessions"})
+    private String mode;
+
+    private final List<WsSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicLong received = new AtomicLong();
+
+    private WsBroadcastGroup group;
+    private WebServer server;
+    private List<Socket> clients;
+    private long expected;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        LogConfig.configureRuntime();
+
+        group = WsBroadcastGroup.builder()
+                .maxBuffered(1024)
+                .build();
+        server = WebServer.builder()
+                .defaultSocket(socket -> socket
+                        .connectionOptions(builder -> builder.readTimeout(Duration.ZERO))
+                        .host("127.0.0.1")
+                        .backlog(8192))
+                // the benchmark runs on class path, where the provider is not discovered from module-info
+                .addConnectionProvider(Http1ConnectionProvider.builder()
+                                               .addUpgradeProvider(WsUpgradeProvider.builder().build())
+                                               .build())
+                .addRouting(WebSocketRouting.builder()
+                                    .endpoint("/chat", new WsListener() {
+                                        @Override
+                                        public void onOpen(WsSession session) {
+                                            sessions.add(session);
+                                            group.add(session);
+                                        }
+                                    })
+                                    .build())
+                .build()
+                .start();
+
+        clients = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            clients.add(connect());
+        }
+        while (sessions.size() < members) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public long fanOut() {
+        if ("group".equals(mode)) {
+            group.broadcast(MESSAGE);
+        } else {
+            for (WsSession session : sessions) {
+                session.send(MESSAGE, true);
+            }
+        }
+        expected += (long) FRAME_SIZE * members;
+        while (received.get() < expected) {
+            Thread.onSpinWait();
+        }
+        return expected;
+    }
+
+    private Socket connect() {
+        try {
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /chat HTTP/1.1\r\n"
+                               + "Host: localhost\r\n"
+                               + "Upgrade: websocket\r\n"
+                               + "Connection: Upgrade\r\n"
+                               + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                               + "Sec-WebSocket-Version: 13\r\n"
+                               + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            skipUpgradeResponse(in);
+            Thread.ofVirtual().start(() -> read(in));
+            return socket;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void read(InputStream in) {
+        byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                received.addAndGet(read);
+            }
+        } catch (IOException ignored) {
+            // socket closed in tear down
+        }
+    }
+
+    private static void skipUpgradeResponse(InputStream in) throws IOException {
+        int matched = 0;
+        byte[] end = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        while (matched < end.length) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed during upgrade");
+            }
+            matched = (b == end[matched]) ? matched + 1 : (b == end[0] ? 1 : 0);
+        }
+    }
+}
@@ -19,12 +19,14 @@ package io.helidon.nima.tests.integration.encoding.gzip;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -67,7 +69,18 @@ class GzipEncodingTest {
                                            } else {
                                                res.send(entity);
                                            }
-                                       }));
+                                       }))
+                // entity already encoded by the handler must not be encoded again
+                .get("/pre-encoded", (req, res) -> res.header(Http.Header.CONTENT_ENCODING, "gzip")
+                        .send(gzip(ENTITY)))
+                .get("/pre-encoded-stream", (req, res) -> {
+                    res.header(Http.Header.CONTENT_ENCODING, "gzip");
+                    try (OutputStream out = res.outputStream()) {
+                        out.write(gzip(ENTITY));
+                    }
+                })
+                .get("/identity", (req, res) -> res.header(Http.Header.CONTENT_ENCODING, "identity")
+                        .send(ENTITY));
     }
 
     @Test
@@ -80,6 +93,50 @@ class GzipEncodingTest {
         testIt("br;q=0.9, gzip, *;q=0.1");
     }
 
+    @Test
+    void testPreEncodedResponse() throws IOException, InterruptedException {
+        testPreEncoded("/pre-encoded");
+    }
+
+    @Test
+    void testPreEncodedStreamResponse() throws IOException, InterruptedException {
+        testPreEncoded("/pre-encoded-stream");
+    }
+
+    @Test
+    void testExplicitIdentityResponse() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                                                            .GET()
+                                                            .header("Accept-Encoding", "gzip")
+                                                            .uri(uri.resolve("/identity"))
+                                                            .build(),
+                                                    HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertAll(
+                () -> assertThat(response.statusCode(), is(200)),
+                () -> assertThat(response.body(), is(ENTITY)),
+                () -> assertThat(response.headers().allValues("Content-Encoding"), is(List.of("identity")))
+        );
+    }
+
+    void testPreEncoded(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder()
+                                                            .GET()
+                                                            .header("Accept-Encoding", "gzip")
+                                                            .uri(uri.resolve(path))
+                                                            .build(),
+                                                    HttpResponse.BodyHandlers.ofByteArray());
+
+        // decoded exactly once
+        String responseEntity = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                                           StandardCharsets.UTF_8);
+        Assertions.assertAll(
+                () -> assertThat(response.statusCode(), is(200)),
+                () -> assertThat(responseEntity, is(ENTITY)),
+                () -> assertThat(response.headers().allValues("Content-Encoding"), is(List.of("gzip")))
+        );
+    }
+
     void testIt(String acceptEncodingValue) throws IOException, InterruptedException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         GZIPOutputStream gos = new GZIPOutputStream(baos);
@@ -109,4 +166,12 @@ class GzipEncodingTest {
                 () -> assertThat(response.headers().firstValue("Content-Encoding"), is(Optional.of("gzip")))
         );
     }
+
+    private static byte[] gzip(String entity) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gos = new GZIPOutputStream(baos)) {
+            gos.write(entity.getBytes(StandardCharsets.UTF_8));
+        }
+        return baos.toByteArray();
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.grpc.webserver;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.nima.grpc.strings.StringServiceGrpc;
+import io.helidon.nima.grpc.strings.Strings.StringMessage;
+import io.helidon.nima.grpc.webclient.GrpcClient;
+
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerStreamTracer;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Uses a grpc-java server, as the Níma gRPC server does not support compression.
+ */
+class GrpcClientCompressionTest {
+    private static final BlockingQueue<MessageSizes> SIZES = new LinkedBlockingQueue<>();
+
+    private static Server server;
+    private static GrpcClient client;
+    private static StringServiceGrpc.StringServiceBlockingStub blockingStub;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = ServerBuilder.forPort(0)
+                .addService(ServerInterceptors.intercept(new UpperService(), new CompressingInterceptor()))
+                .addStreamTracerFactory(new SizesTracerFactory())
+                .build()
+                .start();
+        client = GrpcClient.builder()
+                .baseUri("http://localhost:" + server.getPort())
+                .compressor("gzip")
+                .build();
+        blockingStub = StringServiceGrpc.newBlockingStub(client.channel());
+    }
+
+    @AfterAll
+    static void stopServer() throws InterruptedException {
+        client.close();
+        server.shutdownNow();
+        server.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testCompressedCall() throws InterruptedException {
+        String text = "lower case original ".repeat(500);
+        StringMessage request = StringMessage.newBuilder().setText(text).build();
+
+        // requests are compressed once the server advertised gzip in a response
+        for (int i = 0; i < 2; i++) {
+            StringMessage response = blockingStub.upper(request);
+            assertThat(response.getText(), is(text.toUpperCase(Locale.ROOT)));
+        }
+
+        MessageSizes first = SIZES.poll(5, TimeUnit.SECONDS);
+        MessageSizes second = SIZES.poll(5, TimeUnit.SECONDS);
+        assertThat(first, notNullValue());
+        assertThat(second, notNullValue());
+
+        assertThat("First request must not be compressed", first.inboundWire(), is(first.inboundUncompressed()));
+        assertThat("Second request must be compressed", second.inboundWire(), lessThan(second.inboundUncompressed()));
+        // responses are compressed by the server and decompressed by the client
+        assertThat(first.outboundWire(), lessThan(first.outboundUncompressed()));
+        assertThat(second.outboundWire(), lessThan(second.outboundUncompressed()));
+    }
+
+    private record MessageSizes(long inboundWire, long inboundUncompressed, long outboundWire, long outboundUncompressed) {
+    }
+
+    private static class UpperService extends StringServiceGrpc.StringServiceImplBase {
+        @Override
+        public void upper(StringMessage request, StreamObserver<StringMessage> responseObserver) {
+            responseObserver.onNext(StringMessage.newBuilder()
+                                            .setText(request.getText().toUpperCase(Locale.ROOT))
+                                            .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    private static class CompressingInterceptor implements ServerInterceptor {
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                     Metadata headers,
+                                                                     ServerCallHandler<ReqT, RespT> next) {
+            call.setCompression("gzip");
+            return next.startCall(call, headers);
+        }
+    }
+
+    private static class SizesTracerFactory extends ServerStreamTracer.Factory {
+        @Override
+        public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+            return new ServerStreamTracer() {
+                private volatile long inboundWire;
+                private volatile long inboundUncompressed;
+                private volatile long outboundWire;
+                private volatile long outboundUncompressed;
+
+                @Override
+                public void inboundWireSize(long bytes) {
+                    inboundWire += bytes;
+                }
+
+                @Override
+                public void inboundUncompressedSize(long bytes) {
+                    inboundUncompressed += bytes;
+                }
+
+                @Override
+                public void outboundWireSize(long bytes) {
+                    outboundWire += bytes;
+                }
+
+                @Override
+                public void outboundUncompressedSize(long bytes) {
+                    outboundUncompressed += bytes;
+                }
+
+                @Override
+                public void streamClosed(Status status) {
+                    SIZES.add(new MessageSizes(inboundWire, inboundUncompressed, outboundWire, outboundUncompressed));
+                }
+            };
+        }
+    }
+}
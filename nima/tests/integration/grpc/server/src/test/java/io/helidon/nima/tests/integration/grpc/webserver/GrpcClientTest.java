@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.grpc.webserver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.nima.grpc.strings.StringServiceGrpc;
+import io.helidon.nima.grpc.strings.Strings.StringMessage;
+import io.helidon.nima.grpc.webclient.GrpcClient;
+import io.helidon.nima.grpc.webserver.GrpcRouting;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webserver.Router;
+import io.helidon.nima.webserver.WebServer;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ServerTest
+class GrpcClientTest {
+    private final GrpcClient client;
+    private final StringServiceGrpc.StringServiceBlockingStub blockingStub;
+    private final StringServiceGrpc.StringServiceStub stub;
+
+    GrpcClientTest(WebServer server) {
+        this.client = GrpcClient.builder()
+                .baseUri("http://localhost:" + server.port())
+                .build();
+        this.blockingStub = StringServiceGrpc.newBlockingStub(client.channel());
+        this.stub = StringServiceGrpc.newStub(client.channel());
+    }
+
+    @SetUpRoute
+    static void routing(Router.RouterBuilder<?> router) {
+        router.addRouting(GrpcRouting.builder().service(new StringService()));
+    }
+
+    @AfterEach
+    void closeClient() {
+        client.close();
+    }
+
+    @RepeatedTest(20)
+    void testUnary() {
+        String text = "lower case original";
+        StringMessage request = StringMessage.newBuilder().setText(text).build();
+        StringMessage response = blockingStub.upper(request);
+
+        assertThat(response.getText(), is(text.toUpperCase(Locale.ROOT)));
+    }
+
+    @Test
+    void testUnaryLargeMessage() {
+        // larger than max frame size, so both request and response span multiple frames
+        String text = "a".repeat(100_000);
+        StringMessage request = StringMessage.newBuilder().setText(text).build();
+        StringMessage response = blockingStub.upper(request);
+
+        assertThat(response.getText(), is(text.toUpperCase(Locale.ROOT)));
+    }
+
+    @RepeatedTest(20)
+    void testBidi() throws Throwable {
+        List<String> valuesToStream = List.of("A", "B", "C", "D");
+
+        StringsCollector responseObserver = new StringsCollector();
+
+        StreamObserver<StringMessage> requests = stub.echo(responseObserver);
+
+        valuesToStream.forEach(word -> requests.onNext(StringMessage.newBuilder().setText(word).build()));
+        requests.onCompleted();
+
+        List<String> echoes = responseObserver.awaitResponse();
+        assertThat(echoes, is(valuesToStream));
+    }
+
+    @RepeatedTest(20)
+    void testClientStream() throws Throwable {
+        List<String> valuesToStream = List.of("A", "B", "C", "D");
+        StringsCollector responseObserver = new StringsCollector();
+
+        StreamObserver<StringMessage> requests = stub.join(responseObserver);
+        valuesToStream.forEach(word -> requests.onNext(StringMessage.newBuilder().setText(word).build()));
+        requests.onCompleted();
+
+        List<String> strings = responseObserver.awaitResponse();
+
+        assertThat(strings, contains("A B C D"));
+    }
+
+    @RepeatedTest(20)
+    void testServerStream() {
+        Iterator<StringMessage> responses = blockingStub.split(StringMessage.newBuilder().setText("A B C D").build());
+        List<String> strings = new ArrayList<>();
+        responses.forEachRemaining(it -> strings.add(it.getText()));
+
+        assertThat(strings, contains("A", "B", "C", "D"));
+    }
+
+    @Test
+    void testClosedClient() {
+        client.close();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                                                () -> blockingStub.upper(StringMessage.newBuilder().setText("a").build()));
+        assertThat(e.getStatus().getCode(), is(Status.Code.UNAVAILABLE));
+    }
+
+    @Test
+    void testDeadline() {
+        StringsCollector responseObserver = new StringsCollector();
+
+        // the server echoes only what we send, and we send nothing
+        stub.withDeadlineAfter(200, TimeUnit.MILLISECONDS).echo(responseObserver);
+
+        ExecutionException e = assertThrows(ExecutionException.class, responseObserver::awaitResponse);
+        assertThat(e.getCause(), instanceOf(RuntimeException.class));
+        assertThat(Status.fromThrowable(e.getCause().getCause()).getCode(), is(Status.Code.DEADLINE_EXCEEDED));
+    }
+
+    private static class StringsCollector implements StreamObserver<StringMessage> {
+        private final List<String> collectedString = new LinkedList<>();
+        private final CompletableFuture<List<String>> future = new CompletableFuture<>();
+
+        @Override
+        public void onNext(StringMessage stringMessage) {
+            collectedString.add(stringMessage.getText());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // wrap in our exception, so we can see who called this (onError) method
+            future.completeExceptionally(new RuntimeException(throwable));
+        }
+
+        @Override
+        public void onCompleted() {
+            future.complete(collectedString);
+        }
+
+        List<String> awaitResponse() throws Exception {
+            return future.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
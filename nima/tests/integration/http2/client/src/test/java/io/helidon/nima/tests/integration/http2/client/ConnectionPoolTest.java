@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.http2.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.helidon.common.http.Http;
+import io.helidon.nima.http2.webclient.Http2;
+import io.helidon.nima.http2.webclient.Http2Client;
+import io.helidon.nima.http2.webclient.Http2ClientResponse;
+import io.helidon.nima.http2.webserver.Http2Route;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.WebClient;
+import io.helidon.nima.webserver.WebServer;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ServerTest
+class ConnectionPoolTest {
+    private final int port;
+
+    ConnectionPoolTest(WebServer server) {
+        this.port = server.port();
+    }
+
+    @SetUpRoute
+    static void router(HttpRouting.Builder router) {
+        // remote port identifies the client connection
+        router.route(Http2Route.route(Http.Method.GET, "/port", (req, res) -> res.send(String.valueOf(req.remotePeer()
+                                                                                                             .port()))));
+    }
+
+    @Test
+    void testStreamsSpreadOverMinConnections() throws Exception {
+        Http2Client client = client()
+                .minConnections(3)
+                .build();
+
+        Set<String> ports = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 30; i++) {
+                futures.add(executor.submit(() -> ports.add(port(client))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(ports.size(), is(3));
+    }
+
+    @Test
+    void testIdleConnectionClosed() throws InterruptedException {
+        Http2Client client = client()
+                .connectionIdleTimeout(Duration.ofMillis(300))
+                .pingInterval(Duration.ofMillis(50))
+                .build();
+
+        String first = port(client);
+        // connection is kept open and acknowledges pings
+        Thread.sleep(100);
+        assertThat(port(client), is(first));
+        // connection is closed after idle timeout, a new one is used
+        Thread.sleep(1000);
+        assertThat(port(client), not(first));
+    }
+
+    private Http2Client.Http2ClientBuilder client() {
+        return WebClient.builder(Http2.PROTOCOL)
+                .baseUri("http://localhost:" + port + "/")
+                .priorKnowledge(true);
+    }
+
+    private static String port(Http2Client client) {
+        try (Http2ClientResponse response = client.get("/port").request()) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            return response.as(String.class);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Random;
+import java.util.zip.CRC32;
 
 import io.helidon.common.http.Http;
 import io.helidon.common.http.Http.Header;
@@ -48,6 +49,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 @ServerTest
 class PostTest {
     private static final byte[] BYTES = new byte[256];
+    // larger than the default receive window, so the upload depends on window updates
+    private static final byte[] LARGE_BYTES = new byte[4 * 1024 * 1024];
     private static final HeaderName REQUEST_HEADER_NAME = Header.create("X-REquEst-HEADeR");
     private static final String REQUEST_HEADER_VALUE_STRING = "some nice value";
     private static final HeaderValue REQUEST_HEADER_VALUE = Header.create(REQUEST_HEADER_NAME, REQUEST_HEADER_VALUE_STRING);
@@ -59,6 +62,7 @@ class PostTest {
     static {
         Random random = new Random();
         random.nextBytes(BYTES);
+        random.nextBytes(LARGE_BYTES);
     }
 
     private final HttpClient client;
@@ -77,6 +81,7 @@ class PostTest {
         router.route(Http.Method.POST, "/string", Handler.create(String.class, Routes::string))
                 .route(Http.Method.POST, "/bytes", Handler.create(byte[].class, Routes::bytes))
                 .route(Http.Method.POST, "/streamed", Routes::streamed)
+                .route(Http.Method.POST, "/upload", Routes::upload)
                 .route(Http.Method.POST, "/headers", Routes::headers)
                 .route(Http.Method.POST, "/nocontent", Routes::noContent);
     }
@@ -147,6 +152,25 @@ class PostTest {
         assertThat(response.version(), is(HttpClient.Version.HTTP_2));
     }
 
+    @Test
+    void testLargeUpload() throws IOException, InterruptedException {
+        // do a head request (will get 404) to upgrade
+        client.send(HttpRequest.newBuilder()
+                            .HEAD()
+                            .uri(uri.resolve("/string"))
+                            .build(), HttpResponse.BodyHandlers.discarding());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                                                            .timeout(Duration.ofSeconds(20))
+                                                            .uri(uri.resolve("/upload"))
+                                                            .POST(HttpRequest.BodyPublishers.ofByteArray(LARGE_BYTES))
+                                                            .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode(), is(Http.Status.OK_200.code()));
+        assertThat(response.body(), is(LARGE_BYTES.length + ":" + crc(LARGE_BYTES)));
+        assertThat(response.version(), is(HttpClient.Version.HTTP_2));
+    }
+
     @Test
     void testHeadersRoute() throws IOException, InterruptedException {
         // do a head request (will get 404) to upgrade
@@ -196,6 +220,12 @@ class PostTest {
         assertThat(response.statusCode(), is(Http.Status.NO_CONTENT_204.code()));
     }
 
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
     private static class Routes {
         public static void noContent(ServerRequest req, ServerResponse res) {
             res.status(Http.Status.NO_CONTENT_204);
@@ -222,6 +252,22 @@ class PostTest {
             }
         }
 
+        private static void upload(ServerRequest req, ServerResponse res) {
+            byte[] buffer = new byte[8192];
+            CRC32 crc = new CRC32();
+            long length = 0;
+            try (InputStream inputStream = req.content().inputStream()) {
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                    length += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            res.send(length + ":" + crc.getValue());
+        }
+
         private static void headers(ServerRequest req, ServerResponse res) {
             res.header(req.headers().get(REQUEST_HEADER_NAME));
             res.header(RESPONSE_HEADER_VALUE);
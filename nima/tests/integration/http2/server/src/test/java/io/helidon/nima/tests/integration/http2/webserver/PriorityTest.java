@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.http2.webserver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import io.helidon.common.http.Http;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ServerTest
+class PriorityTest {
+    // larger than both max frame size and initial flow control window
+    private static final byte[] LARGE = new byte[1024 * 1024];
+
+    static {
+        new Random().nextBytes(LARGE);
+    }
+
+    private final HttpClient client;
+    private final URI uri;
+
+    PriorityTest(URI uri) {
+        this.uri = uri;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder router) {
+        router.route(Http.Method.GET, "/large", (req, res) -> res.send(LARGE))
+                .route(Http.Method.GET, "/small", (req, res) -> res.send("small"));
+    }
+
+    @Test
+    void testSmallResponsesWithLargeResponses() throws Exception {
+        // upgrade the connection first, so all requests share it
+        assertThat(small("u=3").version(), is(HttpClient.Version.HTTP_2));
+
+        List<CompletableFuture<HttpResponse<byte[]>>> large = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            large.add(client.sendAsync(HttpRequest.newBuilder()
+                                               .timeout(Duration.ofSeconds(10))
+                                               .uri(uri.resolve("/large"))
+                                               .header("priority", "u=5, i")
+                                               .GET()
+                                               .build(), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        for (int i = 0; i < 10; i++) {
+            HttpResponse<String> response = small("u=0");
+            assertThat(response.statusCode(), is(Http.Status.OK_200.code()));
+            assertThat(response.body(), is("small"));
+        }
+        for (CompletableFuture<HttpResponse<byte[]>> future : large) {
+            HttpResponse<byte[]> response = future.get();
+            assertThat(response.statusCode(), is(Http.Status.OK_200.code()));
+            assertThat(Arrays.equals(response.body(), LARGE), is(true));
+        }
+    }
+
+    private HttpResponse<String> small(String priority) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder()
+                                   .timeout(Duration.ofSeconds(5))
+                                   .uri(uri.resolve("/small"))
+                                   .header("priority", priority)
+                                   .GET()
+                                   .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.nima.tests.integration.observe.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import io.helidon.common.http.Http;
+import io.helidon.metrics.api.RegistryFactory;
+import io.helidon.nima.observe.metrics.MetricsFeature;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.http1.Http1Client;
+import io.helidon.nima.webclient.http1.Http1ClientRequest;
+import io.helidon.nima.webclient.http1.Http1ClientResponse;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static io.helidon.common.testing.http.junit5.HttpHeaderMatcher.hasHeader;
+import static io.helidon.common.testing.http.junit5.HttpHeaderMatcher.noHeader;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ServerTest
+class MetricsGzipTest {
+    private static final RegistryFactory REGISTRY_FACTORY = RegistryFactory.create();
+
+    private final Http1Client httpClient;
+
+    MetricsGzipTest(Http1Client httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder routing) {
+        REGISTRY_FACTORY.getRegistry(MetricRegistry.Type.APPLICATION)
+                .counter("scrapes")
+                .inc();
+        routing.addFeature(MetricsFeature.builder()
+                                   .registryFactory(REGISTRY_FACTORY)
+                                   .gzip(true)
+                                   .build());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "gzip;q=0.5", "deflate, gzip", "br;q=0.9, gzip;q=1"})
+    void testGzip(String acceptEncoding) throws IOException {
+        try (Http1ClientResponse response = request(acceptEncoding)) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            assertThat(response.headers(), hasHeader(Http.Header.CONTENT_ENCODING, "gzip"));
+            assertThat(response.headers(), hasHeader(Http.Header.VARY, "Accept-Encoding"));
+
+            byte[] compressed = response.as(byte[].class);
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertThat(text, containsString("# TYPE application_scrapes_total counter\n"));
+                assertThat(text, containsString("application_scrapes_total 1\n"));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "gzip;q=0", "gzip; q=0.0", "gzip;q=0.000", "deflate", "identity, gzip;q=0"})
+    void testNotAccepted(String acceptEncoding) {
+        try (Http1ClientResponse response = request(acceptEncoding)) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            assertThat(response.headers(), noHeader(Http.Header.CONTENT_ENCODING));
+            // the response still depends on the accepted encodings
+            assertThat(response.headers(), hasHeader(Http.Header.VARY, "Accept-Encoding"));
+            assertThat(response.as(String.class), containsString("application_scrapes_total 1\n"));
+        }
+    }
+
+    @Test
+    void testOpenMetricsGzip() throws IOException {
+        try (Http1ClientResponse response = httpClient.get("/metrics/application")
+                .header(Http.Header.ACCEPT, "application/openmetrics-text")
+                .header(Http.Header.ACCEPT_ENCODING, "gzip")
+                .request()) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            assertThat(response.headers(), hasHeader(Http.Header.CONTENT_ENCODING, "gzip"));
+
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.as(byte[].class)))) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertThat(text, containsString("# TYPE application_scrapes counter\n"));
+                assertThat(text, containsString("application_scrapes_total 1\n"));
+                assertThat(text, endsWith("# EOF\n"));
+            }
+        }
+    }
+
+    private Http1ClientResponse request(String acceptEncoding) {
+        Http1ClientRequest request = httpClient.get("/metrics/application")
+                .header(Http.Header.ACCEPT, "text/plain");
+        if (!acceptEncoding.isEmpty()) {
+            request.header(Http.Header.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request.request();
+    }
+}
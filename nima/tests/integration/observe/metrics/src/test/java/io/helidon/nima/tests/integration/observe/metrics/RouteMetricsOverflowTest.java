@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.nima.tests.integration.observe.metrics;
+
+import io.helidon.common.http.Http;
+import io.helidon.metrics.api.RegistryFactory;
+import io.helidon.nima.observe.metrics.MetricsFeature;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.http1.Http1Client;
+import io.helidon.nima.webclient.http1.Http1ClientResponse;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.nima.tests.integration.observe.metrics.RouteMetricsTest.awaitCount;
+import static io.helidon.nima.tests.integration.observe.metrics.RouteMetricsTest.timerCount;
+import static io.helidon.nima.tests.integration.observe.metrics.RouteMetricsTest.timerId;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ServerTest
+class RouteMetricsOverflowTest {
+    private static final RegistryFactory REGISTRY_FACTORY = RegistryFactory.create();
+    private static final MetricRegistry VENDOR = REGISTRY_FACTORY.getRegistry(MetricRegistry.Type.VENDOR);
+
+    private final Http1Client httpClient;
+
+    RouteMetricsOverflowTest(Http1Client httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder routing) {
+        routing.addFeature(MetricsFeature.builder()
+                                   .registryFactory(REGISTRY_FACTORY)
+                                   .routeMetricsMaxSeries(2)
+                                   .build())
+                .get("/first", (req, res) -> res.send("first"))
+                .get("/second", (req, res) -> res.send("second"))
+                .get("/third", (req, res) -> res.send("third"));
+    }
+
+    @Test
+    void testOverflow() throws InterruptedException {
+        // wait for each request to be recorded, so the series are created in order
+        get("/first");
+        assertThat(awaitCount(() -> timerCount(VENDOR, "/first", "GET", "2xx"), 1), is(1L));
+        get("/second");
+        assertThat(awaitCount(() -> timerCount(VENDOR, "/second", "GET", "2xx"), 1), is(1L));
+        get("/third");
+        assertThat(awaitCount(() -> timerCount(VENDOR, "overflow", "overflow", "2xx"), 1), is(1L));
+        assertThat(VENDOR.getTimer(timerId("/third", "GET", "2xx")), is(nullValue()));
+
+        // existing series are still recorded once the limit is reached
+        get("/first");
+        assertThat(awaitCount(() -> timerCount(VENDOR, "/first", "GET", "2xx"), 2), is(2L));
+        assertThat(timerCount(VENDOR, "overflow", "overflow", "2xx"), is(1L));
+    }
+
+    private void get(String path) {
+        try (Http1ClientResponse response = httpClient.get(path).request()) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.nima.tests.integration.observe.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import io.helidon.common.http.Http;
+import io.helidon.metrics.api.RegistryFactory;
+import io.helidon.nima.observe.metrics.MetricsFeature;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.http1.Http1Client;
+import io.helidon.nima.webclient.http1.Http1ClientResponse;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ServerTest
+class RouteMetricsTest {
+    private static final RegistryFactory REGISTRY_FACTORY = RegistryFactory.create();
+    private static final MetricRegistry VENDOR = REGISTRY_FACTORY.getRegistry(MetricRegistry.Type.VENDOR);
+
+    private final Http1Client httpClient;
+
+    RouteMetricsTest(Http1Client httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder routing) {
+        routing.addFeature(MetricsFeature.builder()
+                                   .registryFactory(REGISTRY_FACTORY)
+                                   .build())
+                .get("/greet/{name}", (req, res) -> res.send("Hello " + req.path().pathParameters().value("name")))
+                .get("/fail", (req, res) -> res.status(Http.Status.INTERNAL_SERVER_ERROR_500).send())
+                .get("/throw", (req, res) -> {
+                    throw new IllegalStateException("Intentional failure");
+                });
+    }
+
+    @Test
+    void testRouteTags() throws InterruptedException {
+        assertStatus("/greet/joe", Http.Status.OK_200);
+        assertStatus("/greet/jack", Http.Status.OK_200);
+
+        // both requests are recorded by the path pattern, not by the path
+        assertThat(awaitCount(() -> timerCount("/greet/{name}", "GET", "2xx"), 2), is(2L));
+        assertThat(VENDOR.getTimer(timerId("/greet/joe", "GET", "2xx")), is(nullValue()));
+        assertThat(VENDOR.getCounter(errorsId("/greet/{name}", "GET")), is(nullValue()));
+    }
+
+    @Test
+    void testUnmatched() throws InterruptedException {
+        assertStatus("/unknown/path", Http.Status.NOT_FOUND_404);
+
+        assertThat(awaitCount(() -> timerCount("unmatched", "GET", "4xx"), 1), is(1L));
+        assertThat(VENDOR.getTimer(timerId("/unknown/path", "GET", "4xx")), is(nullValue()));
+    }
+
+    @Test
+    void testServerError() throws InterruptedException {
+        assertStatus("/fail", Http.Status.INTERNAL_SERVER_ERROR_500);
+
+        assertThat(awaitCount(() -> errorsCount("/fail", "GET"), 1), is(1L));
+        assertThat(timerCount("/fail", "GET", "5xx"), is(1L));
+    }
+
+    @Test
+    void testThrownException() throws InterruptedException {
+        assertStatus("/throw", Http.Status.INTERNAL_SERVER_ERROR_500);
+
+        assertThat(awaitCount(() -> errorsCount("/throw", "GET"), 1), is(1L));
+        assertThat(timerCount("/throw", "GET", "5xx"), is(1L));
+    }
+
+    private void assertStatus(String path, Http.Status status) {
+        try (Http1ClientResponse response = httpClient.get(path).request()) {
+            assertThat(response.status(), is(status));
+        }
+    }
+
+    static long awaitCount(LongSupplier count, long expected) throws InterruptedException {
+        // requests are recorded by the filter after the response is sent
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        long current = count.getAsLong();
+        while (current < expected && System.nanoTime() - deadline < 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            current = count.getAsLong();
+        }
+        return current;
+    }
+
+    static long timerCount(String route, String method, String status) {
+        return timerCount(VENDOR, route, method, status);
+    }
+
+    static long timerCount(MetricRegistry registry, String route, String method, String status) {
+        Timer timer = registry.getTimer(timerId(route, method, status));
+        return timer == null ? 0 : timer.getCount();
+    }
+
+    static MetricID timerId(String route, String method, String status) {
+        return new MetricID("requests.route", new Tag("route", route), new Tag("method", method), new Tag("status", status));
+    }
+
+    private static long errorsCount(String route, String method) {
+        Counter counter = VENDOR.getCounter(errorsId(route, method));
+        return counter == null ? 0 : counter.getCount();
+    }
+
+    private static MetricID errorsId(String route, String method) {
+        return new MetricID("requests.route.errors", new Tag("route", route), new Tag("method", method));
+    }
+}
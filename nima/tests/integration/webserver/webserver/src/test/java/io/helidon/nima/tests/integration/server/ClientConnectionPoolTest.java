@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.server;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.helidon.common.http.Http;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.WebClient;
+import io.helidon.nima.webclient.http1.ConnectionPoolStats;
+import io.helidon.nima.webclient.http1.Http1Client;
+import io.helidon.nima.webclient.http1.Http1ClientResponse;
+import io.helidon.nima.webserver.WebServer;
+import io.helidon.nima.webserver.http.HttpRouting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ServerTest
+class ClientConnectionPoolTest {
+    private final int port;
+
+    ClientConnectionPoolTest(WebServer server) {
+        this.port = server.port();
+    }
+
+    @SetUpRoute
+    static void router(HttpRouting.Builder router) {
+        // remote port identifies the client connection
+        router.get("/port", (req, res) -> res.send(String.valueOf(req.remotePeer().port())))
+                .get("/slow", (req, res) -> {
+                    Thread.sleep(50);
+                    res.send(String.valueOf(req.remotePeer().port()));
+                });
+    }
+
+    @Test
+    void testConnectionReused() {
+        Http1Client client = client().build();
+
+        Set<String> ports = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            ports.add(get(client, "/port"));
+        }
+
+        assertThat(ports.size(), is(1));
+        ConnectionPoolStats stats = client.connectionPoolStats();
+        assertThat(stats.created(), is(1L));
+        assertThat(stats.idle(), is(1));
+        assertThat(stats.leased(), is(0));
+    }
+
+    @Test
+    void testMaxConnectionsPerRoute() throws Exception {
+        Http1Client client = client()
+                .maxConnectionsPerRoute(2)
+                .build();
+
+        Set<String> ports = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> ports.add(get(client, "/slow"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(ports.size(), lessThanOrEqualTo(2));
+        ConnectionPoolStats stats = client.connectionPoolStats();
+        assertThat(stats.created(), lessThanOrEqualTo(2L));
+        assertThat(stats.pending(), is(0));
+        assertThat(stats.leased(), is(0));
+    }
+
+    @Test
+    void testAcquireTimeout() {
+        Http1Client client = client()
+                .maxConnections(1)
+                .connectionAcquireTimeout(Duration.ofMillis(100))
+                .build();
+
+        try (Http1ClientResponse response = client.get("/port").request()) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            // the only connection is leased until the response is closed
+            assertThrows(IllegalStateException.class, () -> client.get("/port").request());
+        }
+        assertThat(client.connectionPoolStats().pending(), is(0));
+        // released connection is available again
+        get(client, "/port");
+    }
+
+    @Test
+    void testInterruptedWaiterReturnsConnection() throws InterruptedException {
+        Http1Client client = client()
+                .maxConnections(1)
+                .connectionAcquireTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // the waiter may be interrupted before or after it is granted the released connection
+        for (int i = 0; i < 20; i++) {
+            Http1ClientResponse leased = client.get("/port").request();
+            Thread waiting = Thread.ofVirtual().start(() -> {
+                try (Http1ClientResponse ignored = client.get("/port").request()) {
+                    // interrupted before the connection could be used
+                } catch (RuntimeException ignored) {
+                    // interrupted while waiting, or while using the connection
+                }
+            });
+            while (client.connectionPoolStats().pending() == 0 && waiting.isAlive()) {
+                Thread.sleep(1);
+            }
+            leased.close();
+            waiting.interrupt();
+            waiting.join();
+
+            ConnectionPoolStats stats = client.connectionPoolStats();
+            assertThat(stats.pending(), is(0));
+            assertThat(stats.leased(), is(0));
+        }
+        // the only connection (or permit) was not lost
+        get(client, "/port");
+    }
+
+    @Test
+    void testIdleConnectionClosed() throws InterruptedException {
+        Http1Client client = client()
+                .connectionIdleTimeout(Duration.ofMillis(100))
+                .build();
+
+        String first = get(client, "/port");
+        Thread.sleep(500);
+
+        ConnectionPoolStats stats = client.connectionPoolStats();
+        assertThat(stats.idle(), is(0));
+        assertThat(stats.closed(), is(1L));
+        assertThat(get(client, "/port").equals(first), is(false));
+    }
+
+    private Http1Client.Http1ClientBuilder client() {
+        return WebClient.builder()
+                .baseUri("http://localhost:" + port);
+    }
+
+    private static String get(Http1Client client, String path) {
+        try (Http1ClientResponse response = client.get(path).request()) {
+            assertThat(response.status(), is(Http.Status.OK_200));
+            return response.as(String.class);
+        }
+    }
+}
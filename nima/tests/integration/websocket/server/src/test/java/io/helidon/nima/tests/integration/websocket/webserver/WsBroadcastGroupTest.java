@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.websocket.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Inflater;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webserver.Router;
+import io.helidon.nima.webserver.WebServer;
+import io.helidon.nima.websocket.CloseCodes;
+import io.helidon.nima.websocket.WsListener;
+import io.helidon.nima.websocket.WsSession;
+import io.helidon.nima.websocket.webserver.WebSocketRouting;
+import io.helidon.nima.websocket.webserver.WsBroadcastGroup;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+@ServerTest
+class WsBroadcastGroupTest {
+    private static final int MEMBERS = 3;
+    // larger than what the socket buffers can hold, so the write to a member that does not read blocks
+    private static final String LARGE_MESSAGE = "a".repeat(16 * 1024 * 1024);
+    private static final WsBroadcastGroup GROUP = WsBroadcastGroup.create();
+    private static final WsBroadcastGroup DROP_GROUP = WsBroadcastGroup.builder()
+            .backpressure(WsBroadcastGroup.Backpressure.DROP)
+            .build();
+    private static final WsBroadcastGroup BUFFER_GROUP = WsBroadcastGroup.builder()
+            .backpressure(WsBroadcastGroup.Backpressure.BUFFER)
+            .maxBuffered(2)
+            .build();
+    private static final WsBroadcastGroup DISCONNECT_GROUP = WsBroadcastGroup.builder()
+            .backpressure(WsBroadcastGroup.Backpressure.DISCONNECT)
+            .maxBuffered(1)
+            .build();
+    private static final WsBroadcastGroup COMPRESSED_GROUP = WsBroadcastGroup.create();
+
+    private final int port;
+    private final HttpClient client;
+
+    WsBroadcastGroupTest(WebServer server) {
+        port = server.port();
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @SetUpRoute
+    static void router(Router.RouterBuilder<?> router) {
+        router.addRouting(WebSocketRouting.builder()
+                                  .endpoint("/broadcast", member(GROUP))
+                                  .endpoint("/drop", member(DROP_GROUP))
+                                  .endpoint("/buffer", member(BUFFER_GROUP))
+                                  .endpoint("/disconnect", member(DISCONNECT_GROUP))
+                                  .endpoint("/compressed", member(COMPRESSED_GROUP)));
+    }
+
+    @AfterAll
+    static void closeGroups() {
+        GROUP.close();
+        DROP_GROUP.close();
+        BUFFER_GROUP.close();
+        DISCONNECT_GROUP.close();
+        COMPRESSED_GROUP.close();
+    }
+
+    @Test
+    void testBroadcast() throws Exception {
+        List<WebSocket> sockets = new ArrayList<>();
+        List<TestListener> listeners = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            TestListener listener = new TestListener();
+            listeners.add(listener);
+            sockets.add(client.newWebSocketBuilder()
+                                .buildAsync(URI.create("ws://localhost:" + port + "/broadcast"), listener)
+                                .get(5, TimeUnit.SECONDS));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (GROUP.size() < MEMBERS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(GROUP.size(), is(MEMBERS));
+
+        assertThat(GROUP.broadcast("First"), is(MEMBERS));
+        assertThat(GROUP.broadcast("Second"), is(MEMBERS));
+
+        for (TestListener listener : listeners) {
+            assertThat(listener.received.poll(5, TimeUnit.SECONDS), is("First"));
+            assertThat(listener.received.poll(5, TimeUnit.SECONDS), is("Second"));
+        }
+
+        for (WebSocket socket : sockets) {
+            socket.sendClose(CloseCodes.NORMAL_CLOSE, "normal").get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testDropStalledMember() throws Exception {
+        try (Socket socket = stalledSocket()) {
+            upgrade(socket, "/drop", null);
+            awaitMembers(DROP_GROUP, 1);
+
+            assertThat(DROP_GROUP.broadcast(LARGE_MESSAGE), is(1));
+            // the member is still writing the first message
+            assertThat(DROP_GROUP.broadcast("Dropped"), is(0));
+            assertThat(DROP_GROUP.size(), is(1));
+        }
+    }
+
+    @Test
+    void testBufferStalledMember() throws Exception {
+        try (Socket socket = stalledSocket()) {
+            upgrade(socket, "/buffer", null);
+            awaitMembers(BUFFER_GROUP, 1);
+
+            assertThat(BUFFER_GROUP.broadcast(LARGE_MESSAGE), is(1));
+            assertThat(BUFFER_GROUP.broadcast("First buffered"), is(1));
+            assertThat(BUFFER_GROUP.broadcast("Second buffered"), is(1));
+            assertThat(BUFFER_GROUP.broadcast("Not buffered"), is(0));
+            assertThat(BUFFER_GROUP.size(), is(1));
+        }
+    }
+
+    @Test
+    void testDisconnectStalledMember() throws Exception {
+        try (Socket socket = stalledSocket()) {
+            upgrade(socket, "/disconnect", null);
+            awaitMembers(DISCONNECT_GROUP, 1);
+
+            assertThat(DISCONNECT_GROUP.broadcast(LARGE_MESSAGE), is(1));
+            assertThat(DISCONNECT_GROUP.broadcast("Buffered"), is(1));
+            // the writer of the member is blocked, the connection must be closed without waiting for it
+            assertThat(DISCONNECT_GROUP.broadcast("Slow consumer"), is(0));
+            assertThat(DISCONNECT_GROUP.size(), is(0));
+
+            // the socket is closed by the server, fails with a timeout if it stays open
+            socket.setSoTimeout(10_000);
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[64 * 1024];
+            try {
+                while (in.read(buffer) != -1) {
+                    // discard data written before the connection was closed
+                }
+            } catch (SocketException ignored) {
+                // connection reset
+            }
+        }
+    }
+
+    @Test
+    void testCompressedBroadcast() throws Exception {
+        try (Socket compressed = new Socket("localhost", port);
+                Socket plain = new Socket("localhost", port)) {
+            String response = upgrade(compressed, "/compressed", "permessage-deflate");
+            assertThat(response, containsString("Sec-WebSocket-Extensions: permessage-deflate"));
+            upgrade(plain, "/compressed", null);
+            awaitMembers(COMPRESSED_GROUP, 2);
+
+            String message = "{\"user\":\"nima\",\"text\":\"Hello Hello Hello Hello Hello\"}";
+            assertThat(COMPRESSED_GROUP.broadcast(message), is(2));
+            assertThat(COMPRESSED_GROUP.broadcast(message), is(2));
+
+            // each message is compressed on its own, without context of the previous one
+            DataInputStream compressedIn = new DataInputStream(compressed.getInputStream());
+            for (int i = 0; i < 2; i++) {
+                Frame frame = readFrame(compressedIn);
+                assertThat(frame.firstByte(), is(0x80 | 0x40 | 0x1));
+                assertThat(frame.payload().length, lessThan(message.length()));
+                assertThat(new String(inflate(frame.payload()), StandardCharsets.UTF_8), is(message));
+            }
+
+            DataInputStream plainIn = new DataInputStream(plain.getInputStream());
+            for (int i = 0; i < 2; i++) {
+                Frame frame = readFrame(plainIn);
+                assertThat(frame.firstByte(), is(0x80 | 0x1));
+                assertThat(new String(frame.payload(), StandardCharsets.UTF_8), is(message));
+            }
+        }
+    }
+
+    @Test
+    void testClosedGroup() {
+        WsBroadcastGroup group = WsBroadcastGroup.builder()
+                .compress(true)
+                .build();
+        group.close();
+        // deflater is released, nothing may be compressed once closed
+        assertThat(group.broadcast("Hello"), is(0));
+        assertThat(group.broadcast(BufferData.create("Hello")), is(0));
+        group.close();
+    }
+
+    private static WsListener member(WsBroadcastGroup group) {
+        return new WsListener() {
+            @Override
+            public void onOpen(WsSession session) {
+                group.add(session);
+            }
+
+            @Override
+            public void onClose(WsSession session, int status, String reason) {
+                group.remove(session);
+            }
+        };
+    }
+
+    private static void awaitMembers(WsBroadcastGroup group, int members) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (group.size() < members && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(group.size(), is(members));
+    }
+
+    // a client that does not read, with a small receive buffer
+    private Socket stalledSocket() throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        return socket;
+    }
+
+    private String upgrade(Socket socket, String path, String extensions) throws IOException {
+        String request = "GET " + path + " HTTP/1.1\r\n"
+                + "Host: localhost:" + port + "\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                + "Sec-WebSocket-Version: 13\r\n"
+                + (extensions == null ? "" : "Sec-WebSocket-Extensions: " + extensions + "\r\n")
+                + "\r\n";
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+
+        StringBuilder response = new StringBuilder();
+        while (!response.toString().endsWith("\r\n\r\n")) {
+            int read = socket.getInputStream().read();
+            if (read < 0) {
+                throw new IOException("Connection closed during upgrade: " + response);
+            }
+            response.append((char) read);
+        }
+        assertThat(response.toString(), containsString("101 Switching Protocols"));
+        return response.toString();
+    }
+
+    private static Frame readFrame(DataInputStream in) throws IOException {
+        int firstByte = in.readUnsignedByte();
+        int length = in.readUnsignedByte();
+        long payloadLength = length;
+        if (length == 126) {
+            payloadLength = in.readUnsignedShort();
+        } else if (length == 127) {
+            payloadLength = in.readLong();
+        }
+        byte[] payload = new byte[(int) payloadLength];
+        in.readFully(payload);
+        return new Frame(firstByte, payload);
+    }
+
+    private static byte[] inflate(byte[] data) throws Exception {
+        Inflater inflater = new Inflater(true);
+        byte[] input = new byte[data.length + 4];
+        System.arraycopy(data, 0, input, 0, data.length);
+        input[data.length + 2] = (byte) 0xFF;
+        input[data.length + 3] = (byte) 0xFF;
+        inflater.setInput(input);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (true) {
+            int length = inflater.inflate(buffer);
+            result.write(buffer, 0, length);
+            if (length == 0 && (inflater.needsInput() || inflater.finished())) {
+                break;
+            }
+        }
+        inflater.end();
+        return result.toByteArray();
+    }
+
+    private record Frame(int firstByte, byte[] payload) {
+    }
+
+    private static class TestListener implements WebSocket.Listener {
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        private final StringBuilder buffered = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffered.append(data);
+            if (last) {
+                received.add(buffered.toString());
+                buffered.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.tests.integration.websocket.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.helidon.nima.testing.junit5.webserver.ServerTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.testing.junit5.webserver.SetUpServer;
+import io.helidon.nima.webserver.Router;
+import io.helidon.nima.webserver.WebServer;
+import io.helidon.nima.websocket.CloseCodes;
+import io.helidon.nima.websocket.webserver.WebSocketRouting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Uses a raw socket, as the JDK WebSocket client does not support extensions.
+ */
+@ServerTest
+class WsPermessageDeflateTest {
+    private static final byte[] TAIL = new byte[] {0x00, 0x00, (byte) 0xFF, (byte) 0xFF};
+    private static final int MASKING_KEY = 0x37FA213D;
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+    private final int port;
+
+    WsPermessageDeflateTest(WebServer server) {
+        this.port = server.port();
+    }
+
+    @SetUpServer
+    static void server(WebServer.Builder builder) {
+        builder.defaultSocket(socket -> socket.maxPayloadSize(MAX_PAYLOAD_SIZE));
+    }
+
+    @SetUpRoute
+    static void router(Router.RouterBuilder<?> router) {
+        router.addRouting(WebSocketRouting.builder().endpoint("/echo", new EchoService()));
+    }
+
+    @Test
+    void testCompressedEcho() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            String response = upgrade(socket, "permessage-deflate; client_max_window_bits");
+            assertThat(response, containsString("Sec-WebSocket-Extensions: permessage-deflate"));
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            Inflater inflater = new Inflater(true);
+
+            String message = "{\"user\":\"nima\",\"text\":\"Hello Hello Hello Hello Hello\"}";
+            for (int i = 0; i < 2; i++) {
+                writeFrame(out, 0x80 | 0x40 | 0x1, deflate(deflater, message.getBytes(StandardCharsets.UTF_8)));
+
+                Frame frame = readFrame(in);
+                assertThat(frame.firstByte(), is(0x80 | 0x40 | 0x1));
+                assertThat(frame.payload().length, lessThan(message.length()));
+                assertThat(new String(inflate(inflater, frame.payload()), StandardCharsets.UTF_8), is(message));
+            }
+
+            close(in, out);
+        }
+    }
+
+    @Test
+    void testCompressedLargeMessage() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            upgrade(socket, "permessage-deflate");
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+
+            // a few hundred bytes when compressed, delivered to the listener (and echoed) in fragments
+            String message = "a".repeat(300 * 1024);
+            byte[] compressed = deflate(new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+                                        message.getBytes(StandardCharsets.UTF_8));
+            assertThat(compressed.length, lessThan(1024));
+            writeFrame(out, 0x80 | 0x40 | 0x1, compressed);
+
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            Inflater inflater = new Inflater(true);
+            int frames = 0;
+            Frame frame;
+            do {
+                frame = readFrame(in);
+                frames++;
+                byte[] inflated = inflate(inflater, frame.payload(), (frame.firstByte() & 0x80) != 0);
+                assertThat(inflated.length, lessThanOrEqualTo(64 * 1024));
+                received.write(inflated);
+            } while ((frame.firstByte() & 0x80) == 0);
+            assertThat(frames, greaterThan(1));
+            assertThat(received.toString(StandardCharsets.UTF_8), is(message));
+
+            close(in, out);
+        }
+    }
+
+    @Test
+    void testDecompressionBomb() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            upgrade(socket, "permessage-deflate");
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+
+            byte[] bomb = deflate(new Deflater(Deflater.BEST_COMPRESSION, true), new byte[4 * MAX_PAYLOAD_SIZE]);
+            assertThat(bomb.length, lessThan(8 * 1024));
+            writeFrame(out, 0x80 | 0x40 | 0x2, bomb);
+
+            Frame frame = readFrame(in);
+            assertThat(frame.firstByte(), is(0x80 | 0x8));
+            int status = ((frame.payload()[0] & 0xFF) << 8) | (frame.payload()[1] & 0xFF);
+            assertThat(status, is(CloseCodes.TOO_BIG));
+        }
+    }
+
+    @Test
+    void testNotNegotiated() throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            String response = upgrade(socket, "x-webkit-deflate-frame");
+            assertThat(response, not(containsString("Sec-WebSocket-Extensions")));
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+
+            // large frame of multibyte characters is delivered in fragments, a character split between them
+            String message = "a" + "é".repeat(50_000);
+            writeFrame(out, 0x80 | 0x1, message.getBytes(StandardCharsets.UTF_8));
+
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            Frame frame;
+            do {
+                frame = readFrame(in);
+                received.write(frame.payload());
+            } while ((frame.firstByte() & 0x80) == 0);
+            assertThat(received.toString(StandardCharsets.UTF_8), is(message));
+
+            close(in, out);
+        }
+    }
+
+    private void close(DataInputStream in, OutputStream out) throws IOException {
+        byte[] reason = "normal".getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[2 + reason.length];
+        payload[0] = (byte) (CloseCodes.NORMAL_CLOSE >>> 8);
+        payload[1] = (byte) CloseCodes.NORMAL_CLOSE;
+        System.arraycopy(reason, 0, payload, 2, reason.length);
+        writeFrame(out, 0x80 | 0x8, payload);
+
+        Frame frame = readFrame(in);
+        assertThat(frame.firstByte(), is(0x80 | 0x8));
+    }
+
+    private String upgrade(Socket socket, String extensions) throws IOException {
+        String request = "GET /echo HTTP/1.1\r\n"
+                + "Host: localhost:" + port + "\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                + "Sec-WebSocket-Version: 13\r\n"
+                + "Sec-WebSocket-Extensions: " + extensions + "\r\n"
+                + "\r\n";
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+
+        StringBuilder response = new StringBuilder();
+        while (!response.toString().endsWith("\r\n\r\n")) {
+            int read = socket.getInputStream().read();
+            if (read < 0) {
+                throw new IOException("Connection closed during upgrade: " + response);
+            }
+            response.append((char) read);
+        }
+        assertThat(response.toString(), containsString("101 Switching Protocols"));
+        return response.toString();
+    }
+
+    private static void writeFrame(OutputStream out, int firstByte, byte[] payload) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(firstByte);
+        if (payload.length < 126) {
+            frame.write(0x80 | payload.length);
+        } else if (payload.length <= 0xFFFF) {
+            frame.write(0x80 | 126);
+            frame.write(payload.length >>> 8);
+            frame.write(payload.length);
+        } else {
+            frame.write(0x80 | 127);
+            for (int i = 7; i >= 0; i--) {
+                frame.write((int) ((long) payload.length >>> (8 * i)));
+            }
+        }
+        for (int i = 3; i >= 0; i--) {
+            frame.write(MASKING_KEY >>> (8 * i));
+        }
+        for (int i = 0; i < payload.length; i++) {
+            frame.write(payload[i] ^ (MASKING_KEY >>> (24 - 8 * (i % 4))));
+        }
+        out.write(frame.toByteArray());
+        out.flush();
+    }
+
+    private static Frame readFrame(DataInputStream in) throws IOException {
+        int firstByte = in.readUnsignedByte();
+        int length = in.readUnsignedByte();
+        assertThat("Server frames must not be masked", length & 0x80, is(0));
+        long payloadLength = length;
+        if (length == 126) {
+            payloadLength = in.readUnsignedShort();
+        } else if (length == 127) {
+            payloadLength = in.readLong();
+        }
+        byte[] payload = new byte[(int) payloadLength];
+        in.readFully(payload);
+        return new Frame(firstByte, payload);
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] data) {
+        deflater.setInput(data);
+        byte[] buffer = new byte[data.length + 64];
+        int length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+        return Arrays.copyOf(buffer, length - TAIL.length);
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] data) throws Exception {
+        return inflate(inflater, data, true);
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] data, boolean last) throws Exception {
+        byte[] input = data;
+        if (last) {
+            input = Arrays.copyOf(data, data.length + TAIL.length);
+            System.arraycopy(TAIL, 0, input, data.length, TAIL.length);
+        }
+        inflater.setInput(input);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (true) {
+            int length = inflater.inflate(buffer);
+            result.write(buffer, 0, length);
+            if (length == 0 && (inflater.needsInput() || inflater.finished())) {
+                break;
+            }
+        }
+        return result.toByteArray();
+    }
+
+    private record Frame(int firstByte, byte[] payload) {
+    }
+}
@@ -23,9 +23,6 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 import io.helidon.common.GenericType;
 import io.helidon.common.buffers.BufferData;
@@ -41,7 +38,6 @@ import io.helidon.common.http.Http.HeaderValue;
 import io.helidon.common.http.Http.HeaderValues;
 import io.helidon.common.http.Http1HeadersParser;
 import io.helidon.common.http.WritableHeaders;
-import io.helidon.common.socket.SocketOptions;
 import io.helidon.common.uri.UriEncoding;
 import io.helidon.common.uri.UriQueryWriteable;
 import io.helidon.nima.common.tls.Tls;
@@ -51,14 +47,10 @@ import io.helidon.nima.webclient.ClientConnection;
 import io.helidon.nima.webclient.ConnectionKey;
 import io.helidon.nima.webclient.UriHelper;
 
-import static java.lang.System.Logger.Level.DEBUG;
-
 class ClientRequestImpl implements Http1ClientRequest {
-    private static final System.Logger LOGGER = System.getLogger(ClientRequestImpl.class.getName());
     private static final byte[] TERMINATING_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.UTF_8);
     private static final byte[] CRLF_BYTES = "\r\n".getBytes(StandardCharsets.UTF_8);
     private static final String HTTPS = "https";
-    private static final Map<KeepAliveKey, Queue<Http1ClientConnection>> CHANNEL_CACHE = new ConcurrentHashMap<>();
 
     private final WritableHeaders<?> explicitHeaders = WritableHeaders.create();
     private final UriQueryWriteable query;
@@ -68,7 +60,6 @@ class ClientRequestImpl implements Http1ClientRequest {
     private final Http.Method method;
     private final UriHelper uri;
     private final boolean defaultKeepAlive = true;
-    private final SocketOptions channelOptions;
     private final BufferData writeBuffer = BufferData.growing(128);
     // todo configurable
     private MediaContext mediaContext = MediaContext.create();
@@ -86,7 +77,6 @@ class ClientRequestImpl implements Http1ClientRequest {
         this.uri = helper;
 
         this.tls = client.tls();
-        this.channelOptions = client.socketOptions();
         this.query = query;
     }
 
@@ -366,7 +356,6 @@ class ClientRequestImpl implements Http1ClientRequest {
             return this.connection;
         }
 
-        Http1ClientConnection connection;
         Tls tls;
         if (uri.scheme().equals(HTTPS)) {
             tls = this.tls;
@@ -374,41 +363,13 @@ class ClientRequestImpl implements Http1ClientRequest {
             tls = null;
         }
 
-        if (keepAlive) {
-            // todo add timeouts, proxy and tls to the key
-            KeepAliveKey keepAliveKey = new KeepAliveKey(uri.scheme(), uri.authority(), tls);
-            var connectionQueue = CHANNEL_CACHE.computeIfAbsent(keepAliveKey,
-                                                                it -> new ConcurrentLinkedDeque<>());
-
-            // TODO we must limit the queue in size
-            while ((connection = connectionQueue.poll()) != null && !connection.isConnected()) {
-            }
-
-            if (connection == null) {
-                connection = new Http1ClientConnection(channelOptions,
-                                                       connectionQueue,
-                                                       new ConnectionKey(uri.scheme(),
-                                                                         uri.host(),
-                                                                         uri.port(),
-                                                                         tls,
-                                                                         client.dnsResolver(),
-                                                                         client.dnsAddressLookup())).connect();
-            } else {
-                if (LOGGER.isLoggable(DEBUG)) {
-                    LOGGER.log(DEBUG, String.format("[%s] client connection obtained %s",
-                                                    connection.channelId(),
-                                                    Thread.currentThread().getName()));
-                }
-            }
-        } else {
-            connection = new Http1ClientConnection(channelOptions, new ConnectionKey(uri.scheme(),
-                                                                                     uri.host(),
-                                                                                     uri.port(),
-                                                                                     tls,
-                                                                                     client.dnsResolver(),
-                                                                                     client.dnsAddressLookup())).connect();
-        }
-        return connection;
+        return client.connectionPool().acquire(new ConnectionKey(uri.scheme(),
+                                                                 uri.host(),
+                                                                 uri.port(),
+                                                                 tls,
+                                                                 client.dnsResolver(),
+                                                                 client.dnsAddressLookup()),
+                                               keepAlive);
     }
 
     private byte[] entityBytes(Object entity, ClientRequestHeaders headers) {
@@ -425,9 +386,6 @@ class ClientRequestImpl implements Http1ClientRequest {
         return bos.toByteArray();
     }
 
-    private record KeepAliveKey(String scheme, String authority, Tls tlsConfig) {
-    }
-
     private static class ClientConnectionOutputStream extends OutputStream {
         private final ClientConnection connection;
         private final DataWriter writer;
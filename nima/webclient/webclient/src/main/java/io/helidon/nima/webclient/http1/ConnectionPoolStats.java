@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webclient.http1;
+
+/**
+ * Snapshot of the state of the keep-alive connection pool of an {@link io.helidon.nima.webclient.http1.Http1Client}.
+ * Values are consistent with each other at the time the snapshot was taken.
+ */
+public interface ConnectionPoolStats {
+    /**
+     * Number of connections currently used by a request.
+     *
+     * @return leased connections
+     */
+    int leased();
+
+    /**
+     * Number of open connections waiting in the pool to be reused.
+     *
+     * @return idle connections
+     */
+    int idle();
+
+    /**
+     * Number of requests waiting for a connection, because the per-route or total limit was reached.
+     *
+     * @return pending requests
+     */
+    int pending();
+
+    /**
+     * Total number of connections opened by the pool.
+     *
+     * @return created connections
+     */
+    long created();
+
+    /**
+     * Total number of pooled connections that were closed, either by the client, or because they were idle
+     * for too long, or were found to be no longer usable.
+     *
+     * @return closed connections
+     */
+    long closed();
+}
@@ -16,6 +16,8 @@
 
 package io.helidon.nima.webclient.http1;
 
+import java.time.Duration;
+
 import io.helidon.nima.webclient.HttpClient;
 import io.helidon.nima.webclient.WebClient;
 
@@ -33,18 +35,95 @@ public interface Http1Client extends HttpClient<Http1ClientRequest, Http1ClientR
         return new Http1ClientBuilder();
     }
 
+    /**
+     * Current state of the keep-alive connection pool of this client.
+     *
+     * @return connection pool statistics
+     */
+    ConnectionPoolStats connectionPoolStats();
+
     /**
      * Builder for {@link io.helidon.nima.webclient.http1.Http1Client}.
      */
     class Http1ClientBuilder extends WebClient.Builder<Http1ClientBuilder, Http1Client> {
 
+        private int maxConnectionsPerRoute = 32;
+        private int maxConnections = 256;
+        private Duration connectionIdleTimeout = Duration.ofSeconds(30);
+        private Duration connectionAcquireTimeout = Duration.ofSeconds(10);
+
         private Http1ClientBuilder() {
         }
 
+        /**
+         * Maximal number of connections to a single endpoint (scheme, host, port and TLS configuration).
+         * When reached, requests to the endpoint wait for a connection to be released.
+         * Defaults to {@code 32}.
+         *
+         * @param maxConnectionsPerRoute maximal number of connections per endpoint
+         * @return updated builder
+         */
+        public Http1ClientBuilder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            if (maxConnectionsPerRoute < 1) {
+                throw new IllegalArgumentException("Maximal number of connections per route must be at least 1");
+            }
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Maximal number of connections of this client in total. When reached, idle connections to other endpoints
+         * are closed to make room, and if there are none, requests wait for a connection to be released.
+         * Defaults to {@code 256}.
+         *
+         * @param maxConnections maximal number of connections
+         * @return updated builder
+         */
+        public Http1ClientBuilder maxConnections(int maxConnections) {
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("Maximal number of connections must be at least 1");
+            }
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Keep-alive connection not used for longer than this timeout is closed.
+         * Should be lower than the keep-alive timeout of the servers we connect to.
+         * Defaults to 30 seconds.
+         *
+         * @param connectionIdleTimeout idle timeout
+         * @return updated builder
+         */
+        public Http1ClientBuilder connectionIdleTimeout(Duration connectionIdleTimeout) {
+            this.connectionIdleTimeout = connectionIdleTimeout;
+            return this;
+        }
+
+        /**
+         * How long to wait for a connection when the per-route or total limit is reached.
+         * Requests are served in the order they started waiting.
+         * Defaults to 10 seconds.
+         *
+         * @param connectionAcquireTimeout acquire timeout
+         * @return updated builder
+         */
+        public Http1ClientBuilder connectionAcquireTimeout(Duration connectionAcquireTimeout) {
+            this.connectionAcquireTimeout = connectionAcquireTimeout;
+            return this;
+        }
+
         @Override
         public Http1Client build() {
             return new Http1ClientImpl(this);
         }
+
+        Http1ConnectionPool.Config poolConfig() {
+            return new Http1ConnectionPool.Config(maxConnectionsPerRoute,
+                                                  maxConnections,
+                                                  connectionIdleTimeout,
+                                                  connectionAcquireTimeout);
+        }
     }
 
 }
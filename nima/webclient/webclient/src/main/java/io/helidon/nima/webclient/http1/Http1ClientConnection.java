@@ -24,7 +24,7 @@ import java.net.Socket;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
 import java.util.HexFormat;
-import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSession;
@@ -47,26 +47,22 @@ import static java.lang.System.Logger.Level.TRACE;
 class Http1ClientConnection implements ClientConnection {
     private static final System.Logger LOGGER = System.getLogger(Http1ClientConnection.class.getName());
 
-    private final Queue<Http1ClientConnection> connectionQueue;
+    private final Http1ConnectionPool pool;
     private final ConnectionKey connectionKey;
     private final io.helidon.common.socket.SocketOptions options;
-    private final boolean keepAlive;
+    private final AtomicBoolean leased = new AtomicBoolean();
+    private volatile boolean keepAlive;
+    // guarded by pool lock
+    private long idleSince;
     private String channelId;
     private Socket socket;
     private HelidonSocket helidonSocket;
     private DataReader reader;
     private DataWriter writer;
 
-    Http1ClientConnection(SocketOptions options, ConnectionKey connectionKey) {
-        this(options, null, connectionKey);
-    }
-
-    Http1ClientConnection(SocketOptions options,
-                          Queue<Http1ClientConnection> connectionQueue,
-                          ConnectionKey connectionKey) {
+    Http1ClientConnection(Http1ConnectionPool pool, SocketOptions options, ConnectionKey connectionKey) {
+        this.pool = pool;
         this.options = options;
-        this.connectionQueue = connectionQueue;
-        this.keepAlive = (connectionQueue != null);
         this.connectionKey = connectionKey;
     }
 
@@ -82,15 +78,17 @@ class Http1ClientConnection implements ClientConnection {
 
     @Override
     public void release() {
-        finishRequest();
+        if (leased.compareAndSet(true, false)) {
+            pool.release(this);
+        }
     }
 
     @Override
     public void close() {
-        try {
-            this.socket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (leased.compareAndSet(true, false)) {
+            pool.discard(this);
+        } else {
+            closeSocket();
         }
     }
 
@@ -99,8 +97,53 @@ class Http1ClientConnection implements ClientConnection {
         return channelId;
     }
 
-    boolean isConnected() {
-        return socket != null && socket.isConnected();
+    /**
+     * Whether this connection can be used for another request.
+     * This does not block: a connection closed by the server without any data sent cannot be detected,
+     * any data received while idle (such as a timeout response, or TLS close notification) makes the connection unusable.
+     *
+     * @return whether the connection is still open and there is no unexpected data to read
+     */
+    boolean isReusable() {
+        if (socket == null || socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return false;
+        }
+        try {
+            return reader.available() == 0 && socket.getInputStream().available() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    ConnectionKey connectionKey() {
+        return connectionKey;
+    }
+
+    boolean keepAlive() {
+        return keepAlive;
+    }
+
+    void lease(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        this.leased.set(true);
+    }
+
+    long idleSince() {
+        return idleSince;
+    }
+
+    void idleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+
+    void closeSocket() {
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            if (LOGGER.isLoggable(DEBUG)) {
+                LOGGER.log(DEBUG, String.format("[%s] failed to close client connection", channelId), e);
+            }
+        }
     }
 
     Http1ClientConnection connect() {
@@ -169,20 +212,6 @@ class Http1ClientConnection implements ClientConnection {
         return this;
     }
 
-    void finishRequest() {
-        if (keepAlive && connectionQueue != null && socket.isConnected()) {
-            if (connectionQueue.offer(this)) {
-                if (LOGGER.isLoggable(DEBUG)) {
-                    LOGGER.log(DEBUG, String.format("[%s] client connection returned %s",
-                                                    channelId,
-                                                    Thread.currentThread().getName()));
-                }
-                return;
-            }
-        }
-        this.release();
-    }
-
     private void debugTls(SSLSocket sslSocket) {
         SSLSession sslSession = sslSocket.getSession();
         if (sslSession == null) {
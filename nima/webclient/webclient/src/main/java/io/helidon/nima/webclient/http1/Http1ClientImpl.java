@@ -22,9 +22,11 @@ import io.helidon.nima.webclient.LoomClient;
 import io.helidon.nima.webclient.UriHelper;
 
 class Http1ClientImpl extends LoomClient implements Http1Client {
+    private final Http1ConnectionPool connectionPool;
 
     Http1ClientImpl(Http1ClientBuilder builder) {
         super(builder);
+        this.connectionPool = new Http1ConnectionPool(executor(), socketOptions(), builder.poolConfig());
     }
 
     @Override
@@ -34,4 +36,13 @@ class Http1ClientImpl extends LoomClient implements Http1Client {
 
         return new ClientRequestImpl(this, method, helper, query);
     }
+
+    @Override
+    public ConnectionPoolStats connectionPoolStats() {
+        return connectionPool.stats();
+    }
+
+    Http1ConnectionPool connectionPool() {
+        return connectionPool;
+    }
 }
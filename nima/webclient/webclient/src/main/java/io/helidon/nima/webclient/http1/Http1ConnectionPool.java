@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webclient.http1;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.helidon.common.socket.SocketOptions;
+import io.helidon.nima.webclient.ConnectionKey;
+
+import static java.lang.System.Logger.Level.DEBUG;
+
+/**
+ * Pool of HTTP/1 keep-alive connections of a single client.
+ * <p>
+ * Connections are pooled per route (scheme, host, port, TLS and DNS configuration), with a limit of connections
+ * per route, and a limit of connections in total. When a limit is reached, requests wait for a connection
+ * in the order they arrived, up to the acquire timeout. A released connection is handed over to the first waiting
+ * request it can serve. When only the total limit is reached, the oldest idle connection of another route is closed
+ * to make room.
+ * <p>
+ * Idle connections are reused in last-in-first-out order, and validated before reuse without blocking.
+ * A maintenance task closes connections idle for longer than the idle timeout.
+ */
+class Http1ConnectionPool {
+    private static final System.Logger LOGGER = System.getLogger(Http1ConnectionPool.class.getName());
+
+    // fair, so waiters do not starve when the lock is contended
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Map<ConnectionKey, Route> routes = new HashMap<>();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final AtomicBoolean maintenanceRunning = new AtomicBoolean();
+    private final ExecutorService executor;
+    private final SocketOptions socketOptions;
+    private final Config config;
+
+    // all guarded by lock
+    // leased, idle and connecting connections
+    private int allocated;
+    private int leased;
+    private int idle;
+    private long created;
+    private long closed;
+
+    Http1ConnectionPool(ExecutorService executor, SocketOptions socketOptions, Config config) {
+        this.executor = executor;
+        this.socketOptions = socketOptions;
+        this.config = config;
+    }
+
+    /**
+     * Obtain a connection, either an idle pooled one, or a new one.
+     *
+     * @param connectionKey route to connect to
+     * @param keepAlive     whether the connection should be returned to the pool once released
+     * @return leased connection
+     * @throws IllegalStateException in case no connection can be obtained within acquire timeout
+     */
+    Http1ClientConnection acquire(ConnectionKey connectionKey, boolean keepAlive) {
+        long deadline = System.nanoTime() + config.acquireTimeout().toNanos();
+        while (true) {
+            Waiter waiter = await(connectionKey, deadline);
+            Http1ClientConnection connection = waiter.connection;
+            if (connection == null) {
+                return connect(waiter.route, keepAlive);
+            }
+            if (connection.isReusable()) {
+                if (LOGGER.isLoggable(DEBUG)) {
+                    LOGGER.log(DEBUG, String.format("[%s] client connection obtained %s",
+                                                    connection.channelId(),
+                                                    Thread.currentThread().getName()));
+                }
+                connection.lease(keepAlive);
+                return connection;
+            }
+            // closed by the server while idle, try again
+            discard(connection);
+        }
+    }
+
+    /**
+     * Return a leased connection to the pool, or close it if it cannot be reused.
+     *
+     * @param connection released connection
+     */
+    void release(Http1ClientConnection connection) {
+        if (!connection.keepAlive() || !connection.isReusable()) {
+            discard(connection);
+            return;
+        }
+        List<Http1ClientConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            connection.idleSince(System.nanoTime());
+            routes.get(connection.connectionKey()).idle.addFirst(connection);
+            leased--;
+            idle++;
+            dispatch(toClose);
+        } finally {
+            lock.unlock();
+        }
+        close(toClose);
+        if (LOGGER.isLoggable(DEBUG)) {
+            LOGGER.log(DEBUG, String.format("[%s] client connection returned %s",
+                                            connection.channelId(),
+                                            Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Close a leased connection and free its place in the pool.
+     *
+     * @param connection connection to close
+     */
+    void discard(Http1ClientConnection connection) {
+        List<Http1ClientConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            routes.get(connection.connectionKey()).allocated--;
+            allocated--;
+            leased--;
+            closed++;
+            dispatch(toClose);
+        } finally {
+            lock.unlock();
+        }
+        connection.closeSocket();
+        close(toClose);
+    }
+
+    ConnectionPoolStats stats() {
+        lock.lock();
+        try {
+            return new Stats(leased, idle, waiters.size(), created, closed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // wait until we are granted either an idle connection, or a permit to open a new one
+    private Waiter await(ConnectionKey connectionKey, long deadline) {
+        List<Http1ClientConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            Route route = routes.computeIfAbsent(connectionKey, Route::new);
+            Waiter waiter = new Waiter(route, lock.newCondition());
+            waiters.addLast(waiter);
+            route.waiting++;
+            dispatch(toClose);
+            while (!waiter.granted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    abandon(waiter);
+                    throw new IllegalStateException("No HTTP/1 connection available for " + connectionKey.host() + ":"
+                                                            + connectionKey.port() + " within "
+                                                            + config.acquireTimeout() + ", " + leased
+                                                            + " connections are leased, " + waiters.size()
+                                                            + " requests are waiting");
+                }
+                try {
+                    waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        // granted before this thread could wake up, it is no longer queued
+                        returnGrant(waiter, toClose);
+                    } else {
+                        abandon(waiter);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for an HTTP/1 connection", e);
+                }
+            }
+            return waiter;
+        } finally {
+            lock.unlock();
+            close(toClose);
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        waiters.remove(waiter);
+        waiter.route.waiting--;
+    }
+
+    // give back an idle connection or a permit granted to a waiter that is not going to use it, must be called under lock
+    private void returnGrant(Waiter waiter, List<Http1ClientConnection> toClose) {
+        Route route = waiter.route;
+        if (waiter.connection == null) {
+            route.allocated--;
+            allocated--;
+        } else {
+            route.idle.addFirst(waiter.connection);
+            idle++;
+        }
+        leased--;
+        dispatch(toClose);
+    }
+
+    private Http1ClientConnection connect(Route route, boolean keepAlive) {
+        Http1ClientConnection connection;
+        try {
+            connection = new Http1ClientConnection(this, socketOptions, route.connectionKey).connect();
+        } catch (RuntimeException e) {
+            List<Http1ClientConnection> toClose = new ArrayList<>();
+            lock.lock();
+            try {
+                route.allocated--;
+                allocated--;
+                leased--;
+                dispatch(toClose);
+            } finally {
+                lock.unlock();
+            }
+            close(toClose);
+            throw e;
+        }
+        lock.lock();
+        try {
+            created++;
+        } finally {
+            lock.unlock();
+        }
+        connection.lease(keepAlive);
+        startMaintenance();
+        return connection;
+    }
+
+    // hand over idle connections and permits to waiters in order of arrival, must be called under lock
+    private void dispatch(List<Http1ClientConnection> toClose) {
+        Iterator<Waiter> iterator = waiters.iterator();
+        while (iterator.hasNext()) {
+            if (idle == 0 && allocated >= config.maxConnections()) {
+                // nothing to give to anybody
+                return;
+            }
+            Waiter waiter = iterator.next();
+            Route route = waiter.route;
+            Http1ClientConnection connection = route.idle.pollFirst();
+            if (connection != null) {
+                idle--;
+            } else if (route.allocated < config.maxConnectionsPerRoute()
+                    && (allocated < config.maxConnections() || evictOldestIdle(toClose))) {
+                route.allocated++;
+                allocated++;
+            } else {
+                // this route is at its limit, requests for other routes may still be served
+                continue;
+            }
+            leased++;
+            iterator.remove();
+            route.waiting--;
+            waiter.grant(connection);
+        }
+    }
+
+    // close the idle connection that was unused for the longest time, to make room for a different route
+    private boolean evictOldestIdle(List<Http1ClientConnection> toClose) {
+        Route oldest = null;
+        long oldestIdleSince = 0;
+        for (Route route : routes.values()) {
+            Http1ClientConnection candidate = route.idle.peekLast();
+            if (candidate != null && (oldest == null || candidate.idleSince() - oldestIdleSince < 0)) {
+                oldest = route;
+                oldestIdleSince = candidate.idleSince();
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        toClose.add(oldest.idle.pollLast());
+        oldest.allocated--;
+        allocated--;
+        idle--;
+        closed++;
+        return true;
+    }
+
+    private void close(List<Http1ClientConnection> toClose) {
+        for (Http1ClientConnection connection : toClose) {
+            if (LOGGER.isLoggable(DEBUG)) {
+                LOGGER.log(DEBUG, String.format("[%s] closing pooled client connection", connection.channelId()));
+            }
+            connection.closeSocket();
+        }
+    }
+
+    private void startMaintenance() {
+        if (maintenanceRunning.compareAndSet(false, true)) {
+            executor.submit(this::maintenance);
+        }
+    }
+
+    private void maintenance() {
+        long sleepMillis = Math.max(1, config.idleTimeout().toMillis() / 2);
+        try {
+            do {
+                Thread.sleep(sleepMillis);
+                evictIdle();
+            } while (hasConnections());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            maintenanceRunning.set(false);
+        }
+        // a connection may have been created after the last check
+        if (hasConnections()) {
+            startMaintenance();
+        }
+    }
+
+    private boolean hasConnections() {
+        lock.lock();
+        try {
+            return allocated > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        List<Http1ClientConnection> toClose = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleTimeout = config.idleTimeout().toNanos();
+        lock.lock();
+        try {
+            Iterator<Route> routeIterator = routes.values().iterator();
+            while (routeIterator.hasNext()) {
+                Route route = routeIterator.next();
+                Iterator<Http1ClientConnection> iterator = route.idle.iterator();
+                while (iterator.hasNext()) {
+                    Http1ClientConnection connection = iterator.next();
+                    if (now - connection.idleSince() > idleTimeout || !connection.isReusable()) {
+                        iterator.remove();
+                        toClose.add(connection);
+                        route.allocated--;
+                        allocated--;
+                        idle--;
+                        closed++;
+                    }
+                }
+                if (route.allocated == 0 && route.waiting == 0) {
+                    routeIterator.remove();
+                }
+            }
+            if (!toClose.isEmpty()) {
+                dispatch(toClose);
+            }
+        } finally {
+            lock.unlock();
+        }
+        close(toClose);
+    }
+
+    /**
+     * Configuration of a connection pool.
+     *
+     * @param maxConnectionsPerRoute maximal number of connections to a single route
+     * @param maxConnections         maximal number of connections in total
+     * @param idleTimeout            time after which an idle connection is closed
+     * @param acquireTimeout         how long to wait for a connection when a limit is reached
+     */
+    record Config(int maxConnectionsPerRoute,
+                  int maxConnections,
+                  Duration idleTimeout,
+                  Duration acquireTimeout) {
+    }
+
+    private record Stats(int leased, int idle, int pending, long created, long closed) implements ConnectionPoolStats {
+    }
+
+    private static final class Route {
+        private final ConnectionKey connectionKey;
+        // most recently used first
+        private final Deque<Http1ClientConnection> idle = new ArrayDeque<>();
+        // leased, idle and connecting connections of this route
+        private int allocated;
+        private int waiting;
+
+        private Route(ConnectionKey connectionKey) {
+            this.connectionKey = connectionKey;
+        }
+    }
+
+    private static final class Waiter {
+        private final Route route;
+        private final Condition condition;
+        private boolean granted;
+        // null if granted a permit to open a new connection
+        private Http1ClientConnection connection;
+
+        private Waiter(Route route, Condition condition) {
+            this.route = route;
+            this.condition = condition;
+        }
+
+        private void grant(Http1ClientConnection connection) {
+            this.connection = connection;
+            this.granted = true;
+            condition.signal();
+        }
+    }
+}
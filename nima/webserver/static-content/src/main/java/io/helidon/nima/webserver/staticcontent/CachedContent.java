@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.staticcontent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.ServerRequestHeaders;
+import io.helidon.common.http.ServerResponseHeaders;
+import io.helidon.nima.http.encoding.ContentEncoder;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
+
+/**
+ * Content of a resource cached in memory, with its identity representation and representations pre-encoded
+ * using each supported content encoding.
+ * Content negotiation is a lookup of the encoder selected by {@link ContentEncodingContext} for the request, so content
+ * must be encoded with the context of the server that serves it (see {@link #encodedWith(ContentEncodingContext)}).
+ */
+final class CachedContent {
+    private static final String[] PRECOMPRESSED = {"gzip", "x-gzip", "deflate"};
+    private static final Http.HeaderValue VARY_ACCEPT_ENCODING = Http.Header.createCached(Http.Header.VARY,
+                                                                                          "Accept-Encoding");
+
+    private final Variant identity;
+    private final Map<ContentEncoder, Variant> encoded;
+    private final ContentEncodingContext encodingContext;
+    private final long weight;
+
+    private CachedContent(Variant identity,
+                          Map<ContentEncoder, Variant> encoded,
+                          ContentEncodingContext encodingContext,
+                          long weight) {
+        this.identity = identity;
+        this.encoded = encoded;
+        this.encodingContext = encodingContext;
+        this.weight = weight;
+    }
+
+    /**
+     * Create cached content, computing a strong entity tag and encoding the bytes using all supported
+     * content encodings.
+     *
+     * @param bytes           identity bytes
+     * @param encodingContext encoding context to obtain encoders, {@code null} to only cache the identity representation
+     * @return cached content
+     */
+    static CachedContent create(byte[] bytes, ContentEncodingContext encodingContext) {
+        return create(Variant.create(bytes, etag(bytes), null), encodingContext);
+    }
+
+    /**
+     * Whether this content was encoded using the provided encoding context.
+     *
+     * @param encodingContext encoding context
+     * @return {@code true} if the content can be served using the encoding context
+     */
+    boolean encodedWith(ContentEncodingContext encodingContext) {
+        return this.encodingContext == encodingContext;
+    }
+
+    /**
+     * Content with the same identity representation, encoded using a different encoding context.
+     *
+     * @param encodingContext encoding context to obtain encoders
+     * @return cached content
+     */
+    CachedContent encode(ContentEncodingContext encodingContext) {
+        return create(identity, encodingContext);
+    }
+
+    private static CachedContent create(Variant identity, ContentEncodingContext encodingContext) {
+        byte[] bytes = identity.bytes();
+        String etag = identity.etag();
+        Map<ContentEncoder, Variant> encoded = new IdentityHashMap<>();
+        Map<String, Variant> byEncoding = new HashMap<>();
+        long weight = bytes.length;
+
+        if (encodingContext != null && encodingContext.contentEncodingEnabled()) {
+            for (String encoding : PRECOMPRESSED) {
+                if (!encodingContext.contentEncodingSupported(encoding)) {
+                    continue;
+                }
+                ContentEncoder encoder = encodingContext.encoder(encoding);
+                Variant variant = byEncoding.get(canonical(encoding));
+                if (variant == null) {
+                    variant = encode(bytes, etag, encoding, encoder);
+                    byEncoding.put(canonical(encoding), variant);
+                    weight += variant.bytes().length;
+                }
+                encoded.put(encoder, variant);
+            }
+        }
+
+        return new CachedContent(identity, encoded, encodingContext, weight);
+    }
+
+    /**
+     * Select a variant for the request.
+     *
+     * @param requestHeaders request headers
+     * @param ranged         whether a range was requested, ranges are always served from identity
+     * @return variant to send
+     */
+    Variant select(ServerRequestHeaders requestHeaders, boolean ranged) {
+        if (ranged || encoded.isEmpty()) {
+            return identity;
+        }
+        return encoded.getOrDefault(encodingContext.encoder(requestHeaders), identity);
+    }
+
+    /**
+     * Add headers describing the selected variant.
+     *
+     * @param headers response headers
+     * @param variant selected variant
+     */
+    void headers(ServerResponseHeaders headers, Variant variant) {
+        if (!encoded.isEmpty()) {
+            headers.set(VARY_ACCEPT_ENCODING);
+        }
+        if (variant.contentEncoding() != null) {
+            headers.set(variant.contentEncoding());
+        }
+        headers.set(variant.contentLength());
+    }
+
+    /**
+     * Identity variant.
+     *
+     * @return identity
+     */
+    Variant identity() {
+        return identity;
+    }
+
+    /**
+     * Number of bytes used by all variants.
+     *
+     * @return weight in bytes
+     */
+    long weight() {
+        return weight;
+    }
+
+    private static String canonical(String encoding) {
+        return "x-gzip".equals(encoding) ? "gzip" : encoding;
+    }
+
+    private static Variant encode(byte[] bytes, String etag, String encoding, ContentEncoder encoder) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2 + 16);
+        try (OutputStream os = encoder.encode(baos)) {
+            os.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String canonical = canonical(encoding);
+        // strong entity tags must differ between representations
+        return Variant.create(baos.toByteArray(),
+                              etag + "-" + canonical,
+                              Http.Header.createCached(Http.Header.CONTENT_ENCODING, canonical));
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A single representation of the content.
+     *
+     * @param bytes           entity bytes
+     * @param etag            strong entity tag (not quoted)
+     * @param contentEncoding content encoding header, {@code null} for identity
+     * @param contentLength   content length header
+     */
+    record Variant(byte[] bytes, String etag, Http.HeaderValue contentEncoding, Http.HeaderValue contentLength) {
+        static Variant create(byte[] bytes, String etag, Http.HeaderValue contentEncoding) {
+            return new Variant(bytes,
+                               etag,
+                               contentEncoding,
+                               Http.Header.createCached(Http.Header.CONTENT_LENGTH, bytes.length));
+        }
+    }
+}
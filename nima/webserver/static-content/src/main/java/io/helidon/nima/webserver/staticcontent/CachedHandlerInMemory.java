@@ -16,6 +16,9 @@
 
 package io.helidon.nima.webserver.staticcontent;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
@@ -27,78 +30,128 @@ import io.helidon.common.http.HttpException;
 import io.helidon.common.http.ServerRequestHeaders;
 import io.helidon.common.http.ServerResponseHeaders;
 import io.helidon.common.media.type.MediaType;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
 import io.helidon.nima.webserver.http.ServerRequest;
 import io.helidon.nima.webserver.http.ServerResponse;
 
 import static io.helidon.nima.webserver.staticcontent.StaticContentHandler.processEtag;
 import static io.helidon.nima.webserver.staticcontent.StaticContentHandler.processModifyHeaders;
 
+/**
+ * Handler of a resource cached in memory.
+ *
+ * @param mediaType             media type of the resource
+ * @param lastModified          last modification timestamp, may be {@code null}
+ * @param setLastModifiedHeader sets last modified header
+ * @param content               cached content
+ * @param source                file the content was loaded from, if it should be validated on each request, or
+ *                              {@code null} for content that never changes
+ * @param fallback              handler to use when the source file was modified, {@code null} if source is {@code null}
+ */
 record CachedHandlerInMemory(MediaType mediaType,
                              Instant lastModified,
                              BiConsumer<ServerResponseHeaders, Instant> setLastModifiedHeader,
-                             byte[] bytes,
-                             int contentLength,
-                             Http.HeaderValue contentLengthHeader) implements CachedHandler {
+                             CachedContent content,
+                             Path source,
+                             CachedHandler fallback) implements CachedHandler {
 
     @Override
     public boolean handle(LruCache<String, CachedHandler> cache,
                           Http.Method method,
                           ServerRequest request,
                           ServerResponse response,
-                          String requestedResource) {
+                          String requestedResource) throws IOException {
+        if (source != null && modified()) {
+            // fallback handler reloads the content
+            return fallback.handle(cache, method, request, response, requestedResource);
+        }
+        serve(method, request, response);
+        return true;
+    }
+
+    /**
+     * Serve the content without validating the source.
+     *
+     * @param method   HTTP method (GET or HEAD)
+     * @param request  server request
+     * @param response server response
+     */
+    void serve(Http.Method method, ServerRequest request, ServerResponse response) {
+        ServerRequestHeaders headers = request.headers();
+        boolean ranged = method == Http.Method.GET && headers.contains(Http.Header.RANGE);
+        CachedContent.Variant variant = content.select(headers, ranged);
+
         // etag etc.
+        processEtag(variant.etag(), headers, response.headers());
         if (lastModified != null) {
-            processEtag(String.valueOf(lastModified.toEpochMilli()), request.headers(), response.headers());
-            processModifyHeaders(lastModified, request.headers(), response.headers(), setLastModifiedHeader);
+            processModifyHeaders(lastModified, headers, response.headers(), setLastModifiedHeader);
         }
 
         response.headers().contentType(mediaType);
 
-        if (method == Http.Method.GET) {
-            send(request, response);
+        if (ranged) {
+            sendRange(request, response);
         } else {
-            response.headers().set(contentLengthHeader());
-            response.send();
+            content.headers(response.headers(), variant);
+            if (method == Http.Method.GET) {
+                response.send(variant.bytes());
+            } else {
+                response.send();
+            }
         }
+    }
 
-        return true;
+    /**
+     * Handler of the same resource, with content encoded using the provided encoding context.
+     *
+     * @param encodingContext encoding context
+     * @return a new handler
+     */
+    CachedHandlerInMemory encode(ContentEncodingContext encodingContext) {
+        return new CachedHandlerInMemory(mediaType,
+                                         lastModified,
+                                         setLastModifiedHeader,
+                                         content.encode(encodingContext),
+                                         source,
+                                         fallback);
     }
 
-    private void send(ServerRequest request, ServerResponse response) {
-        ServerRequestHeaders headers = request.headers();
+    private boolean modified() {
+        try {
+            return !Files.getLastModifiedTime(source).toInstant().equals(lastModified);
+        } catch (IOException e) {
+            // file removed or not accessible, fallback handler will take care of it
+            return true;
+        }
+    }
 
-        if (headers.contains(Http.Header.RANGE)) {
-            long contentLength = contentLength();
-            List<ByteRangeRequest> ranges = ByteRangeRequest.parse(request,
-                                                                   response,
-                                                                   headers.get(Http.Header.RANGE).values(),
-                                                                   contentLength);
-            if (ranges.size() == 1) {
-                // single response
-                ByteRangeRequest range = ranges.get(0);
-
-                if (range.offset() > contentLength()) {
-                    throw new HttpException("Invalid range offset", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416, true);
-                }
-                if (range.length() > (contentLength() - range.offset())) {
-                    throw new HttpException("Invalid length", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416, true);
-                }
-
-                range.setContentRange(response);
-
-                // only send a part of the file
-                response.send(Arrays.copyOfRange(bytes(), (int) range.offset(), (int) range.length()));
-            } else {
-                // not supported, send full
-                send(response);
+    private void sendRange(ServerRequest request, ServerResponse response) {
+        byte[] bytes = content.identity().bytes();
+        long contentLength = bytes.length;
+        List<ByteRangeRequest> ranges = ByteRangeRequest.parse(request,
+                                                               response,
+                                                               request.headers().get(Http.Header.RANGE).values(),
+                                                               contentLength);
+        if (ranges.size() == 1) {
+            // single response
+            ByteRangeRequest range = ranges.get(0);
+
+            if (range.offset() > contentLength) {
+                throw new HttpException("Invalid range offset", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416, true);
             }
+            if (range.length() > (contentLength - range.offset())) {
+                throw new HttpException("Invalid length", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416, true);
+            }
+
+            range.setContentRange(response);
+
+            // only send a part of the file
+            int from = (int) range.offset();
+            response.send(Arrays.copyOfRange(bytes, from, from + (int) range.length()));
         } else {
-            send(response);
+            // not supported, send full
+            content.headers(response.headers(), content.identity());
+            response.send(bytes);
         }
     }
-
-    private void send(ServerResponse response) {
-        response.headers().set(contentLengthHeader());
-        response.send(bytes());
-    }
 }
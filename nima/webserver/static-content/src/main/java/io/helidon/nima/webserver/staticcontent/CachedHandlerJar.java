@@ -38,7 +38,8 @@ import static io.helidon.nima.webserver.staticcontent.StaticContentHandler.proce
 record CachedHandlerJar(Path path,
                         MediaType mediaType,
                         Instant lastModified,
-                        BiConsumer<ServerResponseHeaders, Instant> setLastModifiedHeader) implements CachedHandler {
+                        BiConsumer<ServerResponseHeaders, Instant> setLastModifiedHeader,
+                        MemoryCache memoryCache) implements CachedHandler {
     private static final System.Logger LOGGER = System.getLogger(CachedHandlerJar.class.getName());
 
     @Override
@@ -59,6 +60,19 @@ record CachedHandlerJar(Path path,
             LOGGER.log(System.Logger.Level.TRACE, "Sending static content from jar: " + requestedResource);
         }
 
+        if (method == Http.Method.GET && memoryCache.admits(contentLength(path))) {
+            // extracted file does not change, no need to validate it
+            CachedHandlerInMemory inMemory = memoryCache.handler(mediaType,
+                                                                 Files.readAllBytes(path),
+                                                                 lastModified,
+                                                                 null,
+                                                                 null,
+                                                                 response);
+            memoryCache.put(requestedResource, inMemory);
+            inMemory.serve(method, request, response);
+            return true;
+        }
+
         // etag etc.
         if (lastModified != null) {
             processEtag(String.valueOf(lastModified.toEpochMilli()), request.headers(), response.headers());
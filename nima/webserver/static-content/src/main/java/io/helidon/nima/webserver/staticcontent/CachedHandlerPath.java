@@ -39,7 +39,8 @@ import static io.helidon.nima.webserver.staticcontent.StaticContentHandler.proce
 record CachedHandlerPath(Path path,
                          MediaType mediaType,
                          IoFunction<Path, Optional<Instant>> lastModified,
-                         BiConsumer<ServerResponseHeaders, Instant> setLastModifiedHeader) implements CachedHandler {
+                         BiConsumer<ServerResponseHeaders, Instant> setLastModifiedHeader,
+                         MemoryCache memoryCache) implements CachedHandler {
     private static final System.Logger LOGGER = System.getLogger(CachedHandlerPath.class.getName());
 
     @Override
@@ -63,6 +64,19 @@ record CachedHandlerPath(Path path,
 
         Instant lastModified = lastModified().apply(path).orElse(null);
 
+        if (method == Http.Method.GET && lastModified != null && memoryCache.admits(Files.size(path))) {
+            // small enough to be served from memory, the in-memory handler validates the file on each request
+            CachedHandlerInMemory inMemory = memoryCache.handler(mediaType,
+                                                                 Files.readAllBytes(path),
+                                                                 lastModified,
+                                                                 path,
+                                                                 this,
+                                                                 response);
+            memoryCache.put(requestedResource, inMemory);
+            inMemory.serve(method, request, response);
+            return true;
+        }
+
         // etag etc.
         if (lastModified != null) {
             processEtag(String.valueOf(lastModified.toEpochMilli()), request.headers(), response.headers());
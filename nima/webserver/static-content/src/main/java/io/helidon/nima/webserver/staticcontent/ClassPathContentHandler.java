@@ -132,7 +132,7 @@ class ClassPathContentHandler extends FileBasedContentHandler {
         }
 
         // we have a resource that we support, let's try to use one from the cache
-        Optional<CachedHandler> cached = cacheHandler(requestedResource);
+        Optional<CachedHandler> cached = cacheHandler(requestedResource, response);
 
         if (cached.isPresent()) {
             // this requested resource is cached and can be safely returned
@@ -157,7 +157,7 @@ class ClassPathContentHandler extends FileBasedContentHandler {
                     // this is OK, as the path ends with a forward slash
 
                     // first check if this is an in-memory resource
-                    Optional<CachedHandlerInMemory> inMemoryMaybe = cacheInMemory(welcomeFileResource);
+                    Optional<CachedHandlerInMemory> inMemoryMaybe = cacheInMemory(welcomeFileResource, response);
                     if (inMemoryMaybe.isPresent()) {
                         // reference to the same definition, never times out
                         cacheInMemory(requestedResource, inMemoryMaybe.get());
@@ -237,7 +237,8 @@ class ClassPathContentHandler extends FileBasedContentHandler {
             return Optional.of(new CachedHandlerJar(extrEntry.tempFile,
                                                     detectType(extrEntry.entryName),
                                                     null,
-                                                    null));
+                                                    null,
+                                                    memoryCache()));
         } else {
             // we can cache this, as this is a jar record
             Http.HeaderValue lastModifiedHeader = Http.Header.create(Http.Header.LAST_MODIFIED,
@@ -247,7 +248,8 @@ class ClassPathContentHandler extends FileBasedContentHandler {
             return Optional.of(new CachedHandlerJar(extrEntry.tempFile,
                                                     detectType(extrEntry.entryName),
                                                     extrEntry.lastModified(),
-                                                    (headers, instant) -> headers.set(lastModifiedHeader)));
+                                                    (headers, instant) -> headers.set(lastModifiedHeader),
+                                                    memoryCache()));
         }
     }
 
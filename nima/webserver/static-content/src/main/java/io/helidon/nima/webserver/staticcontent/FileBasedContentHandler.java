@@ -17,13 +17,7 @@
 package io.helidon.nima.webserver.staticcontent;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.SeekableByteChannel;
-import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -73,8 +67,8 @@ abstract class FileBasedContentHandler extends StaticContentHandler {
 
     static void send(ServerRequest request, ServerResponse response, Path path) throws IOException {
         ServerRequestHeaders headers = request.headers();
+        long contentLength = contentLength(path);
         if (headers.contains(Header.RANGE)) {
-            long contentLength = contentLength(path);
             List<ByteRangeRequest> ranges = ByteRangeRequest.parse(request,
                                                                    response,
                                                                    headers.get(Header.RANGE).values(),
@@ -85,36 +79,14 @@ abstract class FileBasedContentHandler extends StaticContentHandler {
                 range.setContentRange(response);
 
                 // only send a part of the file
-                try (OutputStream out = response.outputStream(); SeekableByteChannel channel = Files.newByteChannel(path)) {
-                    WritableByteChannel outChannel = Channels.newChannel(out);
-                    channel.position(range.offset());
-                    long toRead = range.length();
-                    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(toRead, 1000));
-                    while (toRead != 0) {
-                        int read = channel.read(buffer);
-                        int toWrite = (int) Math.min(toRead, read);
-                        buffer.flip();
-                        buffer.limit(toWrite);
-                        outChannel.write(buffer);
-                        buffer.flip();
-                        toRead -= toWrite;
-                    }
-                }
-            } else {
-                // multipart response not yet supported, send all
-                processContentLength(path, response.headers());
-                // send the full file
-                try (InputStream in = Files.newInputStream(path); OutputStream out = response.outputStream()) {
-                    in.transferTo(out);
-                }
-            }
-        } else {
-            processContentLength(path, response.headers());
-            // send the full file
-            try (InputStream in = Files.newInputStream(path); OutputStream out = response.outputStream()) {
-                in.transferTo(out);
+                response.sendFile(path, range.offset(), range.length());
+                return;
             }
+            // multipart response not yet supported, send all
         }
+        response.headers().set(Header.create(Header.CONTENT_LENGTH, contentLength));
+        // send the full file
+        response.sendFile(path, 0, contentLength);
     }
 
     Optional<MediaType> findCustomMediaType(String fileName) {
@@ -134,7 +106,8 @@ abstract class FileBasedContentHandler extends StaticContentHandler {
         return Optional.of(new CachedHandlerPath(path,
                                                  detectType(fileName(path)),
                                                  FileBasedContentHandler::lastModified,
-                                                 ServerResponseHeaders::lastModified));
+                                                 ServerResponseHeaders::lastModified,
+                                                 memoryCache()));
     }
 
     MediaType detectType(String fileName) {
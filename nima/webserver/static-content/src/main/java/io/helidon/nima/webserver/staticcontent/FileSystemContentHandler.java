@@ -83,7 +83,7 @@ class FileSystemContentHandler extends FileBasedContentHandler {
         String requestedResource = rawPath.endsWith("/") ? relativePath + "/" : relativePath;
 
         // we have a resource that we support, let's try to use one from the cache
-        Optional<CachedHandler> cached = cacheHandler(requestedResource);
+        Optional<CachedHandler> cached = cacheHandler(requestedResource, res);
 
         if (cached.isPresent()) {
             // this requested resource is cached and can be safely returned
@@ -117,7 +117,7 @@ class FileSystemContentHandler extends FileBasedContentHandler {
                         + welcomeFileName;
 
                 if (rawPath.endsWith("/")) {
-                    Optional<CachedHandlerInMemory> inMemoryMaybe = cacheInMemory(welcomeFileResource);
+                    Optional<CachedHandlerInMemory> inMemoryMaybe = cacheInMemory(welcomeFileResource, res);
                     if (inMemoryMaybe.isPresent()) {
                         // reference to the same definition, never times out
                         cacheInMemory(requestedResource, inMemoryMaybe.get());
@@ -143,7 +143,8 @@ class FileSystemContentHandler extends FileBasedContentHandler {
         CachedHandler handler = new CachedHandlerPath(path,
                                                       detectType(fileName(path)),
                                                       FileBasedContentHandler::lastModified,
-                                                      ServerResponseHeaders::lastModified);
+                                                      ServerResponseHeaders::lastModified,
+                                                      memoryCache());
         cacheHandler(requestedResource, handler);
         return handler.handle(handlerCache(), method, req, res, requestedResource);
     }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.staticcontent;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.media.type.MediaType;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
+import io.helidon.nima.webserver.http.ServerResponse;
+
+/**
+ * In-memory cache of static content, bounded by the total number of bytes of all cached variants.
+ * Entries are kept in access order, so when the cache is over its capacity, least recently used entries
+ * are evicted without searching for them.
+ * <p>
+ * Content is pre-encoded using the content encoding context of the server (unless one is configured explicitly), so
+ * only encodings enabled on the server are served. Content cached before the server is known (resources configured
+ * to be cached when the server starts) is encoded when first requested.
+ */
+final class MemoryCache implements StaticContentSupport.MemoryCacheStats {
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock, access order (least recently used first)
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final long capacity;
+    private final long maxEntrySize;
+    private final ContentEncodingContext encodingContext;
+
+    // guarded by lock
+    private long weight;
+
+    /**
+     * Create a new cache.
+     *
+     * @param capacity        maximal number of bytes of all cached entries
+     * @param maxEntrySize    maximal size of a resource cached on demand, {@code 0} to only cache explicitly configured
+     *                        resources
+     * @param encodingContext encoding context used to pre-encode cached content, {@code null} to use the context
+     *                        of the server
+     */
+    MemoryCache(long capacity, long maxEntrySize, ContentEncodingContext encodingContext) {
+        this.capacity = capacity;
+        this.maxEntrySize = maxEntrySize;
+        this.encodingContext = encodingContext;
+    }
+
+    @Override
+    public long hits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public int entries() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get a cached resource, encoded for the server of the response.
+     *
+     * @param resource resource to find
+     * @param response response the resource is going to be sent with
+     * @return cached handler, if the resource is cached
+     */
+    Optional<CachedHandlerInMemory> get(String resource, ServerResponse response) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(resource);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        ContentEncodingContext context = encodingContext(response);
+        if (entry.handler.content().encodedWith(context)) {
+            return Optional.of(entry.handler);
+        }
+        // encoded once per resource (and server), outside of the lock
+        CachedHandlerInMemory encoded = entry.handler.encode(context);
+        lock.lock();
+        try {
+            if (entries.get(resource) == entry) {
+                replace(resource, new Entry(encoded));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(encoded);
+    }
+
+    /**
+     * Whether a resource of the provided size should be cached when requested.
+     *
+     * @param size size of the resource in bytes
+     * @return whether to cache the resource
+     */
+    boolean admits(long size) {
+        return maxEntrySize > 0 && size <= maxEntrySize;
+    }
+
+    /**
+     * Create a handler serving the content from memory, content is pre-encoded using all content encodings supported
+     * by the server of the response.
+     *
+     * @param contentType  media type
+     * @param bytes        content
+     * @param lastModified last modification timestamp, may be {@code null}
+     * @param source       file to validate the content against on each request, may be {@code null}
+     * @param fallback     handler to use when the source was modified, may be {@code null} if source is {@code null}
+     * @param response     response of the request that caches the content, {@code null} when cached before any request
+     * @return a new handler
+     */
+    CachedHandlerInMemory handler(MediaType contentType,
+                                  byte[] bytes,
+                                  Instant lastModified,
+                                  Path source,
+                                  CachedHandler fallback,
+                                  ServerResponse response) {
+        CachedContent content = CachedContent.create(bytes, response == null ? encodingContext : encodingContext(response));
+        if (lastModified == null) {
+            return new CachedHandlerInMemory(contentType, null, null, content, source, fallback);
+        }
+        Http.HeaderValue lastModifiedHeader = Http.Header.create(Http.Header.LAST_MODIFIED,
+                                                                 true,
+                                                                 false,
+                                                                 StaticContentHandler.formatLastModified(lastModified));
+        return new CachedHandlerInMemory(contentType,
+                                         lastModified,
+                                         (headers, instant) -> headers.set(lastModifiedHeader),
+                                         content,
+                                         source,
+                                         fallback);
+    }
+
+    void put(String resource, CachedHandlerInMemory handler) {
+        Entry entry = new Entry(handler);
+        if (entry.weight > capacity) {
+            // would evict everything else and still not fit
+            return;
+        }
+        lock.lock();
+        try {
+            replace(resource, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ContentEncodingContext encodingContext(ServerResponse response) {
+        return encodingContext == null ? response.contentEncodingContext() : encodingContext;
+    }
+
+    // must be called under lock
+    private void replace(String resource, Entry entry) {
+        Entry previous = entries.put(resource, entry);
+        weight += previous == null ? entry.weight : entry.weight - previous.weight;
+        // the new entry is the most recently used, so it is only evicted if nothing else is left
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > capacity && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final CachedHandlerInMemory handler;
+        private final long weight;
+
+        private Entry(CachedHandlerInMemory handler) {
+            this.handler = handler;
+            this.weight = handler.content().weight();
+        }
+    }
+}
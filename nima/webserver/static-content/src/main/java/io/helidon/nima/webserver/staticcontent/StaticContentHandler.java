@@ -24,9 +24,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -51,7 +49,7 @@ import io.helidon.nima.webserver.http.ServerResponse;
 abstract class StaticContentHandler implements StaticContentSupport {
     private static final System.Logger LOGGER = System.getLogger(StaticContentHandler.class.getName());
 
-    private final Map<String, CachedHandlerInMemory> inMemoryCache = new ConcurrentHashMap<>();
+    private final MemoryCache memoryCache;
     private final LruCache<String, CachedHandler> handlerCache;
     private final String welcomeFilename;
     private final Function<String, String> resolvePathFunction;
@@ -61,6 +59,9 @@ abstract class StaticContentHandler implements StaticContentSupport {
         this.welcomeFilename = builder.welcomeFileName();
         this.resolvePathFunction = builder.resolvePathFunction();
         this.handlerCache = builder.handlerCache();
+        this.memoryCache = new MemoryCache(builder.memoryCacheCapacity(),
+                                           builder.memoryCacheMaxEntrySize(),
+                                           builder.contentEncodingContext());
     }
 
     /**
@@ -178,6 +179,11 @@ abstract class StaticContentHandler implements StaticContentSupport {
         }
     }
 
+    @Override
+    public MemoryCacheStats memoryCacheStats() {
+        return memoryCache;
+    }
+
     @Override
     public void routing(HttpRules rules) {
         rules.route(Http.Method.predicate(Http.Method.GET, Http.Method.HEAD),
@@ -190,7 +196,7 @@ abstract class StaticContentHandler implements StaticContentSupport {
      */
     void releaseCache() {
         handlerCache.clear();
-        inMemoryCache.clear();
+        memoryCache.clear();
     }
 
     /**
@@ -247,8 +253,8 @@ abstract class StaticContentHandler implements StaticContentSupport {
 
     /**
      * Cache in memory.
-     * Only use when explicitly requested by a user, we NEVER clear the cache during runtime. If you cache too much,
-     * you run out of memory.
+     * The cache is bounded by the configured memory cache capacity, least recently used records are evicted
+     * when it is exceeded.
      *
      * @param resource resource identifier (such as relative path), MUST be normalized and MUST exist to prevent caching
      *                 records based on user's requests (that could cause us to cache the same resource multiple time using
@@ -256,28 +262,39 @@ abstract class StaticContentHandler implements StaticContentSupport {
      * @param handler  in memory handler
      */
     void cacheInMemory(String resource, CachedHandlerInMemory handler) {
-        inMemoryCache.put(resource, handler);
+        memoryCache.put(resource, handler);
     }
 
     /**
      * Get in memory handler (if one is registered).
      *
      * @param resource resource to find
+     * @param response response the resource is going to be sent with
      * @return handler if found
      */
-    Optional<CachedHandlerInMemory> cacheInMemory(String resource) {
-        return Optional.ofNullable(inMemoryCache.get(resource));
+    Optional<CachedHandlerInMemory> cacheInMemory(String resource, ServerResponse response) {
+        return memoryCache.get(resource, response);
+    }
+
+    /**
+     * Memory cache, used by handlers to cache resources on demand.
+     *
+     * @return memory cache
+     */
+    MemoryCache memoryCache() {
+        return memoryCache;
     }
 
     /**
      * Find either in-memory cache or cached record.
      *
      * @param resource resource to locate cache record for
+     * @param response response the resource is going to be sent with
      * @return cached handler
      */
 
-    Optional<CachedHandler> cacheHandler(String resource) {
-        return cacheInMemory(resource)
+    Optional<CachedHandler> cacheHandler(String resource, ServerResponse response) {
+        return cacheInMemory(resource, response)
                 .map(CachedHandler.class::cast)
                 .or(() -> handlerCache.get(resource));
     }
@@ -304,33 +321,7 @@ abstract class StaticContentHandler implements StaticContentSupport {
     }
 
     void cacheInMemory(String resource, MediaType contentType, byte[] bytes, Optional<Instant> lastModified) {
-        int contentLength = bytes.length;
-        Http.HeaderValue contentLengthHeader = Http.Header.create(Http.Header.CONTENT_LENGTH, contentLength);
-
-        CachedHandlerInMemory inMemoryResource;
-        if (lastModified.isEmpty()) {
-            inMemoryResource = new CachedHandlerInMemory(contentType,
-                                                         null,
-                                                         null,
-                                                         bytes,
-                                                         contentLength,
-                                                         contentLengthHeader);
-        } else {
-            // we can cache this, as this is a jar record
-            Http.HeaderValue lastModifiedHeader = Http.Header.create(Http.Header.LAST_MODIFIED,
-                                                                     true,
-                                                                     false,
-                                                                     formatLastModified(lastModified.get()));
-
-            inMemoryResource = new CachedHandlerInMemory(contentType,
-                                                         lastModified.get(),
-                                                         (headers, instant) -> headers.set(lastModifiedHeader),
-                                                         bytes,
-                                                         contentLength,
-                                                         contentLengthHeader);
-        }
-
-        cacheInMemory(resource, inMemoryResource);
+        cacheInMemory(resource, memoryCache.handler(contentType, bytes, lastModified.orElse(null), null, null, null));
     }
 
     static String formatLastModified(Instant lastModified) {
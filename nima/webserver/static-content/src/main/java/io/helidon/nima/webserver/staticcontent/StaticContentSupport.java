@@ -27,6 +27,7 @@ import java.util.function.Function;
 
 import io.helidon.common.configurable.LruCache;
 import io.helidon.common.media.type.MediaType;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
 import io.helidon.nima.webserver.http.HttpService;
 
 /**
@@ -125,6 +126,100 @@ public interface StaticContentSupport extends HttpService {
         return builder(root).build();
     }
 
+    /**
+     * Statistics of the in-memory cache of this static content support.
+     * Implementations without an in-memory cache return {@link MemoryCacheStats#EMPTY}.
+     *
+     * @return memory cache statistics
+     */
+    default MemoryCacheStats memoryCacheStats() {
+        return MemoryCacheStats.EMPTY;
+    }
+
+    /**
+     * Statistics of the in-memory cache.
+     *
+     * @see io.helidon.nima.webserver.staticcontent.StaticContentSupport.Builder#memoryCacheCapacity(long)
+     */
+    interface MemoryCacheStats {
+        /**
+         * Statistics of a static content support without an in-memory cache, all values are zero.
+         */
+        MemoryCacheStats EMPTY = new MemoryCacheStats() {
+            @Override
+            public long hits() {
+                return 0;
+            }
+
+            @Override
+            public long misses() {
+                return 0;
+            }
+
+            @Override
+            public long evictions() {
+                return 0;
+            }
+
+            @Override
+            public int entries() {
+                return 0;
+            }
+
+            @Override
+            public long weight() {
+                return 0;
+            }
+
+            @Override
+            public long capacity() {
+                return 0;
+            }
+        };
+
+        /**
+         * Number of requests served from memory.
+         *
+         * @return hit count
+         */
+        long hits();
+
+        /**
+         * Number of requests for resources that were not in memory.
+         *
+         * @return miss count
+         */
+        long misses();
+
+        /**
+         * Number of records evicted from memory to stay within capacity.
+         *
+         * @return eviction count
+         */
+        long evictions();
+
+        /**
+         * Number of records currently in memory.
+         *
+         * @return entry count
+         */
+        int entries();
+
+        /**
+         * Number of bytes used by records currently in memory, including all pre-encoded variants.
+         *
+         * @return used bytes
+         */
+        long weight();
+
+        /**
+         * Maximal number of bytes used by records in memory.
+         *
+         * @return capacity in bytes
+         */
+        long capacity();
+    }
+
     /**
      * Fluent builder of the StaticContent detailed parameters.
      *
@@ -136,7 +231,9 @@ public interface StaticContentSupport extends HttpService {
         private Function<String, String> resolvePathFunction = Function.identity();
         private Set<String> cacheInMemory = new HashSet<>();
         private LruCache<String, CachedHandler> handlerCache;
-
+        private long memoryCacheCapacity = Long.MAX_VALUE;
+        private long memoryCacheMaxEntrySize = -1;
+        private ContentEncodingContext contentEncodingContext;
 
         /**
          * Default constructor.
@@ -182,10 +279,10 @@ public interface StaticContentSupport extends HttpService {
          * accessing the resource each time.
          * For classpath, each file must be explicitly specified (as we do not scan classpath), for file based
          * this can also include directories.
-         * Helidon does not validate amount of memory used, be careful to have enough heap memory to cache the configured
-         * files.
+         * Memory used is limited by {@link #memoryCacheCapacity(long)}, if not configured, be careful to have enough heap
+         * memory to cache the configured files.
          * <p>
-         * <i>Files cached in memory will never be re-loaded, even if changed, until server restart!</i>
+         * <i>Files cached in memory will never be re-loaded, even if changed, until server restart (or until evicted)!</i>
          * <p>
          * For classpath resource served from {@code web/index.html}, the {@code path} should be configured to
          * {@code index.html} when the classpath root is set to {@code web}.
@@ -213,6 +310,60 @@ public interface StaticContentSupport extends HttpService {
         }
 
 
+        /**
+         * Configure the maximal number of bytes of content cached in memory. This includes files explicitly cached using
+         * {@link #addCacheInMemory(String)}, and when configured, also files cached on demand on the first request
+         * (see {@link #memoryCacheMaxEntrySize(long)}).
+         * Content is stored in its original form, and pre-encoded for each supported content encoding (such as gzip),
+         * all forms count towards the capacity.
+         * When the capacity is exceeded, least recently used records are evicted.
+         * <p>
+         * Defaults to unlimited, with no files cached on demand.
+         *
+         * @param capacity maximal number of bytes cached in memory
+         * @return updated builder
+         */
+        public B memoryCacheCapacity(long capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Memory cache capacity must be positive, but is " + capacity);
+            }
+            this.memoryCacheCapacity = capacity;
+            return identity();
+        }
+
+        /**
+         * Maximal size of a file that is cached in memory on the first request. Files cached on demand are validated
+         * against their last modification timestamp on each request (for file system content).
+         * Set to {@code 0} to only cache files configured through {@link #addCacheInMemory(String)}.
+         * <p>
+         * Defaults to {@code 0} if {@link #memoryCacheCapacity(long)} is not configured, and to one sixteenth of the
+         * capacity (at most 1 MiB) otherwise.
+         *
+         * @param maxEntrySize maximal size of a file cached on demand in bytes
+         * @return updated builder
+         */
+        public B memoryCacheMaxEntrySize(long maxEntrySize) {
+            if (maxEntrySize < 0) {
+                throw new IllegalArgumentException("Memory cache max entry size must not be negative, but is "
+                                                           + maxEntrySize);
+            }
+            this.memoryCacheMaxEntrySize = maxEntrySize;
+            return identity();
+        }
+
+        /**
+         * Content encoding context used to pre-encode content cached in memory, and to choose the encoding for a request.
+         * Defaults to the content encoding context configured on the {@link io.helidon.nima.webserver.WebServer}.
+         *
+         * @param contentEncodingContext content encoding context
+         * @return updated builder
+         */
+        public B contentEncodingContext(ContentEncodingContext contentEncodingContext) {
+            Objects.requireNonNull(contentEncodingContext);
+            this.contentEncodingContext = contentEncodingContext;
+            return identity();
+        }
+
         /**
          * Build the actual instance.
          *
@@ -236,6 +387,25 @@ public interface StaticContentSupport extends HttpService {
         LruCache<String, CachedHandler> handlerCache() {
             return handlerCache == null ? LruCache.create() : handlerCache;
         }
+
+        long memoryCacheCapacity() {
+            return memoryCacheCapacity;
+        }
+
+        long memoryCacheMaxEntrySize() {
+            if (memoryCacheMaxEntrySize >= 0) {
+                return memoryCacheMaxEntrySize;
+            }
+            if (memoryCacheCapacity == Long.MAX_VALUE) {
+                return 0;
+            }
+            return Math.min(memoryCacheCapacity / 16, 1024 * 1024);
+        }
+
+        // null to use the context of the server
+        ContentEncodingContext contentEncodingContext() {
+            return contentEncodingContext;
+        }
     }
 
     /**
@@ -50,6 +50,8 @@ class CachedHandlerTest {
     private static final MediaType MEDIA_TYPE_ICON = MediaTypes.create("image/x-icon");
     private static final Http.HeaderValue ICON_TYPE = Http.Header.create(Http.Header.CONTENT_TYPE, MEDIA_TYPE_ICON.text());
     private static final Http.HeaderValue RESOURCE_CONTENT_LENGTH = Http.Header.create(Http.Header.CONTENT_LENGTH, 7);
+    // response of a server without content encoding, cached content is served as identity
+    private static final ServerResponse RESPONSE = mock(ServerResponse.class);
 
     private static ClassPathContentHandler classpathHandler;
     private static FileSystemContentHandler fsHandler;
@@ -71,12 +73,12 @@ class CachedHandlerTest {
 
     @Test
     void testClasspathInMemoryCache() {
-        Optional<CachedHandlerInMemory> cachedHandlerInMemory = classpathHandler.cacheInMemory("web/favicon.ico");
+        Optional<CachedHandlerInMemory> cachedHandlerInMemory = classpathHandler.cacheInMemory("web/favicon.ico", RESPONSE);
         assertThat("Handler should be cached in memory", cachedHandlerInMemory, optionalPresent());
         CachedHandlerInMemory cached = cachedHandlerInMemory.get();
-        assertThat("Cached bytes must not be null", cached.bytes(), notNullValue());
-        assertThat("Cached bytes must not be empty", cached.bytes(), not(BufferData.EMPTY_BYTES));
-        assertThat("Content length", cached.contentLength(), is(1230));
+        assertThat("Cached bytes must not be null", cached.content().identity().bytes(), notNullValue());
+        assertThat("Cached bytes must not be empty", cached.content().identity().bytes(), not(BufferData.EMPTY_BYTES));
+        assertThat("Content length", cached.content().identity().bytes().length, is(1230));
         assertThat("Last modified", cached.lastModified(), notNullValue());
         assertThat("Media type", cached.mediaType(), is(MEDIA_TYPE_ICON));
     }
@@ -126,7 +128,7 @@ class CachedHandlerTest {
         assertThat(responseHeaders, hasHeader(Http.Header.LAST_MODIFIED));
 
         // now make sure it is cached
-        Optional<CachedHandler> cachedHandler = classpathHandler.cacheHandler("web/resource.txt");
+        Optional<CachedHandler> cachedHandler = classpathHandler.cacheHandler("web/resource.txt", RESPONSE);
         assertThat("Handler should be cached", cachedHandler, optionalPresent());
         CachedHandler cached = cachedHandler.get();
         assertThat("During tests, classpath should be loaded from file system", cached, instanceOf(CachedHandlerPath.class));
@@ -156,7 +158,7 @@ class CachedHandlerTest {
         assertThat(responseHeaders, hasHeader(Http.Header.LOCATION, "/nested/"));
 
         // now make sure it is cached
-        Optional<CachedHandler> cachedHandler = classpathHandler.cacheHandler("web/nested");
+        Optional<CachedHandler> cachedHandler = classpathHandler.cacheHandler("web/nested", RESPONSE);
         assertThat("Handler should be cached", cachedHandler, optionalPresent());
         CachedHandler cached = cachedHandler.get();
         assertThat("This should be a cached redirect handler", cached, instanceOf(CachedHandlerRedirect.class));
@@ -166,12 +168,12 @@ class CachedHandlerTest {
 
     @Test
     void testFsInMemoryCache() {
-        Optional<CachedHandlerInMemory> cachedHandlerInMemory = fsHandler.cacheInMemory("nested/resource.txt");
+        Optional<CachedHandlerInMemory> cachedHandlerInMemory = fsHandler.cacheInMemory("nested/resource.txt", RESPONSE);
         assertThat("Handler should be cached in memory", cachedHandlerInMemory, optionalPresent());
         CachedHandlerInMemory cached = cachedHandlerInMemory.get();
-        assertThat("Cached bytes must not be null", cached.bytes(), notNullValue());
-        assertThat("Cached bytes must not be empty", cached.bytes(), not(BufferData.EMPTY_BYTES));
-        assertThat("Content length", cached.contentLength(), is(7));
+        assertThat("Cached bytes must not be null", cached.content().identity().bytes(), notNullValue());
+        assertThat("Cached bytes must not be empty", cached.content().identity().bytes(), not(BufferData.EMPTY_BYTES));
+        assertThat("Content length", cached.content().identity().bytes().length, is(7));
         assertThat("Last modified", cached.lastModified(), notNullValue());
         assertThat("Media type", cached.mediaType(), is(MediaTypes.TEXT_PLAIN));
     }
@@ -221,7 +223,7 @@ class CachedHandlerTest {
         assertThat(responseHeaders, hasHeader(Http.Header.LAST_MODIFIED));
 
         // now make sure it is cached
-        Optional<CachedHandler> cachedHandler = fsHandler.cacheHandler("resource.txt");
+        Optional<CachedHandler> cachedHandler = fsHandler.cacheHandler("resource.txt", RESPONSE);
         assertThat("Handler should be cached", cachedHandler, optionalPresent());
         CachedHandler cached = cachedHandler.get();
         assertThat("During tests, fs should be loaded from file system", cached, instanceOf(CachedHandlerPath.class));
@@ -251,7 +253,7 @@ class CachedHandlerTest {
         assertThat(responseHeaders, hasHeader(Http.Header.LOCATION, "/nested/"));
 
         // now make sure it is cached
-        Optional<CachedHandler> cachedHandler = fsHandler.cacheHandler("nested");
+        Optional<CachedHandler> cachedHandler = fsHandler.cacheHandler("nested", RESPONSE);
         assertThat("Handler should be cached", cachedHandler, optionalPresent());
         CachedHandler cached = cachedHandler.get();
         assertThat("This should be a cached redirect handler", cached, instanceOf(CachedHandlerRedirect.class));
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.staticcontent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.common.http.Headers;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.ServerRequestHeaders;
+import io.helidon.common.http.ServerResponseHeaders;
+import io.helidon.common.http.WritableHeaders;
+import io.helidon.common.media.type.MediaTypes;
+import io.helidon.nima.http.encoding.ContentDecoder;
+import io.helidon.nima.http.encoding.ContentEncoder;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
+import io.helidon.nima.webserver.http.ServerResponse;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.testing.http.junit5.HttpHeaderMatcher.hasHeader;
+import static io.helidon.common.testing.http.junit5.HttpHeaderMatcher.noHeader;
+import static io.helidon.common.testing.junit5.OptionalMatcher.optionalEmpty;
+import static io.helidon.common.testing.junit5.OptionalMatcher.optionalPresent;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemoryCacheTest {
+    private static final byte[] CONTENT = "Hello World! Hello World! Hello World! Hello World!".getBytes();
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws InterruptedException {
+        ContentEncodingContext identityOnly = new GzipOnlyContext(false);
+        MemoryCache cache = new MemoryCache(CONTENT.length * 2L, 0, identityOnly);
+
+        cache.put("first", cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, Instant.now(), null, null, null));
+        Thread.sleep(1);
+        cache.put("second", cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, Instant.now(), null, null, null));
+        Thread.sleep(1);
+        // first is now more recently used than second
+        assertThat(cache.get("first", null), optionalPresent());
+        cache.put("third", cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, Instant.now(), null, null, null));
+
+        assertThat(cache.get("second", null), optionalEmpty());
+        assertThat(cache.get("first", null), optionalPresent());
+        assertThat(cache.get("third", null), optionalPresent());
+
+        assertThat(cache.entries(), is(2));
+        assertThat(cache.weight(), is(CONTENT.length * 2L));
+        assertThat(cache.evictions(), is(1L));
+        assertThat(cache.hits(), is(3L));
+        assertThat(cache.misses(), is(1L));
+    }
+
+    @Test
+    void testTooLargeNotCached() {
+        MemoryCache cache = new MemoryCache(CONTENT.length - 1, 0, new GzipOnlyContext(false));
+
+        cache.put("large", cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, null, null, null, null));
+
+        assertThat(cache.get("large", null), optionalEmpty());
+        assertThat(cache.weight(), is(0L));
+    }
+
+    @Test
+    void testAdmission() {
+        assertThat(new MemoryCache(Long.MAX_VALUE, 0, new GzipOnlyContext(false)).admits(0), is(false));
+        MemoryCache cache = new MemoryCache(1000, 100, new GzipOnlyContext(false));
+        assertThat(cache.admits(100), is(true));
+        assertThat(cache.admits(101), is(false));
+    }
+
+    @Test
+    void testPrecompressedVariant() throws IOException {
+        MemoryCache cache = new MemoryCache(Long.MAX_VALUE, 0, new GzipOnlyContext(true));
+        CachedContent content = cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, null, null, null, null).content();
+
+        // no accept encoding, identity is used
+        CachedContent.Variant identity = content.select(ServerRequestHeaders.create(), false);
+        assertThat(identity.bytes(), is(CONTENT));
+        assertThat(identity.contentEncoding() == null, is(true));
+
+        WritableHeaders<?> acceptGzip = WritableHeaders.create().set(Http.Header.ACCEPT_ENCODING, "gzip");
+        CachedContent.Variant gzip = content.select(ServerRequestHeaders.create(acceptGzip), false);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzip.bytes())).readAllBytes(), is(CONTENT));
+        assertThat(gzip.etag(), not(identity.etag()));
+        assertThat(content.weight(), is((long) CONTENT.length + gzip.bytes().length));
+
+        ServerResponseHeaders headers = ServerResponseHeaders.create();
+        content.headers(headers, gzip);
+        assertThat(headers, hasHeader(Http.Header.CONTENT_ENCODING, "gzip"));
+        assertThat(headers, hasHeader(Http.Header.VARY, "Accept-Encoding"));
+        assertThat(headers, hasHeader(Http.Header.CONTENT_LENGTH, String.valueOf(gzip.bytes().length)));
+
+        // ranges are always served from identity
+        assertThat(content.select(ServerRequestHeaders.create(acceptGzip), true), is(identity));
+
+        headers = ServerResponseHeaders.create();
+        content.headers(headers, identity);
+        assertThat(headers, noHeader(Http.Header.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testEncodedWithServerContext() {
+        MemoryCache cache = new MemoryCache(Long.MAX_VALUE, 0, null);
+        // cached before any request, only identity is known
+        cache.put("resource", cache.handler(MediaTypes.TEXT_PLAIN, CONTENT, null, null, null, null));
+        assertThat(cache.weight(), is((long) CONTENT.length));
+
+        ContentEncodingContext serverContext = new GzipOnlyContext(true);
+        ServerResponse response = mock(ServerResponse.class);
+        when(response.contentEncodingContext()).thenReturn(serverContext);
+
+        CachedHandlerInMemory handler = cache.get("resource", response).orElseThrow();
+        assertThat(handler.content().encodedWith(serverContext), is(true));
+        assertThat(handler.content().weight(), greaterThan((long) CONTENT.length));
+        assertThat(cache.weight(), is(handler.content().weight()));
+        // encoded only once
+        assertThat(cache.get("resource", response).orElseThrow(), sameInstance(handler));
+    }
+
+    // encoding context with gzip encoder only, not to depend on encoding modules
+    private static final class GzipOnlyContext implements ContentEncodingContext {
+        private final boolean gzip;
+        private final ContentEncoder gzipEncoder = network -> {
+            try {
+                return new GZIPOutputStream(network);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        private GzipOnlyContext(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        @Override
+        public boolean contentEncodingEnabled() {
+            return gzip;
+        }
+
+        @Override
+        public boolean contentDecodingEnabled() {
+            return false;
+        }
+
+        @Override
+        public boolean contentEncodingSupported(String encodingId) {
+            return gzip && "gzip".equals(encodingId);
+        }
+
+        @Override
+        public boolean contentDecodingSupported(String encodingId) {
+            return false;
+        }
+
+        @Override
+        public ContentEncoder encoder(String encodingId) throws NoSuchElementException {
+            if (contentEncodingSupported(encodingId)) {
+                return gzipEncoder;
+            }
+            throw new NoSuchElementException(encodingId);
+        }
+
+        @Override
+        public ContentDecoder decoder(String encodingId) throws NoSuchElementException {
+            throw new NoSuchElementException(encodingId);
+        }
+
+        @Override
+        public ContentEncoder encoder(Headers headers) {
+            if (gzip && headers.contains(Http.Header.ACCEPT_ENCODING)
+                    && headers.get(Http.Header.ACCEPT_ENCODING).value().contains("gzip")) {
+                return gzipEncoder;
+            }
+            return ContentEncoder.NO_OP;
+        }
+    }
+}
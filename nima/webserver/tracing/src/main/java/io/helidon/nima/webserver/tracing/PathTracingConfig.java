@@ -15,12 +15,11 @@
  */
 package io.helidon.nima.webserver.tracing;
 
-import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.OptionalDouble;
 
 import io.helidon.common.http.Http;
-import io.helidon.common.http.PathMatcher;
 import io.helidon.common.http.PathMatchers;
 import io.helidon.common.uri.UriPath;
 import io.helidon.config.Config;
@@ -65,6 +64,16 @@ public interface PathTracingConfig {
      */
     TracingConfig tracedConfig();
 
+    /**
+     * Ratio of requests matching this configuration that are traced, overriding the sampling ratio of
+     * {@link io.helidon.nima.webserver.tracing.TracingFeature.Builder#samplingRatio(double)}.
+     *
+     * @return sampling ratio between {@code 0} and {@code 1}, or empty to use the sampling ratio of the feature
+     */
+    default OptionalDouble samplingRatio() {
+        return OptionalDouble.empty();
+    }
+
     /**
      * Fluent API builder for {@link io.helidon.nima.webserver.tracing.PathTracingConfig}.
      */
@@ -72,6 +81,7 @@ public interface PathTracingConfig {
         private final List<String> methods = new LinkedList<>();
         private String path;
         private TracingConfig tracedConfig;
+        private OptionalDouble samplingRatio = OptionalDouble.empty();
 
         private Builder() {
         }
@@ -79,30 +89,13 @@ public interface PathTracingConfig {
         @Override
         public PathTracingConfig build() {
             // immutable
-            final Collection<Http.Method> finalMethods = methods.stream()
-                    .map(Http.Method::create)
-                    .toList();
-            final TracingConfig finalTracingConfig = tracedConfig;
-
-            PathMatcher pathMatcher = PathMatchers.create(path);
-            Http.MethodPredicate methodPredicate = Http.Method.predicate(finalMethods);
-
-            return new PathTracingConfig() {
-                @Override
-                public boolean matches(Http.Method method, UriPath path) {
-                    return methodPredicate.test(method) && pathMatcher.match(path).accepted();
-                }
-
-                @Override
-                public TracingConfig tracedConfig() {
-                    return finalTracingConfig;
-                }
-
-                @Override
-                public String toString() {
-                    return path + "(" + finalMethods + "): " + finalTracingConfig;
-                }
-            };
+            return new PathTracingConfigImpl(path,
+                                             PathMatchers.create(path),
+                                             methods.stream()
+                                                     .map(Http.Method::create)
+                                                     .toList(),
+                                             tracedConfig,
+                                             samplingRatio);
         }
 
         /**
@@ -118,6 +111,7 @@ public interface PathTracingConfig {
                 methods(methods);
             }
             tracingConfig(TracingConfig.create(config));
+            config.get("sampling-ratio").asDouble().ifPresent(this::samplingRatio);
 
             return this;
         }
@@ -166,5 +160,18 @@ public interface PathTracingConfig {
             this.tracedConfig = tracedConfig;
             return this;
         }
+
+        /**
+         * Ratio of requests on this path (and possibly method(s)) that are traced, overriding the sampling ratio
+         * configured on {@link io.helidon.nima.webserver.tracing.TracingFeature.Builder#samplingRatio(double)}.
+         *
+         * @param samplingRatio ratio between {@code 0} (no requests are traced) and {@code 1} (all requests are traced)
+         * @return updated builder instance
+         * @throws java.lang.IllegalArgumentException in case the ratio is not between {@code 0} and {@code 1}
+         */
+        public Builder samplingRatio(double samplingRatio) {
+            this.samplingRatio = OptionalDouble.of(TracingSampler.checkRatio(samplingRatio));
+            return this;
+        }
     }
 }
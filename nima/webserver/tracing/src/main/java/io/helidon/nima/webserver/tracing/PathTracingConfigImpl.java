@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import java.util.List;
+import java.util.OptionalDouble;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.PathMatcher;
+import io.helidon.common.uri.UriPath;
+import io.helidon.tracing.config.TracingConfig;
+
+/**
+ * Path tracing configuration created by {@link io.helidon.nima.webserver.tracing.PathTracingConfig.Builder}.
+ * Exposes its path matcher and method predicate, so it can be compiled by {@link PathTracingMatcher}.
+ */
+final class PathTracingConfigImpl implements PathTracingConfig {
+    private final String path;
+    private final PathMatcher pathMatcher;
+    private final List<Http.Method> methods;
+    private final Http.MethodPredicate methodPredicate;
+    private final TracingConfig tracedConfig;
+    private final OptionalDouble samplingRatio;
+
+    PathTracingConfigImpl(String path,
+                          PathMatcher pathMatcher,
+                          List<Http.Method> methods,
+                          TracingConfig tracedConfig,
+                          OptionalDouble samplingRatio) {
+        this.path = path;
+        this.pathMatcher = pathMatcher;
+        this.methods = methods;
+        this.methodPredicate = Http.Method.predicate(methods);
+        this.tracedConfig = tracedConfig;
+        this.samplingRatio = samplingRatio;
+    }
+
+    @Override
+    public boolean matches(Http.Method method, UriPath path) {
+        return methodPredicate.test(method) && pathMatcher.match(path).accepted();
+    }
+
+    @Override
+    public TracingConfig tracedConfig() {
+        return tracedConfig;
+    }
+
+    @Override
+    public OptionalDouble samplingRatio() {
+        return samplingRatio;
+    }
+
+    @Override
+    public String toString() {
+        return path + "(" + methods + "): " + tracedConfig;
+    }
+
+    PathMatcher pathMatcher() {
+        return pathMatcher;
+    }
+
+    Http.MethodPredicate methodPredicate() {
+        return methodPredicate;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.PathMatchers;
+import io.helidon.common.uri.UriPath;
+import io.helidon.tracing.config.TracingConfig;
+
+/**
+ * Path tracing configurations compiled into a single matcher.
+ * <p>
+ * Paths that can be described by a segment template (literal segments, {@code {name}} parameters and trailing
+ * {@code /*}) are rejected by comparing segments of the path, without regular expressions and without creating
+ * objects; only paths accepted by the template are confirmed by the path matcher of the configuration.
+ * Other configurations use {@link PathTracingConfig#matches(io.helidon.common.http.Http.Method, UriPath)}.
+ * The result for a combination of matching configurations is computed once, as merging tracing configurations
+ * creates new instances.
+ */
+final class PathTracingMatcher {
+    // combinations of more configurations are not cached
+    private static final int MAX_CACHED = Long.SIZE;
+
+    private final Entry[] entries;
+    private final Resolved defaultResolved;
+    private final Resolved[] singleResolved;
+    private final Map<Long, Resolved> combinedResolved = new ConcurrentHashMap<>();
+
+    private PathTracingMatcher(TracingConfig envConfig, double samplingRatio, List<PathTracingConfig> pathConfigs) {
+        this.entries = new Entry[pathConfigs.size()];
+        this.singleResolved = new Resolved[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            PathTracingConfig pathConfig = pathConfigs.get(i);
+            entries[i] = Entry.create(pathConfig);
+            // configuration may only override the sampling ratio
+            TracingConfig tracedConfig = pathConfig.tracedConfig();
+            singleResolved[i] = Resolved.create(tracedConfig == null ? envConfig : tracedConfig,
+                                             pathConfig.samplingRatio().orElse(samplingRatio));
+        }
+        this.defaultResolved = Resolved.create(envConfig, samplingRatio);
+    }
+
+    static PathTracingMatcher create(TracingConfig envConfig, double samplingRatio, List<PathTracingConfig> pathConfigs) {
+        return new PathTracingMatcher(envConfig, samplingRatio, pathConfigs);
+    }
+
+    /**
+     * Tracing configuration and sampling ratio for a request.
+     *
+     * @param method HTTP method of the request
+     * @param path   path of the request
+     * @return resolved configuration
+     */
+    Resolved resolve(Http.Method method, UriPath path) {
+        RequestPath requestPath = new RequestPath(path);
+        int first = -1;
+        long mask = 0;
+        int count = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].matches(method, requestPath)) {
+                if (first == -1) {
+                    first = i;
+                }
+                if (i < MAX_CACHED) {
+                    mask |= 1L << i;
+                }
+                count++;
+            }
+        }
+        if (count == 0) {
+            return defaultResolved;
+        }
+        if (count == 1) {
+            return singleResolved[first];
+        }
+        if (entries.length <= MAX_CACHED) {
+            return combinedResolved.computeIfAbsent(mask, this::combine);
+        }
+        return combine(method, requestPath);
+    }
+
+    private Resolved combine(long mask) {
+        TracingConfig config = null;
+        double samplingRatio = defaultResolved.samplingRatio();
+        for (int i = 0; i < entries.length; i++) {
+            if ((mask & (1L << i)) != 0) {
+                config = entries[i].merge(config);
+                samplingRatio = entries[i].samplingRatio(samplingRatio);
+            }
+        }
+        return Resolved.create(config == null ? defaultResolved.config() : config, samplingRatio);
+    }
+
+    private Resolved combine(Http.Method method, RequestPath path) {
+        TracingConfig config = null;
+        double samplingRatio = defaultResolved.samplingRatio();
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].matches(method, path)) {
+                config = entries[i].merge(config);
+                samplingRatio = entries[i].samplingRatio(samplingRatio);
+            }
+        }
+        return Resolved.create(config == null ? defaultResolved.config() : config, samplingRatio);
+    }
+
+    /**
+     * Tracing configuration of a request.
+     *
+     * @param config        tracing configuration
+     * @param samplingRatio sampling ratio
+     * @param enabled       whether the configuration is enabled, computed once as merged configurations resolve
+     *                      {@link TracingConfig#enabled()} on each call
+     */
+    record Resolved(TracingConfig config, double samplingRatio, boolean enabled) {
+        static Resolved create(TracingConfig config, double samplingRatio) {
+            return new Resolved(config, samplingRatio, config.enabled());
+        }
+
+        /**
+         * Whether the request may be traced, depending on sampling.
+         *
+         * @return whether tracing is enabled and the sampling ratio is not zero
+         */
+        boolean traced() {
+            return enabled && samplingRatio > 0;
+        }
+    }
+
+    // decoded path and end of its first segment, shared by all entries when matching a request
+    private static final class RequestPath {
+        private final UriPath uriPath;
+        private final String path;
+        private final int firstEnd;
+
+        private RequestPath(UriPath uriPath) {
+            this.uriPath = uriPath;
+            this.path = uriPath.path();
+            if (path.isEmpty() || path.charAt(0) != '/') {
+                this.firstEnd = -1;
+            } else {
+                int end = path.indexOf('/', 1);
+                this.firstEnd = end == -1 ? path.length() : end;
+            }
+        }
+    }
+
+    private abstract static class Entry {
+        private final PathTracingConfig pathConfig;
+
+        private Entry(PathTracingConfig pathConfig) {
+            this.pathConfig = pathConfig;
+        }
+
+        static Entry create(PathTracingConfig pathConfig) {
+            if (pathConfig instanceof PathTracingConfigImpl impl) {
+                Optional<PathMatchers.Template> template = impl.pathMatcher().template();
+                if (template.isPresent()) {
+                    return new TemplateEntry(impl, template.get());
+                }
+            }
+            return new CustomEntry(pathConfig);
+        }
+
+        abstract boolean matches(Http.Method method, RequestPath path);
+
+        TracingConfig merge(TracingConfig current) {
+            TracingConfig tracedConfig = pathConfig.tracedConfig();
+            if (tracedConfig == null) {
+                return current;
+            }
+            return current == null ? tracedConfig : TracingConfig.merge(current, tracedConfig);
+        }
+
+        // the last matching configuration with a sampling ratio wins
+        double samplingRatio(double current) {
+            return pathConfig.samplingRatio().orElse(current);
+        }
+
+        PathTracingConfig pathConfig() {
+            return pathConfig;
+        }
+    }
+
+    private static final class CustomEntry extends Entry {
+        private CustomEntry(PathTracingConfig pathConfig) {
+            super(pathConfig);
+        }
+
+        @Override
+        boolean matches(Http.Method method, RequestPath path) {
+            return pathConfig().matches(method, path.uriPath);
+        }
+    }
+
+    private static final class TemplateEntry extends Entry {
+        private final Http.MethodPredicate methodPredicate;
+        private final String[] literals;
+        private final boolean prefix;
+
+        private TemplateEntry(PathTracingConfigImpl pathConfig, PathMatchers.Template template) {
+            super(pathConfig);
+            this.methodPredicate = pathConfig.methodPredicate();
+            List<PathMatchers.Segment> segments = template.segments();
+            this.literals = new String[segments.size()];
+            for (int i = 0; i < literals.length; i++) {
+                PathMatchers.Segment segment = segments.get(i);
+                // parameters are null
+                literals[i] = segment.parameter() ? null : segment.value();
+            }
+            this.prefix = template.prefix();
+        }
+
+        @Override
+        boolean matches(Http.Method method, RequestPath path) {
+            if (!methodPredicate.test(method)) {
+                return false;
+            }
+            // template may accept more paths than the path matcher
+            return matchesTemplate(path) && pathConfig().matches(method, path.uriPath);
+        }
+
+        private boolean matchesTemplate(RequestPath requestPath) {
+            if (requestPath.firstEnd == -1) {
+                return false;
+            }
+            String path = requestPath.path;
+            int length = path.length();
+            // start of the next segment, length + 1 if there are no more segments
+            int start = 1;
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (start > length) {
+                    return false;
+                }
+                int end = i == 0 ? requestPath.firstEnd : path.indexOf('/', start);
+                if (end == -1) {
+                    end = length;
+                }
+                if (literal == null) {
+                    if (end == start) {
+                        // parameter must not be empty
+                        return false;
+                    }
+                } else if (end - start != literal.length() || !path.startsWith(literal, start)) {
+                    return false;
+                }
+                start = end + 1;
+            }
+            // prefix requires at least one more (possibly empty) segment
+            return prefix ? start <= length : start == length + 1;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import io.helidon.common.LazyValue;
 import io.helidon.common.context.Context;
 import io.helidon.common.context.Contexts;
 import io.helidon.common.http.Http;
@@ -46,12 +47,18 @@ import io.helidon.tracing.config.TracingConfig;
  * Tracing configuration for webserver.
  * Tracing configuration has two components - an overall (application wide) {@link io.helidon.tracing.config.TracingConfig}
  * and a path specific {@link io.helidon.nima.webserver.tracing.PathTracingConfig}.
+ * <p>
+ * Whether a request is traced is decided when the request is received (head based sampling), before inbound span context
+ * is extracted and before any span is created. For requests that are not traced, a disabled tracing configuration is
+ * registered with the request context, so components further down do not trace them either.
+ * Requests of disabled paths are not propagated at all; for requests that are not sampled, inbound span context
+ * is registered as a lazy value and only extracted from headers if a component further down asks for it.
  */
 public class TracingFeature implements HttpFeature {
     private final boolean enabled;
     private final Tracer tracer;
-    private final TracingConfig envConfig;
-    private final List<PathTracingConfig> pathConfigs;
+    private final PathTracingMatcher matcher;
+    private final TracingSampler sampler;
 
     /**
      * No side effects.
@@ -59,8 +66,10 @@ public class TracingFeature implements HttpFeature {
     private TracingFeature(Builder builder) {
         this.enabled = builder.enabled;
         this.tracer = builder.tracer;
-        this.envConfig = builder.tracedConfig;
-        this.pathConfigs = List.copyOf(builder.pathTracingConfigs);
+        this.matcher = PathTracingMatcher.create(builder.tracedConfig,
+                                                 builder.samplingRatio,
+                                                 List.copyOf(builder.pathTracingConfigs));
+        this.sampler = TracingSampler.create(builder.samplingRateLimit);
     }
 
     /**
@@ -110,7 +119,7 @@ public class TracingFeature implements HttpFeature {
     public void setup(HttpRouting.Builder routing) {
         if (enabled) {
             // and now register the tracing of requests
-            routing.addFilter(new TracingFilter(tracer, envConfig, pathConfigs));
+            routing.addFilter(new TracingFilter(tracer, matcher, sampler));
         }
     }
 
@@ -123,6 +132,8 @@ public class TracingFeature implements HttpFeature {
         private TracingConfig tracedConfig = TracingConfig.ENABLED;
         private Tracer tracer;
         private boolean enabled = true;
+        private double samplingRatio = 1;
+        private int samplingRateLimit;
 
         /**
          * OpenTracing spec states that certain MP paths need to be disabled by default.
@@ -192,6 +203,39 @@ public class TracingFeature implements HttpFeature {
             Config allPaths = config.get("paths");
             allPaths.asNodeList().ifPresent(this::addPaths);
             enabled(tracedConfig.enabled());
+
+            Config sampling = config.get("sampling");
+            sampling.get("ratio").asDouble().ifPresent(this::samplingRatio);
+            sampling.get("rate-limit").asInt().ifPresent(this::samplingRateLimit);
+            return this;
+        }
+
+        /**
+         * Ratio of requests to trace, decided before any span is created.
+         * A path specific ratio can be configured using {@link PathTracingConfig.Builder#samplingRatio(double)}.
+         * Defaults to {@code 1}, so all requests are traced.
+         *
+         * @param samplingRatio ratio of traced requests, between {@code 0} (no requests) and {@code 1} (all requests)
+         * @return updated builder
+         */
+        public Builder samplingRatio(double samplingRatio) {
+            this.samplingRatio = TracingSampler.checkRatio(samplingRatio);
+            return this;
+        }
+
+        /**
+         * Maximal number of traced requests per second, shared by all paths. Requests over the limit
+         * are not traced. Applied to requests sampled by the sampling ratio.
+         * Defaults to {@code 0}, so the number of traced requests is not limited.
+         *
+         * @param requestsPerSecond maximal number of traced requests per second, {@code 0} for no limit
+         * @return updated builder
+         */
+        public Builder samplingRateLimit(int requestsPerSecond) {
+            if (requestsPerSecond < 0) {
+                throw new IllegalArgumentException("Sampling rate limit must not be negative, but is " + requestsPerSecond);
+            }
+            this.samplingRateLimit = requestsPerSecond;
             return this;
         }
 
@@ -227,21 +271,38 @@ public class TracingFeature implements HttpFeature {
     private static class TracingFilter implements Filter {
         private static final String TRACING_SPAN_HTTP_REQUEST = "HTTP Request";
         private final Tracer tracer;
-        private final TracingConfig envConfig;
-        private final List<PathTracingConfig> pathConfigs;
+        private final PathTracingMatcher matcher;
+        private final TracingSampler sampler;
 
-        TracingFilter(Tracer tracer, TracingConfig envConfig, List<PathTracingConfig> pathConfigs) {
+        TracingFilter(Tracer tracer, PathTracingMatcher matcher, TracingSampler sampler) {
             this.tracer = tracer;
-            this.envConfig = envConfig;
-            this.pathConfigs = pathConfigs;
+            this.matcher = matcher;
+            this.sampler = sampler;
         }
 
         @Override
         public void filter(FilterChain chain, RoutingRequest req, RoutingResponse res) {
+            HttpPrologue prologue = req.prologue();
             // context of the request - we register configuration and parent spans to it
             Context context = req.context();
 
-            TracingConfig resolved = configureTracingConfig(req, context);
+            PathTracingMatcher.Resolved sampling = matcher.resolve(prologue.method(), prologue.uriPath());
+            if (!sampling.enabled()) {
+                // disabled for this path - components further down must not trace this request either
+                context.register(sampling.config());
+                Contexts.runInContext(context, chain::proceed);
+                return;
+            }
+            if (!sampling.traced() || !sampler.sample(sampling.samplingRatio())) {
+                // not sampled, the decision of the caller is carried by the inbound span context, so it is propagated
+                context.register(TracingConfig.DISABLED);
+                supplyInbound(context, req);
+                Contexts.runInContext(context, chain::proceed);
+                return;
+            }
+
+            TracingConfig resolved = sampling.config();
+            context.register(resolved);
 
             /*
             Extract inbound span context, this will act as a parent of the new webserver span
@@ -254,18 +315,13 @@ public class TracingFeature implements HttpFeature {
             SpanTracingConfig spanConfig = resolved.spanConfig("web-server", TRACING_SPAN_HTTP_REQUEST);
             if (!spanConfig.enabled()) {
                 // nope, do not start this span, but still register parent span context for components further down
-                if (inboundSpanContext.isPresent()) {
-                    context.register(inboundSpanContext.get());
-                    context.register(TracingConfig.class, inboundSpanContext.get());
-                }
+                registerInbound(context, inboundSpanContext);
                 Contexts.runInContext(context, chain::proceed);
                 return;
             }
             /*
             Create web server span
              */
-            HttpPrologue prologue = req.prologue();
-
             String spanName = spanConfig.newName().orElse(TRACING_SPAN_HTTP_REQUEST);
             if (spanName.indexOf('%') > -1) {
                 spanName = String.format(spanName, prologue.method().text(), req.path().rawPath(), req.query().rawValue());
@@ -305,25 +361,17 @@ public class TracingFeature implements HttpFeature {
             }
         }
 
-        private TracingConfig configureTracingConfig(RoutingRequest req, Context context) {
-            TracingConfig discovered = null;
-
-            for (PathTracingConfig pathConfig : pathConfigs) {
-                if (pathConfig.matches(req.prologue().method(), req.prologue().uriPath())) {
-                    if (discovered == null) {
-                        discovered = pathConfig.tracedConfig();
-                    } else {
-                        discovered = TracingConfig.merge(discovered, pathConfig.tracedConfig());
-                    }
-                }
-            }
+        // headers are only parsed when inbound span context is requested, at most once for both registrations
+        private void supplyInbound(Context context, RoutingRequest req) {
+            LazyValue<Optional<SpanContext>> inbound = LazyValue.create(() -> tracer.extract(new NimaHeaderProvider(req)));
+            context.supply(SpanContext.class, () -> inbound.get().orElse(null));
+            context.supply(TracingConfig.class, SpanContext.class, () -> inbound.get().orElse(null));
+        }
 
-            if (discovered == null) {
-                context.register(envConfig);
-                return envConfig;
-            } else {
-                context.register(discovered);
-                return discovered;
+        private static void registerInbound(Context context, Optional<SpanContext> inboundSpanContext) {
+            if (inboundSpanContext.isPresent()) {
+                context.register(inboundSpanContext.get());
+                context.register(TracingConfig.class, inboundSpanContext.get());
             }
         }
     }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Head based sampling of requests, decided before the request is traced (before any span or span context is created).
+ * A request is sampled with the probability of a sampling ratio, and sampled requests may be limited to a number
+ * of requests per second.
+ */
+final class TracingSampler {
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    // theoretical arrival time of the next sampled request (generic cell rate algorithm)
+    private final AtomicLong nextNanos;
+
+    private TracingSampler(int rateLimit) {
+        if (rateLimit > 0) {
+            this.intervalNanos = SECOND_NANOS / rateLimit;
+            // allows the requests of one second in a burst
+            this.burstNanos = SECOND_NANOS - intervalNanos;
+            this.nextNanos = new AtomicLong(System.nanoTime());
+        } else {
+            this.intervalNanos = 0;
+            this.burstNanos = 0;
+            this.nextNanos = null;
+        }
+    }
+
+    /**
+     * Create a new sampler.
+     *
+     * @param rateLimit maximal number of sampled requests per second, {@code 0} for no limit
+     * @return a new sampler
+     */
+    static TracingSampler create(int rateLimit) {
+        return new TracingSampler(rateLimit);
+    }
+
+    static double checkRatio(double samplingRatio) {
+        if (!(samplingRatio >= 0 && samplingRatio <= 1)) {
+            throw new IllegalArgumentException("Sampling ratio must be between 0 and 1, but is " + samplingRatio);
+        }
+        return samplingRatio;
+    }
+
+    /**
+     * Whether to trace a request.
+     *
+     * @param samplingRatio probability of tracing the request
+     * @return whether the request is sampled
+     */
+    boolean sample(double samplingRatio) {
+        if (samplingRatio <= 0) {
+            return false;
+        }
+        if (samplingRatio < 1 && ThreadLocalRandom.current().nextDouble() >= samplingRatio) {
+            return false;
+        }
+        return nextNanos == null || acquire();
+    }
+
+    private boolean acquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long next = nextNanos.get();
+            long start = next - now < 0 ? now : next;
+            if (start - now > burstNanos) {
+                return false;
+            }
+            if (nextNanos.compareAndSet(next, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.uri.UriPath;
+import io.helidon.tracing.config.ComponentTracingConfig;
+import io.helidon.tracing.config.SpanTracingConfig;
+import io.helidon.tracing.config.TracingConfig;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class PathTracingMatcherTest {
+    private static final List<String> PATHS = List.of("",
+                                                      "/",
+                                                      "/greet",
+                                                      "/greet/",
+                                                      "/greet/joe",
+                                                      "/greet/123",
+                                                      "/greet/joe/hello",
+                                                      "/greet//hello",
+                                                      "/greeting",
+                                                      "/great/joe",
+                                                      "/metrics",
+                                                      "/metrics/vendor",
+                                                      "/other");
+    private static final List<Http.Method> METHODS = List.of(Http.Method.GET, Http.Method.POST);
+    private static final TracingConfig ENV_CONFIG = config("env");
+    private static final double SAMPLING_RATIO = 0.8;
+
+    @Test
+    void testSameAsSequential() {
+        checkSameAsSequential(pathConfigs(""));
+    }
+
+    @Test
+    void testMoreConfigurationsThanCached() {
+        // combinations of configurations are only cached for up to 64 configurations
+        List<PathTracingConfig> pathConfigs = new ArrayList<>();
+        for (int i = 0; pathConfigs.size() <= Long.SIZE; i++) {
+            pathConfigs.addAll(pathConfigs("-" + i));
+        }
+        checkSameAsSequential(pathConfigs);
+    }
+
+    @Test
+    void testNoConfigurations() {
+        PathTracingMatcher matcher = PathTracingMatcher.create(ENV_CONFIG, SAMPLING_RATIO, List.of());
+        PathTracingMatcher.Resolved resolved = matcher.resolve(Http.Method.GET, UriPath.create("/greet"));
+        assertThat(resolved.config(), is(ENV_CONFIG));
+        assertThat(resolved.samplingRatio(), is(SAMPLING_RATIO));
+        assertThat(resolved.traced(), is(true));
+    }
+
+    private static void checkSameAsSequential(List<PathTracingConfig> pathConfigs) {
+        PathTracingMatcher matcher = PathTracingMatcher.create(ENV_CONFIG, SAMPLING_RATIO, pathConfigs);
+        // twice, second time from cache
+        for (int i = 0; i < 2; i++) {
+            for (Http.Method method : METHODS) {
+                for (String path : PATHS) {
+                    UriPath uriPath = UriPath.create(path);
+                    String description = method.text() + " " + path;
+                    PathTracingMatcher.Resolved expected = sequential(pathConfigs, method, uriPath);
+                    PathTracingMatcher.Resolved resolved = matcher.resolve(method, uriPath);
+
+                    assertThat(description, resolved.traced(), is(expected.traced()));
+                    assertThat(description, resolved.samplingRatio(), is(expected.samplingRatio()));
+                    assertThat(description, resolved.config().enabled(), is(expected.config().enabled()));
+                    assertThat(description, spanName(resolved.config()), is(spanName(expected.config())));
+                }
+            }
+        }
+    }
+
+    // resolution of path configurations one after another, as done before path configurations were compiled
+    private static PathTracingMatcher.Resolved sequential(List<PathTracingConfig> pathConfigs,
+                                                          Http.Method method,
+                                                          UriPath path) {
+        TracingConfig discovered = null;
+        double samplingRatio = SAMPLING_RATIO;
+        for (PathTracingConfig pathConfig : pathConfigs) {
+            if (pathConfig.matches(method, path)) {
+                TracingConfig tracedConfig = pathConfig.tracedConfig();
+                if (tracedConfig != null) {
+                    discovered = discovered == null ? tracedConfig : TracingConfig.merge(discovered, tracedConfig);
+                }
+                samplingRatio = pathConfig.samplingRatio().orElse(samplingRatio);
+            }
+        }
+        return PathTracingMatcher.Resolved.create(discovered == null ? ENV_CONFIG : discovered, samplingRatio);
+    }
+
+    private static List<PathTracingConfig> pathConfigs(String suffix) {
+        return List.of(PathTracingConfig.builder()
+                               .path("/greet")
+                               .tracingConfig(config("exact" + suffix))
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/greet/*")
+                               .tracingConfig(config("prefix" + suffix))
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/greet/{name}")
+                               .addMethod("GET")
+                               .tracingConfig(config("parameter" + suffix))
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/greet/{id:\\d+}")
+                               .tracingConfig(config("regexp" + suffix))
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/gre*t/*")
+                               .tracingConfig(config("glob" + suffix))
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/greet/*")
+                               .samplingRatio(0.5)
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/metrics/*")
+                               .tracingConfig(TracingConfig.DISABLED)
+                               .build(),
+                       PathTracingConfig.builder()
+                               .path("/other")
+                               .addMethod("POST")
+                               .samplingRatio(0)
+                               .build());
+    }
+
+    private static TracingConfig config(String spanName) {
+        return TracingConfig.builder()
+                .addComponent(ComponentTracingConfig.builder("web-server")
+                                      .addSpan(SpanTracingConfig.builder("HTTP Request")
+                                                       .newName(spanName)
+                                                       .build())
+                                      .build())
+                .build();
+    }
+
+    private static Optional<String> spanName(TracingConfig config) {
+        return config.spanConfig("web-server", "HTTP Request").newName();
+    }
+}
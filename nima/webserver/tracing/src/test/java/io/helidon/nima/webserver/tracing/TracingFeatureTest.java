@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.context.Context;
+import io.helidon.common.context.Contexts;
+import io.helidon.common.http.Http;
+import io.helidon.nima.testing.junit5.webserver.DirectClient;
+import io.helidon.nima.testing.junit5.webserver.RoutingTest;
+import io.helidon.nima.testing.junit5.webserver.SetUpRoute;
+import io.helidon.nima.webclient.http1.Http1Client;
+import io.helidon.nima.webserver.http.HttpRouting;
+import io.helidon.nima.webserver.http.ServerRequest;
+import io.helidon.nima.webserver.http.ServerResponse;
+import io.helidon.tracing.HeaderConsumer;
+import io.helidon.tracing.HeaderProvider;
+import io.helidon.tracing.Span;
+import io.helidon.tracing.SpanContext;
+import io.helidon.tracing.Tracer;
+import io.helidon.tracing.config.TracingConfig;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RoutingTest
+class TracingFeatureTest {
+    private static final String TRACE_HEADER = "x-test-trace";
+    private static final CountingTracer TRACER = new CountingTracer();
+
+    private final Http1Client client;
+
+    TracingFeatureTest(DirectClient client) {
+        this.client = client;
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder router) {
+        router.addFeature(() -> TracingFeature.builder()
+                        .tracer(TRACER)
+                        .addPathConfig(PathTracingConfig.builder()
+                                               .path("/unsampled/*")
+                                               .samplingRatio(0)
+                                               .build())
+                        .build())
+                .get("/unsampled/ignored", (req, res) -> res.send("ignored"))
+                .get("/*", TracingFeatureTest::handler);
+    }
+
+    @Test
+    void testSampled() {
+        int spans = TRACER.spans();
+        String response = client.get("/greet")
+                .request(String.class);
+        assertThat(response, is("traced"));
+        assertThat(TRACER.spans(), is(spans + 1));
+    }
+
+    @Test
+    void testUnsampled() {
+        int spans = TRACER.spans();
+        String response = client.get("/unsampled/greet")
+                .request(String.class);
+        // components further down must not trace the request either
+        assertThat(response, is("disabled"));
+        assertThat(TRACER.spans(), is(spans));
+    }
+
+    @Test
+    void testDisabledPath() {
+        int spans = TRACER.spans();
+        int extracted = TRACER.extracted();
+        String response = client.get("/metrics/vendor")
+                .header(Http.Header.create(TRACE_HEADER), "inbound")
+                .request(String.class);
+        // disabled paths do not parse tracing headers
+        assertThat(response, is("disabled"));
+        assertThat(TRACER.spans(), is(spans));
+        assertThat(TRACER.extracted(), is(extracted));
+    }
+
+    @Test
+    void testUnsampledPropagatesInbound() {
+        int spans = TRACER.spans();
+        int extracted = TRACER.extracted();
+        String response = client.get("/unsampled/greet")
+                .header(Http.Header.create(TRACE_HEADER), "inbound")
+                .request(String.class);
+        assertThat(response, is("disabled inbound"));
+        assertThat(TRACER.spans(), is(spans));
+        assertThat(TRACER.extracted(), is(extracted + 1));
+    }
+
+    @Test
+    void testUnsampledExtractsOnlyWhenRequested() {
+        int extracted = TRACER.extracted();
+        String response = client.get("/unsampled/ignored")
+                .header(Http.Header.create(TRACE_HEADER), "inbound")
+                .request(String.class);
+        assertThat(response, is("ignored"));
+        assertThat(TRACER.extracted(), is(extracted));
+    }
+
+    private static void handler(ServerRequest req, ServerResponse res) {
+        Context context = Contexts.context().orElseThrow();
+        String result = context.get(TracingConfig.class)
+                .map(it -> it.enabled() ? "traced" : "disabled")
+                .orElse("none");
+        Optional<SpanContext> spanContext = context.get(SpanContext.class);
+        if (spanContext.isPresent() && spanContext.get() instanceof InboundContext inbound) {
+            result = result + " " + inbound.traceId();
+        }
+        res.send(result);
+    }
+
+    private static final class CountingTracer implements Tracer {
+        private final Tracer delegate = Tracer.noOp();
+        private final AtomicInteger spans = new AtomicInteger();
+        private final AtomicInteger extracted = new AtomicInteger();
+
+        @Override
+        public boolean enabled() {
+            return true;
+        }
+
+        @Override
+        public Span.Builder<?> spanBuilder(String name) {
+            spans.incrementAndGet();
+            return delegate.spanBuilder(name);
+        }
+
+        @Override
+        public Optional<SpanContext> extract(HeaderProvider headersProvider) {
+            extracted.incrementAndGet();
+            return headersProvider.get(TRACE_HEADER).map(InboundContext::new);
+        }
+
+        @Override
+        public void inject(SpanContext spanContext,
+                           HeaderProvider inboundHeadersProvider,
+                           HeaderConsumer outboundHeadersConsumer) {
+        }
+
+        int spans() {
+            return spans.get();
+        }
+
+        int extracted() {
+            return extracted.get();
+        }
+    }
+
+    private record InboundContext(String traceId) implements SpanContext {
+        @Override
+        public String spanId() {
+            return traceId;
+        }
+
+        @Override
+        public void asParent(Span.Builder<?> spanBuilder) {
+        }
+    }
+}
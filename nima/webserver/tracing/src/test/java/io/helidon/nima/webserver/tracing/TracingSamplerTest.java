@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TracingSamplerTest {
+    @Test
+    void testRatioZero() {
+        TracingSampler sampler = TracingSampler.create(0);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sampler.sample(0), is(false));
+        }
+    }
+
+    @Test
+    void testRatioOne() {
+        TracingSampler sampler = TracingSampler.create(0);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sampler.sample(1), is(true));
+        }
+    }
+
+    @Test
+    void testRatio() {
+        TracingSampler sampler = TracingSampler.create(0);
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sampler.sample(0.5)) {
+                sampled++;
+            }
+        }
+        assertThat(sampled, allOf(greaterThan(4000), lessThan(6000)));
+    }
+
+    @Test
+    void testRateLimit() {
+        TracingSampler sampler = TracingSampler.create(10);
+        int sampled = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (sampler.sample(1)) {
+                sampled++;
+            }
+        }
+        // requests of one second are allowed in a burst, one more if the loop takes longer than 100 millis
+        assertThat(sampled, allOf(greaterThanOrEqualTo(10), lessThanOrEqualTo(11)));
+        // rate limit does not apply to requests that are not sampled
+        assertThat(sampler.sample(0), is(false));
+    }
+
+    @Test
+    void testInvalidRatio() {
+        assertThrows(IllegalArgumentException.class, () -> TracingSampler.checkRatio(1.5));
+        assertThrows(IllegalArgumentException.class, () -> TracingSampler.checkRatio(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> TracingSampler.checkRatio(Double.NaN));
+    }
+}
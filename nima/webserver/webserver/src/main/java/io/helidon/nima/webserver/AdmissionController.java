@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control of a single listener.
+ * Connections and in-flight requests are counted without locking; when an adaptive limit is configured,
+ * the limit of in-flight requests is adjusted using additive increase, multiplicative decrease (AIMD)
+ * based on smoothed request latency compared to the target latency.
+ */
+final class AdmissionController implements KeyPerformanceIndicatorSupport.AdmissionControl {
+    // upper bound of adaptive limit when max concurrent requests is not configured
+    private static final int DEFAULT_ADAPTIVE_MAX = 1000;
+    private static final int INITIAL_ADAPTIVE_LIMIT = 100;
+    private static final double BACKOFF_RATIO = 0.9;
+    // weight of a new latency sample in the moving average
+    private static final double SMOOTHING = 0.1;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final ReentrantLock limitLock = new ReentrantLock();
+    private final int maxConnections;
+    private final int maxRequests;
+    private final long targetLatencyNanos;
+
+    private volatile int limit;
+
+    // guarded by limitLock
+    private double adaptiveLimit;
+    private double averageLatencyNanos;
+    private int completedSinceDecrease;
+
+    private AdmissionController(int maxConnections, int maxRequests, Duration targetLatency) {
+        this.maxConnections = maxConnections;
+        if (targetLatency == null) {
+            this.maxRequests = maxRequests;
+            this.targetLatencyNanos = 0;
+            this.limit = maxRequests;
+        } else {
+            this.maxRequests = maxRequests < 1 ? DEFAULT_ADAPTIVE_MAX : maxRequests;
+            this.targetLatencyNanos = targetLatency.toNanos();
+            this.adaptiveLimit = Math.min(INITIAL_ADAPTIVE_LIMIT, this.maxRequests);
+            this.limit = (int) adaptiveLimit;
+        }
+    }
+
+    static AdmissionController create(ListenerConfiguration listenerConfig) {
+        return new AdmissionController(listenerConfig.maxConcurrentConnections(),
+                                       listenerConfig.maxConcurrentRequests(),
+                                       listenerConfig.adaptiveConcurrencyTargetLatency());
+    }
+
+    /**
+     * Try to admit a new connection. If admitted, {@link #connectionClosed()} must be called once the connection
+     * is closed.
+     *
+     * @return whether the connection is admitted
+     */
+    boolean tryAcquireConnection() {
+        if (tryAcquire(connections, maxConnections)) {
+            return true;
+        }
+        rejectedConnections.increment();
+        return false;
+    }
+
+    void connectionClosed() {
+        connections.decrementAndGet();
+    }
+
+    @Override
+    public boolean tryAcquireRequest() {
+        if (tryAcquire(inFlight, limit)) {
+            return true;
+        }
+        rejectedRequests.increment();
+        return false;
+    }
+
+    @Override
+    public void requestCompleted(long startNanos) {
+        int current = inFlight.getAndDecrement();
+        if (targetLatencyNanos == 0) {
+            return;
+        }
+        long latency = System.nanoTime() - startNanos;
+        // limit is only an estimate, there is no need to wait for other threads to update it
+        if (limitLock.tryLock()) {
+            try {
+                adjustLimit(latency, current);
+            } finally {
+                limitLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int connections() {
+        return connections.get();
+    }
+
+    @Override
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public int inFlightRequests() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int requestLimit() {
+        return limit;
+    }
+
+    @Override
+    public long rejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    @Override
+    public long rejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    private static boolean tryAcquire(AtomicInteger counter, int max) {
+        if (max < 0) {
+            counter.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int current = counter.get();
+            if (current >= max) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void adjustLimit(long latency, int inFlightRequests) {
+        averageLatencyNanos = averageLatencyNanos == 0
+                ? latency
+                : averageLatencyNanos + SMOOTHING * (latency - averageLatencyNanos);
+        completedSinceDecrease++;
+
+        if (averageLatencyNanos > targetLatencyNanos) {
+            // decrease at most once per window of requests, so a single burst does not collapse the limit
+            if (completedSinceDecrease >= adaptiveLimit) {
+                adaptiveLimit = Math.max(1, adaptiveLimit * BACKOFF_RATIO);
+                completedSinceDecrease = 0;
+            }
+        } else if (inFlightRequests * 2 >= adaptiveLimit) {
+            // only grow when the limit is actually used, by one for each window of requests
+            adaptiveLimit = Math.min(maxRequests, adaptiveLimit + 1 / adaptiveLimit);
+        }
+        limit = (int) adaptiveLimit;
+    }
+}
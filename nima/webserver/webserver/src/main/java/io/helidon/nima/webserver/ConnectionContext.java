@@ -60,6 +60,52 @@ public interface ConnectionContext extends SocketContext {
                                     HelidonSocket socket,
                                     long maxPayloadSize,
                                     Context context) {
+        return create(mediaContext,
+                      contentEncodingContext,
+                      sharedExecutor,
+                      dataWriter,
+                      dataReader,
+                      router,
+                      serverChannelId,
+                      channelId,
+                      simpleHandlers,
+                      socket,
+                      maxPayloadSize,
+                      context,
+                      KeyPerformanceIndicatorSupport.AdmissionControl.NO_OP);
+    }
+
+    /**
+     * Create a new context.
+     *
+     * @param mediaContext           media context to read and write typed entities
+     * @param contentEncodingContext content encoding to support various entity content encodings
+     * @param sharedExecutor         executor service to use to handle asynchronous tasks
+     * @param dataWriter             data writer to write response
+     * @param dataReader             data reader to read request
+     * @param router                 router with available routings
+     * @param serverChannelId        server channel id (listener)
+     * @param channelId              channel id (connection)
+     * @param simpleHandlers         error handling configuration
+     * @param socket                 socket to obtain information about peers
+     * @param maxPayloadSize         maximal size of a payload entity
+     * @param context                parent context from web server
+     * @param admissionControl       admission control of the listener
+     * @return a new context
+     */
+    static ConnectionContext create(MediaContext mediaContext,
+                                    ContentEncodingContext contentEncodingContext,
+                                    ExecutorService sharedExecutor,
+                                    DataWriter dataWriter,
+                                    DataReader dataReader,
+                                    Router router,
+                                    String serverChannelId,
+                                    String channelId,
+                                    DirectHandlers simpleHandlers,
+                                    HelidonSocket socket,
+                                    long maxPayloadSize,
+                                    Context context,
+                                    KeyPerformanceIndicatorSupport.AdmissionControl admissionControl) {
         return new ConnectionContextImpl(mediaContext,
                                          contentEncodingContext,
                                          sharedExecutor,
@@ -71,7 +117,8 @@ public interface ConnectionContext extends SocketContext {
                                          simpleHandlers,
                                          socket,
                                          maxPayloadSize,
-                context);
+                                         context,
+                                         admissionControl);
     }
 
     /**
@@ -136,4 +183,19 @@ public interface ConnectionContext extends SocketContext {
      * @return parent context.
      */
     Context context();
+
+    /**
+     * Admission control of the listener that accepted this connection.
+     * Protocol implementations must obtain a permit for each request before routing it.
+     *
+     * @return admission control
+     */
+    KeyPerformanceIndicatorSupport.AdmissionControl admissionControl();
+
+    /**
+     * Close the socket of this connection immediately, without writing any more data.
+     * Can be called from another thread than the one handling the connection, also while it is blocked writing
+     * to the socket (the write then fails).
+     */
+    void closeSocket();
 }
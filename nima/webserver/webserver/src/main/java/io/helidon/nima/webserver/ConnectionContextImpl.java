@@ -41,6 +41,7 @@ final class ConnectionContextImpl implements ConnectionContext {
     private final HelidonSocket socket;
     private final long maxPayloadSize;
     private final Context context;
+    private final KeyPerformanceIndicatorSupport.AdmissionControl admissionControl;
 
     ConnectionContextImpl(MediaContext mediaContext,
                           ContentEncodingContext contentEncodingContext,
@@ -53,7 +54,8 @@ final class ConnectionContextImpl implements ConnectionContext {
                           DirectHandlers simpleHandlers,
                           HelidonSocket socket,
                           long maxPayloadSize,
-                          Context context) {
+                          Context context,
+                          KeyPerformanceIndicatorSupport.AdmissionControl admissionControl) {
         this.mediaContext = mediaContext;
         this.contentEncodingContext = contentEncodingContext;
         this.sharedExecutor = sharedExecutor;
@@ -66,6 +68,7 @@ final class ConnectionContextImpl implements ConnectionContext {
         this.socket = socket;
         this.maxPayloadSize = maxPayloadSize;
         this.context = context;
+        this.admissionControl = admissionControl;
     }
 
     @Override
@@ -138,6 +141,16 @@ final class ConnectionContextImpl implements ConnectionContext {
         return context;
     }
 
+    @Override
+    public KeyPerformanceIndicatorSupport.AdmissionControl admissionControl() {
+        return admissionControl;
+    }
+
+    @Override
+    public void closeSocket() {
+        socket.close();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(sharedExecutor,
@@ -17,11 +17,13 @@
 package io.helidon.nima.webserver;
 
 import java.io.UncheckedIOException;
+import java.nio.channels.SocketChannel;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.BufferPool;
 import io.helidon.common.buffers.DataReader;
 import io.helidon.common.context.Context;
 import io.helidon.common.http.HttpException;
@@ -40,10 +42,14 @@ import static java.lang.System.Logger.Level.WARNING;
 
 /**
  * Representation of a single channel between client and server.
- * Everything in this class runs in the channel reader virtual thread
+ * Everything in this class runs in the channel reader virtual thread.
+ * When idle connection parking is enabled, the handler runs again in a new virtual thread each time data
+ * becomes available on a parked connection.
  */
 class ConnectionHandler implements Runnable {
     private static final System.Logger LOGGER = System.getLogger(ConnectionHandler.class.getName());
+    // size of buffers borrowed from the buffer pool, same as the read buffer of a socket
+    private static final int POOLED_BUFFER_SIZE = 8 * 1024;
 
     private final ConnectionProviders connectionProviders;
     private final List<ServerConnectionProvider> providerCandidates;
@@ -53,6 +59,10 @@ class ConnectionHandler implements Runnable {
     private final SocketWriter writer;
     private final DataReader reader;
     private final ConnectionContext ctx;
+    private final IdleConnectionSelector idleSelector;
+    private final SocketChannel channel;
+    private final ExecutorService readerExecutor;
+    private final AdmissionController admissionController;
 
     private ServerConnection connection;
 
@@ -64,17 +74,32 @@ class ConnectionHandler implements Runnable {
                       String channelId,
                       HelidonSocket socket,
                       Router router,
-                      int writeQueueLength,
-                      long maxPayloadSize,
+                      ListenerConfiguration listenerConfig,
                       DirectHandlers simpleHandlers,
-                      Context context) {
+                      Context context,
+                      IdleConnectionSelector idleSelector,
+                      SocketChannel channel,
+                      ExecutorService readerExecutor,
+                      AdmissionController admissionController) {
         this.connectionProviders = connectionProviders;
         this.providerCandidates = connectionProviders.providerCandidates();
         this.serverChannelId = serverChannelId;
         this.socket = socket;
         this.channelId = channelId;
-        this.writer = SocketWriter.create(sharedExecutor, socket, writeQueueLength);
-        this.reader = new DataReader(socket);
+        // idle connections can only be parked if we have a channel to register with the selector
+        this.idleSelector = channel == null ? null : idleSelector;
+        this.channel = channel;
+        this.readerExecutor = readerExecutor;
+        this.admissionController = admissionController;
+        this.writer = SocketWriter.create(sharedExecutor,
+                                          socket,
+                                          listenerConfig.writeQueueLength(),
+                                          listenerConfig.lockFreeWriteQueue(),
+                                          listenerConfig.writeQueueTimeout());
+        BufferPool bufferPool = listenerConfig.bufferPool();
+        this.reader = bufferPool == null
+                ? new DataReader(socket)
+                : new DataReader(socket::read, bufferPool, POOLED_BUFFER_SIZE);
         this.ctx = ConnectionContext.create(mediaContext,
                                             contentEncodingContext,
                                             sharedExecutor,
@@ -85,29 +110,33 @@ class ConnectionHandler implements Runnable {
                                             channelId,
                                             simpleHandlers,
                                             socket,
-                                            maxPayloadSize,
-                                            context);
+                                            listenerConfig.maxPayloadSize(),
+                                            context,
+                                            admissionController);
     }
 
     @Override
     public final void run() {
         Thread.currentThread().setName("[" + socket.socketId() + " " + socket.childSocketId() + "] Nima socket");
-        if (LOGGER.isLoggable(DEBUG)) {
-            ctx.log(LOGGER, DEBUG, "accepted socket from %s", socket.remotePeer().host());
-        }
+        boolean idle = false;
 
         try {
-            if (socket.protocolNegotiated()) {
-                this.connection = connectionProviders.byApplicationProtocol(socket.protocol())
-                        .connection(ctx);
-            }
-
             if (connection == null) {
-                this.connection = identifyConnection();
-            }
+                if (LOGGER.isLoggable(DEBUG)) {
+                    ctx.log(LOGGER, DEBUG, "accepted socket from %s", socket.remotePeer().host());
+                }
+                if (socket.protocolNegotiated()) {
+                    this.connection = connectionProviders.byApplicationProtocol(socket.protocol())
+                            .connection(ctx);
+                }
 
-            if (connection == null) {
-                throw new CloseConnectionException("No suitable connection provider");
+                if (connection == null) {
+                    this.connection = identifyConnection();
+                }
+
+                if (connection == null) {
+                    throw new CloseConnectionException("No suitable connection provider");
+                }
             }
 
             // removing structured concurrency for now - we should use this when we start more threads for a single
@@ -121,7 +150,11 @@ class ConnectionHandler implements Runnable {
             //                    executor.join();
             //                }
             //            }
-            connection.handle();
+            if (idleSelector == null) {
+                connection.handle();
+            } else {
+                idle = connection.handleUntilIdle();
+            }
         } catch (RequestException e) {
             ctx.log(LOGGER, WARNING, "escaped Request exception", e);
         } catch (HttpException e) {
@@ -135,11 +168,37 @@ class ConnectionHandler implements Runnable {
         } catch (Exception e) {
             ctx.log(LOGGER, WARNING, "unexpected exception", e);
         } finally {
-            writer.close();
-            closeChannel();
+            if (idle) {
+                // no data to read, return read buffers, and release this thread until there is more data
+                reader.release();
+            } else {
+                writer.close();
+                reader.release();
+                closeChannel();
+            }
+        }
+
+        if (idle) {
+            park();
+        } else {
+            ctx.log(LOGGER, DEBUG, "socket closed");
+        }
+    }
+
+    private void park() {
+        try {
+            // must be the last thing we do, as the handler may be resumed in another thread right away
+            idleSelector.park(channel, () -> readerExecutor.submit(this), this::closeParked);
+        } catch (Exception e) {
+            ctx.log(LOGGER, TRACE, "failed to park idle connection", e);
+            closeParked();
         }
+    }
 
-        ctx.log(LOGGER, DEBUG, "socket closed");
+    // parked connection could not be resumed, or the listener is closing
+    private void closeParked() {
+        writer.close();
+        closeChannel();
     }
 
     private ServerConnection identifyConnection() {
@@ -213,6 +272,7 @@ class ConnectionHandler implements Runnable {
     }
 
     private void closeChannel() {
+        admissionController.connectionClosed();
         try {
             socket.close();
         } catch (Throwable e) {
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.System.Logger.Level.TRACE;
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Selector shared by all connections of a listener, used to park idle connections without a thread.
+ * A parked connection is resumed (its handler is submitted to the executor) once data is available to read,
+ * or the connection is closed by the peer.
+ */
+class IdleConnectionSelector {
+    private static final System.Logger LOGGER = System.getLogger(IdleConnectionSelector.class.getName());
+
+    private final Queue<Parked> toRegister = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parkedCount = new AtomicInteger();
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private IdleConnectionSelector(String socketName) {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open selector for idle connections", e);
+        }
+        this.thread = Thread.ofPlatform()
+                .daemon(true)
+                .name("server-" + socketName + "-idle-selector")
+                .unstarted(this::select);
+    }
+
+    static IdleConnectionSelector create(String socketName) {
+        IdleConnectionSelector result = new IdleConnectionSelector(socketName);
+        result.thread.start();
+        return result;
+    }
+
+    /**
+     * Park a connection until data is available. The channel is switched to non-blocking mode, and is switched back
+     * to blocking mode before the resume task is called.
+     * If the connection cannot be parked or resumed, or the selector is closed, the close task is called instead.
+     *
+     * @param channel channel of the connection
+     * @param resume  task to resume the connection, called from the selector thread, must not block
+     * @param close   task to close the connection, must close the channel, may be called from the selector thread,
+     *                must not block
+     * @throws java.io.UncheckedIOException in case the channel cannot be switched to non-blocking mode
+     */
+    void park(SocketChannel channel, Runnable resume, Runnable close) {
+        if (!running) {
+            close.run();
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        parkedCount.incrementAndGet();
+        toRegister.add(new Parked(channel, resume, close));
+        selector.wakeup();
+    }
+
+    /**
+     * Number of currently parked connections.
+     *
+     * @return parked connections
+     */
+    int parked() {
+        return parkedCount.get();
+    }
+
+    /**
+     * Stop the selector thread and close all parked connections.
+     */
+    void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException ignored) {
+            // we are closing, nothing to do
+        }
+    }
+
+    private void select() {
+        List<Parked> ready = new ArrayList<>();
+        try {
+            while (running) {
+                selector.select();
+                register();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    key.cancel();
+                    ready.add((Parked) key.attachment());
+                }
+                if (ready.isEmpty()) {
+                    continue;
+                }
+                // cancelled keys are removed from the selector during the next selection operation,
+                // channel cannot be switched to blocking mode until then
+                selector.selectNow();
+                for (Parked parked : ready) {
+                    resume(parked);
+                }
+                ready.clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            LOGGER.log(WARNING, "Idle connection selector failed, parked connections will be closed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void register() {
+        Parked parked;
+        while ((parked = toRegister.poll()) != null) {
+            try {
+                parked.channel().register(selector, SelectionKey.OP_READ, parked);
+            } catch (IOException e) {
+                // channel closed in the meantime
+                parkedCount.decrementAndGet();
+                close(parked);
+            }
+        }
+    }
+
+    private void resume(Parked parked) {
+        parkedCount.decrementAndGet();
+        try {
+            parked.channel().configureBlocking(true);
+            parked.resume().run();
+        } catch (Exception e) {
+            LOGGER.log(TRACE, "Failed to resume parked connection", e);
+            close(parked);
+        }
+    }
+
+    private void closeAll() {
+        Parked parked;
+        while ((parked = toRegister.poll()) != null) {
+            close(parked);
+        }
+        try {
+            for (SelectionKey key : selector.keys()) {
+                close((Parked) key.attachment());
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException e) {
+            LOGGER.log(TRACE, "Failed to close idle connection selector", e);
+        }
+        parkedCount.set(0);
+    }
+
+    // the connection owns resources of the listener (such as its admission permit), it must be closed by its handler
+    private static void close(Parked parked) {
+        try {
+            parked.close().run();
+        } catch (Exception e) {
+            LOGGER.log(TRACE, "Failed to close parked connection", e);
+        }
+    }
+
+    private record Parked(SocketChannel channel, Runnable resume, Runnable close) {
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.helidon.nima.webserver;
 
+import java.util.Optional;
+
 import io.helidon.nima.webserver.http.Handler;
 
 /**
@@ -158,4 +160,113 @@ public interface KeyPerformanceIndicatorSupport {
         default void onRequestCompleted(boolean isSuccessful, long processingTimeMs) {
         }
     }
+
+    /**
+     * Admission control of a server listener (socket). Limits the number of concurrent connections and requests,
+     * and rejects work over the limits, so the server keeps serving admitted requests under load spikes.
+     * <p>
+     * The state can be obtained for a listener using {@link #find(io.helidon.common.context.Context, String)}
+     * with the web server context.
+     */
+    interface AdmissionControl {
+        /**
+         * Admission control that admits all work.
+         */
+        AdmissionControl NO_OP = new AdmissionControl() {
+        };
+
+        /**
+         * Find admission control of a listener.
+         *
+         * @param serverContext context of the web server, see {@link io.helidon.nima.webserver.WebServer#context()}
+         * @param socketName    name of the listener socket
+         * @return admission control of the listener, empty if the listener does not exist
+         */
+        static Optional<AdmissionControl> find(io.helidon.common.context.Context serverContext, String socketName) {
+            return serverContext.get(classifier(socketName), AdmissionControl.class);
+        }
+
+        /**
+         * Classifier used to register admission control of a listener in the web server context.
+         *
+         * @param socketName name of the listener socket
+         * @return classifier
+         */
+        static String classifier(String socketName) {
+            return AdmissionControl.class.getName() + "/" + socketName;
+        }
+
+        /**
+         * Try to admit a new request. If admitted, {@link #requestCompleted(long)} must be called once the request
+         * completes.
+         *
+         * @return whether the request is admitted
+         */
+        default boolean tryAcquireRequest() {
+            return true;
+        }
+
+        /**
+         * Invoked when an admitted request completes.
+         *
+         * @param startNanos {@link System#nanoTime()} when the request was admitted, used to measure its latency
+         */
+        default void requestCompleted(long startNanos) {
+        }
+
+        /**
+         * Number of currently open connections.
+         *
+         * @return open connections
+         */
+        default int connections() {
+            return 0;
+        }
+
+        /**
+         * Maximal number of concurrent connections.
+         *
+         * @return maximal number of connections, {@code -1} for unlimited
+         */
+        default int maxConnections() {
+            return -1;
+        }
+
+        /**
+         * Number of requests currently being processed.
+         *
+         * @return in-flight requests
+         */
+        default int inFlightRequests() {
+            return 0;
+        }
+
+        /**
+         * Current limit of concurrent requests. When adaptive concurrency limit is used, this value changes based on
+         * measured latency.
+         *
+         * @return request limit, {@code -1} for unlimited
+         */
+        default int requestLimit() {
+            return -1;
+        }
+
+        /**
+         * Number of connections rejected since the listener started.
+         *
+         * @return rejected connections
+         */
+        default long rejectedConnections() {
+            return 0;
+        }
+
+        /**
+         * Number of requests rejected since the listener started.
+         *
+         * @return rejected requests
+         */
+        default long rejectedRequests() {
+            return 0;
+        }
+    }
 }
@@ -23,10 +23,12 @@ import java.net.ServerSocket;
 import java.net.SocketOption;
 import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import io.helidon.common.buffers.BufferPool;
 import io.helidon.common.socket.SocketOptions;
 import io.helidon.nima.common.tls.Tls;
 
@@ -41,7 +43,14 @@ public final class ListenerConfiguration {
     private final Tls tls;
     private final SocketOptions connectionOptions;
     private final int writeQueueLength;
+    private final boolean lockFreeWriteQueue;
+    private final Duration writeQueueTimeout;
     private final long maxPayloadSize;
+    private final BufferPool bufferPool;
+    private final boolean idleConnectionParking;
+    private final int maxConcurrentConnections;
+    private final int maxConcurrentRequests;
+    private final Duration adaptiveConcurrencyTargetLatency;
 
     private ListenerConfiguration(Builder builder) {
         this.socketOptions = new HashMap<>(builder.socketOptions);
@@ -51,7 +60,14 @@ public final class ListenerConfiguration {
         this.tls = builder.tls;
         this.connectionOptions = builder.connectionOptions;
         this.writeQueueLength = builder.writeQueueLength;
+        this.lockFreeWriteQueue = builder.lockFreeWriteQueue;
+        this.writeQueueTimeout = builder.writeQueueTimeout;
         this.maxPayloadSize = builder.maxPayloadSize;
+        this.bufferPool = builder.bufferPool;
+        this.idleConnectionParking = builder.idleConnectionParking;
+        this.maxConcurrentConnections = builder.maxConcurrentConnections;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.adaptiveConcurrencyTargetLatency = builder.adaptiveConcurrencyTargetLatency;
     }
 
     /**
@@ -101,6 +117,24 @@ public final class ListenerConfiguration {
         return writeQueueLength;
     }
 
+    /**
+     * Whether the write queue (when used) is lock-free, writing queued buffers using a gathering write.
+     *
+     * @return whether to use lock-free write queue
+     */
+    public boolean lockFreeWriteQueue() {
+        return lockFreeWriteQueue;
+    }
+
+    /**
+     * How long a write waits for space in a full write queue (when used) before failing.
+     *
+     * @return write queue timeout
+     */
+    public Duration writeQueueTimeout() {
+        return writeQueueTimeout;
+    }
+
     /**
      * Options for connections accepted by this listener.
      *
@@ -114,6 +148,41 @@ public final class ListenerConfiguration {
         return maxPayloadSize;
     }
 
+    /**
+     * Buffer pool used to read data from connections, {@code null} if pooling is disabled.
+     *
+     * @return buffer pool or {@code null}
+     */
+    BufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Whether idle connections are parked on a selector instead of blocking a thread.
+     *
+     * @return whether idle connection parking is enabled
+     */
+    boolean idleConnectionParking() {
+        return idleConnectionParking;
+    }
+
+    int maxConcurrentConnections() {
+        return maxConcurrentConnections;
+    }
+
+    int maxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Target latency of the adaptive concurrency limit, {@code null} if the limit is not adaptive.
+     *
+     * @return target latency or {@code null}
+     */
+    Duration adaptiveConcurrencyTargetLatency() {
+        return adaptiveConcurrencyTargetLatency;
+    }
+
     int port() {
         return port;
     }
@@ -154,7 +223,14 @@ public final class ListenerConfiguration {
         private Tls tls;
         private SocketOptions connectionOptions;
         private int writeQueueLength = 0;
+        private boolean lockFreeWriteQueue;
+        private Duration writeQueueTimeout = Duration.ofSeconds(10);
         private long maxPayloadSize = -1;
+        private BufferPool bufferPool;
+        private boolean idleConnectionParking;
+        private int maxConcurrentConnections = -1;
+        private int maxConcurrentRequests = -1;
+        private Duration adaptiveConcurrencyTargetLatency;
 
         private Builder(String socketName) {
             this.socketName = socketName;
@@ -265,11 +341,37 @@ public final class ListenerConfiguration {
             return this;
         }
 
+        /**
+         * Use a lock-free write queue instead of a blocking queue when {@link #writeQueueLength(int)} is higher than 1.
+         * The lock-free queue supports many concurrent writers (such as HTTP/2 streams) and writes all queued buffers
+         * using a single gathering write when the connection is backed by a {@link java.nio.channels.SocketChannel}.
+         * Length of the queue is rounded up to a power of two.
+         *
+         * @param lockFreeWriteQueue whether to use a lock-free write queue, defaults to {@code false}
+         * @return updated builder
+         */
+        public Builder lockFreeWriteQueue(boolean lockFreeWriteQueue) {
+            this.lockFreeWriteQueue = lockFreeWriteQueue;
+            return this;
+        }
+
+        /**
+         * How long a write waits for space in a full write queue before failing (back-pressure on writers).
+         *
+         * @param writeQueueTimeout write queue timeout, defaults to 10 seconds
+         * @return updated builder
+         */
+        public Builder writeQueueTimeout(Duration writeQueueTimeout) {
+            this.writeQueueTimeout = writeQueueTimeout;
+            return this;
+        }
+
         /**
          * Maximal number of bytes an entity may have.
          * If {@link io.helidon.common.http.Http.Header#CONTENT_LENGTH} is used, this is checked immediately,
          * if {@link io.helidon.common.http.Http.HeaderValues#TRANSFER_ENCODING_CHUNKED} is used, we will fail when the
          * number of bytes read would exceed the max payload size.
+         * Also limits the size of a received WebSocket message (after decompression).
          * Defaults to unlimited ({@code -1}).
          *
          * @param maxPayloadSize maximal number of bytes of entity
@@ -277,5 +379,81 @@ public final class ListenerConfiguration {
         public void maxPayloadSize(long maxPayloadSize) {
             this.maxPayloadSize = maxPayloadSize;
         }
+
+        /**
+         * Buffer pool to use when reading data from connections of this listener.
+         * When configured, read buffers are borrowed from the pool and returned once their data is consumed, instead
+         * of allocating a new array for each read. Data obtained from the connection is copied from the pooled buffers.
+         * Pooling is disabled by default.
+         *
+         * @param bufferPool buffer pool to use, shared by all connections of this listener
+         * @return updated builder
+         */
+        public Builder bufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Park idle connections on a selector shared by this listener.
+         * By default each connection has a virtual thread blocked in a read for as long as the connection is open.
+         * With parking enabled, the thread of an HTTP/1 connection finishes when the connection becomes idle (the last
+         * response is sent and no more data is available), and a new thread is started once data is available again.
+         * Combine with {@link #bufferPool(io.helidon.common.buffers.BufferPool)}, so read buffers are returned
+         * when the connection is parked.
+         * <p>
+         * Not supported with TLS or with {@link #writeQueueLength(int)} higher than 1 (as the channel cannot be
+         * switched to non-blocking mode while the writer thread may be writing to it), and read timeout is not applied
+         * to parked connections.
+         *
+         * @param idleConnectionParking whether to park idle connections, defaults to {@code false}
+         * @return updated builder
+         */
+        public Builder idleConnectionParking(boolean idleConnectionParking) {
+            this.idleConnectionParking = idleConnectionParking;
+            return this;
+        }
+
+        /**
+         * Maximal number of concurrent connections of this listener.
+         * Connections accepted over the limit get a {@code 503} response and are closed immediately by the listener
+         * (TLS connections are closed without a response).
+         *
+         * @param maxConcurrentConnections maximal number of connections, defaults to unlimited ({@code -1})
+         * @return updated builder
+         */
+        public Builder maxConcurrentConnections(int maxConcurrentConnections) {
+            this.maxConcurrentConnections = maxConcurrentConnections;
+            return this;
+        }
+
+        /**
+         * Maximal number of requests processed concurrently by all connections of this listener.
+         * Requests over the limit get a {@code 503} response without being routed; HTTP/1 connections are closed.
+         * When {@link #adaptiveConcurrencyLimit(java.time.Duration)} is used, this is the upper bound of the adaptive
+         * limit.
+         *
+         * @param maxConcurrentRequests maximal number of in-flight requests, defaults to unlimited ({@code -1})
+         * @return updated builder
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Adapt the limit of concurrent requests to measured latency.
+         * The limit grows by one per window of requests while the average request latency is below the target,
+         * and is decreased by 10% when the average latency exceeds it (AIMD).
+         * The limit is bounded by {@link #maxConcurrentRequests(int)}, or by 1000 if not configured.
+         * Current limit is available through {@link KeyPerformanceIndicatorSupport.AdmissionControl#requestLimit()}.
+         *
+         * @param targetLatency latency to keep requests under
+         * @return updated builder
+         */
+        public Builder adaptiveConcurrencyLimit(Duration targetLatency) {
+            this.adaptiveConcurrencyTargetLatency = targetLatency;
+            return this;
+        }
     }
 }
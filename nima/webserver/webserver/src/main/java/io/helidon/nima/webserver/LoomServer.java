@@ -160,6 +160,10 @@ class LoomServer implements WebServer {
         return listener == null ? -1 : listener.port();
     }
 
+    ServerListener listener(String socketName) {
+        return listeners.get(socketName);
+    }
+
     @Override
     public boolean hasTls(String socketName) {
         return false;
@@ -23,6 +23,8 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.List;
@@ -49,11 +51,16 @@ import io.helidon.nima.webserver.spi.ServerConnectionProvider;
 import static java.lang.System.Logger.Level.ERROR;
 import static java.lang.System.Logger.Level.INFO;
 import static java.lang.System.Logger.Level.TRACE;
+import static java.lang.System.Logger.Level.WARNING;
 
 class ServerListener {
     private static final System.Logger LOGGER = System.getLogger(ServerListener.class.getName());
 
     private static final long EXECUTOR_SHUTDOWN_MILLIS = 500L;
+    private static final byte[] OVERLOADED_RESPONSE = ("HTTP/1.1 503 Service Unavailable\r\n"
+                                                               + "Connection: close\r\n"
+                                                               + "Content-Length: 0\r\n"
+                                                               + "\r\n").getBytes(StandardCharsets.US_ASCII);
 
     private final ConnectionProviders connectionProviders;
     private final String socketName;
@@ -70,10 +77,12 @@ class ServerListener {
     private final MediaContext mediaContext;
     private final ContentEncodingContext contentEncodingContext;
     private final LoomServer server;
+    private final AdmissionController admissionController;
 
     private volatile boolean running;
     private volatile int connectedPort;
     private volatile ServerSocket serverSocket;
+    private volatile IdleConnectionSelector idleSelector;
 
     ServerListener(LoomServer loomServer,
                    List<ServerConnectionProvider> connectionProviders,
@@ -116,6 +125,7 @@ class ServerListener {
         this.configuredAddress = new InetSocketAddress(listenerConfig.address(), port);
         this.mediaContext = mediaContext;
         this.contentEncodingContext = contentEncodingContext;
+        this.admissionController = AdmissionController.create(listenerConfig);
     }
 
     @Override
@@ -131,6 +141,24 @@ class ServerListener {
         return configuredAddress;
     }
 
+    /**
+     * Server socket of this listener, plain listeners use a socket of a {@link ServerSocketChannel}.
+     *
+     * @return server socket, {@code null} if not started
+     */
+    ServerSocket serverSocket() {
+        return serverSocket;
+    }
+
+    /**
+     * Selector of idle connections.
+     *
+     * @return selector, or {@code null} if idle connections are not parked
+     */
+    IdleConnectionSelector idleSelector() {
+        return idleSelector;
+    }
+
     void stop() {
         if (!running) {
             return;
@@ -142,6 +170,9 @@ class ServerListener {
             shutdownExecutor(sharedExecutor);
 
             serverSocket.close();
+            if (idleSelector != null) {
+                idleSelector.close();
+            }
         } catch (IOException e) {
             LOGGER.log(INFO, "Exception thrown on socket close", e);
         }
@@ -152,11 +183,20 @@ class ServerListener {
 
     void start() {
         router.beforeStart();
+        server.context().supply(KeyPerformanceIndicatorSupport.AdmissionControl.classifier(socketName),
+                                KeyPerformanceIndicatorSupport.AdmissionControl.class,
+                                () -> admissionController);
 
         try {
             Tls tls = listenerConfig.hasTls() ? listenerConfig.tls() : null;
             SSLServerSocket sslServerSocket = listenerConfig.hasTls() ? tls.createServerSocket() : null;
-            serverSocket = listenerConfig.hasTls() ? sslServerSocket : new ServerSocket();
+            if (listenerConfig.hasTls()) {
+                serverSocket = sslServerSocket;
+            } else {
+                // all plain listeners accept through a channel, so any response can transfer a file to the socket;
+                // sockets accepted through a channel also support gathering writes and can be registered with a selector
+                serverSocket = ServerSocketChannel.open().socket();
+            }
             listenerConfig.configureSocket(serverSocket);
 
             serverSocket.bind(configuredAddress, listenerConfig.backlog());
@@ -164,6 +204,19 @@ class ServerListener {
             throw new UncheckedIOException("Failed to start server", e);
         }
 
+        if (listenerConfig.idleConnectionParking()) {
+            if (listenerConfig.hasTls()) {
+                // TLS engine may hold decrypted data we could not see using the selector
+                LOGGER.log(WARNING, "Idle connection parking is not supported with TLS, socket '" + socketName + "'");
+            } else if (listenerConfig.writeQueueLength() > 1) {
+                // the async writer may still be writing to the channel when it would be switched to non-blocking mode
+                LOGGER.log(WARNING, "Idle connection parking is not supported with write queue, socket '"
+                        + socketName + "'");
+            } else {
+                idleSelector = IdleConnectionSelector.create(socketName);
+            }
+        }
+
         String serverChannelId = "0x" + HexFormat.of().toHexDigits(System.identityHashCode(serverSocket));
 
         running = true;
@@ -188,7 +241,11 @@ class ServerListener {
                 LOGGER.log(System.Logger.Level.INFO, "[" + serverChannelId + "] direct writes");
             } else {
                 LOGGER.log(System.Logger.Level.INFO,
-                           "[" + serverChannelId + "] async writes, queue length: " + listenerConfig.writeQueueLength());
+                           "[" + serverChannelId + "] async writes, queue length: " + listenerConfig.writeQueueLength()
+                                   + (listenerConfig.lockFreeWriteQueue() ? ", lock-free queue" : ""));
+            }
+            if (idleSelector != null) {
+                LOGGER.log(System.Logger.Level.INFO, "[" + serverChannelId + "] idle connections parked on a selector");
             }
 
             if (LOGGER.isLoggable(TRACE)) {
@@ -223,6 +280,12 @@ class ServerListener {
                 // if accept fails itself, we consider it end of story, the listener is broken
                 Socket socket = serverSocket.accept();
 
+                if (!admissionController.tryAcquireConnection()) {
+                    rejectConnection(socket);
+                    continue;
+                }
+
+                boolean submitted = false;
                 try {
                     ConnectionHandler handler;
                     String channelId = "0x" + HexFormat.of().toHexDigits(System.identityHashCode(socket));
@@ -255,17 +318,26 @@ class ServerListener {
                                                     channelId,
                                                     helidonSocket,
                                                     router,
-                                                    listenerConfig.writeQueueLength(),
-                                                    listenerConfig.maxPayloadSize(),
+                                                    listenerConfig,
                                                     simpleHandlers,
-                                                    server.context());
+                                                    server.context(),
+                                                    idleSelector,
+                                                    socket.getChannel(),
+                                                    readerExecutor,
+                                                    admissionController);
 
                     readerExecutor.submit(handler);
+                    submitted = true;
                 } catch (RejectedExecutionException e) {
                     LOGGER.log(ERROR, "Executor rejected handler for new connection");
                 } catch (Exception e) {
                     // we may get an SSL handshake errors, which should only fail one socket, not the listener
                     LOGGER.log(TRACE, "Failed to handle accepted socket", e);
+                } finally {
+                    if (!submitted) {
+                        // handler releases the connection permit when the connection is closed
+                        admissionController.connectionClosed();
+                    }
                 }
             } catch (SocketException e) {
                 if (!e.getMessage().contains("Socket closed")) {
@@ -286,6 +358,18 @@ class ServerListener {
         closeFuture.complete(null);
     }
 
+    // runs on the listener thread, must not block
+    private void rejectConnection(Socket socket) {
+        try (socket) {
+            if (!listenerConfig.hasTls()) {
+                // small enough to fit into the socket send buffer of a new connection
+                socket.getOutputStream().write(OVERLOADED_RESPONSE);
+            }
+        } catch (IOException e) {
+            LOGGER.log(TRACE, "Failed to reject connection", e);
+        }
+    }
+
     /**
      * Shutdown an executor by waiting for a period of time.
      *
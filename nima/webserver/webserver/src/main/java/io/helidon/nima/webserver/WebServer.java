@@ -27,6 +27,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import io.helidon.common.HelidonServiceLoader;
+import io.helidon.common.buffers.BufferPool;
 import io.helidon.common.context.Context;
 import io.helidon.common.http.DirectHandler;
 import io.helidon.config.Config;
@@ -210,6 +211,22 @@ public interface WebServer {
                         listenerConfig.get("backlog").asInt().ifPresent(listener::backlog);
                         listenerConfig.get("receive-buffer-size").asInt().ifPresent(listener::receiveBufferSize);
                         listenerConfig.get("write-queue-length").asInt().ifPresent(listener::writeQueueLength);
+                        listenerConfig.get("lock-free-write-queue").asBoolean().ifPresent(listener::lockFreeWriteQueue);
+                        listenerConfig.get("write-queue-timeout-millis").asLong()
+                                .ifPresent(it -> listener.writeQueueTimeout(Duration.ofMillis(it)));
+                        listenerConfig.get("idle-connection-parking").asBoolean()
+                                .ifPresent(listener::idleConnectionParking);
+                        listenerConfig.get("max-concurrent-connections").asInt()
+                                .ifPresent(listener::maxConcurrentConnections);
+                        listenerConfig.get("max-concurrent-requests").asInt()
+                                .ifPresent(listener::maxConcurrentRequests);
+                        listenerConfig.get("adaptive-concurrency-target-latency-millis").asLong()
+                                .ifPresent(it -> listener.adaptiveConcurrencyLimit(Duration.ofMillis(it)));
+                        listenerConfig.get("buffer-pool").asBoolean().ifPresent(it -> {
+                            if (it) {
+                                listener.bufferPool(BufferPool.create());
+                            }
+                        });
 
                         listenerConfig.get("tls").as(Tls::create).ifPresent(listener::tls);
 
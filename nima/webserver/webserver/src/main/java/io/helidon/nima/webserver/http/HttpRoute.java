@@ -23,6 +23,7 @@ import io.helidon.common.http.Http;
 import io.helidon.common.http.HttpPrologue;
 import io.helidon.common.http.PathMatcher;
 import io.helidon.common.http.PathMatchers;
+import io.helidon.common.http.PreEncodedHeaders;
 import io.helidon.nima.webserver.Route;
 
 /**
@@ -61,6 +62,7 @@ public interface HttpRoute extends Route {
         private Predicate<Http.Method> methodPredicate = Http.Method.predicate();
         private PathMatcher pathMatcher = PathMatchers.any();
         private Handler handler;
+        private PreEncodedHeaders headers;
 
         private Builder() {
         }
@@ -124,6 +126,20 @@ public interface HttpRoute extends Route {
             return this;
         }
 
+        /**
+         * Headers that are the same for each response of this route (such as {@code Content-Type}).
+         * The headers are serialized once when the route is built and set on the response before the handler is invoked;
+         * HTTP/1 responses write them as a single pre-encoded block unless the handler modifies them.
+         *
+         * @param headers static response headers
+         * @return updated builder
+         * @throws java.lang.IllegalArgumentException in case a header name is used more than once
+         */
+        public Builder headers(Http.HeaderValue... headers) {
+            this.headers = headers.length == 0 ? null : PreEncodedHeaders.create(headers);
+            return this;
+        }
+
         Predicate<Http.Method> methodPredicate() {
             return methodPredicate;
         }
@@ -133,7 +149,10 @@ public interface HttpRoute extends Route {
         }
 
         Handler handler() {
-            return handler;
+            if (headers == null) {
+                return handler;
+            }
+            return new PreEncodedHeadersHandler(headers, handler);
         }
     }
 }
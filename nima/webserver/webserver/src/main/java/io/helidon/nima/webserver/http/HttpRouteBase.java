@@ -16,8 +16,6 @@
 
 package io.helidon.nima.webserver.http;
 
-import java.util.List;
-
 import io.helidon.common.http.HttpPrologue;
 import io.helidon.common.http.PathMatchers;
 
@@ -26,11 +24,20 @@ abstract class HttpRouteBase implements HttpRoute {
         throw new IllegalStateException("This is not a list route");
     }
 
-    List<HttpRouteBase> routes() {
+    RouteIndex routes() {
         throw new IllegalStateException("This is not a list route");
     }
 
     boolean isList() {
         return false;
     }
+
+    /**
+     * Path pattern of this route, relative to the parent service.
+     *
+     * @return path pattern, or {@code null} if not known (custom routes)
+     */
+    String pattern() {
+        return null;
+    }
 }
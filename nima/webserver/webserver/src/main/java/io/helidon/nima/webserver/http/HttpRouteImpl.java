@@ -58,6 +58,19 @@ class HttpRouteImpl extends HttpRouteBase implements HttpRoute {
         handler.afterStop();
     }
 
+    Predicate<Http.Method> methodPredicate() {
+        return methodPredicate;
+    }
+
+    PathMatcher pathMatcher() {
+        return pathMatcher;
+    }
+
+    @Override
+    String pattern() {
+        return pathMatcher.pattern();
+    }
+
     @Override
     public String toString() {
         return methodPredicate + " (" + pathMatcher + "): " + handler;
@@ -47,13 +47,16 @@ public final class HttpRouting implements Routing {
     private final ServiceRoute rootRoute;
     private final List<HttpFeature> features;
     private final int maxReRouteCount;
+    private final boolean compiledRoutes;
 
     private HttpRouting(Builder builder) {
         ErrorHandlers errorHandlers = ErrorHandlers.create(builder.errorHandlers);
         this.filters = Filters.create(errorHandlers, List.copyOf(builder.filters));
         this.rootRoute = builder.rootRules.build();
+        this.rootRoute.routes().resolvePatterns("");
         this.features = List.copyOf(builder.features);
         this.maxReRouteCount = builder.maxReRouteCount;
+        this.compiledRoutes = builder.compiledRoutes;
     }
 
     /**
@@ -96,7 +99,12 @@ public final class HttpRouting implements Routing {
      * @param response routing response
      */
     public void route(ConnectionContext ctx, RoutingRequest request, RoutingResponse response) {
-        RoutingExecutor routingExecutor = new RoutingExecutor(ctx, rootRoute, request, response, maxReRouteCount);
+        RoutingExecutor routingExecutor = new RoutingExecutor(ctx,
+                                                              rootRoute,
+                                                              request,
+                                                              response,
+                                                              maxReRouteCount,
+                                                              compiledRoutes);
         // we cannot throw an exception to the filters, as then the filter would not have information about actual status
         // code, so error handling is done in routing executor and for each filter
         filters.filter(ctx, request, response, routingExecutor);
@@ -131,6 +139,7 @@ public final class HttpRouting implements Routing {
         private final List<HttpFeature> features = new ArrayList<>();
         private final Map<Class<? extends Throwable>, ErrorHandler<?>> errorHandlers = new IdentityHashMap<>();
         private int maxReRouteCount = 10;
+        private boolean compiledRoutes = true;
 
         private Builder() {
         }
@@ -335,6 +344,23 @@ public final class HttpRouting implements Routing {
             return this;
         }
 
+        /**
+         * Whether to use routes compiled into a prefix tree (keyed by HTTP method) to find candidate routes.
+         * Routes using exact, prefix and simple parameter path patterns are compiled, so only routes that may match
+         * the request path are tested. Routes that cannot be compiled (such as regular expressions or custom routes)
+         * are tested for each request. Order of routes is kept in both modes.
+         * <p>
+         * If set to {@code false}, each request is tested against all routes in order of registration.
+         * Defaults to {@code true}.
+         *
+         * @param compiledRoutes whether to use compiled routes
+         * @return updated builder
+         */
+        public Builder compiledRoutes(boolean compiledRoutes) {
+            this.compiledRoutes = compiledRoutes;
+            return this;
+        }
+
     }
 
     private static final class RoutingExecutor implements Callable<Void> {
@@ -343,17 +369,20 @@ public final class HttpRouting implements Routing {
         private final RoutingResponse response;
         private final ServiceRoute rootRoute;
         private final int maxReRouteCount;
+        private final boolean compiledRoutes;
 
         private RoutingExecutor(ConnectionContext ctx,
                                 ServiceRoute rootRoute,
                                 RoutingRequest request,
                                 RoutingResponse response,
-                                int maxReRouteCount) {
+                                int maxReRouteCount,
+                                boolean compiledRoutes) {
             this.ctx = ctx;
             this.rootRoute = rootRoute;
             this.request = request;
             this.response = response;
             this.maxReRouteCount = maxReRouteCount;
+            this.compiledRoutes = compiledRoutes;
         }
 
         @Override
@@ -391,12 +420,13 @@ public final class HttpRouting implements Routing {
 
         private RoutingResult doRoute(ConnectionContext ctx, RoutingRequest request, RoutingResponse response) throws Exception {
             HttpPrologue prologue = request.prologue();
-            RouteCrawler crawler = rootRoute.crawler(ctx, request);
+            RouteCrawler crawler = rootRoute.crawler(ctx, request, compiledRoutes);
 
             while (crawler.hasNext()) {
                 response.resetRouting();
                 RouteCrawler.CrawlerItem next = crawler.next();
-                request.path(next.path());
+                request.path(next.path())
+                        .matchingPattern(next.pattern());
 
                 next.handler().handle(request, response);
                 if (response.shouldReroute()) {
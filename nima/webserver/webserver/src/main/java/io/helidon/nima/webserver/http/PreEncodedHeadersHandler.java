@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.http;
+
+import io.helidon.common.http.PreEncodedHeaders;
+
+/**
+ * Handler that sets route static headers before invoking the route handler.
+ */
+final class PreEncodedHeadersHandler implements Handler {
+    private final PreEncodedHeaders headers;
+    private final Handler delegate;
+
+    PreEncodedHeadersHandler(PreEncodedHeaders headers, Handler delegate) {
+        this.headers = headers;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handle(ServerRequest req, ServerResponse res) throws Exception {
+        res.headers().set(headers);
+        delegate.handle(req, res);
+    }
+
+    @Override
+    public void beforeStart() {
+        delegate.beforeStart();
+    }
+
+    @Override
+    public void afterStop() {
+        delegate.afterStop();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -31,33 +31,39 @@ import io.helidon.nima.webserver.ConnectionContext;
 class RouteCrawler {
     private final ConnectionContext ctx;
     private final RoutingRequest request;
+    private final RouteIndex routes;
     private final Iterator<HttpRouteBase> routeIterator;
     private final UriPath matchingPath;
     private final RoutedPath parent;
     private final HttpPrologue prologue;
+    private final boolean compiledRoutes;
 
     private CrawlerItem next;
     private RouteCrawler subCrawler;
 
-    RouteCrawler(ConnectionContext ctx, RoutingRequest request, List<HttpRouteBase> rootRoute) {
+    RouteCrawler(ConnectionContext ctx, RoutingRequest request, RouteIndex rootRoute, boolean compiledRoutes) {
         this.ctx = ctx;
-        this.routeIterator = rootRoute.iterator();
         this.matchingPath = request.prologue().uriPath();
         this.prologue = request.prologue();
         this.request = request;
         this.parent = null;
+        this.compiledRoutes = compiledRoutes;
+        this.routes = rootRoute;
+        this.routeIterator = routeIterator(rootRoute);
     }
 
     RouteCrawler(ConnectionContext ctx,
                  RoutingRequest request,
-                 List<HttpRouteBase> rootRoute,
+                 RouteIndex rootRoute,
+                 boolean compiledRoutes,
                  RoutedPath parent,
                  UriPath child) {
         this.ctx = ctx;
-        this.routeIterator = rootRoute.iterator();
         this.matchingPath = child;
         this.request = request;
         this.parent = parent;
+        this.compiledRoutes = compiledRoutes;
+        this.routes = rootRoute;
 
         HttpPrologue prologue = request.prologue();
         this.prologue = HttpPrologue.create(prologue.rawProtocol(),
@@ -67,6 +73,7 @@ class RouteCrawler {
                                             child,
                                             prologue.query(),
                                             prologue.fragment());
+        this.routeIterator = routeIterator(rootRoute);
     }
 
     boolean hasNext() {
@@ -95,6 +102,7 @@ class RouteCrawler {
                     subCrawler = new RouteCrawler(ctx,
                                                   request,
                                                   nextRoute.routes(),
+                                                  compiledRoutes,
                                                   accepts.matchedPath(),
                                                   accepts.unmatchedPath());
                     if (subCrawler.hasNext()) {
@@ -111,7 +119,7 @@ class RouteCrawler {
             } else {
                 PathMatchers.MatchResult accepts = nextRoute.accepts(prologue);
                 if (accepts.accepted()) {
-                    next = new CrawlerItem(accepts.path(), nextRoute.handler());
+                    next = new CrawlerItem(accepts.path(), nextRoute.handler(), routes.pattern(nextRoute));
 
                     if (parent != null) {
                         next = next.parent(parent);
@@ -125,13 +133,18 @@ class RouteCrawler {
         return false;
     }
 
+    private Iterator<HttpRouteBase> routeIterator(RouteIndex routes) {
+        return compiledRoutes ? routes.candidates(prologue) : routes.routes().iterator();
+    }
+
     CrawlerItem next() {
         CrawlerItem result = next;
         next = null;
         return result;
     }
 
-    record CrawlerItem(RoutedPath path, Handler handler) {
+    // pattern is the full path pattern of the matched route, or null for custom routes
+    record CrawlerItem(RoutedPath path, Handler handler, String pattern) {
         public CrawlerItem parent(RoutedPath parent) {
             Map<String, List<String>> newParams = new HashMap<>();
 
@@ -145,7 +158,7 @@ class RouteCrawler {
             }
             newParams.replaceAll((name, values) -> List.copyOf(values));
             RoutedPath result = new CrawlerRoutedPath(path, Parameters.create("path-template-parameters", newParams));
-            return new CrawlerItem(result, handler);
+            return new CrawlerItem(result, handler, pattern);
         }
 
         private static final class CrawlerRoutedPath implements RoutedPath {
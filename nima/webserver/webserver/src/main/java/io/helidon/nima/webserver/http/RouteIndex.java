@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.http;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.common.http.PathMatchers;
+
+/**
+ * Routes of a single service compiled into a segment tree keyed by HTTP method.
+ * <p>
+ * The index only selects candidate routes; each candidate is still tested using
+ * {@link io.helidon.nima.webserver.http.HttpRoute#accepts(io.helidon.common.http.HttpPrologue)}, so the result of routing
+ * is the same as when testing all routes, including order of routes (needed for {@code next()}).
+ * Routes that cannot be compiled (regular expressions, custom routes, service routes) are candidates for every request.
+ */
+final class RouteIndex {
+    private final List<HttpRouteBase> routes;
+    private final HttpRouteBase[] routeArray;
+    private final BitSet fallback;
+    private final Node anyMethod;
+    private final Map<Http.Method, Node> byMethod;
+    private final Map<HttpRouteBase, String> patterns = new IdentityHashMap<>();
+    private final boolean compiled;
+
+    private RouteIndex(List<HttpRouteBase> routes) {
+        this.routes = routes;
+        this.routeArray = routes.toArray(new HttpRouteBase[0]);
+        this.fallback = new BitSet(routeArray.length);
+        this.anyMethod = new Node();
+        this.byMethod = new HashMap<>();
+
+        boolean anyCompiled = false;
+        for (int i = 0; i < routeArray.length; i++) {
+            if (routeArray[i] instanceof HttpRouteImpl route && compile(i, route)) {
+                anyCompiled = true;
+            } else {
+                fallback.set(i);
+            }
+        }
+        this.compiled = anyCompiled;
+    }
+
+    static RouteIndex create(List<HttpRouteBase> routes) {
+        return new RouteIndex(List.copyOf(routes));
+    }
+
+    /**
+     * All routes in the order of registration.
+     *
+     * @return all routes
+     */
+    List<HttpRouteBase> routes() {
+        return routes;
+    }
+
+    /**
+     * Full path pattern of a route of this index, including path patterns of the parent services.
+     *
+     * @param route route of this index
+     * @return full path pattern, or {@code null} if the route does not have a pattern
+     * @see io.helidon.nima.webserver.http.ServerRequest#matchingPattern()
+     */
+    String pattern(HttpRouteBase route) {
+        return patterns.get(route);
+    }
+
+    /**
+     * Resolve full path patterns of all routes of this index and of the nested services.
+     * Must be called once the routing is built, before it is used.
+     *
+     * @param parentPattern full path pattern of the service of this index, empty for root
+     */
+    void resolvePatterns(String parentPattern) {
+        for (HttpRouteBase route : routes) {
+            String pattern = route.pattern();
+            String fullPattern = pattern == null ? null : joinPatterns(parentPattern, pattern);
+            if (fullPattern != null) {
+                patterns.put(route, fullPattern);
+            }
+            if (route.isList()) {
+                route.routes().resolvePatterns(fullPattern == null ? parentPattern : fullPattern);
+            }
+        }
+    }
+
+    /**
+     * Routes that may accept the provided prologue, in the order of registration.
+     *
+     * @param prologue prologue to route
+     * @return iterator of candidate routes
+     */
+    Iterator<HttpRouteBase> candidates(HttpPrologue prologue) {
+        if (!compiled) {
+            return routes.iterator();
+        }
+        BitSet candidates = (BitSet) fallback.clone();
+        String path = prologue.uriPath().path();
+        if (!path.isEmpty() && path.charAt(0) == '/') {
+            anyMethod.collect(path, 1, candidates);
+            Node methodNode = byMethod.get(prologue.method());
+            if (methodNode != null) {
+                methodNode.collect(path, 1, candidates);
+            }
+        }
+        return new CandidateIterator(routeArray, candidates);
+    }
+
+    // service patterns match a prefix of the path, so "/*" of a service registered without a path is dropped
+    static String joinPatterns(String parent, String child) {
+        String prefix = parent;
+        if (prefix.endsWith("/*")) {
+            prefix = prefix.substring(0, prefix.length() - 2);
+        } else if (prefix.endsWith("/")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        if (prefix.isEmpty()) {
+            return child;
+        }
+        if (child.equals("/")) {
+            return prefix;
+        }
+        return child.startsWith("/") ? prefix + child : prefix + "/" + child;
+    }
+
+    private boolean compile(int index, HttpRouteImpl route) {
+        Optional<PathMatchers.Template> maybeTemplate = route.pathMatcher().template();
+        if (maybeTemplate.isEmpty()) {
+            return false;
+        }
+        PathMatchers.Template template = maybeTemplate.get();
+
+        Set<Http.Method> methods = Set.of();
+        if (route.methodPredicate() instanceof Http.MethodPredicate methodPredicate) {
+            methods = methodPredicate.acceptedMethods();
+        }
+        if (methods.isEmpty()) {
+            // any method, or a custom predicate that we cannot analyze
+            anyMethod.add(template, index);
+        } else {
+            for (Http.Method method : methods) {
+                byMethod.computeIfAbsent(method, it -> new Node()).add(template, index);
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node parameter;
+        // routes that end on this node
+        private BitSet exact;
+        // routes that end on this node and accept any number of additional segments (at least one)
+        private BitSet prefix;
+
+        void add(PathMatchers.Template template, int routeIndex) {
+            Node current = this;
+            for (PathMatchers.Segment segment : template.segments()) {
+                if (segment.parameter()) {
+                    if (current.parameter == null) {
+                        current.parameter = new Node();
+                    }
+                    current = current.parameter;
+                } else {
+                    current = current.literals.computeIfAbsent(segment.value(), it -> new Node());
+                }
+            }
+            if (template.prefix()) {
+                if (current.prefix == null) {
+                    current.prefix = new BitSet();
+                }
+                current.prefix.set(routeIndex);
+            } else {
+                if (current.exact == null) {
+                    current.exact = new BitSet();
+                }
+                current.exact.set(routeIndex);
+            }
+        }
+
+        // segmentStart is the index of the first character of the next segment, -1 if there are no more segments
+        void collect(String path, int segmentStart, BitSet result) {
+            if (segmentStart == -1) {
+                if (exact != null) {
+                    result.or(exact);
+                }
+                return;
+            }
+            if (prefix != null) {
+                result.or(prefix);
+            }
+            if (literals.isEmpty() && parameter == null) {
+                return;
+            }
+            int segmentEnd = path.indexOf('/', segmentStart);
+            int nextStart = segmentEnd == -1 ? -1 : segmentEnd + 1;
+            if (segmentEnd == -1) {
+                segmentEnd = path.length();
+            }
+            if (!literals.isEmpty()) {
+                Node literal = literals.get(path.substring(segmentStart, segmentEnd));
+                if (literal != null) {
+                    literal.collect(path, nextStart, result);
+                }
+            }
+            if (parameter != null && segmentEnd > segmentStart) {
+                parameter.collect(path, nextStart, result);
+            }
+        }
+    }
+
+    private static final class CandidateIterator implements Iterator<HttpRouteBase> {
+        private final HttpRouteBase[] routes;
+        private final BitSet candidates;
+        private int next;
+
+        private CandidateIterator(HttpRouteBase[] routes, BitSet candidates) {
+            this.routes = routes;
+            this.candidates = candidates;
+            this.next = candidates.nextSetBit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != -1;
+        }
+
+        @Override
+        public HttpRouteBase next() {
+            if (next == -1) {
+                throw new NoSuchElementException();
+            }
+            HttpRouteBase result = routes[next];
+            next = candidates.nextSetBit(next + 1);
+            return result;
+        }
+    }
+}
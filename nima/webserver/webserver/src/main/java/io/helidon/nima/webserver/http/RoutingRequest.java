@@ -31,6 +31,19 @@ public interface RoutingRequest extends ServerRequest {
      */
     RoutingRequest path(RoutedPath routedPath);
 
+    /**
+     * Update path pattern of the route that handles this request.
+     *
+     * Implementations that do not track the pattern ignore it.
+     *
+     * @param pattern full path pattern of the route, {@code null} if the route does not have a pattern
+     * @return this instance
+     * @see #matchingPattern()
+     */
+    default RoutingRequest matchingPattern(String pattern) {
+        return this;
+    }
+
     /**
      * Update prologue of this request.
      *
@@ -16,6 +16,8 @@
 
 package io.helidon.nima.webserver.http;
 
+import java.util.Optional;
+
 import io.helidon.common.context.Context;
 import io.helidon.common.http.RoutedPath;
 import io.helidon.nima.http.media.ReadableEntity;
@@ -38,6 +40,20 @@ public interface ServerRequest extends HttpRequest {
      */
     RoutedPath path();
 
+    /**
+     * Path pattern of the route that handles this request, including path patterns of the services it is registered
+     * with, such as {@code /greet/{name}}.
+     * The pattern is available once the request is routed, so filters can use it after
+     * {@link io.helidon.nima.webserver.http.FilterChain#proceed()}.
+     * Unlike the path, the number of distinct patterns is limited by the routing, which makes them suitable to
+     * identify endpoints in metrics and tracing.
+     *
+     * @return path pattern, or empty optional if the request was not routed, or was routed to a custom route
+     */
+    default Optional<String> matchingPattern() {
+        return Optional.empty();
+    }
+
     /**
      * Server request entity.
      *
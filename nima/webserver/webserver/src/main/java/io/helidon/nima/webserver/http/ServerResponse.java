@@ -16,7 +16,13 @@
 
 package io.helidon.nima.webserver.http;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import io.helidon.common.http.Http;
@@ -24,9 +30,14 @@ import io.helidon.common.http.Http.HeaderName;
 import io.helidon.common.http.NotFoundException;
 import io.helidon.common.http.ServerResponseHeaders;
 import io.helidon.common.uri.UriQuery;
+import io.helidon.nima.http.encoding.ContentEncodingContext;
 
 /**
  * Http server response.
+ * <p>
+ * The entity is content encoded (for example compressed using gzip) according to the {@code Accept-Encoding} header
+ * of the request, if content encoding is enabled. When the response already has a {@code Content-Encoding} header,
+ * the entity is considered encoded by the handler (such as pre-compressed static content) and is sent unchanged.
  */
 public interface ServerResponse {
     /**
@@ -123,6 +134,39 @@ public interface ServerResponse {
      */
     OutputStream outputStream();
 
+    /**
+     * Send a part of a file as the entity of this response.
+     * If content length is not configured, it is set to {@code length}.
+     * Protocols that can write directly from a file to the connection (such as HTTP/1 over a plain socket)
+     * override this method to avoid copying the file through heap buffers,
+     * this implementation copies the file to {@link #outputStream()}.
+     *
+     * @param path     file to send
+     * @param position position in the file to start from
+     * @param length   number of bytes to send
+     * @throws java.io.UncheckedIOException in case the file cannot be read
+     */
+    default void sendFile(Path path, long position, long length) {
+        if (!headers().contains(Http.Header.CONTENT_LENGTH)) {
+            contentLength(length);
+        }
+        try (FileChannel file = FileChannel.open(path);
+                OutputStream out = outputStream()) {
+            WritableByteChannel outChannel = Channels.newChannel(out);
+            long transferred = 0;
+            while (transferred < length) {
+                long count = file.transferTo(position + transferred, length - transferred, outChannel);
+                if (count <= 0) {
+                    throw new IOException("File is shorter than requested, sent " + transferred
+                                                  + " bytes out of " + length);
+                }
+                transferred += count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Number of bytes written to response. Only available once the response is sent.
      *
@@ -184,6 +228,15 @@ public interface ServerResponse {
      */
     void streamResult(String result);
 
+    /**
+     * Content encoding context of the server, used to encode the entity of this response.
+     * Handlers that send pre-encoded entities should use it to choose the encoding, so they honor
+     * the content encodings enabled on the server.
+     *
+     * @return content encoding context
+     */
+    ContentEncodingContext contentEncodingContext();
+
     /**
      * Configure a content length header for this response.
      *
@@ -73,6 +73,11 @@ public abstract class ServerResponseBase<T extends ServerResponseBase<T>> implem
         return this;
     }
 
+    @Override
+    public ContentEncodingContext contentEncodingContext() {
+        return contentEncodingContext;
+    }
+
     @Override
     public Http.Status status() {
         if (status == null) {
@@ -177,13 +182,14 @@ public abstract class ServerResponseBase<T extends ServerResponseBase<T>> implem
 
     /**
      * Entity bytes encoded using content encoding.
+     * If {@code Content-Encoding} header is already configured, the entity is considered encoded and is returned as is.
      *
      * @param configuredEntity plain bytes
      * @return encoded bytes
      */
     protected byte[] entityBytes(byte[] configuredEntity) {
         byte[] entity = configuredEntity;
-        if (contentEncodingContext.contentEncodingEnabled()) {
+        if (contentEncodingContext.contentEncodingEnabled() && !preEncoded()) {
             ContentEncoder encoder = contentEncodingContext.encoder(requestHeaders);
             // we want to preserve optimization here, let's create a new byte array
             ByteArrayOutputStream baos = new ByteArrayOutputStream(entity.length);
@@ -202,12 +208,13 @@ public abstract class ServerResponseBase<T extends ServerResponseBase<T>> implem
 
     /**
      * Encode content using requested/default content encoder.
+     * If {@code Content-Encoding} header is already configured, the content is considered encoded and is not modified.
      *
      * @param outputStream output stream to write encoded data to
      * @return output stream to write plain data to
      */
     protected OutputStream contentEncode(OutputStream outputStream) {
-        if (contentEncodingContext.contentEncodingEnabled()) {
+        if (contentEncodingContext.contentEncodingEnabled() && !preEncoded()) {
             ContentEncoder encoder = contentEncodingContext.encoder(requestHeaders);
             encoder.headers(headers());
 
@@ -216,6 +223,23 @@ public abstract class ServerResponseBase<T extends ServerResponseBase<T>> implem
         return outputStream;
     }
 
+    /**
+     * Whether the entity would be encoded by {@link #contentEncode(java.io.OutputStream)}, i.e. content encoding is enabled
+     * and the client accepts an encoding other than identity.
+     *
+     * @return whether entity is content encoded
+     */
+    protected boolean contentEncoded() {
+        return contentEncodingContext.contentEncodingEnabled()
+                && !preEncoded()
+                && contentEncodingContext.encoder(requestHeaders) != ContentEncoder.NO_OP;
+    }
+
+    // content encoding header configured by the user means the entity is already encoded
+    private boolean preEncoded() {
+        return headers().contains(Http.Header.CONTENT_ENCODING);
+    }
+
     /**
      * Execute after send runnables.
      */
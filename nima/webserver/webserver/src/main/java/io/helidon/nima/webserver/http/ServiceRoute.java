@@ -29,7 +29,7 @@ class ServiceRoute extends HttpRouteBase implements HttpRoute {
     private final HttpService theService;
     private final Predicate<Http.Method> methodPredicate;
     private final PathMatcher pathMatcher;
-    private final List<HttpRouteBase> routes;
+    private final RouteIndex routes;
 
     ServiceRoute(HttpService theService,
                  Predicate<Http.Method> methodPredicate,
@@ -38,19 +38,19 @@ class ServiceRoute extends HttpRouteBase implements HttpRoute {
         this.theService = theService;
         this.methodPredicate = methodPredicate;
         this.pathMatcher = pathMatcher;
-        this.routes = routes;
+        this.routes = RouteIndex.create(routes);
     }
 
     @Override
     public void beforeStart() {
         theService.beforeStart();
-        this.routes.forEach(HttpRouteBase::beforeStart);
+        this.routes.routes().forEach(HttpRouteBase::beforeStart);
     }
 
     @Override
     public void afterStop() {
         theService.afterStop();
-        this.routes.forEach(HttpRoute::afterStop);
+        this.routes.routes().forEach(HttpRoute::afterStop);
     }
 
     @Override
@@ -65,7 +65,7 @@ class ServiceRoute extends HttpRouteBase implements HttpRoute {
 
     @Override
     public String toString() {
-        return methodPredicate + " (" + pathMatcher + ") with " + routes.size() + " routes, service: " + theService;
+        return methodPredicate + " (" + pathMatcher + ") with " + routes.routes().size() + " routes, service: " + theService;
     }
 
     @Override
@@ -78,7 +78,7 @@ class ServiceRoute extends HttpRouteBase implements HttpRoute {
     }
 
     @Override
-    List<HttpRouteBase> routes() {
+    RouteIndex routes() {
         return routes;
     }
 
@@ -87,7 +87,12 @@ class ServiceRoute extends HttpRouteBase implements HttpRoute {
         return true;
     }
 
-    RouteCrawler crawler(ConnectionContext ctx, RoutingRequest request) {
-        return new RouteCrawler(ctx, request, routes);
+    @Override
+    String pattern() {
+        return pathMatcher.pattern();
+    }
+
+    RouteCrawler crawler(ConnectionContext ctx, RoutingRequest request, boolean compiledRoutes) {
+        return new RouteCrawler(ctx, request, routes, compiledRoutes);
     }
 }
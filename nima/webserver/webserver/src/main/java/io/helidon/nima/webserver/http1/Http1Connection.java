@@ -39,6 +39,7 @@ import io.helidon.nima.http.encoding.ContentDecoder;
 import io.helidon.nima.http.encoding.ContentEncodingContext;
 import io.helidon.nima.webserver.CloseConnectionException;
 import io.helidon.nima.webserver.ConnectionContext;
+import io.helidon.nima.webserver.KeyPerformanceIndicatorSupport;
 import io.helidon.nima.webserver.http.DirectTransportRequest;
 import io.helidon.nima.webserver.http.HttpRouting;
 import io.helidon.nima.webserver.http1.spi.Http1UpgradeProvider;
@@ -55,6 +56,7 @@ public class Http1Connection implements ServerConnection {
 
     private final ConnectionContext ctx;
     private final DataWriter writer;
+    private final Http1PipelineWriter pipelineWriter;
     private final DataReader reader;
     private final Http1ConnectionListener recvListener;
     private final Map<String, Http1UpgradeProvider> upgradeProviderMap;
@@ -66,11 +68,14 @@ public class Http1Connection implements ServerConnection {
     private final Http1ConnectionListener sendListener;
     private final HttpRouting routing;
     private final long maxPayloadSize;
+    private final KeyPerformanceIndicatorSupport.AdmissionControl admissionControl;
 
     // overall connection
     private int requestId;
     private long currentEntitySize;
     private long currentEntitySizeRead;
+    // request entity is not fully read, remaining data of the reader is not a pipelined request
+    private boolean entityPending;
 
     /**
      * Create a new connection.
@@ -92,9 +97,56 @@ public class Http1Connection implements ServerConnection {
                            boolean validateHeaders,
                            boolean validatePath,
                            Map<String, Http1UpgradeProvider> upgradeProviderMap) {
+        this(ctx,
+             recvListener,
+             sendListener,
+             maxPrologueLength,
+             maxHeadersSize,
+             validateHeaders,
+             validatePath,
+             upgradeProviderMap,
+             0,
+             false);
+    }
+
+    /**
+     * Create a new connection.
+     *
+     * @param ctx                connection context
+     * @param recvListener       receive listener to get events for incoming traffic
+     * @param sendListener       send listener to get events for outgoing traffic
+     * @param maxPrologueLength  maximal size of prologue (initial line)
+     * @param maxHeadersSize     maximal size of headers in bytes
+     * @param validateHeaders    whether to validate request headers
+     * @param validatePath       whether to validate path
+     * @param upgradeProviderMap map of upgrade providers (protocol id to provider)
+     * @param pipelineBufferSize maximal number of bytes of responses to pipelined requests that are coalesced into
+     *                           a single write, {@code 0} to disable pipelining support
+     * @param wordScan           whether to scan request data for delimiters a word at a time,
+     *                           see {@link io.helidon.common.buffers.DataReader#wordScan(boolean)}
+     */
+    public Http1Connection(ConnectionContext ctx,
+                           Http1ConnectionListener recvListener,
+                           Http1ConnectionListener sendListener,
+                           int maxPrologueLength,
+                           int maxHeadersSize,
+                           boolean validateHeaders,
+                           boolean validatePath,
+                           Map<String, Http1UpgradeProvider> upgradeProviderMap,
+                           int pipelineBufferSize,
+                           boolean wordScan) {
         this.ctx = ctx;
-        this.writer = ctx.dataWriter();
         this.reader = ctx.dataReader();
+        this.reader.wordScan(wordScan);
+        if (pipelineBufferSize > 0) {
+            this.pipelineWriter = new Http1PipelineWriter(ctx.dataWriter(),
+                                                          () -> !entityPending && reader.available() > 0,
+                                                          pipelineBufferSize);
+            this.writer = pipelineWriter;
+        } else {
+            this.pipelineWriter = null;
+            this.writer = ctx.dataWriter();
+        }
         this.sendListener = sendListener;
         this.recvListener = recvListener;
         this.upgradeProviderMap = upgradeProviderMap;
@@ -104,10 +156,20 @@ public class Http1Connection implements ServerConnection {
         this.http1prologue = new Http1Prologue(reader, maxPrologueLength, validatePath);
         this.routing = ctx.router().routing(HttpRouting.class, HttpRouting.empty());
         this.maxPayloadSize = ctx.maxPayloadSize();
+        this.admissionControl = ctx.admissionControl();
     }
 
     @Override
     public void handle() throws InterruptedException {
+        handle(false);
+    }
+
+    @Override
+    public boolean handleUntilIdle() throws InterruptedException {
+        return handle(true);
+    }
+
+    private boolean handle(boolean untilIdle) throws InterruptedException {
         try {
             // handle connection until an exception (or explicit connection close)
             while (true) {
@@ -116,6 +178,7 @@ public class Http1Connection implements ServerConnection {
                 recvListener.prologue(ctx, prologue);
                 currentEntitySize = 0;
                 currentEntitySizeRead = 0;
+                entityPending = false;
 
                 WritableHeaders<?> headers = http1headers.readHeaders(prologue);
                 recvListener.headers(ctx, headers);
@@ -127,19 +190,46 @@ public class Http1Connection implements ServerConnection {
                             ServerConnection upgradeConnection = upgrader.upgrade(ctx, prologue, headers);
                             // upgrader may decide not to upgrade this connection
                             if (upgradeConnection != null) {
+                                flushPipeline();
                                 if (LOGGER.isLoggable(TRACE)) {
                                     LOGGER.log(TRACE, "Connection upgrade using " + upgradeConnection);
                                 }
                                 // this will block until the connection terminates
                                 upgradeConnection.handle();
-                                return;
+                                return false;
                             }
                         }
                     }
                 }
-                route(prologue, headers);
+                if (!admissionControl.tryAcquireRequest()) {
+                    throw RequestException.builder()
+                            .type(EventType.OTHER)
+                            .status(Http.Status.SERVICE_UNAVAILABLE_503)
+                            .request(DirectTransportRequest.create(prologue, headers))
+                            .message("Server overloaded")
+                            .setKeepAlive(false)
+                            .build();
+                }
+                long admitted = System.nanoTime();
+                try {
+                    route(prologue, headers);
+                } finally {
+                    admissionControl.requestCompleted(admitted);
+                }
+                if (reader.available() == 0) {
+                    // no pipelined request, responses must be sent before we block waiting for more data
+                    flushPipeline();
+                }
+                if (untilIdle && reader.available() == 0) {
+                    // request is fully processed, and there is no data of the next request
+                    return true;
+                }
             }
-        } catch (CloseConnectionException | UncheckedIOException e) {
+        } catch (CloseConnectionException e) {
+            // responses to previous pipelined requests must still be delivered
+            flushPipeline();
+            throw e;
+        } catch (UncheckedIOException e) {
             throw e;
         } catch (BadRequestException e) {
             handleRequestException(RequestException.builder()
@@ -158,6 +248,13 @@ public class Http1Connection implements ServerConnection {
                                            .cause(e)
                                            .build());
         }
+        return false;
+    }
+
+    private void flushPipeline() {
+        if (pipelineWriter != null) {
+            pipelineWriter.flush();
+        }
     }
 
     private BufferData readEntityFromPipeline(HttpPrologue prologue, WritableHeaders<?> headers) {
@@ -193,6 +290,7 @@ public class Http1Connection implements ServerConnection {
                         .message("Invalid terminating chunk")
                         .build();
             }
+            entityPending = false;
             return null;
         }
         BufferData nextChunkData = reader.readBuffer(chunkLength);
@@ -210,6 +308,9 @@ public class Http1Connection implements ServerConnection {
         int toRead = (int) Math.min(reader.available(), stillNeed);
         BufferData buffer = reader.readBuffer(toRead);
         this.currentEntitySizeRead += toRead;
+        if (currentEntitySizeRead == currentEntitySize) {
+            entityPending = false;
+        }
         return buffer;
     }
 
@@ -290,6 +391,7 @@ public class Http1Connection implements ServerConnection {
             decoder = ContentDecoder.NO_OP;
         }
 
+        entityPending = true;
         CountDownLatch entityReadLatch = new CountDownLatch(1);
         Http1ServerRequest request = Http1ServerRequest.create(ctx,
                                                                prologue,
@@ -318,6 +420,7 @@ public class Http1Connection implements ServerConnection {
                     .cause(e)
                     .build();
         }
+        entityPending = false;
     }
 
     private void consumeEntity(Http1ServerRequest request, Http1ServerResponse response) {
@@ -363,6 +466,7 @@ public class Http1Connection implements ServerConnection {
         sendListener.headers(ctx, headers);
         sendListener.data(ctx, buffer);
         writer.write(buffer);
+        flushPipeline();
 
         if (response.status() == Http.Status.INTERNAL_SERVER_ERROR_500) {
             LOGGER.log(WARNING, "Internal server error", e);
@@ -41,11 +41,14 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
     private static final int DEFAULT_MAX_HEADERS_SIZE = 16384;
     private static final boolean DEFAULT_VALIDATE_HEADERS = true;
     private static final boolean DEFAULT_VALIDATE_PATH = true;
+    private static final int DEFAULT_PIPELINE_BUFFER_SIZE = 16384;
 
     private final int maxPrologueLength;
     private final int maxHeadersSize;
     private final boolean validateHeaders;
     private final boolean validatePath;
+    private final int pipelineBufferSize;
+    private final boolean wordScan;
     private final Map<String, Http1UpgradeProvider> upgradeProviderMap;
     private final Http1ConnectionListener sendListener;
     private final Http1ConnectionListener recvListener;
@@ -65,6 +68,8 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
         this.maxHeadersSize = builder.maxHeaderSize;
         this.validateHeaders = builder.validateHeaders;
         this.validatePath = builder.validatePath;
+        this.pipelineBufferSize = builder.pipelining ? builder.pipelineBufferSize : 0;
+        this.wordScan = builder.wordScan;
         this.upgradeProviderMap = builder.upgradeProviders();
         this.sendListener = builder.sendListener();
         this.recvListener = builder.recvListener();
@@ -121,7 +126,9 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
                                    maxHeadersSize,
                                    validateHeaders,
                                    validatePath,
-                                   upgradeProviderMap);
+                                   upgradeProviderMap,
+                                   pipelineBufferSize,
+                                   wordScan);
     }
 
     /**
@@ -138,6 +145,9 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
         private int maxHeaderSize = DEFAULT_MAX_HEADERS_SIZE;
         private boolean validateHeaders = DEFAULT_VALIDATE_HEADERS;
         private boolean validatePath = DEFAULT_VALIDATE_PATH;
+        private boolean pipelining;
+        private int pipelineBufferSize = DEFAULT_PIPELINE_BUFFER_SIZE;
+        private boolean wordScan;
 
         private Builder() {
             Config config = Config.create()
@@ -145,6 +155,9 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
 
             config.get("validate-headers").asBoolean().ifPresent(this::validateHeaders);
             config.get("validate-path").asBoolean().ifPresent(this::validatePath);
+            config.get("pipelining").asBoolean().ifPresent(this::pipelining);
+            config.get("pipeline-buffer-size").asInt().ifPresent(this::pipelineBufferSize);
+            config.get("word-scan").asBoolean().ifPresent(this::wordScan);
             if (config.get("recv-log").asBoolean().orElse(true)) {
                 addSendListener(new Http1LoggingConnectionListener("send"));
             }
@@ -206,6 +219,50 @@ public class Http1ConnectionProvider implements ServerConnectionProvider {
             return this;
         }
 
+        /**
+         * Whether to optimize for clients that pipeline requests (send the next request before receiving
+         * the response to the previous one).
+         * Responses to requests that are followed by an already received request are kept and written
+         * together with the following responses, up to {@link #pipelineBufferSize(int)} bytes.
+         * Responses are always sent in the order of requests. Defaults to {@code false}.
+         *
+         * @param pipelining whether to coalesce responses to pipelined requests
+         * @return updated builder
+         */
+        public Builder pipelining(boolean pipelining) {
+            this.pipelining = pipelining;
+            return this;
+        }
+
+        /**
+         * Maximal number of bytes of responses to pipelined requests written using a single socket write.
+         * Only used when {@link #pipelining(boolean)} is enabled.
+         *
+         * @param pipelineBufferSize maximal size in bytes
+         * @return updated builder
+         */
+        public Builder pipelineBufferSize(int pipelineBufferSize) {
+            if (pipelineBufferSize < 1) {
+                throw new IllegalArgumentException("Pipeline buffer size must be positive, but is " + pipelineBufferSize);
+            }
+            this.pipelineBufferSize = pipelineBufferSize;
+            return this;
+        }
+
+        /**
+         * Whether to parse request prologue and headers by scanning for delimiters (new lines, spaces, colons)
+         * eight bytes at a time, instead of byte by byte. This is faster for requests with long paths or header values.
+         * Defaults to {@code false}.
+         *
+         * @param wordScan whether to scan a word at a time
+         * @return updated builder
+         * @see io.helidon.common.buffers.DataReader#wordScan(boolean)
+         */
+        public Builder wordScan(boolean wordScan) {
+            this.wordScan = wordScan;
+            return this;
+        }
+
         /**
          * Add a configured upgrade provider. This will replace the instance discovered through service loader (if one exists).
          *
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.http1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.common.buffers.DataWriter;
+
+/**
+ * Writer that sequences responses of pipelined requests.
+ * Requests on a connection are handled one after another, so responses are always written in request order.
+ * While the client has already sent the next request (there is unread data on the connection after the entity
+ * of the current request), written buffers are kept and then sent together with the following responses using a single
+ * write (a gathering write on sockets backed by a channel). Kept buffers are copies, as the caller may re-use
+ * the written data once a write returns.
+ * As soon as there is no more pipelined data, or the kept buffers would exceed the configured size,
+ * everything is written to the connection.
+ */
+class Http1PipelineWriter implements DataWriter {
+    private final DataWriter delegate;
+    private final BooleanSupplier pipelined;
+    private final int maxBufferSize;
+    private final List<BufferData> pending = new ArrayList<>();
+
+    private int pendingBytes;
+
+    /**
+     * Create a new pipeline writer.
+     *
+     * @param delegate      writer of the connection
+     * @param pipelined     whether another request is already available on the connection, must be {@code false}
+     *                      while the entity of the current request is being read
+     * @param maxBufferSize maximal number of bytes kept before writing to the connection
+     */
+    Http1PipelineWriter(DataWriter delegate, BooleanSupplier pipelined, int maxBufferSize) {
+        this.delegate = delegate;
+        this.pipelined = pipelined;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    @Override
+    public void write(BufferData... buffers) {
+        for (BufferData buffer : buffers) {
+            write(buffer);
+        }
+    }
+
+    @Override
+    public void write(BufferData buffer) {
+        int size = buffer.available();
+        if (pendingBytes + size <= maxBufferSize && pipelined.getAsBoolean()) {
+            // buffer may wrap an array of the handler, which can re-use it as soon as this method returns
+            pending.add(buffer.copy());
+            pendingBytes += size;
+            return;
+        }
+        if (pending.isEmpty()) {
+            delegate.write(buffer);
+            return;
+        }
+        pending.add(buffer);
+        flush();
+    }
+
+    @Override
+    public void writeNow(BufferData... buffers) {
+        flush();
+        delegate.writeNow(buffers);
+    }
+
+    @Override
+    public void writeNow(BufferData buffer) {
+        flush();
+        delegate.writeNow(buffer);
+    }
+
+    /**
+     * Write all kept buffers to the connection.
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        BufferData[] toWrite = pending.toArray(new BufferData[0]);
+        pending.clear();
+        pendingBytes = 0;
+        delegate.write(toWrite);
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.helidon.nima.webserver.http1;
 
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Supplier;
 
@@ -44,6 +45,7 @@ abstract class Http1ServerRequest implements RoutingRequest {
     private final int requestId;
 
     private RoutedPath path;
+    private String matchingPattern;
     private WritableHeaders<?> writable;
 
     private HttpPrologue newPrologue;
@@ -168,6 +170,17 @@ abstract class Http1ServerRequest implements RoutingRequest {
         return this;
     }
 
+    @Override
+    public Http1ServerRequest matchingPattern(String pattern) {
+        this.matchingPattern = pattern;
+        return this;
+    }
+
+    @Override
+    public Optional<String> matchingPattern() {
+        return Optional.ofNullable(matchingPattern);
+    }
+
     @Override
     public Http1ServerRequest prologue(HttpPrologue newPrologue) {
         this.newPrologue = newPrologue;
@@ -19,7 +19,10 @@ package io.helidon.nima.webserver.http1;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import io.helidon.common.buffers.BufferData;
@@ -30,8 +33,10 @@ import io.helidon.common.http.Http.DateTime;
 import io.helidon.common.http.Http.HeaderName;
 import io.helidon.common.http.Http.HeaderValue;
 import io.helidon.common.http.Http.HeaderValues;
+import io.helidon.common.http.PreEncodedHeaders;
 import io.helidon.common.http.ServerResponseHeaders;
 import io.helidon.common.http.WritableHeaders;
+import io.helidon.common.socket.SocketWriter;
 import io.helidon.nima.webserver.ConnectionContext;
 import io.helidon.nima.webserver.http.ServerResponse;
 import io.helidon.nima.webserver.http.ServerResponseBase;
@@ -46,7 +51,6 @@ hi
 class Http1ServerResponse extends ServerResponseBase<Http1ServerResponse> {
     private static final byte[] HTTP_BYTES = "HTTP/1.1 ".getBytes(StandardCharsets.UTF_8);
     private static final byte[] OK_200 = "HTTP/1.1 200 OK\r\n".getBytes(StandardCharsets.UTF_8);
-    private static final byte[] DATE = "Date: ".getBytes(StandardCharsets.UTF_8);
     private static final byte[] TERMINATING_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.UTF_8);
     private static final HeaderName STREAM_STATUS_NAME = Http.Header.create("stream-status");
     private static final HeaderName STREAM_RESULT_NAME = Http.Header.create("stream-result");
@@ -97,11 +101,9 @@ class Http1ServerResponse extends ServerResponseBase<Http1ServerResponse> {
             buffer.write('\r');
             buffer.write('\n');
         }
-        // date header
+        // date header, shared pre-encoded instance updated once per second
         if (!headers.contains(Http.Header.DATE)) {
-            buffer.write(DATE);
-            byte[] dateBytes = DateTime.http1Bytes();
-            buffer.write(dateBytes);
+            DateTime.header().writeHttp1Header(buffer);
         }
 
         // either content-length or chunked encoding
@@ -114,7 +116,12 @@ class Http1ServerResponse extends ServerResponseBase<Http1ServerResponse> {
         }
 
         // write headers followed by empty line
-        writeHeaders(headers, buffer);
+        Optional<PreEncodedHeaders> preEncoded = headers.preEncoded();
+        if (preEncoded.isPresent()) {
+            preEncoded.get().writeHttp1(headers, buffer);
+        } else {
+            writeHeaders(headers, buffer);
+        }
 
         buffer.write('\r');        // "\r\n" - empty line after headers
         buffer.write('\n');
@@ -136,6 +143,18 @@ class Http1ServerResponse extends ServerResponseBase<Http1ServerResponse> {
         afterSend();
     }
 
+    @Override
+    public void sendFile(Path path, long position, long length) {
+        if (dataWriter instanceof SocketWriter socketWriter
+                && socketWriter.supportsTransfer()
+                && !contentEncoded()) {
+            transferFile(socketWriter, path, position, length);
+        } else {
+            // TLS, asynchronous writes or content encoding - copy through output stream
+            super.sendFile(path, position, length);
+        }
+    }
+
     @Override
     public boolean isSent() {
         return isSent;
@@ -201,6 +220,38 @@ class Http1ServerResponse extends ServerResponseBase<Http1ServerResponse> {
         }
     }
 
+    // headers are written to the socket, entity is transferred from the file directly to the socket
+    private void transferFile(SocketWriter socketWriter, Path path, long position, long length) {
+        if (isSent) {
+            throw new IllegalStateException("Response already sent");
+        }
+        if (streamingEntity) {
+            throw new IllegalStateException("When output stream is used, response is completed by closing the output stream"
+                                                    + ", do not call sendFile().");
+        }
+        try (FileChannel file = FileChannel.open(path)) {
+            isSent = true;
+
+            headers.setIfAbsent(HeaderValues.CONNECTION_KEEP_ALIVE);
+            if (!headers.contains(Http.Header.CONTENT_LENGTH)) {
+                headers.set(Http.Header.create(Http.Header.CONTENT_LENGTH, String.valueOf(length)));
+            }
+
+            sendListener.headers(ctx, headers);
+
+            BufferData responseBuffer = BufferData.growing(256);
+            nonEntityBytes(headers, status(), responseBuffer, keepAlive);
+            sendListener.data(ctx, responseBuffer);
+
+            entitySize = responseBuffer.available() + length;
+            socketWriter.writeNow(responseBuffer);
+            socketWriter.transferFrom(file, position, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        afterSend();
+    }
+
     private BufferData responseBuffer(byte[] bytes) {
         if (isSent) {
             throw new IllegalStateException("Response already sent");
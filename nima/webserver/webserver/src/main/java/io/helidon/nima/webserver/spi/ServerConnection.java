@@ -27,4 +27,19 @@ public interface ServerConnection {
      * @throws InterruptedException to interrupt any waiting state and terminate this connection
      */
     void handle() throws InterruptedException;
+
+    /**
+     * Handle the connection until it becomes idle, that is when there is no request in progress and no data
+     * available to read. An idle connection may be parked by the server without a thread, and this method is called
+     * again once more data is available.
+     * <p>
+     * The default implementation calls {@link #handle()}, so the connection is never parked.
+     *
+     * @return {@code true} if the connection is idle and can be resumed, {@code false} if the connection terminated
+     * @throws InterruptedException to interrupt any waiting state and terminate this connection
+     */
+    default boolean handleUntilIdle() throws InterruptedException {
+        handle();
+        return false;
+    }
 }
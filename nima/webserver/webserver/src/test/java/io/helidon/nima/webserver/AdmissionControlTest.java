@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.testing.junit5.OptionalMatcher.optionalPresent;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+class AdmissionControlTest {
+    @Test
+    void testConnectionLimit() {
+        AdmissionController controller = AdmissionController.create(ListenerConfiguration.builder("test")
+                                                                            .maxConcurrentConnections(2)
+                                                                            .build());
+        assertThat(controller.tryAcquireConnection(), is(true));
+        assertThat(controller.tryAcquireConnection(), is(true));
+        assertThat(controller.tryAcquireConnection(), is(false));
+        controller.connectionClosed();
+        assertThat(controller.tryAcquireConnection(), is(true));
+
+        assertThat(controller.connections(), is(2));
+        assertThat(controller.rejectedConnections(), is(1L));
+    }
+
+    @Test
+    void testRequestLimit() {
+        AdmissionController controller = AdmissionController.create(ListenerConfiguration.builder("test")
+                                                                            .maxConcurrentRequests(1)
+                                                                            .build());
+        assertThat(controller.tryAcquireRequest(), is(true));
+        assertThat(controller.tryAcquireRequest(), is(false));
+        controller.requestCompleted(System.nanoTime());
+        assertThat(controller.tryAcquireRequest(), is(true));
+
+        assertThat(controller.requestLimit(), is(1));
+        assertThat(controller.inFlightRequests(), is(1));
+        assertThat(controller.rejectedRequests(), is(1L));
+    }
+
+    @Test
+    void testAdaptiveLimit() {
+        AdmissionController controller = AdmissionController.create(ListenerConfiguration.builder("test")
+                                                                            .maxConcurrentRequests(200)
+                                                                            .adaptiveConcurrencyLimit(Duration.ofSeconds(1))
+                                                                            .build());
+        int initial = controller.requestLimit();
+
+        // fast requests with the limit in use - limit grows
+        for (int i = 0; i < 1000; i++) {
+            fill(controller, initial);
+        }
+        int grown = controller.requestLimit();
+        assertThat(grown, greaterThan(initial));
+
+        // slow requests - limit shrinks
+        long slowStart = System.nanoTime() - TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 1000; i++) {
+            controller.tryAcquireRequest();
+            controller.requestCompleted(slowStart);
+        }
+        assertThat(controller.requestLimit(), lessThan(grown));
+    }
+
+    @Test
+    void testOverloadedRequestRejected() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WebServer server = WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .socket("@default", socket -> socket.maxConcurrentRequests(1))
+                .addConnectionProvider(Http1ConnectionProvider.builder().build())
+                .routing(routing -> routing.get("/block", (req, res) -> {
+                    blocked.countDown();
+                    release.await();
+                    res.send("done");
+                }))
+                .start();
+        try (Socket first = new Socket(InetAddress.getLoopbackAddress(), server.port());
+                Socket second = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            send(first.getOutputStream());
+            assertThat(blocked.await(10, TimeUnit.SECONDS), is(true));
+
+            send(second.getOutputStream());
+            String rejected = readAll(second.getInputStream());
+            assertThat(rejected, startsWith("HTTP/1.1 503"));
+            assertThat(rejected, containsString("Connection: close"));
+
+            KeyPerformanceIndicatorSupport.AdmissionControl state =
+                    KeyPerformanceIndicatorSupport.AdmissionControl.find(server.context(), "@default").orElseThrow();
+            assertThat(state.rejectedRequests(), is(1L));
+            assertThat(state.inFlightRequests(), is(1));
+
+            release.countDown();
+            assertThat(readLine(first.getInputStream()), startsWith("HTTP/1.1 200"));
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+
+    @Test
+    void testStateRegistered() {
+        WebServer server = WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .addConnectionProvider(Http1ConnectionProvider.builder().build())
+                .start();
+        try {
+            assertThat(KeyPerformanceIndicatorSupport.AdmissionControl.find(server.context(), "@default"),
+                       optionalPresent());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void fill(AdmissionController controller, int count) {
+        for (int i = 0; i < count; i++) {
+            controller.tryAcquireRequest();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            controller.requestCompleted(start);
+        }
+    }
+
+    private static void send(OutputStream out) throws IOException {
+        out.write("GET /block HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(US_ASCII));
+        out.flush();
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), US_ASCII);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n' && c != -1) {
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import io.helidon.common.buffers.BufferPool;
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class IdleConnectionParkingTest {
+    private static WebServer server;
+
+    @BeforeAll
+    static void startServer() {
+        server = startServer(0);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testKeepAlive() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+            IdleConnectionSelector selector = idleSelector(server);
+            for (int i = 0; i < 3; i++) {
+                // connection is parked between requests
+                out.write(request().getBytes(US_ASCII));
+                out.flush();
+                assertThat(readEntity(in), is("Hello"));
+                assertThat(awaitParked(selector::parked, 1), is(1));
+            }
+        }
+    }
+
+    @Test
+    void testPipelinedRequests() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+            // second request is already available when the first is processed, connection must not be parked
+            out.write((request() + request()).getBytes(US_ASCII));
+            out.flush();
+            assertThat(readEntity(in), is("Hello"));
+            assertThat(readEntity(in), is("Hello"));
+            assertThat(awaitParked(idleSelector(server)::parked, 1), is(1));
+        }
+    }
+
+    @Test
+    void testWriteQueueDisablesParking() throws Exception {
+        // async writer may be writing when the connection becomes idle, channel must stay in blocking mode
+        WebServer queued = startServer(32);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), queued.port())) {
+            assertThat(idleSelector(queued), is(nullValue()));
+
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+            for (int i = 0; i < 3; i++) {
+                out.write((request() + request() + request()).getBytes(US_ASCII));
+                out.flush();
+                assertThat(readEntity(in), is("Hello"));
+                assertThat(readEntity(in), is("Hello"));
+                assertThat(readEntity(in), is("Hello"));
+                Thread.sleep(50);
+            }
+        } finally {
+            queued.stop();
+        }
+    }
+
+    @Test
+    void testClosedSelectorClosesThroughHandler() throws Exception {
+        // connections closed by the selector must release their admission permit, so closing is left to the handler
+        IdleConnectionSelector selector = IdleConnectionSelector.create("test");
+        AtomicInteger closed = new AtomicInteger();
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                SocketChannel client = SocketChannel.open(serverChannel.getLocalAddress());
+                SocketChannel parked = serverChannel.accept()) {
+
+            selector.park(parked, () -> { }, closed::incrementAndGet);
+            assertThat(awaitParked(selector::parked, 1), is(1));
+
+            selector.close();
+            assertThat(closed.get(), is(1));
+            assertThat(selector.parked(), is(0));
+
+            // selector no longer running
+            selector.park(parked, () -> { }, closed::incrementAndGet);
+            assertThat(closed.get(), is(2));
+        }
+    }
+
+    private static WebServer startServer(int writeQueueLength) {
+        return WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .addConnectionProvider(Http1ConnectionProvider.builder().build())
+                .defaultSocket(socket -> socket.idleConnectionParking(true)
+                        .writeQueueLength(writeQueueLength)
+                        .bufferPool(BufferPool.create()))
+                .routing(routing -> routing.get("/greet", (req, res) -> res.send("Hello")))
+                .start();
+    }
+
+    private static IdleConnectionSelector idleSelector(WebServer server) {
+        return ((LoomServer) server).listener(WebServer.DEFAULT_SOCKET_NAME).idleSelector();
+    }
+
+    // connection is parked asynchronously after the response is written
+    private static int awaitParked(IntSupplier parked, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (parked.getAsInt() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return parked.getAsInt();
+    }
+
+    private static String request() {
+        return "GET /greet HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    private static String readEntity(BufferedReader in) throws IOException {
+        String line;
+        int contentLength = 0;
+        while (!(line = in.readLine()).isEmpty()) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        char[] entity = new char[contentLength];
+        int read = 0;
+        while (read < contentLength) {
+            read += in.read(entity, read, contentLength - read);
+        }
+        return new String(entity);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class PipeliningTest {
+    private static WebServer server;
+
+    @BeforeAll
+    static void startServer() {
+        server = WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .addConnectionProvider(Http1ConnectionProvider.builder()
+                                               .pipelining(true)
+                                               .pipelineBufferSize(1024)
+                                               .build())
+                .routing(routing -> routing.get("/first", (req, res) -> res.send("first"))
+                        .get("/second", (req, res) -> {
+                            // slower handler must not change order of responses
+                            Thread.sleep(50);
+                            res.send("second");
+                        })
+                        .get("/large", (req, res) -> res.send("x".repeat(4096)))
+                        .get("/reused", (req, res) -> {
+                            // handler re-uses its array for each written part
+                            res.contentLength(300);
+                            try (OutputStream out = res.outputStream()) {
+                                byte[] buffer = new byte[100];
+                                for (char c = 'a'; c <= 'c'; c++) {
+                                    Arrays.fill(buffer, (byte) c);
+                                    out.write(buffer, 0, buffer.length);
+                                }
+                            }
+                        })
+                        .post("/echo", (req, res) -> res.send(req.content().as(String.class)))
+                        .post("/stream", (req, res) -> {
+                            // echo request entity while it is being read
+                            try (InputStream in = req.content().inputStream();
+                                    OutputStream out = res.outputStream()) {
+                                byte[] buffer = new byte[512];
+                                int read;
+                                while ((read = in.read(buffer)) > 0) {
+                                    out.write(buffer, 0, read);
+                                }
+                            }
+                        }))
+                .start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testPipelinedResponsesInOrder() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            out.write((get("/second")
+                               + get("/first")
+                               + post("/echo", "hello")
+                               + get("/large")
+                               + get("/first")).getBytes(US_ASCII));
+            out.flush();
+
+            assertThat(readEntity(in), is("second"));
+            assertThat(readEntity(in), is("first"));
+            assertThat(readEntity(in), is("hello"));
+            assertThat(readEntity(in), is("x".repeat(4096)));
+            assertThat(readEntity(in), is("first"));
+
+            // connection is still usable for non-pipelined requests
+            out.write(get("/first").getBytes(US_ASCII));
+            out.flush();
+            assertThat(readEntity(in), is("first"));
+        }
+    }
+
+    @Test
+    void testPipelinedStreamWithReusedArray() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            out.write((get("/reused") + get("/first")).getBytes(US_ASCII));
+            out.flush();
+
+            assertThat(readEntity(in), is("a".repeat(100) + "b".repeat(100) + "c".repeat(100)));
+            assertThat(readEntity(in), is("first"));
+        }
+    }
+
+    @Test
+    void testStreamingEntityIsNotPipelined() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            // unread part of the entity must not be considered a pipelined request, responses would wait for it
+            out.write(("POST /stream HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                               + "5\r\nping1\r\n5\r\nping2\r\n5\r\npi").getBytes(US_ASCII));
+            out.flush();
+            readUntil(in, "ping2");
+
+            out.write("ng3\r\n0\r\n\r\n".getBytes(US_ASCII));
+            out.flush();
+            readUntil(in, "ping3");
+        }
+    }
+
+    private static String get(String path) {
+        return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    private static String post(String path, String entity) {
+        return "POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + entity.length() + "\r\n\r\n" + entity;
+    }
+
+    private static String readEntity(InputStream in) throws IOException {
+        String line;
+        int contentLength = 0;
+        while (!(line = readLine(in)).isEmpty()) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        return new String(in.readNBytes(contentLength), US_ASCII);
+    }
+
+    private static void readUntil(InputStream in, String expected) throws IOException {
+        StringBuilder received = new StringBuilder();
+        int c;
+        while (received.indexOf(expected) == -1) {
+            c = in.read();
+            if (c == -1) {
+                throw new IOException("Connection closed");
+            }
+            received.append((char) c);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                throw new IOException("Connection closed");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+}
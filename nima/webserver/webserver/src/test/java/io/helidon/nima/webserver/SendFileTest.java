@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class SendFileTest {
+    private static final int FILE_SIZE = 200_000;
+
+    private static WebServer server;
+    private static Path file;
+    private static byte[] content;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        content = new byte[FILE_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + (i % 26));
+        }
+        file = Files.createTempFile("send-file", ".txt");
+        Files.write(file, content);
+
+        server = WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .addConnectionProvider(Http1ConnectionProvider.builder().build())
+                .routing(routing -> routing.get("/file", (req, res) -> res.sendFile(file, 0, FILE_SIZE))
+                        .get("/part", (req, res) -> res.sendFile(file, 1000, 5000)))
+                .start();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        if (server != null) {
+            server.stop();
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testSendFileKeepAlive() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+            for (int i = 0; i < 2; i++) {
+                out.write(request("/file").getBytes(US_ASCII));
+                out.flush();
+                assertThat(Arrays.equals(readEntity(in), content), is(true));
+            }
+            // part of the file on the same connection
+            out.write(request("/part").getBytes(US_ASCII));
+            out.flush();
+            assertThat(Arrays.equals(readEntity(in), Arrays.copyOfRange(content, 1000, 6000)), is(true));
+        }
+    }
+
+    private static String request(String path) {
+        return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    private static byte[] readEntity(InputStream in) throws IOException {
+        String line;
+        int contentLength = 0;
+        while (!(line = readLine(in)).isEmpty()) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        return in.readNBytes(contentLength);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                throw new IOException("Connection closed");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+}
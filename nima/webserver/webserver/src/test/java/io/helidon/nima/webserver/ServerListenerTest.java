@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.nima.webserver;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+
+import io.helidon.nima.webserver.http1.Http1ConnectionProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+// plain listeners accept connections through a server socket channel, socket options must apply to its adaptors
+class ServerListenerTest {
+    private static final int RECEIVE_BUFFER_SIZE = 16384;
+
+    private static WebServer server;
+
+    @BeforeAll
+    static void startServer() {
+        server = WebServer.builder()
+                .host("localhost")
+                .port(0)
+                .addConnectionProvider(Http1ConnectionProvider.builder().build())
+                .defaultSocket(socket -> socket.receiveBufferSize(RECEIVE_BUFFER_SIZE)
+                        .connectionOptions(options -> options.tcpNoDelay(true)
+                                .socketKeepAlive(true)))
+                .routing(routing -> routing.get("/greet", (req, res) -> res.send("Hello")))
+                .start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testListenerSocketOptions() throws Exception {
+        ServerSocket serverSocket = ((LoomServer) server).listener(WebServer.DEFAULT_SOCKET_NAME).serverSocket();
+
+        assertThat(serverSocket.getChannel(), notNullValue());
+        assertThat(serverSocket.getOption(StandardSocketOptions.SO_REUSEADDR), is(true));
+        assertThat(serverSocket.getOption(StandardSocketOptions.SO_RCVBUF), greaterThanOrEqualTo(RECEIVE_BUFFER_SIZE));
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /greet HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+            assertThat(in.readLine(), is("HTTP/1.1 200 OK"));
+        }
+    }
+
+    @Test
+    void testAcceptedSocketOptions() throws Exception {
+        ListenerConfiguration config = ListenerConfiguration.builder("test")
+                .connectionOptions(options -> options.tcpNoDelay(true)
+                        .socketKeepAlive(true)
+                        .socketSendBufferSize(RECEIVE_BUFFER_SIZE)
+                        .socketReceiveBufferSize(RECEIVE_BUFFER_SIZE))
+                .build();
+
+        // the same sequence as the listener uses for plain sockets
+        try (ServerSocket serverSocket = ServerSocketChannel.open().socket()) {
+            config.configureSocket(serverSocket);
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), config.backlog());
+
+            try (Socket client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+                    Socket accepted = serverSocket.accept()) {
+                config.connectionOptions().configureSocket(accepted);
+
+                assertThat(accepted.getChannel(), notNullValue());
+                assertThat(accepted.getOption(StandardSocketOptions.TCP_NODELAY), is(true));
+                assertThat(accepted.getOption(StandardSocketOptions.SO_KEEPALIVE), is(true));
+                assertThat(accepted.getOption(StandardSocketOptions.SO_REUSEADDR), is(true));
+                assertThat(accepted.getOption(StandardSocketOptions.SO_SNDBUF), greaterThanOrEqualTo(RECEIVE_BUFFER_SIZE));
+                assertThat(accepted.getOption(StandardSocketOptions.SO_RCVBUF), greaterThanOrEqualTo(RECEIVE_BUFFER_SIZE));
+            }
+        }
+    }
+}
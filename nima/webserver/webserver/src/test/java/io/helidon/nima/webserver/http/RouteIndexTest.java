@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.webserver.http;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.HttpPrologue;
+import io.helidon.common.http.PathMatchers;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+class RouteIndexTest {
+    private static RouteIndex index;
+
+    @BeforeAll
+    static void createIndex() {
+        List<HttpRouteBase> routes = new ArrayList<>();
+        routes.add(route("any-first", null, "/*"));
+        routes.add(route("get-exact", Http.Method.GET, "/greet"));
+        routes.add(route("get-param", Http.Method.GET, "/greet/{name}"));
+        routes.add(route("post-exact", Http.Method.POST, "/greet"));
+        routes.add(route("get-prefix", Http.Method.GET, "/static/*"));
+        routes.add(route("get-regexp", Http.Method.GET, "/regexp/{name:\\d+}"));
+        routes.add(route("get-param-prefix", Http.Method.GET, "/users/{id}/*"));
+        routes.add(route("get-root", Http.Method.GET, "/"));
+        index = RouteIndex.create(routes);
+    }
+
+    @Test
+    void testTemplates() {
+        assertThat(PathMatchers.create("/").template().isPresent(), is(true));
+        assertThat(PathMatchers.create("/a/{b}/c").template().isPresent(), is(true));
+        assertThat(PathMatchers.create("/a/*").template().get().prefix(), is(true));
+        assertThat(PathMatchers.create("/a%20b").template().isPresent(), is(false));
+        assertThat(PathMatchers.create("/a/{+b}").template().isPresent(), is(false));
+        assertThat(PathMatchers.create("/a/b{c}").template().isPresent(), is(false));
+        assertThat(PathMatchers.pattern("/a[/b]").template().isPresent(), is(false));
+        assertThat(PathMatchers.prefix("/abc").template().isPresent(), is(false));
+        assertThat(PathMatchers.any().template().isPresent(), is(false));
+    }
+
+    @Test
+    void testExact() {
+        assertThat(candidates(Http.Method.GET, "/greet"), contains("any-first", "get-exact", "get-regexp"));
+        assertThat(candidates(Http.Method.POST, "/greet"), contains("any-first", "post-exact", "get-regexp"));
+        assertThat(candidates(Http.Method.GET, "/"), contains("any-first", "get-regexp", "get-root"));
+    }
+
+    @Test
+    void testParameter() {
+        assertThat(candidates(Http.Method.GET, "/greet/jack"), contains("any-first", "get-param", "get-regexp"));
+        // parameter must not be empty
+        assertThat(candidates(Http.Method.GET, "/greet/"), contains("any-first", "get-regexp"));
+        assertThat(candidates(Http.Method.GET, "/users/10/books/1"),
+                   contains("any-first", "get-regexp", "get-param-prefix"));
+        assertThat(candidates(Http.Method.GET, "/users/10"), contains("any-first", "get-regexp"));
+    }
+
+    @Test
+    void testPrefix() {
+        assertThat(candidates(Http.Method.GET, "/static/css/main.css"), contains("any-first", "get-prefix", "get-regexp"));
+        assertThat(candidates(Http.Method.GET, "/static/"), contains("any-first", "get-prefix", "get-regexp"));
+        assertThat(candidates(Http.Method.GET, "/static"), contains("any-first", "get-regexp"));
+        assertThat(candidates(Http.Method.PUT, "/static/index.html"), contains("any-first", "get-regexp"));
+    }
+
+    @Test
+    void testNoCompiledRoutes() {
+        RouteIndex fallbackIndex = RouteIndex.create(List.of(route("regexp", Http.Method.GET, "/{name:\\w+}")));
+        Iterator<HttpRouteBase> candidates = fallbackIndex.candidates(prologue(Http.Method.POST, "/"));
+        assertThat(candidates.hasNext(), is(true));
+        assertThat(candidates.next().toString(), is("regexp"));
+        assertThat(candidates.hasNext(), is(false));
+
+        assertThat(RouteIndex.create(List.of()).routes(), is(empty()));
+    }
+
+    @Test
+    void testPatterns() {
+        ServiceRules greetRules = new ServiceRules(rules -> { }, PathMatchers.create("/greet"), Http.Method.predicate());
+        greetRules.route(route("greet-root", Http.Method.GET, "/"));
+        greetRules.route(route("greet-param", Http.Method.GET, "/{name}"));
+        ServiceRoute greet = greetRules.build();
+        HttpRouteBase plain = route("plain", Http.Method.GET, "/static/*");
+        RouteIndex root = RouteIndex.create(List.of(greet, plain));
+        root.resolvePatterns("");
+
+        assertThat(root.pattern(greet), is("/greet"));
+        assertThat(root.pattern(plain), is("/static/*"));
+        List<HttpRouteBase> greetRoutes = greet.routes().routes();
+        assertThat(greet.routes().pattern(greetRoutes.get(0)), is("/greet"));
+        assertThat(greet.routes().pattern(greetRoutes.get(1)), is("/greet/{name}"));
+
+        assertThat(RouteIndex.joinPatterns("/*", "/{name}"), is("/{name}"));
+        assertThat(RouteIndex.joinPatterns("/users/", "/{id}"), is("/users/{id}"));
+        assertThat(RouteIndex.joinPatterns("/users/{id}/*", "/books"), is("/users/{id}/books"));
+        assertThat(PathMatchers.create("/a/{b}[/c]").pattern(), is("/a/{b}[/c]"));
+        assertThat(PathMatchers.create("/a/*").pattern(), is("/a/*"));
+    }
+
+    private static List<String> candidates(Http.Method method, String path) {
+        List<String> result = new ArrayList<>();
+        index.candidates(prologue(method, path))
+                .forEachRemaining(it -> result.add(it.toString()));
+        return result;
+    }
+
+    private static HttpPrologue prologue(Http.Method method, String path) {
+        return HttpPrologue.create("HTTP/1.1", "HTTP", "1.1", method, path, false);
+    }
+
+    private static HttpRouteBase route(String name, Http.Method method, String path) {
+        HttpRoute.Builder builder = HttpRoute.builder()
+                .path(path)
+                .handler((req, res) -> res.send(name));
+        if (method != null) {
+            builder.methods(method);
+        }
+        return new NamedRoute(name, builder);
+    }
+
+    private static final class NamedRoute extends HttpRouteImpl {
+        private final String name;
+
+        private NamedRoute(String name, HttpRoute.Builder builder) {
+            super(builder);
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.websocket.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import io.helidon.common.buffers.BufferData;
+
+/**
+ * A complete message encoded once (header and payload) for all members of a broadcast group.
+ * The encoded bytes are never modified, each write uses its own read-only view of them.
+ */
+final class BroadcastFrame {
+    private final WsOpCode opCode;
+    private final byte[] plain;
+    private final byte[] compressed;
+
+    private BroadcastFrame(WsOpCode opCode, byte[] plain, byte[] compressed) {
+        this.opCode = opCode;
+        this.plain = plain;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Encode a text message.
+     *
+     * @param text     text to send
+     * @param deflater deflater to create the compressed variant, or {@code null} if not needed
+     * @return encoded frame
+     */
+    static BroadcastFrame text(String text, Deflater deflater) {
+        return create(WsOpCode.TEXT, text.getBytes(StandardCharsets.UTF_8), deflater);
+    }
+
+    /**
+     * Encode a binary message.
+     *
+     * @param data     data to send, all available bytes are consumed
+     * @param deflater deflater to create the compressed variant, or {@code null} if not needed
+     * @return encoded frame
+     */
+    static BroadcastFrame binary(BufferData data, Deflater deflater) {
+        byte[] payload = new byte[data.available()];
+        data.read(payload);
+        return create(WsOpCode.BINARY, payload, deflater);
+    }
+
+    /**
+     * Whether there is a variant of this frame compressed with {@code permessage-deflate}.
+     *
+     * @return whether compressed variant is available
+     */
+    boolean hasCompressed() {
+        return compressed != null;
+    }
+
+    /**
+     * Data to write to a connection.
+     *
+     * @param compressed whether to use the compressed variant
+     * @return a new read-only view of the encoded frame
+     */
+    BufferData data(boolean compressed) {
+        byte[] bytes = compressed ? this.compressed : plain;
+        return BufferData.createReadOnly(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public String toString() {
+        return opCode + " (broadcast, " + plain.length + " bytes"
+                + (compressed == null ? "" : ", " + compressed.length + " bytes compressed") + ")";
+    }
+
+    private static BroadcastFrame create(WsOpCode opCode, byte[] payload, Deflater deflater) {
+        int firstByte = 0b10000000 | opCode.code();
+        byte[] compressed = null;
+        if (deflater != null) {
+            // RSV1 marks a compressed message
+            compressed = encode(firstByte | 0b01000000, PerMessageDeflate.deflateMessage(deflater, payload));
+        }
+        return new BroadcastFrame(opCode, encode(firstByte, payload), compressed);
+    }
+
+    private static byte[] encode(int firstByte, byte[] payload) {
+        int length = payload.length;
+        int headerLength = length < 126 ? 2 : (length <= 0xFFFF ? 4 : 10);
+        byte[] frame = new byte[headerLength + length];
+        frame[0] = (byte) firstByte;
+        if (length < 126) {
+            frame[1] = (byte) length;
+        } else if (length <= 0xFFFF) {
+            frame[1] = 126;
+            frame[2] = (byte) (length >>> 8);
+            frame[3] = (byte) length;
+        } else {
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                frame[2 + i] = (byte) ((long) length >>> (56 - 8 * i));
+            }
+        }
+        System.arraycopy(payload, 0, frame, headerLength, length);
+        return frame;
+    }
+}
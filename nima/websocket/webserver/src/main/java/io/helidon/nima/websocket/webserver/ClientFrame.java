@@ -16,33 +16,40 @@
 
 package io.helidon.nima.websocket.webserver;
 
-import io.helidon.common.LazyValue;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
 import io.helidon.common.buffers.BufferData;
 
 /**
  * Frame from a client (always masked).
+ * The payload is unmasked in place when the frame is read, see {@link #unmask(byte[], int, int)}.
+ * A large frame may be read in more than one chunk, each chunk is represented by its own instance, where
+ * all chunks except for the first one are continuations.
  */
 class ClientFrame implements Frame {
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
     private final WsOpCode opCode;
     private final long payloadLength;
-    private final BufferData data;
+    private final byte[] payload;
     private final boolean fin;
-    private final int[] maskingKey;
-    private final LazyValue<BufferData> unmasked;
+    private final boolean compressed;
+    private final int maskingKey;
 
-    ClientFrame(WsOpCode opCode, long payloadLength, BufferData data, boolean fin, int[] maskingKey) {
+    ClientFrame(WsOpCode opCode, byte[] payload, boolean fin, boolean compressed, int maskingKey) {
         this.opCode = opCode;
-        this.payloadLength = payloadLength;
-        this.data = data;
+        this.payloadLength = payload.length;
+        this.payload = payload;
         this.fin = fin;
+        this.compressed = compressed;
         this.maskingKey = maskingKey;
-
-        this.unmasked = LazyValue.create(this::unmask);
     }
 
     @Override
     public String toString() {
-        return opCode + (fin ? " (last): \n" : ": \n") + unmasked.get().debugDataHex();
+        return opCode + (compressed ? " (compressed)" : "") + (fin ? " (last): \n" : ": \n") + payloadData().debugDataHex();
     }
 
     @Override
@@ -67,36 +74,64 @@ class ClientFrame implements Frame {
 
     @Override
     public int[] maskingKey() {
-        return maskingKey;
+        return new int[] {maskingKey >>> 24, (maskingKey >>> 16) & 0xFF, (maskingKey >>> 8) & 0xFF, maskingKey & 0xFF};
     }
 
+    /**
+     * Unmasked payload data.
+     *
+     * @return buffer wrapping the payload
+     */
     @Override
     public BufferData payloadData() {
-        return data;
+        return BufferData.create(payload);
     }
 
-    public BufferData unmasked() {
-        return unmasked.get();
+    /**
+     * Unmasked payload bytes.
+     *
+     * @return payload
+     */
+    byte[] payload() {
+        return payload;
     }
 
-    private BufferData unmask() {
-        int length = data.available();
-        BufferData unmasked = BufferData.create(length);
-
-        /*
-        Octet i of the transformed data ("transformed-octet-i") is the XOR of
-        octet i of the original data ("original-octet-i") with octet at index
-        i modulo 4 of the masking key ("masking-key-octet-j"):
-
-        j                   = i MOD 4
-        transformed-octet-i = original-octet-i XOR masking-key-octet-j
-         */
-        for (int i = 0; i < length; i++) {
-            int maskIndex = i % 4;
-            int mask = maskingKey[maskIndex];
-            unmasked.write(data.read() ^ mask);
-        }
+    /**
+     * Whether the RSV1 bit was set, which marks the first frame of a compressed message.
+     *
+     * @return whether compressed
+     */
+    boolean compressed() {
+        return compressed;
+    }
 
-        return unmasked;
+    /**
+     * Unmask payload in place.
+     * <p>
+     * Octet i of the transformed data ("transformed-octet-i") is the XOR of
+     * octet i of the original data ("original-octet-i") with octet at index
+     * i modulo 4 of the masking key ("masking-key-octet-j"):
+     * <pre>
+     * j                   = i MOD 4
+     * transformed-octet-i = original-octet-i XOR masking-key-octet-j
+     * </pre>
+     * The key is applied to eight bytes at a time, and byte by byte to the remainder.
+     *
+     * @param bytes      masked bytes, will be unmasked
+     * @param maskingKey masking key (the four octets in network byte order)
+     * @param keyOffset  index of the first byte within the frame payload, to continue unmasking of a frame read in chunks
+     */
+    static void unmask(byte[] bytes, int maskingKey, int keyOffset) {
+        int key = Integer.rotateLeft(maskingKey, 8 * (keyOffset & 3));
+        long keyWord = ((long) key << 32) | (key & 0xFFFFFFFFL);
+
+        int length = bytes.length;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            LONG_VIEW.set(bytes, i, (long) LONG_VIEW.get(bytes, i) ^ keyWord);
+        }
+        for (; i < length; i++) {
+            bytes[i] ^= (byte) (key >>> (24 - 8 * (i & 3)));
+        }
     }
 }
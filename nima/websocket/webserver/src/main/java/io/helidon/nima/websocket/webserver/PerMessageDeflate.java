@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.websocket.webserver;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.helidon.common.buffers.BufferData;
+
+/**
+ * The {@code permessage-deflate} extension (RFC 7692) of a single connection.
+ * <p>
+ * Each message is compressed as a sequence of deflate blocks ended with a sync flush, the trailing
+ * {@code 0x00 0x00 0xff 0xff} of the final fragment is removed when sending, and appended when receiving.
+ * Unless "no context takeover" was negotiated for the direction, the sliding window is kept between messages,
+ * so repeated content (such as keys of JSON messages) compresses to a few bytes.
+ * <p>
+ * Instances are not thread safe, compression is used only by the sender and decompression only by the reader.
+ */
+final class PerMessageDeflate implements AutoCloseable {
+    /**
+     * Extension name, as used in {@code Sec-WebSocket-Extensions} header.
+     */
+    static final String NAME = "permessage-deflate";
+
+    private static final byte[] TAIL = new byte[] {0x00, 0x00, (byte) 0xFF, (byte) 0xFF};
+    // empty stored block without the tail (RFC 7692, section 7.2.3.6)
+    private static final byte[] EMPTY_BLOCK = new byte[] {0x00};
+    private static final int MAX_WINDOW_BITS = 15;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final boolean serverNoContextTakeover;
+    private final boolean clientNoContextTakeover;
+    private final Deflater deflater;
+    private final Inflater inflater = new Inflater(true);
+
+    private byte[] deflated = new byte[INITIAL_BUFFER_SIZE];
+    // decompressed data is produced in chunks of limited size, so a small fragment cannot expand in memory
+    private byte[] inflated;
+    private boolean inflateLast;
+    private boolean tailPending;
+
+    private PerMessageDeflate(int level, boolean serverNoContextTakeover, boolean clientNoContextTakeover) {
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.clientNoContextTakeover = clientNoContextTakeover;
+        this.deflater = new Deflater(level, true);
+    }
+
+    /**
+     * Negotiate the extension from offers of the client.
+     * The first offer with parameters we can honor is accepted. As {@link java.util.zip.Deflater} always uses
+     * the maximal window, offers limiting {@code server_max_window_bits} are declined; a limit on the client window
+     * does not need to be answered, as the inflater handles any window size.
+     *
+     * @param extensionHeaders       values of the {@code Sec-WebSocket-Extensions} request header
+     * @param level                  compression level
+     * @param serverNoContextTakeover whether to reset compression after each message even if the client did not ask
+     * @return negotiated extension, or {@code null} if no acceptable offer was made
+     */
+    static PerMessageDeflate negotiate(Iterable<String> extensionHeaders, int level, boolean serverNoContextTakeover) {
+        for (String header : extensionHeaders) {
+            for (String offer : header.split(",")) {
+                PerMessageDeflate result = accept(offer, level, serverNoContextTakeover);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Value of the {@code Sec-WebSocket-Extensions} response header.
+     *
+     * @return extension response
+     */
+    String response() {
+        StringBuilder result = new StringBuilder(NAME);
+        if (serverNoContextTakeover) {
+            result.append("; server_no_context_takeover");
+        }
+        if (clientNoContextTakeover) {
+            result.append("; client_no_context_takeover");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Compress a fragment of a message.
+     *
+     * @param data payload of the fragment, all available bytes are consumed
+     * @param last whether this is the last fragment of the message
+     * @return compressed payload
+     */
+    BufferData deflate(BufferData data, boolean last) {
+        byte[] input = new byte[data.available()];
+        data.read(input);
+        deflater.setInput(input);
+
+        int length = 0;
+        while (true) {
+            if (length == deflated.length) {
+                deflated = Arrays.copyOf(deflated, deflated.length * 2);
+            }
+            int written = deflater.deflate(deflated, length, deflated.length - length, Deflater.SYNC_FLUSH);
+            length += written;
+            // sync flush is complete once the deflater did not fill the whole output
+            if (length < deflated.length) {
+                break;
+            }
+        }
+        if (last) {
+            if (serverNoContextTakeover) {
+                deflater.reset();
+            }
+            if (length < TAIL.length) {
+                // nothing to flush (empty message), the data already ends on a block boundary
+                return BufferData.create(EMPTY_BLOCK);
+            }
+            // a sync flush always ends with an empty stored block
+            length -= TAIL.length;
+        }
+        return BufferData.create(Arrays.copyOf(deflated, length));
+    }
+
+    /**
+     * Compress a whole message independently of any previous message, so the result can be sent to any peer
+     * that negotiated the extension. The deflater is reset afterwards.
+     *
+     * @param deflater deflater to use (raw deflate, without zlib header)
+     * @param payload  message payload
+     * @return compressed payload
+     */
+    static byte[] deflateMessage(Deflater deflater, byte[] payload) {
+        deflater.setInput(payload);
+        byte[] output = new byte[Math.max(64, payload.length / 2)];
+        int length = 0;
+        while (true) {
+            if (length == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            length += deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+            if (length < output.length) {
+                break;
+            }
+        }
+        deflater.reset();
+        if (length < TAIL.length) {
+            return EMPTY_BLOCK;
+        }
+        return Arrays.copyOf(output, length - TAIL.length);
+    }
+
+    /**
+     * Start a new compression context for the next message. Used after a message compressed elsewhere
+     * was sent over this connection, as the peer's window then no longer matches our deflater.
+     */
+    void resetCompression() {
+        deflater.reset();
+    }
+
+    /**
+     * Set a compressed fragment of a message to be decompressed by {@link #inflate()}.
+     * The data must not be modified until the fragment is fully decompressed.
+     *
+     * @param data   compressed data
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @param last   whether this is the last fragment of the message
+     */
+    void inflateInput(byte[] data, int offset, int length, boolean last) {
+        inflater.setInput(data, offset, length);
+        inflateLast = last;
+        tailPending = last;
+    }
+
+    /**
+     * Decompress the next chunk of the fragment set by {@link #inflateInput(byte[], int, int, boolean)}, at most
+     * {@value WsConnection#MAX_CHUNK_SIZE} bytes. The result is available in {@link #inflated()}, and is valid only
+     * until the next invocation of this method. The fragment is fully decompressed once the returned number
+     * is lower than the maximal chunk size.
+     *
+     * @return number of decompressed bytes
+     * @throws java.util.zip.DataFormatException in case the data is not a valid deflate stream
+     */
+    int inflate() throws DataFormatException {
+        if (inflated == null) {
+            inflated = new byte[WsConnection.MAX_CHUNK_SIZE];
+        }
+        int length = 0;
+        while (length < inflated.length) {
+            int read = inflater.inflate(inflated, length, inflated.length - length);
+            length += read;
+            if (read > 0) {
+                continue;
+            }
+            if (inflater.needsInput() && tailPending) {
+                tailPending = false;
+                inflater.setInput(TAIL);
+                continue;
+            }
+            if (inflater.needsInput() || inflater.finished() || inflater.needsDictionary()) {
+                if (inflateLast) {
+                    inflateLast = false;
+                    // the client may have finished the deflate stream, in such a case the next message starts a new one
+                    if (clientNoContextTakeover || inflater.finished()) {
+                        inflater.reset();
+                    }
+                }
+                return length;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Buffer with data decompressed by the last invocation of {@link #inflate()}.
+     *
+     * @return decompressed bytes, only the number of bytes returned from inflate are valid
+     */
+    byte[] inflated() {
+        return inflated;
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+        inflater.end();
+    }
+
+    private static PerMessageDeflate accept(String offer, int level, boolean serverNoContextTakeover) {
+        String[] parts = offer.split(";");
+        if (!NAME.equals(parts[0].trim().toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        boolean serverReset = serverNoContextTakeover;
+        boolean clientReset = false;
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            String value = null;
+            int eq = parameter.indexOf('=');
+            if (eq > 0) {
+                value = unquote(parameter.substring(eq + 1).trim());
+                parameter = parameter.substring(0, eq).trim();
+            }
+            switch (parameter.toLowerCase(Locale.ROOT)) {
+            case "server_no_context_takeover" -> serverReset = true;
+            case "client_no_context_takeover" -> clientReset = true;
+            case "server_max_window_bits" -> {
+                if (value == null || windowBits(value) != MAX_WINDOW_BITS) {
+                    return null;
+                }
+            }
+            case "client_max_window_bits" -> {
+                if (value != null && windowBits(value) < 0) {
+                    return null;
+                }
+            }
+            default -> {
+                // unknown parameter, decline this offer
+                return null;
+            }
+            }
+        }
+        return new PerMessageDeflate(level, serverReset, clientReset);
+    }
+
+    private static int windowBits(String value) {
+        try {
+            int bits = Integer.parseInt(value);
+            return (bits < 8 || bits > MAX_WINDOW_BITS) ? -1 : bits;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2022 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.nima.websocket.webserver;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+
+import io.helidon.common.buffers.BufferData;
+import io.helidon.nima.websocket.WsSession;
+
+/**
+ * A group of WebSocket sessions that receive the same messages.
+ * <p>
+ * Each broadcast message is encoded into a frame only once (and compressed only once for members that negotiated
+ * {@code permessage-deflate}), and the same bytes are written to the socket of each member.
+ * Writes are done on a virtual thread of each member, so a slow member does not delay the others; what happens
+ * when a member cannot keep up is defined by its {@link io.helidon.nima.websocket.webserver.WsBroadcastGroup.Backpressure}.
+ * <p>
+ * Members are removed when their connection is closed or a write fails. Broadcast messages must not be mixed with
+ * fragmented messages sent directly to a member, a broadcast message waits until such a message is completed.
+ * Only sessions of the Níma WebSocket server can be members of a group.
+ * <p>
+ * A group uses its own executor to write messages, the group should be {@link #close() closed} when no longer used.
+ */
+public final class WsBroadcastGroup implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(WsBroadcastGroup.class.getName());
+
+    private final Map<WsConnection, Member> members = new ConcurrentHashMap<>();
+    private final AtomicInteger compressingMembers = new AtomicInteger();
+    private final ReentrantLock broadcastLock = new ReentrantLock();
+    private final ExecutorService executor;
+    private final Backpressure backpressure;
+    private final int maxBuffered;
+    private final Deflater deflater;
+
+    private volatile boolean closed;
+
+    private WsBroadcastGroup(Builder builder) {
+        this.backpressure = builder.backpressure;
+        this.maxBuffered = builder.maxBuffered;
+        this.deflater = builder.compress ? new Deflater(builder.deflateLevel, true) : null;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                                                   .name("ws-broadcast-", 0)
+                                                                   .factory());
+    }
+
+    /**
+     * A new fluent API builder.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a group with default configuration.
+     *
+     * @return a new group
+     */
+    public static WsBroadcastGroup create() {
+        return builder().build();
+    }
+
+    /**
+     * Add a member using the backpressure configured for this group.
+     *
+     * @param session session to add
+     * @return {@code true} if added, {@code false} if already a member or this group is closed
+     */
+    public boolean add(WsSession session) {
+        return add(session, backpressure, maxBuffered);
+    }
+
+    /**
+     * Add a member with its own backpressure.
+     *
+     * @param session      session to add
+     * @param backpressure what to do when the member cannot keep up
+     * @param maxBuffered  maximal number of messages waiting for the member, used by
+     *                     {@link io.helidon.nima.websocket.webserver.WsBroadcastGroup.Backpressure#BUFFER}
+     *                     and {@link io.helidon.nima.websocket.webserver.WsBroadcastGroup.Backpressure#DISCONNECT}
+     * @return {@code true} if added, {@code false} if already a member or this group is closed
+     * @throws java.lang.IllegalArgumentException in case the session is not a Níma WebSocket server session
+     */
+    public boolean add(WsSession session, Backpressure backpressure, int maxBuffered) {
+        if (!(session instanceof WsConnection connection)) {
+            throw new IllegalArgumentException("Only sessions of Níma WebSocket server can be added to a broadcast group, "
+                                                       + "got: " + session.getClass().getName());
+        }
+        if (maxBuffered < 0) {
+            throw new IllegalArgumentException("Max buffered messages must not be negative: " + maxBuffered);
+        }
+        if (closed || connection.closed()) {
+            return false;
+        }
+        Member member = new Member(connection, backpressure, maxBuffered);
+        if (members.putIfAbsent(connection, member) != null) {
+            return false;
+        }
+        if (connection.compressing()) {
+            compressingMembers.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Remove a member.
+     *
+     * @param session session to remove
+     * @return {@code true} if removed, {@code false} if not a member
+     */
+    public boolean remove(WsSession session) {
+        Member member = members.get(session);
+        if (member == null) {
+            return false;
+        }
+        return remove(member);
+    }
+
+    /**
+     * Number of members.
+     *
+     * @return current number of members
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Send a text message to all members.
+     *
+     * @param text text to send
+     * @return number of members the message was sent or queued to
+     */
+    public int broadcast(String text) {
+        if (closed) {
+            return 0;
+        }
+        broadcastLock.lock();
+        try {
+            return broadcast(BroadcastFrame.text(text, compressionDeflater()));
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    /**
+     * Send a binary message to all members.
+     *
+     * @param data data to send, all available bytes are consumed
+     * @return number of members the message was sent or queued to
+     */
+    public int broadcast(BufferData data) {
+        if (closed) {
+            return 0;
+        }
+        broadcastLock.lock();
+        try {
+            return broadcast(BroadcastFrame.binary(data, compressionDeflater()));
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    /**
+     * Close this group. All members are removed (their connections are not closed), messages that are already queued
+     * for a member are still written, and the executor used to write messages is shut down (together with the deflater
+     * used to compress messages).
+     * Messages broadcast after the group is closed are not sent.
+     */
+    @Override
+    public void close() {
+        broadcastLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            members.clear();
+            compressingMembers.set(0);
+            executor.shutdown();
+            if (deflater != null) {
+                // only used under the broadcast lock, and never again once closed
+                deflater.end();
+            }
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    // must be called while holding the broadcast lock, so all members receive messages in the same order
+    private int broadcast(BroadcastFrame frame) {
+        if (closed) {
+            return 0;
+        }
+        int delivered = 0;
+        for (Member member : members.values()) {
+            if (member.offer(frame)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    // only compress if there is anybody to use it
+    private Deflater compressionDeflater() {
+        return compressingMembers.get() > 0 ? deflater : null;
+    }
+
+    private boolean remove(Member member) {
+        if (members.remove(member.connection, member)) {
+            if (member.connection.compressing()) {
+                compressingMembers.decrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * What to do with a message when a member is still writing previous messages.
+     */
+    public enum Backpressure {
+        /**
+         * The message is not sent to the member, no messages are buffered.
+         */
+        DROP,
+        /**
+         * The message is buffered, up to the configured number of messages; further messages are not sent to the member.
+         */
+        BUFFER,
+        /**
+         * The message is buffered, up to the configured number of messages; if more are needed, the member is considered
+         * a slow consumer, it is removed from the group and its connection is closed (without a close frame, as the member
+         * does not read).
+         */
+        DISCONNECT
+    }
+
+    /**
+     * Fluent API builder for {@link io.helidon.nima.websocket.webserver.WsBroadcastGroup}.
+     */
+    public static class Builder implements io.helidon.common.Builder<Builder, WsBroadcastGroup> {
+        private Backpressure backpressure = Backpressure.BUFFER;
+        private int maxBuffered = 16;
+        private boolean compress = true;
+        private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+
+        private Builder() {
+        }
+
+        @Override
+        public WsBroadcastGroup build() {
+            return new WsBroadcastGroup(this);
+        }
+
+        /**
+         * Default backpressure of members. Defaults to
+         * {@link io.helidon.nima.websocket.webserver.WsBroadcastGroup.Backpressure#BUFFER}.
+         *
+         * @param backpressure backpressure
+         * @return updated builder
+         */
+        public Builder backpressure(Backpressure backpressure) {
+            this.backpressure = backpressure;
+            return this;
+        }
+
+        /**
+         * Default maximal number of buffered messages of a member. Defaults to {@code 16}.
+         *
+         * @param maxBuffered maximal number of messages waiting to be written to a member
+         * @return updated builder
+         */
+        public Builder maxBuffered(int maxBuffered) {
+            if (maxBuffered < 0) {
+                throw new IllegalArgumentException("Max buffered messages must not be negative: " + maxBuffered);
+            }
+            this.maxBuffered = maxBuffered;
+            return this;
+        }
+
+        /**
+         * Whether to compress messages for members that negotiated {@code permessage-deflate}. Defaults to {@code true}.
+         * Each message is compressed on its own (without context from previous messages), so the same bytes can be sent
+         * to every member.
+         *
+         * @param compress whether to compress
+         * @return updated builder
+         */
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * Compression level, see {@link java.util.zip.Deflater}. Defaults to {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param deflateLevel compression level from {@code 0} to {@code 9}, or {@code -1} for the default
+         * @return updated builder
+         */
+        public Builder deflateLevel(int deflateLevel) {
+            if (deflateLevel < Deflater.DEFAULT_COMPRESSION || deflateLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level: " + deflateLevel);
+            }
+            this.deflateLevel = deflateLevel;
+            return this;
+        }
+    }
+
+    private final class Member {
+        private final WsConnection connection;
+        private final Backpressure backpressure;
+        private final int maxBuffered;
+        private final ArrayDeque<BroadcastFrame> buffered = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private boolean writing;
+
+        private Member(WsConnection connection, Backpressure backpressure, int maxBuffered) {
+            this.connection = connection;
+            this.backpressure = backpressure;
+            this.maxBuffered = maxBuffered;
+        }
+
+        boolean offer(BroadcastFrame frame) {
+            if (connection.closed()) {
+                remove(this);
+                return false;
+            }
+            lock.lock();
+            try {
+                if (!writing) {
+                    writing = true;
+                    executor.submit(() -> write(frame));
+                    return true;
+                }
+                if (backpressure != Backpressure.DROP && buffered.size() < maxBuffered) {
+                    buffered.add(frame);
+                    return true;
+                }
+                if (backpressure == Backpressure.DISCONNECT) {
+                    buffered.clear();
+                    disconnect();
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write(BroadcastFrame first) {
+            BroadcastFrame frame = first;
+            while (frame != null) {
+                try {
+                    if (!connection.send(frame)) {
+                        remove(this);
+                        return;
+                    }
+                } catch (Exception e) {
+                    if (LOGGER.isLoggable(Level.DEBUG)) {
+                        LOGGER.log(Level.DEBUG, "Failed to write broadcast message, removing member from group", e);
+                    }
+                    remove(this);
+                    return;
+                }
+                lock.lock();
+                try {
+                    frame = buffered.poll();
+                    if (frame == null) {
+                        writing = false;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        // the writer of this member is blocked and holds the send lock of the connection, so a close frame
+        // could never be sent; the socket is closed instead, which also fails the blocked write
+        private void disconnect() {
+            if (remove(this)) {
+                if (LOGGER.isLoggable(Level.DEBUG)) {
+                    LOGGER.log(Level.DEBUG, "Closing connection of a slow consumer");
+                }
+                try {
+                    connection.terminate();
+                } catch (Exception e) {
+                    if (LOGGER.isLoggable(Level.DEBUG)) {
+                        LOGGER.log(Level.DEBUG, "Failed to close connection of a slow consumer", e);
+                    }
+                }
+            }
+        }
+    }
+}
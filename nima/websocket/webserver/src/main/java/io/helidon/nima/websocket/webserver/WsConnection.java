@@ -18,6 +18,10 @@ package io.helidon.nima.websocket.webserver;
 
 import java.lang.System.Logger.Level;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
 
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.buffers.DataReader;
@@ -32,46 +36,87 @@ import io.helidon.nima.websocket.WsSession;
 
 class WsConnection implements ServerConnection, WsSession {
     private static final System.Logger LOGGER = System.getLogger(WsConnection.class.getName());
+    // larger frames (and decompressed data) are delivered to the listener in chunks of this size, as fragments
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final byte[] NO_BYTES = new byte[0];
 
     private final ConnectionContext ctx;
     private final HttpPrologue prologue;
     private final WritableHeaders<?> headers;
     private final String wsKey;
     private final WsListener listener;
+    private final PerMessageDeflate deflate;
 
     private final BufferData sendBuffer = BufferData.growing(1024);
+    // sends may come from other threads than the one handling this connection (such as broadcast groups)
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final Condition messageComplete = sendLock.newCondition();
     private final DataReader dataReader;
+    // maximal size of a received message (after decompression), -1 for unlimited
+    private final long maxMessageSize;
 
     private ContinuationType recvContinuation = ContinuationType.NONE;
+    private boolean recvCompressed;
+    private long recvMessageSize;
+    // bytes of a UTF-8 character split between text fragments
+    private byte[] textRemainder = NO_BYTES;
+    // state of a frame that is read in chunks
+    private WsOpCode frameOpCode;
+    private boolean frameFin;
+    private boolean frameCompressed;
+    private int frameMaskingKey;
+    private int frameRemaining;
+    private int frameOffset;
+
     private boolean sendContinuation;
+    private boolean sendCompressed;
     private boolean closeSent;
+    private volatile boolean closed;
 
     WsConnection(ConnectionContext ctx,
                  HttpPrologue prologue,
                  WritableHeaders<?> headers,
                  String wsKey,
-                 WebSocket wsRoute) {
+                 WebSocket wsRoute,
+                 PerMessageDeflate deflate) {
         this.ctx = ctx;
         this.prologue = prologue;
         this.headers = headers;
         this.wsKey = wsKey;
         this.listener = wsRoute.listener();
         this.dataReader = ctx.dataReader();
+        this.maxMessageSize = ctx.maxPayloadSize();
+        this.deflate = deflate;
     }
 
     @Override
     public void handle() {
-        listener.onOpen(this);
-        while (true) {
-            ClientFrame frame = readFrame();
-            try {
-                if (!processFrame(frame)) {
+        try {
+            listener.onOpen(this);
+            while (true) {
+                ClientFrame frame = readFrame();
+                try {
+                    if (!processFrame(frame)) {
+                        return;
+                    }
+                } catch (CloseConnectionException e) {
+                    throw e;
+                } catch (Exception e) {
+                    listener.onError(this, e);
+                    this.close(CloseCodes.UNEXPECTED_CONDITION, e.getMessage());
                     return;
                 }
-            } catch (Exception e) {
-                listener.onError(this, e);
-                this.close(CloseCodes.UNEXPECTED_CONDITION, e.getMessage());
-                return;
+            }
+        } finally {
+            sendLock.lock();
+            try {
+                closed = true;
+                if (deflate != null) {
+                    deflate.close();
+                }
+                messageComplete.signalAll();
+            } finally {
+                sendLock.unlock();
             }
         }
     }
@@ -113,35 +158,87 @@ class WsConnection implements ServerConnection, WsSession {
         throw new CloseConnectionException("Aborting from WebSocket");
     }
 
+    /**
+     * Whether the connection was closed, and no more frames can be sent.
+     *
+     * @return whether closed
+     */
+    boolean closed() {
+        return closed;
+    }
+
+    /**
+     * Close the socket of this connection without sending a close frame. Does not wait for a frame that is being sent,
+     * as that may never complete if the peer does not read.
+     */
+    void terminate() {
+        closed = true;
+        ctx.closeSocket();
+    }
+
+    /**
+     * Whether messages sent over this connection are compressed.
+     *
+     * @return whether permessage-deflate was negotiated
+     */
+    boolean compressing() {
+        return deflate != null;
+    }
+
+    /**
+     * Send a frame encoded by a broadcast group. Waits for a fragmented message sent by this session to be completed,
+     * as frames of another message cannot be interleaved with it.
+     *
+     * @param frame shared frame
+     * @return whether the frame was sent, {@code false} if the connection is closed
+     */
+    boolean send(BroadcastFrame frame) {
+        sendLock.lock();
+        try {
+            while (sendContinuation && !closed) {
+                messageComplete.awaitUninterruptibly();
+            }
+            if (closed || closeSent) {
+                return false;
+            }
+            if (LOGGER.isLoggable(Level.TRACE)) {
+                ctx.log(LOGGER, Level.TRACE, "ws frame send %s", frame);
+            }
+            boolean compressed = deflate != null && frame.hasCompressed();
+            if (compressed) {
+                // the peer's window now contains data our deflater has not seen
+                deflate.resetCompression();
+            }
+            ctx.dataWriter().writeNow(frame.data(compressed));
+            return true;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
     private boolean processFrame(ClientFrame frame) {
         // TODO listener.onError should be called for errors
-        BufferData payload = frame.unmasked();
         switch (frame.opCode()) {
         case CONTINUATION -> {
-            boolean finalFrame = frame.fin();
-            ContinuationType ct = recvContinuation;
-            if (finalFrame) {
-                recvContinuation = ContinuationType.NONE;
-            }
-            switch (ct) {
-            case TEXT -> listener.receive(this, payload.readString(payload.available(), StandardCharsets.UTF_8), finalFrame);
-            case BINARY -> listener.receive(this, payload, finalFrame);
-            default -> {
+            if (recvContinuation == ContinuationType.NONE) {
                 close(CloseCodes.PROTOCOL_ERROR, "Unexpected continuation received");
                 throw new CloseConnectionException("Websocket unexpected continuation");
             }
-            }
+            receive(frame);
         }
-        case TEXT -> {
-            recvContinuation = ContinuationType.TEXT;
-            listener.receive(this, payload.readString(payload.available(), StandardCharsets.UTF_8), frame.fin());
-        }
-        case BINARY -> {
-            recvContinuation = ContinuationType.BINARY;
-            listener.receive(this, payload, frame.fin());
+        case TEXT, BINARY -> {
+            if (recvContinuation != ContinuationType.NONE) {
+                close(CloseCodes.PROTOCOL_ERROR, "Expected continuation of a fragmented message");
+                throw new CloseConnectionException("Websocket expected continuation");
+            }
+            recvContinuation = frame.opCode() == WsOpCode.TEXT ? ContinuationType.TEXT : ContinuationType.BINARY;
+            recvCompressed = frame.compressed();
+            recvMessageSize = 0;
+            receive(frame);
         }
         case CLOSE -> {
-            int status = payload.readInt16();
+            BufferData payload = frame.payloadData();
+            int status = payload.available() >= 2 ? payload.readInt16() : CloseCodes.NO_STATUS_CODE;
             String reason;
             if (payload.available() > 0) {
                 reason = payload.readString(payload.available(), StandardCharsets.UTF_8);
@@ -154,14 +251,133 @@ class WsConnection implements ServerConnection, WsSession {
             }
             return false;
         }
-        case PING -> listener.onPing(this, payload);
-        case PONG -> listener.onPong(this, payload);
+        case PING -> listener.onPing(this, frame.payloadData());
+        case PONG -> listener.onPong(this, frame.payloadData());
         default -> throw new IllegalStateException("Invalid frame opCode: " + frame.opCode());
         }
         return true;
     }
 
+    // data frames (and chunks of large data frames) are delivered to the listener as fragments as they arrive
+    private void receive(ClientFrame frame) {
+        boolean last = frame.fin();
+        ContinuationType type = recvContinuation;
+        if (last) {
+            recvContinuation = ContinuationType.NONE;
+        }
+
+        byte[] payload = frame.payload();
+        if (!recvCompressed) {
+            checkMessageSize(payload.length);
+            receive(type, payload, payload.length, last);
+            return;
+        }
+
+        // decompressed data is delivered in chunks as well, the size of the whole message is limited
+        deflate.inflateInput(payload, 0, payload.length, last);
+        while (true) {
+            int length;
+            try {
+                length = deflate.inflate();
+            } catch (DataFormatException e) {
+                close(CloseCodes.PROTOCOL_ERROR, "Invalid compressed data");
+                throw new CloseConnectionException("Websocket invalid compressed data", e);
+            }
+            checkMessageSize(length);
+            boolean fragmentDone = length < MAX_CHUNK_SIZE;
+            if (length > 0 || (last && fragmentDone)) {
+                byte[] inflated = deflate.inflated();
+                receive(type, type == ContinuationType.TEXT ? inflated : Arrays.copyOf(inflated, length), length,
+                        last && fragmentDone);
+            }
+            if (fragmentDone) {
+                return;
+            }
+        }
+    }
+
+    private void receive(ContinuationType type, byte[] payload, int length, boolean last) {
+        if (type == ContinuationType.TEXT) {
+            listener.receive(this, text(payload, length, last), last);
+        } else {
+            listener.receive(this, BufferData.create(payload, 0, length), last);
+        }
+    }
+
+    private void checkMessageSize(int received) {
+        recvMessageSize += received;
+        if (maxMessageSize != -1 && recvMessageSize > maxMessageSize) {
+            close(CloseCodes.TOO_BIG, "Message too large");
+            throw new CloseConnectionException("Websocket message too large");
+        }
+    }
+
+    // text of a fragment, bytes of a character split between fragments are kept for the next one
+    private String text(byte[] bytes, int length, boolean last) {
+        byte[] text = bytes;
+        int textLength = length;
+        if (textRemainder.length > 0) {
+            text = new byte[textRemainder.length + length];
+            System.arraycopy(textRemainder, 0, text, 0, textRemainder.length);
+            System.arraycopy(bytes, 0, text, textRemainder.length, length);
+            textLength = text.length;
+        }
+        int complete = last ? textLength : completeCharacters(text, textLength);
+        textRemainder = complete == textLength ? NO_BYTES : Arrays.copyOfRange(text, complete, textLength);
+        return new String(text, 0, complete, StandardCharsets.UTF_8);
+    }
+
+    // number of bytes that do not end with an incomplete UTF-8 sequence
+    private static int completeCharacters(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0 && i >= length - 3; i--) {
+            int b = bytes[i] & 0xFF;
+            if ((b & 0b11000000) != 0b10000000) {
+                // first byte of a sequence
+                int needed = b >= 0b11110000 ? 4 : (b >= 0b11100000 ? 3 : (b >= 0b11000000 ? 2 : 1));
+                return length - i < needed ? i : length;
+            }
+        }
+        return length;
+    }
+
     private ClientFrame readFrame() {
+        WsOpCode opCode;
+        boolean compressed;
+        if (frameRemaining == 0) {
+            readFrameHeader();
+            opCode = frameOpCode;
+            compressed = frameCompressed;
+        } else {
+            // next chunk of a large frame
+            opCode = WsOpCode.CONTINUATION;
+            compressed = false;
+        }
+
+        // next bytes - actual payload, unmasked in place
+        int chunkLength = Math.min(frameRemaining, MAX_CHUNK_SIZE);
+        byte[] payload = NO_BYTES;
+        if (chunkLength > 0) {
+            payload = new byte[chunkLength];
+            dataReader.readBuffer(chunkLength).read(payload);
+            ClientFrame.unmask(payload, frameMaskingKey, frameOffset);
+        }
+        frameRemaining -= chunkLength;
+        frameOffset += chunkLength;
+
+        ClientFrame frame = new ClientFrame(opCode,
+                                            payload,
+                                            frameFin && frameRemaining == 0,
+                                            compressed,
+                                            frameMaskingKey);
+
+        if (LOGGER.isLoggable(Level.TRACE)) {
+            ctx.log(LOGGER, Level.TRACE, "ws frame recv %s", frame);
+        }
+
+        return frame;
+    }
+
+    private void readFrameHeader() {
         /*
          Frame header
          */
@@ -169,11 +385,14 @@ class WsConnection implements ServerConnection, WsSession {
         int opCodeByte = dataReader.read();
         boolean fin = (opCodeByte & 0b10000000) != 0;
         int extensionFlags = opCodeByte & 0b01110000;
-        if (extensionFlags != 0) {
+        WsOpCode opCode = WsOpCode.get(opCodeByte & 0b00001111);
+        // RSV1 is used by permessage-deflate, only on the first frame of a data message
+        boolean compressed = (extensionFlags & 0b01000000) != 0;
+        if ((extensionFlags & 0b00110000) != 0
+                || compressed && (deflate == null || (opCode != WsOpCode.TEXT && opCode != WsOpCode.BINARY))) {
             close(CloseCodes.PROTOCOL_ERROR, "Extension flags defined where none should be");
             throw new CloseConnectionException("Websocket extension flags defined where none should be");
         }
-        WsOpCode opCode = WsOpCode.get(opCodeByte & 0b00001111);
 
         // byte 1 (possible to byte 9 if maximal number of bytes used for length)
         int lenByte = dataReader.read();
@@ -192,7 +411,6 @@ class WsConnection implements ServerConnection, WsSession {
         } else {
             frameLength = dataReader.readBuffer(8).readLong();
         }
-        // TODO check may payload size, danger of oom
         if (frameLength < 0) {
             close(CloseCodes.PROTOCOL_ERROR, "Negative payload length");
             throw new CloseConnectionException("Negative websocket payload length");
@@ -201,41 +419,57 @@ class WsConnection implements ServerConnection, WsSession {
             close(CloseCodes.TOO_BIG, "Payload too large");
             throw new CloseConnectionException("Websocket payload too large");
         }
+        if (opCode != null && opCode.code() >= WsOpCode.CLOSE.code() && (frameLength > 125 || !fin)) {
+            close(CloseCodes.PROTOCOL_ERROR, "Invalid control frame");
+            throw new CloseConnectionException("Websocket invalid control frame");
+        }
 
-        // next 2 bytes - masking key
-        int[] maskingKey = new int[4];
-        maskingKey[0] = dataReader.read();
-        maskingKey[1] = dataReader.read();
-        maskingKey[2] = dataReader.read();
-        maskingKey[3] = dataReader.read();
+        // next 4 bytes - masking key
+        int maskingKey = (dataReader.read() & 0xFF) << 24;
+        maskingKey |= (dataReader.read() & 0xFF) << 16;
+        maskingKey |= (dataReader.read() & 0xFF) << 8;
+        maskingKey |= dataReader.read() & 0xFF;
 
-        // next frameLength bytes - actual payload
+        this.frameOpCode = opCode;
+        this.frameFin = fin;
+        this.frameCompressed = compressed;
+        this.frameMaskingKey = maskingKey;
         // we can safely cast to int, as we make sure it is smaller or equal to MAX_INT
-        BufferData payload = dataReader.readBuffer((int) frameLength);
-
-        ClientFrame frame = new ClientFrame(opCode,
-                                            frameLength,
-                                            payload,
-                                            fin,
-                                            maskingKey);
+        this.frameRemaining = (int) frameLength;
+        this.frameOffset = 0;
+    }
 
-        if (LOGGER.isLoggable(Level.TRACE)) {
-            ctx.log(LOGGER, Level.TRACE, "ws frame recv %s", frame);
+    private WsSession send(ServerFrame frame) {
+        sendLock.lock();
+        try {
+            return doSend(frame);
+        } finally {
+            sendLock.unlock();
         }
-
-        return frame;
     }
 
-    private WsSession send(ServerFrame frame) {
+    private WsSession doSend(ServerFrame frame) {
         WsOpCode usedCode = frame.opCode();
+        BufferData payload = frame.payloadData();
+        boolean compressed = false;
         if (frame.isPayload()) {
             // check if continuation or set continuation
             if (sendContinuation) {
                 usedCode = WsOpCode.CONTINUATION;
+            } else {
+                // compression is decided for the whole message, only the first frame has RSV1 set
+                sendCompressed = deflate != null;
+                compressed = sendCompressed;
+            }
+            if (sendCompressed) {
+                payload = deflate.deflate(payload, frame.fin());
             }
 
             // do not change type for the first frame
             sendContinuation = !frame.fin();
+            if (!sendContinuation) {
+                messageComplete.signalAll();
+            }
         }
 
         frame.opCode(usedCode);
@@ -246,14 +480,24 @@ class WsConnection implements ServerConnection, WsSession {
 
         sendBuffer.clear();
         int opCodeFull = frame.fin() ? 0b10000000 : 0;
+        if (compressed) {
+            opCodeFull |= 0b01000000;
+        }
         opCodeFull |= usedCode.code();
         sendBuffer.write(opCodeFull);
 
-        if (frame.payloadLength() < 126) {
-            sendBuffer.write((int) frame.payloadLength());
-            //TODO finish other options
+        long length = payload.available();
+        if (length < 126) {
+            sendBuffer.write((int) length);
+        } else if (length <= 0xFFFF) {
+            sendBuffer.write(126);
+            sendBuffer.writeInt16((int) length);
+        } else {
+            sendBuffer.write(127);
+            sendBuffer.writeInt32(0);
+            sendBuffer.writeUnsignedInt32(length);
         }
-        sendBuffer.write(frame.payloadData());
+        sendBuffer.write(payload);
         ctx.dataWriter().writeNow(sendBuffer);
         return this;
     }
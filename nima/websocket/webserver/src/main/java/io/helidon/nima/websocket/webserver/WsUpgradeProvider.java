@@ -23,6 +23,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.zip.Deflater;
 
 import io.helidon.common.buffers.BufferData;
 import io.helidon.common.buffers.DataWriter;
@@ -57,6 +58,11 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
      */
     protected static final HeaderName PROTOCOL = Header.create("Sec-WebSocket-Protocol");
 
+    /**
+     * Websocket extensions header name.
+     */
+    protected static final HeaderName EXTENSIONS = Header.create("Sec-WebSocket-Extensions");
+
     /**
      * Switching response prefix.
      */
@@ -88,6 +94,9 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
 
     private final Set<String> origins;
     private final boolean anyOrigin;
+    private final boolean permessageDeflate;
+    private final int deflateLevel;
+    private final boolean serverNoContextTakeover;
 
     /**
      * @deprecated This constructor is only to be used by {@link java.util.ServiceLoader}, use {@link #builder()}
@@ -100,6 +109,9 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
     WsUpgradeProvider(Builder builder) {
         this.origins = Set.copyOf(builder.origins);
         this.anyOrigin = this.origins.isEmpty();
+        this.permessageDeflate = builder.permessageDeflate;
+        this.deflateLevel = builder.deflateLevel;
+        this.serverNoContextTakeover = builder.serverNoContextTakeover;
     }
 
     /**
@@ -162,15 +174,25 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
 
         // todo support subprotocols (must be provided by route)
         // Sec-WebSocket-Protocol: sub-protocol (list provided in PROTOCOL header, separated by comma space
+        PerMessageDeflate deflate = null;
+        if (permessageDeflate && headers.contains(EXTENSIONS)) {
+            deflate = PerMessageDeflate.negotiate(headers.get(EXTENSIONS).allValues(),
+                                                  deflateLevel,
+                                                  serverNoContextTakeover);
+        }
+
         DataWriter dataWriter = ctx.dataWriter();
-        String switchingProtocols = SWITCHING_PROTOCOL_PREFIX + hash(ctx, wsKey) + SWITCHING_PROTOCOLS_SUFFIX;
+        String switchingProtocols = SWITCHING_PROTOCOL_PREFIX + hash(ctx, wsKey)
+                + (deflate == null ? "" : "\r\n" + EXTENSIONS.defaultCase() + ": " + deflate.response())
+                + SWITCHING_PROTOCOLS_SUFFIX;
         dataWriter.write(BufferData.create(switchingProtocols.getBytes(StandardCharsets.US_ASCII)));
 
         if (LOGGER.isLoggable(Level.TRACE)) {
-            LOGGER.log(Level.TRACE, "Upgraded to websocket version " + version);
+            LOGGER.log(Level.TRACE, "Upgraded to websocket version " + version
+                    + (deflate == null ? "" : " with " + PerMessageDeflate.NAME));
         }
 
-        return new WsConnection(ctx, prologue, headers, wsKey, route);
+        return new WsConnection(ctx, prologue, headers, wsKey, route, deflate);
     }
 
     protected boolean anyOrigin() {
@@ -218,6 +240,9 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
      */
     public static class Builder implements io.helidon.common.Builder<Builder, WsUpgradeProvider> {
         private final Set<String> origins = new HashSet<>();
+        private boolean permessageDeflate = true;
+        private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+        private boolean serverNoContextTakeover;
 
         private Builder() {
         }
@@ -237,5 +262,45 @@ public class WsUpgradeProvider implements Http1UpgradeProvider {
             origins.add(origin);
             return this;
         }
+
+        /**
+         * Whether to accept the {@code permessage-deflate} extension (RFC 7692) when offered by the client.
+         * Defaults to {@code true}.
+         *
+         * @param permessageDeflate whether to support compression of messages
+         * @return updated builder
+         */
+        public Builder permessageDeflate(boolean permessageDeflate) {
+            this.permessageDeflate = permessageDeflate;
+            return this;
+        }
+
+        /**
+         * Compression level used for sent messages, see {@link java.util.zip.Deflater}.
+         * Defaults to {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param deflateLevel compression level from {@code 0} to {@code 9}, or {@code -1} for the default
+         * @return updated builder
+         */
+        public Builder deflateLevel(int deflateLevel) {
+            if (deflateLevel < Deflater.DEFAULT_COMPRESSION || deflateLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level: " + deflateLevel);
+            }
+            this.deflateLevel = deflateLevel;
+            return this;
+        }
+
+        /**
+         * Whether to reset the compression context after each sent message, even if the client did not request it.
+         * This lowers compression ratio of similar messages, in exchange for not keeping the sliding window
+         * between messages. Defaults to {@code false}.
+         *
+         * @param serverNoContextTakeover whether to use {@code server_no_context_takeover}
+         * @return updated builder
+         */
+        public Builder serverNoContextTakeover(boolean serverNoContextTakeover) {
+            this.serverNoContextTakeover = serverNoContextTakeover;
+            return this;
+        }
     }
 }
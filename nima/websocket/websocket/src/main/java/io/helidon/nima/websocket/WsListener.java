@@ -20,6 +20,11 @@ import io.helidon.common.buffers.BufferData;
 
 /**
  * WebSocket listener.
+ * <p>
+ * Messages are delivered as fragments as they arrive, without waiting for the whole message.
+ * A fragment is delivered for each received frame, and large frames are delivered in more than one fragment,
+ * so the listener should not expect fragment boundaries to match frames sent by the client.
+ * Text fragments never end in the middle of a character.
  */
 public interface WsListener {
     /**